@@ -0,0 +1,63 @@
+/*
+ *  AlgorithmBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressSilent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks all algorithms provided by the algorithm registry
+ * Larger inputs can be selected on the command line, e.g. -p input=prokaryotic-network.crs
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmBenchmark {
+	@Param({"coreRAF", "maxCAF", "maxPseudoRAF", "maxRAF", "iRAF", "minRAFGeneratingElement", "mUCAF", "quotientRAF",
+			"nontrivialRAFs", "strictlyAutocatalyticMaxRAF", "trivialCAFs", "trivialRAFs", "uRAF"})
+	public String algorithm;
+
+	@Param({"example-3.crs", "example-8.crs", "polymer-n6", "polymer-n8", "random-er-10000", "random-pl-10000"})
+	public String input;
+
+	private ReactionSystem inputSystem;
+
+	@Setup
+	public void setup() throws IOException {
+		inputSystem = BenchmarkInputs.getReactionSystem(input);
+		if (AlgorithmBase.getAlgorithmByName(algorithm) == null)
+			throw new IOException("Unknown algorithm: " + algorithm);
+	}
+
+	@Benchmark
+	public ReactionSystem apply() throws CanceledException {
+		return AlgorithmBase.getAlgorithmByName(algorithm).apply(inputSystem, new ProgressSilent());
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ *  BenchmarkInputs.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.PolymerModel;
+import catrenet.algorithm.RandomCRSModel;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ModelIO;
+import catrenet.io.ReactionNotation;
+import catrenet.model.ReactionSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * benchmark inputs: bundled example files and generated polymer models
+ * An input is either the name of a file in the examples directory (e.g. example-3.crs), polymer-n<n>,
+ * a binary polymer model with food max length 2, polymer max length n and mean 2 catalyzed reactions per molecule,
+ * or random-er-<R> or random-pl-<R>, a random model with R reactions and Erdos-Renyi or power-law catalysis.
+ * The examples directory can be set using -Dcatrenet.examples=dir
+ * Daniel Huson, 10.2026
+ */
+public class BenchmarkInputs {
+	public static final String POLYMER_PREFIX = "polymer-n";
+	public static final String RANDOM_ER_PREFIX = "random-er-";
+	public static final String RANDOM_PL_PREFIX = "random-pl-";
+
+	/**
+	 * get the text of the named input in full notation
+	 *
+	 * @param input name of example file or polymer-n<n>
+	 * @return text
+	 */
+	public static String getText(String input) throws IOException {
+		if (input.startsWith(POLYMER_PREFIX)) {
+			var n = Integer.parseInt(input.substring(POLYMER_PREFIX.length()));
+			return ModelIO.toString(PolymerModel.apply(2, 2, n, 2.0, 1), true, ReactionNotation.Full, ArrowNotation.UsesMinus);
+		} else if (input.startsWith(RANDOM_ER_PREFIX) || input.startsWith(RANDOM_PL_PREFIX)) {
+			var w = new StringWriter();
+			RandomCRSModel.write(getRandomParameters(input), w);
+			return w.toString();
+		} else
+			return Files.readString(getExamplesDirectory().toPath().resolve(input));
+	}
+
+	/**
+	 * get the parameters of a random-er-<R> or random-pl-<R> input
+	 */
+	public static RandomCRSModel.Parameters getRandomParameters(String input) {
+		var catalysis = (input.startsWith(RANDOM_ER_PREFIX) ? RandomCRSModel.Catalysis.ErdosRenyi : RandomCRSModel.Catalysis.PowerLaw);
+		return RandomCRSModel.Parameters.of(catalysis, Integer.parseInt(input.substring(RANDOM_ER_PREFIX.length())), 1);
+	}
+
+	/**
+	 * parse the named input
+	 *
+	 * @param input name of example file or polymer-n<n>
+	 * @return reaction system
+	 */
+	public static ReactionSystem getReactionSystem(String input) throws IOException {
+		return parse(getText(input));
+	}
+
+	/**
+	 * parse a reaction system from text, detecting the notation
+	 *
+	 * @param text text
+	 * @return reaction system
+	 */
+	public static ReactionSystem parse(String text) throws IOException {
+		var lines = text.lines().limit(10).toList();
+		var notation = ReactionNotation.detectNotation(lines);
+		if (notation == null)
+			throw new IOException("Couldn't detect 'full', 'sparse' or 'tabbed' file format");
+		var reactionSystem = new ReactionSystem();
+		ModelIO.read(reactionSystem, new StringReader(text), notation.getFirst());
+		return reactionSystem;
+	}
+
+	/**
+	 * get all reaction lines of the text, skipping comments and food
+	 */
+	public static List<String> getReactionLines(String text) {
+		return text.lines().map(String::trim).filter(line -> !line.isEmpty() && !line.startsWith("#") && !line.startsWith("Food:") && !line.startsWith("F:")).toList();
+	}
+
+	private static File getExamplesDirectory() throws IOException {
+		var property = System.getProperty("catrenet.examples");
+		if (property != null)
+			return new File(property);
+		for (var name : new String[]{"examples", "../examples"}) {
+			var dir = new File(name);
+			if (dir.isDirectory())
+				return dir;
+		}
+		throw new IOException("Examples directory not found, use -Dcatrenet.examples=dir");
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ *  DependenciesBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.ComputeMoleculeDependencies;
+import catrenet.algorithm.ComputeReactionDependencies;
+import catrenet.model.ReactionSystem;
+import jloda.graph.Graph;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressSilent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the computation of reaction and molecule dependency networks
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class DependenciesBenchmark {
+	@Param({"example-3.crs", "example-5.crs", "example-8.crs", "polymer-n5"})
+	public String input;
+
+	private ReactionSystem inputSystem;
+
+	@Setup
+	public void setup() throws IOException {
+		inputSystem = BenchmarkInputs.getReactionSystem(input);
+	}
+
+	@Benchmark
+	public Graph reactionDependencies() throws CanceledException {
+		return ComputeReactionDependencies.apply(new ProgressSilent(), inputSystem, null);
+	}
+
+	@Benchmark
+	public Graph moleculeDependencies() throws CanceledException {
+		return ComputeMoleculeDependencies.apply(new ProgressSilent(), inputSystem, null);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ *  GraphSetupBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.ReactionSystem;
+import catrenet.view.SetupAssocationGraph;
+import catrenet.view.SetupFullGraph;
+import jloda.graph.Graph;
+import jloda.graph.Node;
+import jloda.graph.NodeSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks setup of the full network and of the association networks, without any layout or rendering
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphSetupBenchmark {
+	@Param({"example-8.crs", "prokaryotic-network.crs", "polymer-n8", "polymer-n10"})
+	public String input;
+
+	private ReactionSystem inputSystem;
+
+	@Setup
+	public void setup() throws IOException {
+		inputSystem = BenchmarkInputs.getReactionSystem(input);
+	}
+
+	@Benchmark
+	public Graph fullGraph() {
+		var graph = new Graph();
+		SetupFullGraph.apply(graph, inputSystem, new NodeSet(graph), new HashMap<MoleculeType, Node>(), false, false);
+		return graph;
+	}
+
+	@Benchmark
+	public Graph associationGraph() {
+		var graph = new Graph();
+		SetupAssocationGraph.apply(graph, inputSystem, true);
+		return graph;
+	}
+
+	@Benchmark
+	public Graph reactantAssociationGraph() {
+		var graph = new Graph();
+		SetupAssocationGraph.apply(graph, inputSystem, false);
+		return graph;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ *  ImportanceBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.Importance;
+import catrenet.algorithm.MaxRAFAlgorithm;
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.Pair;
+import jloda.util.progress.ProgressSilent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the computation of food and reaction importance with respect to the max RAF
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportanceBenchmark {
+	@Param({"example-3.crs", "example-8.crs", "polymer-n6", "polymer-n8"})
+	public String input;
+
+	private ReactionSystem inputSystem;
+	private ReactionSystem maxRAF;
+
+	@Setup
+	public void setup() throws IOException {
+		inputSystem = BenchmarkInputs.getReactionSystem(input);
+		maxRAF = new MaxRAFAlgorithm().apply(inputSystem, new ProgressSilent());
+	}
+
+	@Benchmark
+	public ArrayList<Pair<MoleculeType, Float>> foodImportance() throws CanceledException {
+		return Importance.computeFoodImportance(inputSystem, maxRAF, new MaxRAFAlgorithm(), new ProgressSilent());
+	}
+
+	@Benchmark
+	public ArrayList<Pair<Reaction, Float>> reactionImportance() throws CanceledException {
+		return Importance.computeReactionImportance(inputSystem, maxRAF, new MaxRAFAlgorithm(), new ProgressSilent());
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ *  ParseBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.io.BinaryModelIO;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks parsing of reactions and of complete models, in text and binary format
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+	@Param({"example-3.crs", "example-8.crs", "prokaryotic-network.crs", "polymer-n8", "polymer-n10", "random-er-100000"})
+	public String input;
+
+	private String text;
+	private List<String> reactionLines;
+	private byte[] binary;
+
+	@Setup
+	public void setup() throws IOException {
+		text = BenchmarkInputs.getText(input);
+		reactionLines = BenchmarkInputs.getReactionLines(text);
+		var outs = new ByteArrayOutputStream();
+		BinaryModelIO.write(BenchmarkInputs.parse(text), outs);
+		binary = outs.toByteArray();
+	}
+
+	@Benchmark
+	public ReactionSystem modelIORead() throws IOException {
+		return BenchmarkInputs.parse(text);
+	}
+
+	@Benchmark
+	public ReactionSystem binaryRead() throws IOException {
+		var reactionSystem = new ReactionSystem();
+		BinaryModelIO.read(reactionSystem, new ByteArrayInputStream(binary));
+		return reactionSystem;
+	}
+
+	@Benchmark
+	public void reactionParse(Blackhole blackhole) throws IOException {
+		var auxReactions = new HashSet<Reaction>();
+		for (var line : reactionLines) {
+			blackhole.consume(Reaction.parse(line, auxReactions, false));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ *  PolymerModelBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.PolymerModel;
+import catrenet.algorithm.PolymerModelMaxRAF;
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressSilent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks generation of binary polymer models of increasing size, in memory and streamed to binary output,
+ * and of the implicit max RAF computation
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolymerModelBenchmark {
+	@Param({"6", "8", "10", "12", "16"})
+	public int n;
+
+	@Param({"1", "2", "4"})
+	public double m;
+
+	@Benchmark
+	public ReactionSystem apply() {
+		return PolymerModel.apply(2, 2, n, m, 1);
+	}
+
+	@Benchmark
+	public PolymerModelMaxRAF.Result implicitMaxRAF() throws CanceledException {
+		return PolymerModelMaxRAF.apply(new PolymerModel.Parameters(2, 2, n, m, 1), new ProgressSilent());
+	}
+
+	@Benchmark
+	public void binaryStream() throws IOException {
+		PolymerModel.writeBinary(new PolymerModel.Parameters(2, 2, n, m, 1), OutputStream.nullOutputStream());
+	}
+}
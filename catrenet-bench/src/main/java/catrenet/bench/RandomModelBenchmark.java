@@ -0,0 +1,56 @@
+/*
+ *  RandomModelBenchmark.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.bench;
+
+import catrenet.algorithm.RandomCRSModel;
+import catrenet.model.ReactionSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks generation of random models, in memory and streamed to binary output
+ * Daniel Huson, 10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomModelBenchmark {
+	@Param({"ErdosRenyi", "PowerLaw"})
+	public RandomCRSModel.Catalysis catalysis;
+
+	@Param({"1000", "100000", "1000000"})
+	public int reactions;
+
+	@Benchmark
+	public ReactionSystem inMemory() {
+		return RandomCRSModel.apply(RandomCRSModel.Parameters.of(catalysis, reactions, 1));
+	}
+
+	@Benchmark
+	public void binaryStream() throws IOException {
+		RandomCRSModel.writeBinary(RandomCRSModel.Parameters.of(catalysis, reactions, 1), OutputStream.nullOutputStream());
+	}
+}
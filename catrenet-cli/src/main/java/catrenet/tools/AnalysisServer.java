@@ -0,0 +1,285 @@
+/*
+ *  AnalysisServer.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ModelIO;
+import catrenet.io.ReactionNotation;
+import catrenet.model.ReactionSystem;
+import jloda.util.Basic;
+import jloda.util.NumberUtils;
+import jloda.util.StringUtils;
+import jloda.util.progress.ProgressSilent;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * long-running analysis server that keeps parsed models resident
+ * Reads one request per line from stdin or from connections to a local port, writes one response per request.
+ * A response starts with "ok" or "error", responses that return a model give the number of lines that follow.
+ * Models are shared by all connections, requests on different connections are processed concurrently.
+ * Daniel Huson, 10.2026
+ */
+public class AnalysisServer {
+	public static final String USAGE = """
+			Requests (one per line, arguments separated by whitespace):
+			load <id> <file>             - parse a model from a file
+			define <id> <n>              - parse a model from the following n lines
+			run <id> <algorithm> [<out>] - apply algorithm to model, store result as <out> (default: <id>-<algorithm>)
+			get <id> [<notation>]        - write model, notation one of: full, sparse, tabbed
+			info <id>                    - report sizes of model
+			drop <id>                    - remove model
+			list                         - list all models
+			algorithms                   - list all algorithms
+			help                         - show this
+			quit                         - close this connection
+			shutdown                     - stop the server""";
+
+	/**
+	 * max number of lines of a model sent with define
+	 */
+	public static final int MAX_DEFINE_LINES = 10000000;
+
+	private final Map<String, ReactionSystem> models = new ConcurrentHashMap<>();
+	private final int numberRandomizedInsertionOrders;
+	private final ReactionNotation reactionNotation;
+	private final ArrowNotation arrowNotation;
+
+	private volatile boolean shutdown = false;
+	private ServerSocket serverSocket;
+
+	public AnalysisServer(int numberRandomizedInsertionOrders, ReactionNotation reactionNotation, ArrowNotation arrowNotation) {
+		this.numberRandomizedInsertionOrders = numberRandomizedInsertionOrders;
+		this.reactionNotation = reactionNotation;
+		this.arrowNotation = arrowNotation;
+	}
+
+	/**
+	 * serve requests from an input stream, until quit, shutdown or end of input
+	 */
+	public void runOnStreams(InputStream ins, OutputStream outs) throws IOException {
+		System.err.println("Server ready, reading requests from stdin");
+		serve(new BufferedReader(new InputStreamReader(ins, StandardCharsets.UTF_8)), new BufferedWriter(new OutputStreamWriter(outs, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * serve requests on a local port, until shutdown
+	 *
+	 * @param port    port on the loopback address
+	 * @param threads max number of connections served concurrently
+	 */
+	public void runOnSocket(int port, int threads) throws IOException {
+		var executor = Executors.newFixedThreadPool(threads);
+		try (var serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			this.serverSocket = serverSocket;
+			System.err.println("Server ready, listening on " + serverSocket.getLocalSocketAddress());
+			while (!shutdown) {
+				final Socket socket;
+				try {
+					socket = serverSocket.accept();
+				} catch (IOException ex) {
+					if (shutdown)
+						break;
+					throw ex;
+				}
+				executor.submit(() -> {
+					try (socket) {
+						serve(new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)),
+								new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+					} catch (IOException ex) {
+						System.err.println("Connection closed: " + ex.getMessage());
+					}
+				});
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		System.err.println("Server stopped");
+	}
+
+	/**
+	 * serve all requests on a single connection
+	 */
+	private void serve(BufferedReader r, BufferedWriter w) throws IOException {
+		String line;
+		while (!shutdown && (line = r.readLine()) != null) {
+			line = line.trim();
+			if (line.isBlank() || line.startsWith("#"))
+				continue;
+			var tokens = line.split("\\s+");
+			var command = tokens[0].toLowerCase();
+			if (command.equals("quit"))
+				break;
+			try {
+				w.write(process(command, tokens, r));
+			} catch (ProtocolException ex) {
+				// the following lines can't be interpreted, so the connection is closed rather than reading them as requests
+				w.write("error " + ex.getMessage() + ", closing connection\n");
+				w.flush();
+				break;
+			} catch (Exception ex) {
+				if (!(ex instanceof IOException))
+					Basic.caught(ex);
+				w.write("error " + (ex.getMessage() != null ? ex.getMessage().replaceAll("\\s+", " ") : ex.getClass().getSimpleName()) + "\n");
+			}
+			w.flush();
+			if (command.equals("shutdown"))
+				shutdown();
+		}
+		w.flush();
+	}
+
+	/**
+	 * process a single request
+	 *
+	 * @return response
+	 */
+	private String process(String command, String[] tokens, BufferedReader r) throws IOException {
+		switch (command) {
+			case "load" -> {
+				checkArguments(tokens, 3);
+				var model = CommandLineTool.parseInput(tokens[2], false);
+				models.put(tokens[1], model);
+				return "ok " + tokens[1] + " " + sizes(model) + "\n";
+			}
+			case "define" -> {
+				if (tokens.length != 3 || !NumberUtils.isInteger(tokens[2]) || NumberUtils.parseInt(tokens[2]) < 1 || NumberUtils.parseInt(tokens[2]) > MAX_DEFINE_LINES)
+					throw new ProtocolException("define: expected <id> and a number of lines between 1 and " + MAX_DEFINE_LINES);
+				var count = NumberUtils.parseInt(tokens[2]);
+				var lines = new ArrayList<String>();
+				for (var i = 0; i < count; i++) {
+					var aLine = r.readLine();
+					if (aLine == null)
+						throw new ProtocolException("define: unexpected end of input");
+					lines.add(aLine);
+				}
+				var model = CommandLineTool.parseLines(lines, tokens[1], false);
+				models.put(tokens[1], model);
+				return "ok " + tokens[1] + " " + sizes(model) + "\n";
+			}
+			case "run" -> {
+				checkArguments(tokens, 3);
+				var model = getModel(tokens[1]);
+				var algorithm = AlgorithmBase.getAlgorithmByName(tokens[2]);
+				if (algorithm == null)
+					throw new IOException("unknown algorithm: " + tokens[2]);
+				var resultId = (tokens.length > 3 ? tokens[3] : tokens[1] + "-" + tokens[2]);
+				var start = System.currentTimeMillis();
+				var results = CommandLineTool.apply(algorithm, model, numberRandomizedInsertionOrders, new ProgressSilent());
+				var millis = System.currentTimeMillis() - start;
+				if (results.isEmpty())
+					throw new IOException("run: no result");
+				models.put(resultId, results.get(0));
+				return "ok " + resultId + " " + sizes(results.get(0)) + " millis=" + millis + "\n";
+			}
+			case "get" -> {
+				checkArguments(tokens, 2);
+				var model = getModel(tokens[1]);
+				var notation = (tokens.length > 2 ? StringUtils.valueOfIgnoreCase(ReactionNotation.class, tokens[2]) : reactionNotation);
+				if (notation == null)
+					throw new IOException("unknown notation: " + tokens[2]);
+				var sw = new StringWriter();
+				ModelIO.write(model, sw, true, notation, arrowNotation);
+				return lines(tokens[1], List.of(sw.toString().split("\n")));
+			}
+			case "info" -> {
+				checkArguments(tokens, 2);
+				return "ok " + tokens[1] + " " + sizes(getModel(tokens[1])) + "\n";
+			}
+			case "drop" -> {
+				checkArguments(tokens, 2);
+				if (models.remove(tokens[1]) == null)
+					throw new IOException("no such model: " + tokens[1]);
+				return "ok " + tokens[1] + "\n";
+			}
+			case "list" -> {
+				var list = new ArrayList<String>();
+				for (var entry : new TreeMap<>(models).entrySet()) {
+					list.add(entry.getKey() + " " + sizes(entry.getValue()));
+				}
+				return lines("models", list);
+			}
+			case "algorithms" -> {
+				return lines("algorithms", new ArrayList<>(AlgorithmBase.listAllAlgorithms()));
+			}
+			case "help" -> {
+				return lines("help", List.of(USAGE.split("\n")));
+			}
+			case "shutdown" -> {
+				return "ok shutdown\n";
+			}
+			default -> throw new IOException("unknown request: " + command);
+		}
+	}
+
+	private void shutdown() {
+		shutdown = true;
+		if (serverSocket != null) {
+			try {
+				serverSocket.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	private ReactionSystem getModel(String id) throws IOException {
+		var model = models.get(id);
+		if (model == null)
+			throw new IOException("no such model: " + id);
+		return model;
+	}
+
+	/**
+	 * a malformed request after which the rest of the input can't be interpreted
+	 */
+	private static class ProtocolException extends IOException {
+		public ProtocolException(String message) {
+			super(message);
+		}
+	}
+
+	private static void checkArguments(String[] tokens, int count) throws IOException {
+		if (tokens.length < count)
+			throw new IOException(tokens[0] + ": expected " + (count - 1) + " argument(s)");
+	}
+
+	private static String sizes(ReactionSystem model) {
+		return "reactions=" + model.size() + " food=" + model.getFoods().size();
+	}
+
+	private static String lines(String label, List<String> lines) {
+		var buf = new StringBuilder("ok " + label + " " + lines.size() + "\n");
+		for (var line : lines) {
+			buf.append(line).append("\n");
+		}
+		return buf.toString();
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ *  BatchRunner.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ReactionNotation;
+import catrenet.model.ReactionSystem;
+import jloda.util.Basic;
+import jloda.util.FileUtils;
+import jloda.util.PeakMemoryUsageMonitor;
+import jloda.util.StringUtils;
+import jloda.util.progress.ProgressPercentage;
+import jloda.util.progress.ProgressSilent;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * runs all combinations of input files and algorithms on a bounded thread pool
+ * Each input file is parsed once and shared by all algorithms run on it.
+ * Writes one output file per job and a summary table in TSV format
+ * Daniel Huson, 10.2026
+ */
+public class BatchRunner {
+	/**
+	 * run all jobs
+	 *
+	 * @param inputFiles      input files
+	 * @param algorithmNames  algorithms to apply to each input file
+	 * @param outputDirectory directory for job outputs
+	 * @param summaryFile     summary file (stdout ok)
+	 * @param threads         number of jobs to run in parallel
+	 */
+	public static void apply(List<String> inputFiles, List<String> algorithmNames, String outputDirectory, String summaryFile, int threads,
+							 int numberRandomizedInsertionOrders, ReactionNotation reactionNotation, ArrowNotation arrowNotation) throws IOException {
+		var outputNames = computeOutputNames(inputFiles);
+		var measurePeakHeap = (threads == 1);
+		var jobs = new ArrayList<Job>();
+		for (var i = 0; i < inputFiles.size(); i++) {
+			var inputModel = new InputModel(inputFiles.get(i), algorithmNames.size());
+			for (var algorithmName : algorithmNames) {
+				var outputFile = new File(outputDirectory, outputNames.get(i) + "-" + algorithmName + ".crs").getPath();
+				jobs.add(new Job(inputModel, algorithmName, outputFile, measurePeakHeap));
+			}
+		}
+		System.err.printf("Batch: %,d input files x %,d computations = %,d jobs, %d threads%n", inputFiles.size(), algorithmNames.size(), jobs.size(), threads);
+
+		var executor = Executors.newFixedThreadPool(threads);
+		try (var progress = new ProgressPercentage("Running jobs", "");
+			 var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(summaryFile)) {
+			progress.setMaximum(jobs.size());
+
+			var futures = new ArrayList<Future<String>>(jobs.size());
+			for (var job : jobs) {
+				futures.add(executor.submit(() -> job.run(numberRandomizedInsertionOrders, reactionNotation, arrowNotation)));
+			}
+
+			w.write(Job.HEADER + "\n");
+			if (!measurePeakHeap)
+				w.write("# peak_heap_mb is only measured when running one job at a time (--threads 1)\n");
+			var failed = 0;
+			for (var future : futures) {
+				try {
+					var row = future.get();
+					if (!row.split("\t")[2].equals("ok"))
+						failed++;
+					w.write(row + "\n");
+				} catch (InterruptedException | ExecutionException ex) {
+					throw new IOException(ex);
+				}
+				progress.incrementProgress();
+			}
+			w.write("# total time: " + PeakMemoryUsageMonitor.getSecondsSinceStartString() + "\n");
+			w.write("# peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString() + "\n");
+			if (failed > 0)
+				System.err.printf("Failed jobs: %,d (see summary)%n", failed);
+		} finally {
+			executor.shutdownNow();
+		}
+		if (!summaryFile.equalsIgnoreCase("stdout"))
+			System.err.println("Summary written to: " + summaryFile);
+	}
+
+	/**
+	 * computes the names of the output files, without algorithm and suffix, for the given input files. This is the name of the input file
+	 * without path and suffix, or, if that is not unique, the path of the input file with all separators replaced by underscores
+	 *
+	 * @return output names, in the same order as the input files
+	 * @throws IOException if an input file is given more than once or output names are still not unique
+	 */
+	static List<String> computeOutputNames(List<String> inputFiles) throws IOException {
+		var seen = new HashSet<Path>();
+		for (var inputFile : inputFiles) {
+			if (!seen.add(Path.of(inputFile).toAbsolutePath().normalize()))
+				throw new IOException("Input file given more than once: " + inputFile);
+		}
+		var count = new HashMap<String, Integer>();
+		for (var inputFile : inputFiles)
+			count.merge(FileUtils.getFileNameWithoutPathOrSuffix(inputFile), 1, Integer::sum);
+
+		var names = new ArrayList<String>(inputFiles.size());
+		var used = new HashMap<String, String>();
+		for (var inputFile : inputFiles) {
+			var name = FileUtils.getFileNameWithoutPathOrSuffix(inputFile);
+			if (count.get(name) > 1) {
+				var parent = Path.of(inputFile).normalize().getParent();
+				if (parent != null)
+					name = (parent + File.separator + name).replaceAll("^[./\\\\]+", "").replaceAll("[/\\\\:]+", "_");
+			}
+			var previous = used.put(name, inputFile);
+			if (previous != null)
+				throw new IOException("Input files " + previous + " and " + inputFile + " would be written to the same output files: " + name + "-*");
+			names.add(name);
+		}
+		return names;
+	}
+
+	/**
+	 * expands directories, glob patterns (in the last path component) and @file lists into a list of input files
+	 *
+	 * @param inputs input specifications
+	 * @return input files
+	 */
+	public static List<String> expandInputFiles(Collection<String> inputs) throws IOException {
+		var result = new ArrayList<String>();
+		for (var input : inputs) {
+			if (input.startsWith("@")) {
+				for (var line : FileUtils.getLinesFromFile(input.substring(1))) {
+					line = line.trim();
+					if (!line.isBlank() && !line.startsWith("#"))
+						result.add(line);
+				}
+			} else if (new File(input).isDirectory()) {
+				var files = new TreeSet<String>();
+				try (var stream = Files.newDirectoryStream(Path.of(input))) {
+					for (var path : stream) {
+						if (Files.isRegularFile(path) && !Files.isHidden(path))
+							files.add(path.toString());
+					}
+				}
+				result.addAll(files);
+			} else if (!new File(input).exists() && StringUtils.countOccurrences(new File(input).getName(), '*') + StringUtils.countOccurrences(new File(input).getName(), '?') > 0) {
+				var parent = new File(input).getParentFile();
+				var files = new TreeSet<String>();
+				try (var stream = Files.newDirectoryStream(parent != null ? parent.toPath() : Path.of("."), new File(input).getName())) {
+					for (var path : stream) {
+						if (Files.isRegularFile(path))
+							files.add(path.toString());
+					}
+				}
+				if (files.isEmpty())
+					throw new IOException("No files match: " + input);
+				result.addAll(files);
+			} else
+				result.add(input);
+		}
+		if (result.isEmpty())
+			throw new IOException("No input files");
+		return result;
+	}
+
+	/**
+	 * an input file, parsed on first use and released once all jobs using it are done
+	 */
+	private static class InputModel {
+		private final String fileName;
+		private final AtomicInteger pendingJobs;
+		private ReactionSystem reactionSystem;
+		private IOException exception;
+		private long parseMillis;
+
+		public InputModel(String fileName, int jobs) {
+			this.fileName = fileName;
+			this.pendingJobs = new AtomicInteger(jobs);
+		}
+
+		public synchronized ReactionSystem get() throws IOException {
+			if (reactionSystem == null && exception == null) {
+				var start = System.currentTimeMillis();
+				try {
+					reactionSystem = CommandLineTool.parseInput(fileName, false);
+				} catch (IOException ex) {
+					exception = ex;
+				}
+				parseMillis = System.currentTimeMillis() - start;
+			}
+			if (exception != null)
+				throw exception;
+			return reactionSystem;
+		}
+
+		public synchronized long getParseMillis() {
+			return parseMillis;
+		}
+
+		public void release() {
+			if (pendingJobs.decrementAndGet() == 0) {
+				synchronized (this) {
+					reactionSystem = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * a single job: one algorithm applied to one input file
+	 */
+	private record Job(InputModel inputModel, String algorithmName, String outputFile, boolean measurePeakHeap) {
+		public static final String HEADER = "#file\talgorithm\tstatus\tinput_reactions\tinput_food\toutput_reactions\toutput_food\tparse_ms\trun_ms\tpeak_heap_mb\toutput_file";
+
+		/**
+		 * runs the job. If measurePeakHeap is set, then this must be the only job running: the heap is collected and the peak usage of all heap
+		 * memory pools is reset before the job, so that the summed peaks afterward bound the heap used while the job ran, including the parsed input
+		 *
+		 * @return summary row
+		 */
+		public String run(int numberRandomizedInsertionOrders, ReactionNotation reactionNotation, ArrowNotation arrowNotation) {
+			var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+			if (measurePeakHeap) {
+				System.gc();
+				heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+			}
+			var status = "ok";
+			var inputReactions = "";
+			var inputFood = "";
+			var outputReactions = "";
+			var outputFood = "";
+			var runMillis = 0L;
+			try {
+				var inputSystem = inputModel.get();
+				inputReactions = String.valueOf(inputSystem.size());
+				inputFood = String.valueOf(inputSystem.getFoods().size());
+
+				var algorithm = AlgorithmBase.getAlgorithmByName(algorithmName);
+				var start = System.currentTimeMillis();
+				var outputSystems = CommandLineTool.apply(algorithm, inputSystem, numberRandomizedInsertionOrders, new ProgressSilent());
+				runMillis = System.currentTimeMillis() - start;
+
+				if (!outputSystems.isEmpty()) {
+					outputReactions = String.valueOf(outputSystems.get(0).size());
+					outputFood = String.valueOf(outputSystems.get(0).getFoods().size());
+				}
+				CommandLineTool.write(outputSystems, outputFile, reactionNotation, arrowNotation);
+			} catch (Exception ex) {
+				status = "error: " + (ex.getMessage() != null ? ex.getMessage().replaceAll("\\s+", " ") : ex.getClass().getSimpleName());
+				if (!(ex instanceof IOException))
+					Basic.caught(ex);
+			} finally {
+				inputModel.release();
+			}
+			var peakHeapMB = (measurePeakHeap ? String.valueOf(heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024 * 1024)) : "");
+			return StringUtils.toString(List.of(inputModel.fileName, algorithmName, status, inputReactions, inputFood, outputReactions, outputFood,
+					inputModel.getParseMillis(), runMillis, peakHeapMB, outputFile), "\t");
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ *  CommandLineOptions.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import jloda.util.UsageException;
+
+import java.util.*;
+
+/**
+ * command-line option parser for the headless tools, with the same usage as the ArgsOptions class of jloda-fx, so that the tools
+ * don't depend on a graphics toolkit. Each option is given by a short name such as -i or a long name such as --input
+ * Daniel Huson, 10.2026
+ */
+public class CommandLineOptions {
+	public static final String OTHER = "Other:";
+
+	private final String programName;
+	private final String description;
+	private final ArrayList<String> args;
+	private final boolean doHelp;
+	private final boolean showVersion;
+	private final StringBuilder usage = new StringBuilder();
+
+	private String version = "";
+	private String license = "";
+	private String authors = "";
+
+	/**
+	 * constructor
+	 *
+	 * @param args        the command-line arguments
+	 * @param caller      the program or its class, used for the program name
+	 * @param description description of the program
+	 */
+	public CommandLineOptions(String[] args, Object caller, String description) {
+		this.programName = (caller instanceof Class<?> clazz ? clazz : caller.getClass()).getSimpleName();
+		this.description = description;
+		this.args = new ArrayList<>(Arrays.asList(args));
+		doHelp = removeFlag("-h", "--help");
+		showVersion = removeFlag("-V", "--version");
+	}
+
+	public boolean isDoHelp() {
+		return doHelp;
+	}
+
+	public void setVersion(String version) {
+		this.version = (version != null ? version : "");
+	}
+
+	public void setLicense(String license) {
+		this.license = (license != null ? license : "");
+	}
+
+	public void setAuthors(String authors) {
+		this.authors = (authors != null ? authors : "");
+	}
+
+	/**
+	 * adds a section heading to the usage
+	 */
+	public void comment(String comment) {
+		usage.append(comment.endsWith(":") ? comment : comment + ":").append("\n");
+	}
+
+	public String getOption(String shortKey, String longKey, String description, String defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, "string", description, defaultValue);
+		var value = takeValue(shortKey, longKey);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * gets a string option that must be one of the given legal values, ignoring case
+	 */
+	public String getOption(String shortKey, String longKey, String description, Object[] legalValues, String defaultValue) throws UsageException {
+		return getOption(shortKey, longKey, description, Arrays.stream(legalValues).map(String::valueOf).toList(), defaultValue);
+	}
+
+	/**
+	 * gets a string option that must be one of the given legal values, ignoring case
+	 */
+	public String getOption(String shortKey, String longKey, String description, Collection<String> legalValues, String defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, String.join("|", legalValues), description, defaultValue);
+		var value = takeValue(shortKey, longKey);
+		if (value == null)
+			return defaultValue;
+		for (var legalValue : legalValues) {
+			if (legalValue.equalsIgnoreCase(value))
+				return legalValue;
+		}
+		throw new UsageException("Option " + longName(longKey) + ": illegal value: " + value + ", legal values: " + String.join(", ", legalValues));
+	}
+
+	public int getOption(String shortKey, String longKey, String description, int defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, "number", description, defaultValue);
+		var value = takeValue(shortKey, longKey);
+		try {
+			return value != null ? Integer.parseInt(value) : defaultValue;
+		} catch (NumberFormatException ex) {
+			throw new UsageException("Option " + longName(longKey) + ": expected an integer, got: " + value);
+		}
+	}
+
+	public long getOption(String shortKey, String longKey, String description, long defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, "number", description, defaultValue);
+		var value = takeValue(shortKey, longKey);
+		try {
+			return value != null ? Long.parseLong(value) : defaultValue;
+		} catch (NumberFormatException ex) {
+			throw new UsageException("Option " + longName(longKey) + ": expected an integer, got: " + value);
+		}
+	}
+
+	public double getOption(String shortKey, String longKey, String description, double defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, "number", description, defaultValue);
+		var value = takeValue(shortKey, longKey);
+		try {
+			return value != null ? Double.parseDouble(value) : defaultValue;
+		} catch (NumberFormatException ex) {
+			throw new UsageException("Option " + longName(longKey) + ": expected a number, got: " + value);
+		}
+	}
+
+	/**
+	 * gets a switch. It is set by the option alone, or by the option followed by true or false
+	 */
+	public boolean getOption(String shortKey, String longKey, String description, boolean defaultValue) {
+		addUsage(shortKey, longKey, null, description, defaultValue);
+		if (doHelp)
+			return defaultValue;
+		var index = indexOf(shortKey, longKey);
+		if (index == -1)
+			return defaultValue;
+		args.remove(index);
+		if (index < args.size() && (args.get(index).equalsIgnoreCase("true") || args.get(index).equalsIgnoreCase("false")))
+			return Boolean.parseBoolean(args.remove(index));
+		return true;
+	}
+
+	/**
+	 * gets a list of values, namely all arguments that follow the option, up to the next option
+	 */
+	public List<String> getOption(String shortKey, String longKey, String description, List<String> defaultValue) throws UsageException {
+		addUsage(shortKey, longKey, "string(s)", description, defaultValue.isEmpty() ? null : String.join(" ", defaultValue));
+		if (doHelp)
+			return defaultValue;
+		var index = indexOf(shortKey, longKey);
+		if (index == -1)
+			return defaultValue;
+		args.remove(index);
+		var values = new ArrayList<String>();
+		while (index < args.size() && !isOption(args.get(index)))
+			values.add(args.remove(index));
+		if (values.isEmpty())
+			throw new UsageException("Option " + longName(longKey) + ": missing value");
+		return values;
+	}
+
+	/**
+	 * call after all options have been requested. Shows the usage or version and exits, if requested, otherwise reports
+	 * any arguments that were not consumed by an option
+	 */
+	public void done() throws UsageException {
+		if (showVersion) {
+			System.err.println(version);
+			System.exit(0);
+		}
+		if (doHelp) {
+			System.err.println(getUsage());
+			System.exit(0);
+		}
+		if (!args.isEmpty())
+			throw new UsageException("Unknown option(s) or argument(s): " + String.join(" ", args));
+	}
+
+	/**
+	 * gets the usage text
+	 */
+	public String getUsage() {
+		var buf = new StringBuilder();
+		buf.append("SYNOPSIS\n\t").append(programName).append(" [options]\n");
+		buf.append("DESCRIPTION\n\t").append(description).append("\n");
+		buf.append("OPTIONS\n").append(usage);
+		buf.append("\t-V, --version\tShow version string\n");
+		buf.append("\t-h, --help\tShow program usage and quit\n");
+		if (!authors.isBlank())
+			buf.append("AUTHOR(s)\n\t").append(authors).append("\n");
+		if (!version.isBlank())
+			buf.append("VERSION\n\t").append(version).append("\n");
+		if (!license.isBlank())
+			buf.append("\t").append(license).append("\n");
+		return buf.toString();
+	}
+
+	private void addUsage(String shortKey, String longKey, String type, String description, Object defaultValue) {
+		usage.append("\t").append(shortKey).append(", ").append(longName(longKey));
+		if (type != null)
+			usage.append(" [").append(type).append("]");
+		usage.append("\t").append(description);
+		if (defaultValue != null && !defaultValue.toString().isBlank())
+			usage.append(". Default value: ").append(defaultValue);
+		usage.append(".\n");
+	}
+
+	/**
+	 * removes the option and its value from the remaining arguments
+	 *
+	 * @return the value, or null, if the option is not present or only the usage is requested
+	 */
+	private String takeValue(String shortKey, String longKey) throws UsageException {
+		if (doHelp)
+			return null;
+		var index = indexOf(shortKey, longKey);
+		if (index == -1)
+			return null;
+		if (index + 1 == args.size())
+			throw new UsageException("Option " + longName(longKey) + ": missing value");
+		args.remove(index);
+		return args.remove(index);
+	}
+
+	private int indexOf(String shortKey, String longKey) {
+		for (var i = 0; i < args.size(); i++) {
+			if (args.get(i).equals(shortKey) || args.get(i).equals(longName(longKey)))
+				return i;
+		}
+		return -1;
+	}
+
+	private boolean removeFlag(String shortKey, String longKey) {
+		return args.remove(shortKey) | args.remove(longKey);
+	}
+
+	/**
+	 * is this an option name, rather than a value, such as - (stdin) or a negative number?
+	 */
+	private static boolean isOption(String arg) {
+		return arg.length() > 1 && arg.startsWith("-") && !Character.isDigit(arg.charAt(1)) && arg.charAt(1) != '.';
+	}
+
+	private static String longName(String longKey) {
+		return "--" + longKey;
+	}
+}
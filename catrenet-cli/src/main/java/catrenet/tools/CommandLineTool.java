@@ -0,0 +1,446 @@
+/*
+ *  CommandLineTool.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.algorithm.KineticModel;
+import catrenet.algorithm.MassActionODE;
+import catrenet.algorithm.MinIRAFHeuristic;
+import catrenet.algorithm.MuCAFAlgorithm;
+import catrenet.algorithm.RandomStreams;
+import catrenet.algorithm.StochasticSimulation;
+import catrenet.core.Version;
+import catrenet.io.ArrowNotation;
+import catrenet.io.BinaryModelIO;
+import catrenet.io.ModelIO;
+import catrenet.io.ReactionNotation;
+import catrenet.io.WimsFormat;
+import catrenet.model.ReactionSystem;
+import jloda.util.*;
+import jloda.util.progress.ProgressListener;
+import jloda.util.progress.ProgressPercentage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+public class CommandLineTool {
+	/**
+	 * add functional annotations to DNA alignments
+	 */
+	public static void main(String[] args) {
+		try {
+			ProgramProperties.setProgramName(CommandLineTool.class.getSimpleName());
+			ProgramProperties.setProgramVersion(Version.SHORT_DESCRIPTION);
+
+			PeakMemoryUsageMonitor.start();
+			(new CommandLineTool()).run(args);
+			System.err.println("Total time:  " + PeakMemoryUsageMonitor.getSecondsSinceStartString());
+			System.err.println("Peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString());
+			System.exit(0);
+		} catch (Exception ex) {
+			Basic.caught(ex);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * run the program
+	 */
+	private void run(String[] args) throws IOException, UsageException {
+
+		var allAlgorithms = AlgorithmBase.listAllAlgorithms();
+
+		final CommandLineOptions options = new CommandLineOptions(args, this, "Performs Max RAF and other computations");
+		options.setVersion(ProgramProperties.getProgramVersion());
+		options.setLicense("Copyright (C) 2023. GPL 3. This program comes with ABSOLUTELY NO WARRANTY.");
+		options.setAuthors("Daniel H. Huson and Mike Steel.");
+
+		var algorithmNames = options.getOption("-c", "compute", "The computation(s) to perform, one or more of: " + StringUtils.toString(allAlgorithms, ", "), List.of());
+
+		var inputFiles = options.getOption("-i", "input", "Input file(s), directories or glob patterns, or @file to read file names from a file (stdin ok)", List.of());
+		var outputFile = options.getOption("-o", "output", "Output file, or output directory in batch mode (stdout ok)", "stdout");
+		var reactionNotation = StringUtils.valueOfIgnoreCase(ReactionNotation.class, options.getOption("-rn", "reactionNotation", "Output reaction notation", ReactionNotation.values(), ReactionNotation.Full.name()));
+		var arrowNotation = StringUtils.valueOfIgnoreCase(ArrowNotation.class, options.getOption("-an", "arrowNotation", "Output arrow notation", ArrowNotation.values(), ArrowNotation.UsesMinus.name()));
+
+		var numberRandomizedInsertionOrders = (new MinIRAFHeuristic()).getNumberOfRandomInsertionOrders();
+		if (algorithmNames.contains(StringUtils.toCamelCase(MinIRAFHeuristic.Name)) || options.isDoHelp()) {
+			numberRandomizedInsertionOrders = options.getOption("-r", "runs", "Number of randomized runs for " + MinIRAFHeuristic.Name + " heuristic", numberRandomizedInsertionOrders);
+		}
+
+		var masterSeed = options.getOption("-rs", "randomSeed", "Master seed for randomized computations (" + MinIRAFHeuristic.Name + ", " + MuCAFAlgorithm.Name + ")", RandomStreams.DEFAULT_MASTER_SEED);
+
+		options.comment("Batch mode (several inputs or computations, or output directory)");
+		var threads = options.getOption("-t", "threads", "Number of jobs (batch mode) or client connections (server mode) to run in parallel (0=all available cores, 1=also report the peak heap of each job)", 0);
+		var summaryFile = options.getOption("-s", "summary", "Summary file in TSV format (default: summary.tsv in output directory, stdout ok)", "");
+
+		options.comment("Server mode");
+		var server = options.getOption("-S", "server", "Run as server, reading requests from stdin and writing responses to stdout (or use --port)", false);
+		var port = options.getOption("-p", "port", "Server mode: listen on this local port instead of stdin (0=don't)", 0);
+
+		options.comment("Kinetics (stochastic simulation and ODE integration)");
+		var simulate = options.getOption("-sim", "simulate", "Run stochastic simulations of the input instead of computations, writing molecule counts over time to the output file", false);
+		var integrate = options.getOption("-ode", "integrate", "Integrate deterministic mass-action kinetics of the input instead of computations, writing concentrations over time to the output file", false);
+		var simulationMethod = StringUtils.valueOfIgnoreCase(StochasticSimulation.Method.class, options.getOption("-sm", "simMethod", "Simulation method", StochasticSimulation.Method.values(), StochasticSimulation.Method.NextReaction.name()));
+		var trajectories = options.getOption("-sn", "trajectories", "Number of independent trajectories, run in parallel", 1);
+		var odeSolver = StringUtils.valueOfIgnoreCase(MassActionODE.Solver.class, options.getOption("-os", "odeSolver", "ODE solver (use Rosenbrock for stiff systems)", MassActionODE.Solver.values(), MassActionODE.Solver.DormandPrince.name()));
+		var maxTime = options.getOption("-st", "maxTime", "Simulate or integrate up to this time", 100.0);
+		var maxSteps = options.getOption("-sx", "maxSteps", "Max number of reaction events per trajectory", 100000000);
+		var sampleInterval = options.getOption("-si", "sampleInterval", "Write molecule counts or concentrations at multiples of this time (0=final state only)", 1.0);
+		var foodCount = options.getOption("-sf", "foodCount", "Count of each food molecule (simulation)", 100);
+		var foodConcentration = options.getOption("-of", "foodConcentration", "Concentration of each food molecule (integration)", 1.0);
+		var consumeFood = options.getOption("-sc", "consumeFood", "Food molecules are consumed, rather than held constant", false);
+		var rateConstant = options.getOption("-sk", "rateConstant", "Mass-action rate constant of all reactions", 0.01);
+		var uncatalyzedRate = options.getOption("-su", "uncatalyzedRate", "Rate of a catalyzed reaction in the absence of its catalysts, relative to one catalyst molecule", 0.01);
+		var inhibitionStrength = options.getOption("-sh", "inhibitionStrength", "Inhibition strength, the rate is divided by 1 + strength * number of inhibitor molecules", 1.0);
+		var decayRate = options.getOption("-sd", "decayRate", "Decay rate of non-food molecules", 0.1);
+		var parameterSetsFile = options.getOption("-op", "parameterSets", "File of sets of kinetic constants to integrate in parallel, one per line: rate constant, uncatalyzed rate, inhibition strength and decay rate (replaces the four options above)", "");
+		var absoluteTolerance = options.getOption("-oa", "absoluteTolerance", "Absolute error tolerance of the ODE solver", 1e-8);
+		var relativeTolerance = options.getOption("-or", "relativeTolerance", "Relative error tolerance of the ODE solver", 1e-6);
+		var steadyStateTolerance = options.getOption("-oy", "steadyStateTolerance", "Stop integration when no concentration changes faster than this times the largest concentration", 1e-5);
+
+		options.comment(CommandLineOptions.OTHER);
+		final var propertiesFile = options.getOption("-P", "propertiesFile", "Properties file", Version.getDefaultPropertiesFile());
+		options.done();
+
+		RandomStreams.setMasterSeed(masterSeed);
+
+		if (server || port > 0) {
+			ProgramProperties.load(propertiesFile);
+			var analysisServer = new AnalysisServer(numberRandomizedInsertionOrders, reactionNotation, arrowNotation);
+			if (port > 0)
+				analysisServer.runOnSocket(port, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+			else
+				analysisServer.runOnStreams(System.in, System.out);
+			return;
+		}
+
+		if (simulate && integrate)
+			throw new UsageException("Options --simulate and --integrate: can't use both");
+
+		if (simulate) {
+			inputFiles = BatchRunner.expandInputFiles(inputFiles);
+			if (inputFiles.size() != 1)
+				throw new UsageException("Option --simulate: requires exactly one input file");
+			StochasticSimulation.Settings settings;
+			try {
+				settings = new StochasticSimulation.Settings(simulationMethod, maxTime, maxSteps, sampleInterval, foodCount, !consumeFood, rateConstant, uncatalyzedRate, inhibitionStrength, decayRate);
+			} catch (IllegalArgumentException ex) {
+				throw new UsageException(ex.getMessage());
+			}
+			if (trajectories < 1)
+				throw new UsageException("Option --trajectories: must be positive");
+			ProgramProperties.load(propertiesFile);
+			simulate(inputFiles.get(0), settings, trajectories, outputFile, summaryFile, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+			return;
+		}
+
+		if (integrate) {
+			inputFiles = BatchRunner.expandInputFiles(inputFiles);
+			if (inputFiles.size() != 1)
+				throw new UsageException("Option --integrate: requires exactly one input file");
+			MassActionODE.Settings settings;
+			List<KineticModel.Constants> parameterSets;
+			try {
+				settings = new MassActionODE.Settings(odeSolver, maxTime, sampleInterval, foodConcentration, !consumeFood, absoluteTolerance, relativeTolerance, steadyStateTolerance);
+				parameterSets = (parameterSetsFile.isBlank() ? List.of(new KineticModel.Constants(rateConstant, uncatalyzedRate, inhibitionStrength, decayRate)) : parseParameterSets(parameterSetsFile));
+			} catch (IllegalArgumentException ex) {
+				throw new UsageException(ex.getMessage());
+			}
+			ProgramProperties.load(propertiesFile);
+			integrate(inputFiles.get(0), settings, parameterSets, outputFile, summaryFile, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+			return;
+		}
+
+		if (algorithmNames.isEmpty())
+			throw new UsageException("Option --compute: must specify at least one computation");
+		for (var algorithmName : algorithmNames) {
+			if (AlgorithmBase.getAlgorithmByName(algorithmName) == null)
+				throw new UsageException("Option --compute: unknown computation: " + algorithmName);
+		}
+		if (inputFiles.isEmpty())
+			throw new UsageException("Option --input: must specify at least one input file");
+
+		ProgramProperties.load(propertiesFile);
+
+		inputFiles = BatchRunner.expandInputFiles(inputFiles);
+
+		if (inputFiles.size() > 1 || algorithmNames.size() > 1 || new File(outputFile).isDirectory()) {
+			if (outputFile.equalsIgnoreCase("stdout"))
+				throw new UsageException("Option --output: batch mode requires an output directory");
+			if (!new File(outputFile).isDirectory() && !new File(outputFile).mkdirs())
+				throw new IOException("Can't create output directory: " + outputFile);
+			if (summaryFile.isBlank())
+				summaryFile = new File(outputFile, "summary.tsv").getPath();
+			if (threads <= 0)
+				threads = Runtime.getRuntime().availableProcessors();
+			BatchRunner.apply(inputFiles, algorithmNames, outputFile, summaryFile, threads, numberRandomizedInsertionOrders, reactionNotation, arrowNotation);
+			return;
+		}
+
+		var inputFile = inputFiles.get(0);
+		var algorithmName = algorithmNames.get(0);
+
+		FileUtils.checkAllFilesDifferent(inputFile, outputFile);
+		FileUtils.fileExistsAndIsNonEmpty(inputFile);
+		FileUtils.checkFileWritable(outputFile, true);
+
+		var inputSystem = parseInput(inputFile, true);
+
+		var algorithm = AlgorithmBase.getAlgorithmByName(algorithmName);
+		if (algorithm == null)
+			throw new IOException("Algorithm not found: " + algorithmName);
+
+		var outputSystems = apply(algorithm, inputSystem, numberRandomizedInsertionOrders, new ProgressPercentage("Running", algorithmName));
+
+		if (!outputFile.equalsIgnoreCase("stdout"))
+			System.err.println("Writing file: " + outputFile);
+
+		write(outputSystems, outputFile, reactionNotation, arrowNotation);
+	}
+
+	/**
+	 * runs the algorithm on the given input
+	 *
+	 * @return output reaction systems, more than one only for the iRAF heuristic
+	 */
+	static List<ReactionSystem> apply(AlgorithmBase algorithm, ReactionSystem inputSystem, int numberRandomizedInsertionOrders, ProgressListener progress) throws CanceledException {
+		if (algorithm instanceof MinIRAFHeuristic irrRAFHeuristic) {
+			irrRAFHeuristic.setNumberOfRandomInsertionOrders(numberRandomizedInsertionOrders);
+			return irrRAFHeuristic.applyAllSmallest(inputSystem, progress);
+		} else {
+			return List.of(algorithm.apply(inputSystem, progress));
+		}
+	}
+
+	/**
+	 * write the output reaction systems to a file
+	 */
+	static void write(List<ReactionSystem> outputSystems, String outputFile, ReactionNotation reactionNotation, ArrowNotation arrowNotation) throws IOException {
+		try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(outputFile)) {
+			for (var outputSystem : outputSystems) {
+				ModelIO.write(outputSystem, w, true, reactionNotation, arrowNotation);
+				if (outputSystems.size() > 1)
+					w.write("\n");
+			}
+		}
+	}
+
+	/**
+	 * runs independent stochastic simulations of a reaction system in parallel. Molecule counts are written to the
+	 * output file as they are computed, one row per trajectory and time, so rows of different trajectories are interleaved
+	 *
+	 * @param summaryFile file to write one row per trajectory to, or blank
+	 */
+	static void simulate(String inputFile, StochasticSimulation.Settings settings, int trajectories, String outputFile, String summaryFile, int threads) throws IOException {
+		FileUtils.checkAllFilesDifferent(inputFile, outputFile);
+		FileUtils.fileExistsAndIsNonEmpty(inputFile);
+		FileUtils.checkFileWritable(outputFile, true);
+
+		var simulation = new StochasticSimulation(parseInput(inputFile, true), settings);
+		System.err.printf("Simulation: %,d trajectories, %,d molecule types, %,d reaction channels, %d threads%n", trajectories, simulation.getMolecules().size(), simulation.getNumberOfChannels(), threads);
+
+		var executor = Executors.newFixedThreadPool(Math.min(threads, trajectories));
+		try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(outputFile);
+			 var s = (summaryFile.isBlank() ? Writer.nullWriter() : FileUtils.getOutputWriterPossiblyZIPorGZIP(summaryFile));
+			 var progress = new ProgressPercentage("Simulating", FileUtils.getFileNameWithoutPath(inputFile))) {
+			w.write("#trajectory\ttime\t" + StringUtils.toString(simulation.getMolecules(), "\t") + "\n");
+			s.write("#trajectory\ttime\tsteps\tnon_food_species\tnon_food_molecules\treactions_fired\tstatus\n");
+
+			StochasticSimulation.TrajectoryListener listener = (trajectory, time, counts) -> {
+				var buf = new StringBuilder();
+				buf.append(trajectory).append("\t").append(StringUtils.removeTrailingZerosAfterDot("%.6f", time));
+				for (var count : counts)
+					buf.append("\t").append(count);
+				buf.append("\n");
+				try {
+					synchronized (w) {
+						w.write(buf.toString());
+					}
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			};
+			var results = simulation.apply(trajectories, executor, listener, result -> {
+				try {
+					s.write(StringUtils.toString(List.of(result.trajectory(), StringUtils.removeTrailingZerosAfterDot("%.6f", result.time()), result.steps(), result.nonFoodSpecies(),
+							result.nonFoodMolecules(), result.reactionsFired(), result.status()), "\t") + "\n");
+					s.flush();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}, progress);
+
+			var persisting = results.stream().filter(result -> result.nonFoodSpecies() > 0).count();
+			System.err.printf("Trajectories with non-food molecules at the end: %,d of %,d%n", persisting, trajectories);
+			System.err.printf("Mean number of non-food molecule types at the end: %.2f%n", results.stream().mapToInt(StochasticSimulation.Result::nonFoodSpecies).average().orElse(0));
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		} finally {
+			executor.shutdownNow();
+		}
+		if (!outputFile.equalsIgnoreCase("stdout"))
+			System.err.println("Trajectories written to: " + outputFile);
+	}
+
+	/**
+	 * integrates mass-action kinetics of a reaction system for several sets of kinetic constants in parallel.
+	 * Concentrations are written to the output file as they are computed, one row per parameter set and time
+	 *
+	 * @param summaryFile file to write one row per parameter set to, or blank
+	 */
+	static void integrate(String inputFile, MassActionODE.Settings settings, List<KineticModel.Constants> parameterSets, String outputFile, String summaryFile, int threads) throws IOException {
+		FileUtils.checkAllFilesDifferent(inputFile, outputFile);
+		FileUtils.fileExistsAndIsNonEmpty(inputFile);
+		FileUtils.checkFileWritable(outputFile, true);
+
+		var ode = new MassActionODE(parseInput(inputFile, true), settings);
+		System.err.printf("Integration: %,d parameter sets, %,d molecule types, %,d reaction channels, %,d Jacobian entries, %d threads%n", parameterSets.size(), ode.getMolecules().size(), ode.getNumberOfChannels(),
+				ode.getNumberOfNonZeros(), threads);
+
+		var executor = Executors.newFixedThreadPool(Math.min(threads, parameterSets.size()));
+		try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(outputFile);
+			 var s = (summaryFile.isBlank() ? Writer.nullWriter() : FileUtils.getOutputWriterPossiblyZIPorGZIP(summaryFile));
+			 var progress = new ProgressPercentage("Integrating", FileUtils.getFileNameWithoutPath(inputFile))) {
+			w.write("#parameter_set\ttime\t" + StringUtils.toString(ode.getMolecules(), "\t") + "\n");
+			s.write("#parameter_set\trate_constant\tuncatalyzed_rate\tinhibition_strength\tdecay_rate\ttime\tsteps\tmax_rate\tnon_food_species\tnon_food_concentration\tstatus\n");
+
+			MassActionODE.TimeSeriesListener listener = (parameterSet, time, concentrations) -> {
+				var buf = new StringBuilder();
+				buf.append(parameterSet).append("\t").append((float) time);
+				for (var concentration : concentrations)
+					buf.append("\t").append((float) concentration);
+				buf.append("\n");
+				try {
+					synchronized (w) {
+						w.write(buf.toString());
+					}
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			};
+			var results = ode.apply(parameterSets, executor, listener, result -> {
+				var constants = parameterSets.get(result.parameterSet() - 1);
+				try {
+					s.write(StringUtils.toString(List.of(result.parameterSet(), constants.rateConstant(), constants.uncatalyzedRate(), constants.inhibitionStrength(), constants.decayRate(),
+							(float) result.time(), result.steps(), (float) result.maxRate(), result.nonFoodSpecies(), (float) result.nonFoodConcentration(), result.status()), "\t") + "\n");
+					s.flush();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}, progress);
+
+			var steady = results.stream().filter(result -> result.status().equals("steady state")).count();
+			System.err.printf("Parameter sets that reached a steady state: %,d of %,d%n", steady, parameterSets.size());
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		} finally {
+			executor.shutdownNow();
+		}
+		if (!outputFile.equalsIgnoreCase("stdout"))
+			System.err.println("Concentrations written to: " + outputFile);
+	}
+
+	/**
+	 * parses sets of kinetic constants, one per line: rate constant, uncatalyzed rate, inhibition strength and decay rate
+	 */
+	static List<KineticModel.Constants> parseParameterSets(String fileName) throws IOException {
+		var parameterSets = new ArrayList<KineticModel.Constants>();
+		var lineNumber = 0;
+		for (var line : FileUtils.getLinesFromFile(fileName)) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+			var tokens = line.split("\\s+");
+			if (tokens.length != 4 || !NumberUtils.isDouble(tokens[0]) || !NumberUtils.isDouble(tokens[1]) || !NumberUtils.isDouble(tokens[2]) || !NumberUtils.isDouble(tokens[3]))
+				throw new IOException(fileName + ", line " + lineNumber + ": expected four numbers");
+			parameterSets.add(new KineticModel.Constants(NumberUtils.parseDouble(tokens[0]), NumberUtils.parseDouble(tokens[1]), NumberUtils.parseDouble(tokens[2]), NumberUtils.parseDouble(tokens[3])));
+		}
+		if (parameterSets.isEmpty())
+			throw new IOException(fileName + ": no parameter sets");
+		return parameterSets;
+	}
+
+	static ReactionSystem parseInput(String fileName, boolean verbose) throws IOException {
+		if (BinaryModelIO.isBinaryFormat(fileName)) {
+			var reactionSystem = new ReactionSystem();
+			try (var ins = FileUtils.getInputStreamPossiblyZIPorGZIP(fileName)) {
+				BinaryModelIO.read(reactionSystem, ins);
+			}
+			reactionSystem.updateIsInhibitorsPresent();
+			if (verbose)
+				System.err.println("Read " + reactionSystem.size() + " reactions and " + reactionSystem.getFoods().size() + " food items from binary file: " + FileUtils.getFileNameWithoutPath(fileName));
+			return reactionSystem;
+		}
+
+		final ArrayList<String> inputLines;
+
+		if (WimsFormat.isInWimsFormat(fileName)) {
+			inputLines = WimsFormat.importToString(fileName);
+		} else {
+			inputLines = FileUtils.getLinesFromFile(fileName);
+		}
+		return parseLines(inputLines, FileUtils.getFileNameWithoutPath(fileName), verbose);
+	}
+
+	/**
+	 * parse a reaction system from lines of text in full, sparse or tabbed format
+	 *
+	 * @param inputLines lines
+	 * @param source     source name used in messages
+	 * @param verbose    report on stderr
+	 * @return reaction system
+	 */
+	static ReactionSystem parseLines(List<String> inputLines, String source, boolean verbose) throws IOException {
+		final Pair<ReactionNotation, ArrowNotation> notation = ReactionNotation.detectNotation(inputLines.subList(0, Math.min(10, inputLines.size())));
+
+		if (notation == null) {
+			throw new IOException("Couldn't detect 'full', 'sparse' or 'tabbed' file format");
+		}
+
+		var reactionSystem = new ReactionSystem();
+		try (BufferedReader r = new BufferedReader(new StringReader(StringUtils.toString(inputLines, "\n")))) {
+			reactionSystem.clear();
+			final String leadingComments = ModelIO.read(reactionSystem, r, notation.getFirst());
+
+			if (verbose)
+				System.err.println("Read " + reactionSystem.size() + " reactions" + (reactionSystem.getNumberOfTwoWayReactions() > 0 ? " (" + reactionSystem.getNumberOfTwoWayReactions() + " two-way)" : "")
+							   + " and " + reactionSystem.getFoods().size() + " food items from file: " + source);
+
+			if (verbose && !leadingComments.isBlank())
+				System.err.println("Comments:\n" + leadingComments);
+
+			reactionSystem.updateIsInhibitorsPresent();
+			if (verbose && reactionSystem.isInhibitorsPresent()) {
+				System.err.println("Input catalytic reaction system contains inhibitions. These are ignored in the computation of maxCAF, maxRAF and maxPseudoRAF");
+			}
+
+			return reactionSystem;
+		}
+	}
+}
+
@@ -0,0 +1,256 @@
+/*
+ *  PolymerModelSweep.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.algorithm.AlgorithmRegistry;
+import catrenet.algorithm.MaxRAFAlgorithm;
+import catrenet.algorithm.PolymerModel;
+import catrenet.algorithm.PolymerModelMaxRAF;
+import catrenet.algorithm.PolymerModelRAFThreshold;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ReactionNotation;
+import catrenet.model.ReactionSystem;
+import jloda.util.Basic;
+import jloda.util.FileUtils;
+import jloda.util.PeakMemoryUsageMonitor;
+import jloda.util.StringUtils;
+import jloda.util.progress.ProgressPercentage;
+import jloda.util.progress.ProgressSilent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * runs the polymer model on all points of a parameter grid in parallel, optionally writing each model to a file
+ * and running computations on it in-process. One summary row per grid point is written as soon as it is done,
+ * so rows appear in order of completion. Only the models currently being processed are held in memory
+ * Daniel Huson, 10.2026
+ */
+public class PolymerModelSweep {
+	/**
+	 * the parameter grid, replicates vary fastest
+	 */
+	public record Grid(List<Integer> alphabetSizes, List<Integer> foodMaxLengths, List<Integer> polymerMaxLengths, List<Double> means, List<Integer> replicates) {
+		public long size() {
+			return (long) alphabetSizes.size() * foodMaxLengths.size() * polymerMaxLengths.size() * means.size() * replicates.size();
+		}
+
+		public PolymerModel.Parameters get(long index) {
+			var r = replicates.get((int) (index % replicates.size()));
+			index /= replicates.size();
+			var m = means.get((int) (index % means.size()));
+			index /= means.size();
+			var n = polymerMaxLengths.get((int) (index % polymerMaxLengths.size()));
+			index /= polymerMaxLengths.size();
+			var k = foodMaxLengths.get((int) (index % foodMaxLengths.size()));
+			index /= foodMaxLengths.size();
+			var a = alphabetSizes.get((int) index);
+			return new PolymerModel.Parameters(a, k, n, m, r);
+		}
+	}
+
+	/**
+	 * where and how to write models, outputDirectory is null if models are not to be written
+	 */
+	public record ModelOutput(String outputDirectory, String fileNameTemplate, boolean binary, ReactionNotation reactionNotation, ArrowNotation arrowNotation) {
+		public String getFileName(PolymerModel.Parameters parameters) {
+			if (outputDirectory.equalsIgnoreCase("stdout"))
+				return "stdout";
+			else
+				return outputDirectory + File.separator + fileNameTemplate
+						.replaceAll("%a", String.valueOf(parameters.a()))
+						.replaceAll("%k", String.valueOf(parameters.k()))
+						.replaceAll("%n", String.valueOf(parameters.n()))
+						.replaceAll("%m", StringUtils.removeTrailingZerosAfterDot(parameters.m()))
+						.replaceAll("%r", String.valueOf(parameters.seed()));
+		}
+	}
+
+	/**
+	 * runs the sweep
+	 *
+	 * @param grid           parameter grid
+	 * @param algorithmNames computations to run on each model, may be empty
+	 * @param summaryFile    summary file (stdout ok), not written if no computations are requested
+	 * @param modelOutput    how to write models, or null
+	 * @param threads        number of grid points to process in parallel
+	 * @return number of grid points processed without error
+	 */
+	public static long apply(Grid grid, List<String> algorithmNames, String summaryFile, ModelOutput modelOutput, int threads) throws IOException {
+		var total = grid.size();
+		System.err.printf("Sweep: %,d parameter combinations, %d threads%n", total, threads);
+
+		var registry = AlgorithmRegistry.getInstance();
+		var header = new StringBuilder("#a\tk\tn\tm\tr\tstatus\treactions\tfood");
+		for (var algorithmName : algorithmNames)
+			header.append("\t").append(registry.getEntry(algorithmName).commandName());
+		header.append("\tgenerate_ms\trun_ms");
+
+		var next = new AtomicLong(0);
+		var ok = new AtomicLong(0);
+		var executor = Executors.newFixedThreadPool(threads);
+		try (var progress = new ProgressPercentage("Processing parameter combinations", "");
+			 var w = (algorithmNames.isEmpty() ? Writer.nullWriter() : FileUtils.getOutputWriterPossiblyZIPorGZIP(summaryFile))) {
+			progress.setMaximum(total);
+			w.write(header + "\n");
+
+			var futures = new ArrayList<Future<?>>(threads);
+			for (var t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (var index = next.getAndIncrement(); index < total; index = next.getAndIncrement()) {
+						var row = run(grid.get(index), algorithmNames, modelOutput);
+						synchronized (w) {
+							if (row.split("\t")[5].equals("ok"))
+								ok.incrementAndGet();
+							w.write(row + "\n");
+							progress.incrementProgress();
+						}
+					}
+					return null;
+				}));
+			}
+			for (var future : futures) {
+				try {
+					future.get();
+				} catch (InterruptedException | ExecutionException ex) {
+					throw new IOException(ex);
+				}
+			}
+			w.write("# total time: " + PeakMemoryUsageMonitor.getSecondsSinceStartString() + "\n");
+			w.write("# peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString() + "\n");
+		} finally {
+			executor.shutdownNow();
+		}
+		if (ok.get() < total)
+			System.err.printf("Failed: %,d (see summary)%n", total - ok.get());
+		if (!algorithmNames.isEmpty() && !summaryFile.equalsIgnoreCase("stdout"))
+			System.err.println("Summary written to: " + summaryFile);
+		return ok.get();
+	}
+
+	/**
+	 * for each combination of a, k and n in the grid, estimates the value of m at which a max RAF exists with
+	 * probability 0.5 and writes one summary row. The values of m and the replicates in the grid are ignored
+	 *
+	 * @param grid        parameter grid
+	 * @param settings    search settings
+	 * @param summaryFile summary file (stdout ok)
+	 * @param threads     number of replicates to run in parallel
+	 */
+	public static void applyThresholdSearch(Grid grid, PolymerModelRAFThreshold.Settings settings, String summaryFile, int threads) throws IOException {
+		System.err.printf("RAF threshold search: %,d combinations of a, k and n, %d threads%n", (long) grid.alphabetSizes().size() * grid.foodMaxLengths().size() * grid.polymerMaxLengths().size(), threads);
+
+		var executor = Executors.newFixedThreadPool(threads);
+		try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(summaryFile)) {
+			w.write("#a\tk\tn\tthreshold\tlower\tupper\tm_values\treplicates\tstatus\ttime_ms\n");
+			for (var a : grid.alphabetSizes()) {
+				for (var k : grid.foodMaxLengths()) {
+					for (var n : grid.polymerMaxLengths()) {
+						var start = System.currentTimeMillis();
+						var result = PolymerModelRAFThreshold.apply(a, k, n, settings, executor,
+								step -> System.err.printf("a=%d k=%d n=%d m=%s: %,d of %,d replicates have a RAF%s%n", step.a(), step.k(), step.n(), StringUtils.removeTrailingZerosAfterDot("%.6f", step.m()),
+										step.rafs(), step.replicates(), (step.decision() < 0 ? ", below threshold" : step.decision() > 0 ? ", above threshold" : ", undecided")), new ProgressSilent());
+						w.write(StringUtils.toString(List.of(a, k, n, StringUtils.removeTrailingZerosAfterDot("%.6f", result.threshold()), StringUtils.removeTrailingZerosAfterDot("%.6f", result.lower()),
+								StringUtils.removeTrailingZerosAfterDot("%.6f", result.upper()), result.mValues(), result.replicates(), result.status(), System.currentTimeMillis() - start), "\t") + "\n");
+						w.flush();
+					}
+				}
+			}
+			w.write("# total time: " + PeakMemoryUsageMonitor.getSecondsSinceStartString() + "\n");
+			w.write("# peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString() + "\n");
+		} finally {
+			executor.shutdownNow();
+		}
+		if (!summaryFile.equalsIgnoreCase("stdout"))
+			System.err.println("Summary written to: " + summaryFile);
+	}
+
+	/**
+	 * process one grid point. The max RAF is computed implicitly, other computations require the model as a reaction system
+	 *
+	 * @return summary row
+	 */
+	private static String run(PolymerModel.Parameters parameters, List<String> algorithmNames, ModelOutput modelOutput) {
+		var status = "ok";
+		var reactions = "";
+		var food = String.valueOf(PolymerModel.getFoodIds(parameters).length);
+		var sizes = new String[algorithmNames.size()];
+		var generateMillis = 0L;
+		var runMillis = 0L;
+		try {
+			if (modelOutput != null) {
+				var start = System.currentTimeMillis();
+				var fileName = modelOutput.getFileName(parameters);
+				if (modelOutput.binary()) {
+					try (var outs = FileUtils.getOutputStreamPossiblyZIPorGZIP(fileName)) {
+						PolymerModel.writeBinary(parameters, outs);
+					}
+				} else {
+					try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(fileName)) {
+						w.write("# Polymer model a=%d k=%d n=%d m=%s r=%d:%n%n".formatted(parameters.a(), parameters.k(), parameters.n(), StringUtils.removeTrailingZerosAfterDot(parameters.m()), parameters.seed()));
+						PolymerModel.write(parameters, w, modelOutput.reactionNotation(), modelOutput.arrowNotation());
+						w.write("\n#EOF\n");
+					}
+				}
+				generateMillis += System.currentTimeMillis() - start;
+			}
+
+			ReactionSystem reactionSystem = null;
+			for (var i = 0; i < algorithmNames.size(); i++) {
+				var algorithm = AlgorithmBase.getAlgorithmByName(algorithmNames.get(i));
+				if (algorithm.getName().equals(MaxRAFAlgorithm.Name)) {
+					var start = System.currentTimeMillis();
+					var result = PolymerModelMaxRAF.apply(parameters, new ProgressSilent());
+					runMillis += System.currentTimeMillis() - start;
+					reactions = String.valueOf(result.numberOfReactions());
+					sizes[i] = String.valueOf(result.size());
+				} else {
+					if (reactionSystem == null) {
+						var start = System.currentTimeMillis();
+						reactionSystem = PolymerModel.apply(parameters);
+						generateMillis += System.currentTimeMillis() - start;
+						reactions = String.valueOf(reactionSystem.size());
+					}
+					var start = System.currentTimeMillis();
+					sizes[i] = String.valueOf(algorithm.apply(reactionSystem, new ProgressSilent()).size());
+					runMillis += System.currentTimeMillis() - start;
+				}
+			}
+		} catch (Exception ex) {
+			status = "error: " + (ex.getMessage() != null ? ex.getMessage().replaceAll("\\s+", " ") : ex.getClass().getSimpleName());
+			if (!(ex instanceof IOException))
+				Basic.caught(ex);
+		}
+		var row = new ArrayList<Object>(List.of(parameters.a(), parameters.k(), parameters.n(), StringUtils.removeTrailingZerosAfterDot(parameters.m()), parameters.seed(), status, reactions, food));
+		for (var size : sizes)
+			row.add(size != null ? size : "");
+		row.add(generateMillis);
+		row.add(runMillis);
+		return StringUtils.toString(row, "\t");
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ *  PolymerModelTool.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.AlgorithmBase;
+import catrenet.algorithm.PolymerModelRAFThreshold;
+import catrenet.core.Version;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ReactionNotation;
+import jloda.util.*;
+
+import java.io.IOException;
+import java.util.List;
+
+public class PolymerModelTool {
+	/**
+	 * add functional annotations to DNA alignments
+	 */
+	public static void main(String[] args) throws IOException {
+		try {
+			ProgramProperties.setProgramName(PolymerModelTool.class.getSimpleName());
+			ProgramProperties.setProgramVersion(Version.SHORT_DESCRIPTION);
+
+			PeakMemoryUsageMonitor.start();
+			(new PolymerModelTool()).run(args);
+			System.err.println("Total time:  " + PeakMemoryUsageMonitor.getSecondsSinceStartString());
+			System.err.println("Peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString());
+			System.exit(0);
+		} catch (Exception ex) {
+			Basic.caught(ex);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * run the program
+	 */
+	private void run(String[] args) throws IOException, UsageException {
+		final var options = new CommandLineOptions(args, this, "Constructs polymer models and optionally runs computations on them");
+		options.setVersion(ProgramProperties.getProgramVersion());
+		options.setLicense("Copyright (C) 2023. GPL 3. This program comes with ABSOLUTELY NO WARRANTY.");
+		options.setAuthors("Daniel H. Huson and Mike Steel.");
+
+		options.comment("Parameters");
+		var alphabetSizeDef = StringUtils.toString(options.getOption("-a", "alphabetSize", "alphabet size (list (x,y,z,...) or range (x-z or x-z/step) ok)", List.of("2")), "");
+		var foodMaxLengthDef = StringUtils.toString(options.getOption("-k", "foodMaxLength", "food molecule max length  (list or range ok)", List.of("2")), "");
+		var polymerMaxLengthDef = StringUtils.toString(options.getOption("-n", "polymerMaxLength", "polymer max length  (list or range ok)", List.of("4")), "");
+		var meansDef = StringUtils.toString(options.getOption("-m", "meanCatalyzed", "mean number of catalyzed reactions per molecule  (list or range ok)", List.of("2.0")), "");
+		var replicatesDef = StringUtils.toString(options.getOption("-r", "replicate", "The replicate number (list or range ok)", List.of("1")), "");
+
+		options.comment("Computations");
+		var algorithmNames = options.getOption("-c", "compute", "Computation(s) to run in-process on each model, one or more of: " + StringUtils.toString(AlgorithmBase.listAllAlgorithms(), ", "), List.of());
+		var summaryFile = options.getOption("-s", "summary", "Summary file in TSV format, one row per parameter combination (stdout ok)", "stdout");
+		var threads = options.getOption("-t", "threads", "Number of parameter combinations to process in parallel (0=all available cores)", 0);
+
+		options.comment("RAF threshold search");
+		var thresholdSearch = options.getOption("-T", "threshold", "For each a, k and n, estimate the value of m at which a max RAF exists with probability 0.5 (ignores -m and -r)", false);
+		var lowerM = options.getOption("-ml", "lowerM", "Initial lower end of search interval for m", 0.5);
+		var upperM = options.getOption("-mu", "upperM", "Initial upper end of search interval for m", 4.0);
+		var tolerance = options.getOption("-tol", "tolerance", "Stop when the search interval for m is at most this wide", 0.01);
+		var batchSize = options.getOption("-bs", "batchSize", "Number of replicates to run per batch", 100);
+		var maxReplicates = options.getOption("-mr", "maxReplicates", "Max number of replicates per value of m", 10000);
+		var confidence = options.getOption("-cl", "confidence", "Confidence level for deciding whether a RAF is more or less likely than not at one value of m (corrected for checking after each batch)", 0.95);
+
+		options.comment("Output");
+		var outputDir = options.getOption("-o", "output", "Output directory for models (or stdout; default: stdout, or none if computing)", "");
+		var binary = options.getOption("-b", "binary", "Write in binary format", false);
+		var fileNameTemplate = options.getOption("-f", "fileName", "file name template (use %a,%k,%n,%m,%r for parameters)", "polymer_model_a%a_k%k_n%n_m%m_r%r" + (binary ? ".crsb" : ".crs"));
+
+		options.comment("Format");
+		var reactionNotation = StringUtils.valueOfIgnoreCase(ReactionNotation.class, options.getOption("-rn", "reactionNotation", "Output reaction notation", ReactionNotation.values(), ReactionNotation.Full.name()));
+		var arrowNotation = StringUtils.valueOfIgnoreCase(ArrowNotation.class, options.getOption("-an", "arrowNotation", "Output arrow notation", ArrowNotation.values(), ArrowNotation.UsesMinus.name()));
+
+		options.done();
+
+		var grid = new PolymerModelSweep.Grid(NumberUtils.parsePositiveIntegers(alphabetSizeDef, false), NumberUtils.parsePositiveIntegers(foodMaxLengthDef, false),
+				NumberUtils.parsePositiveIntegers(polymerMaxLengthDef, false), NumberUtils.parsePositiveDoubles(meansDef, false), NumberUtils.parsePositiveIntegers(replicatesDef, false));
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+
+		if (thresholdSearch) {
+			PolymerModelRAFThreshold.Settings settings;
+			try {
+				settings = new PolymerModelRAFThreshold.Settings(lowerM, upperM, tolerance, batchSize, maxReplicates, confidence);
+			} catch (IllegalArgumentException ex) {
+				throw new UsageException(ex.getMessage());
+			}
+			PolymerModelSweep.applyThresholdSearch(grid, settings, summaryFile, threads);
+			return;
+		}
+
+		for (var algorithmName : algorithmNames) {
+			if (AlgorithmBase.getAlgorithmByName(algorithmName) == null)
+				throw new UsageException("Option --compute: unknown computation: " + algorithmName);
+		}
+		if (outputDir.isBlank() && algorithmNames.isEmpty())
+			outputDir = "stdout";
+		if (outputDir.equalsIgnoreCase("stdout") && summaryFile.equalsIgnoreCase("stdout") && !algorithmNames.isEmpty())
+			throw new UsageException("Option --output: can't write both models and summary to stdout");
+
+		var modelOutput = (outputDir.isBlank() ? null : new PolymerModelSweep.ModelOutput(outputDir, fileNameTemplate, binary, reactionNotation, arrowNotation));
+
+		// models written to stdout must not be interleaved
+		if (modelOutput != null && outputDir.equalsIgnoreCase("stdout"))
+			threads = 1;
+
+		var count = PolymerModelSweep.apply(grid, algorithmNames, summaryFile, modelOutput, threads);
+		if (modelOutput != null)
+			System.err.printf("Number of files created: %,d%n%n", count);
+	}
+}
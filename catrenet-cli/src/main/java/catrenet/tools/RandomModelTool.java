@@ -0,0 +1,118 @@
+/*
+ *  RandomModelTool.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tools;
+
+import catrenet.algorithm.RandomCRSModel;
+import catrenet.core.Version;
+import jloda.util.*;
+import jloda.util.progress.ProgressPercentage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * generates random catalytic reaction systems for benchmarking
+ * Daniel Huson, 10.2026
+ */
+public class RandomModelTool {
+	public static void main(String[] args) {
+		try {
+			ProgramProperties.setProgramName(RandomModelTool.class.getSimpleName());
+			ProgramProperties.setProgramVersion(Version.SHORT_DESCRIPTION);
+
+			PeakMemoryUsageMonitor.start();
+			(new RandomModelTool()).run(args);
+			System.err.println("Total time:  " + PeakMemoryUsageMonitor.getSecondsSinceStartString());
+			System.err.println("Peak memory: " + PeakMemoryUsageMonitor.getPeakUsageString());
+			System.exit(0);
+		} catch (Exception ex) {
+			Basic.caught(ex);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * run the program
+	 */
+	private void run(String[] args) throws IOException, UsageException {
+		final var options = new CommandLineOptions(args, this, "Generates random catalytic reaction systems");
+		options.setVersion(ProgramProperties.getProgramVersion());
+		options.setLicense("Copyright (C) 2023. GPL 3. This program comes with ABSOLUTELY NO WARRANTY.");
+		options.setAuthors("Daniel H. Huson and Mike Steel.");
+
+		options.comment("Parameters");
+		var catalysis = StringUtils.valueOfIgnoreCase(RandomCRSModel.Catalysis.class, options.getOption("-c", "catalysis", "How catalysts are chosen", RandomCRSModel.Catalysis.values(), RandomCRSModel.Catalysis.ErdosRenyi.name()));
+		var reactionsDef = StringUtils.toString(options.getOption("-R", "reactions", "number of reactions (list (x,y,z,...) or range (x-z or x-z/step) ok)", List.of("1000")), "");
+		var molecules = options.getOption("-M", "molecules", "number of molecules (0=reactions/10)", 0);
+		var food = options.getOption("-F", "food", "number of food molecules (0=molecules/100)", 0);
+		var meanCatalysts = options.getOption("-m", "meanCatalysts", "mean number of catalysts per reaction (at least 1)", 2.0);
+		var exponent = options.getOption("-e", "exponent", "exponent for power-law catalysis", 2.0);
+		var conjunctionProbability = options.getOption("-pc", "conjunctions", "probability that a catalyst is a conjunction of two molecules", 0.0);
+		var reversibleProbability = options.getOption("-pr", "reversible", "probability that a reaction is reversible", 0.0);
+		var inhibitorProbability = options.getOption("-pi", "inhibitors", "probability that a reaction has an inhibitor", 0.0);
+		var seedsDef = StringUtils.toString(options.getOption("-s", "seed", "random seed (list or range ok)", List.of("1")), "");
+
+		options.comment("Output");
+		var outputDir = options.getOption("-o", "output", "Output directory (or stdout)", "stdout");
+		var binary = options.getOption("-b", "binary", "Write in binary format", false);
+		var fileNameTemplate = options.getOption("-f", "fileName", "file name template (use %c,%R,%s for parameters, .gz ok)", "random_%c_R%R_s%s" + (binary ? ".crsb" : ".crs"));
+		options.done();
+
+		var reactionsList = NumberUtils.parsePositiveIntegers(reactionsDef, false);
+		var seeds = NumberUtils.parsePositiveIntegers(seedsDef, false);
+
+		var countFiles = 0;
+		try (var progress = new ProgressPercentage("Writing files to: " + outputDir)) {
+			progress.setMaximum((long) reactionsList.size() * seeds.size());
+			for (var reactions : reactionsList) {
+				for (var seed : seeds) {
+					var numberOfMolecules = (molecules > 0 ? molecules : Math.max(10, reactions / 10));
+					var numberOfFood = (food > 0 ? food : Math.max(2, numberOfMolecules / 100));
+					var parameters = new RandomCRSModel.Parameters(catalysis, numberOfMolecules, numberOfFood, reactions, meanCatalysts, exponent,
+							conjunctionProbability, reversibleProbability, inhibitorProbability, seed);
+
+					String fileName;
+					if (outputDir.equals("stdout"))
+						fileName = "stdout";
+					else {
+						fileName = outputDir + File.separator + fileNameTemplate
+								.replaceAll("%c", catalysis.name())
+								.replaceAll("%R", String.valueOf(reactions))
+								.replaceAll("%s", String.valueOf(seed));
+					}
+					if (binary) {
+						try (var outs = FileUtils.getOutputStreamPossiblyZIPorGZIP(fileName)) {
+							RandomCRSModel.writeBinary(parameters, outs);
+						}
+					} else {
+						try (var w = FileUtils.getOutputWriterPossiblyZIPorGZIP(fileName)) {
+							RandomCRSModel.write(parameters, w);
+							w.write("\n#EOF\n");
+						}
+					}
+					countFiles++;
+					progress.incrementProgress();
+				}
+			}
+		}
+		System.err.printf("Number of files created: %,d%n%n", countFiles);
+	}
+}
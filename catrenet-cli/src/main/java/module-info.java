@@ -0,0 +1,6 @@
+module catrenet.cli {
+	requires catrenet.core;
+	requires java.management;
+
+	exports catrenet.tools;
+}
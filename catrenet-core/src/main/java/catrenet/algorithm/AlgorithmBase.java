@@ -21,11 +21,8 @@ package catrenet.algorithm;
 
 import catrenet.model.ReactionSystem;
 import jloda.util.CanceledException;
-import jloda.util.PluginClassLoader;
-import jloda.util.StringUtils;
 import jloda.util.progress.ProgressListener;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
 /**
@@ -56,25 +53,16 @@ public abstract class AlgorithmBase implements IDescribed {
      * @return names of all known algorithms
      */
     public static Collection<String> listAllAlgorithms() {
-        var list = new ArrayList<String>();
-        for (var algorithm : PluginClassLoader.getInstances(AlgorithmBase.class, "catrenet.algorithm")) {
-            list.add(StringUtils.toCamelCase(algorithm.getName()));
-        }
-
-        return list;
+        return AlgorithmRegistry.getInstance().commandNames();
     }
 
     /**
-     * get algorithm by name
+     * get a new instance of an algorithm by name
      *
      * @param name
      * @return algorithm
      */
     public static AlgorithmBase getAlgorithmByName(String name) {
-        for (var algorithm : PluginClassLoader.getInstances(AlgorithmBase.class, "catrenet.algorithm")) {
-            if (name.equalsIgnoreCase(StringUtils.toCamelCase(algorithm.getName())))
-                return algorithm;
-        }
-        return null;
+        return AlgorithmRegistry.getInstance().newInstance(name);
     }
 }
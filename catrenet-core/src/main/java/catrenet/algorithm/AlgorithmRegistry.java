@@ -0,0 +1,166 @@
+/*
+ *  AlgorithmRegistry.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import jloda.util.StringUtils;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * registry of all algorithms, built once from the service providers declared for AlgorithmBase
+ * Algorithms are indexed by their static Name constant, so that no algorithm is instantiated when the registry is built.
+ * Only a provider that lacks this constant is instantiated to obtain its name. The metadata of an algorithm, which includes
+ * its description, is computed and cached on first request, new algorithm instances are only created on request
+ * Daniel Huson, 10.2026
+ */
+public class AlgorithmRegistry {
+	/**
+	 * metadata for one algorithm
+	 *
+	 * @param name        name of the algorithm, as reported by getName()
+	 * @param commandName name used on the command line (camel case)
+	 * @param description description of the algorithm
+	 * @param parameters  names of all algorithm parameters (properties)
+	 */
+	public record Entry(String name, String commandName, String description, List<String> parameters) {
+	}
+
+	private final Map<String, String> commandNameNameMap = new LinkedHashMap<>();
+	private final Map<String, ServiceLoader.Provider<AlgorithmBase>> commandNameProviderMap = new HashMap<>();
+	private final Map<String, Entry> commandNameEntryMap = new ConcurrentHashMap<>();
+
+	private AlgorithmRegistry() {
+		for (var provider : ServiceLoader.load(AlgorithmBase.class, AlgorithmBase.class.getClassLoader()).stream().toList()) {
+			var name = getName(provider);
+			var key = StringUtils.toCamelCase(name).toLowerCase();
+			if (!commandNameNameMap.containsKey(key)) {
+				commandNameNameMap.put(key, name);
+				commandNameProviderMap.put(key, provider);
+			}
+		}
+	}
+
+	/**
+	 * get the registry instance
+	 *
+	 * @return registry
+	 */
+	public static AlgorithmRegistry getInstance() {
+		return InstanceHolder.instance;
+	}
+
+	/**
+	 * get metadata for all known algorithms. This instantiates each algorithm once to obtain its description
+	 *
+	 * @return entries
+	 */
+	public Collection<Entry> entries() {
+		return commandNameNameMap.keySet().stream().map(this::getEntryForKey).toList();
+	}
+
+	/**
+	 * get the command names of all known algorithms
+	 *
+	 * @return command names
+	 */
+	public List<String> commandNames() {
+		return commandNameNameMap.values().stream().map(StringUtils::toCamelCase).toList();
+	}
+
+	/**
+	 * get the metadata for the named algorithm
+	 *
+	 * @param name command name or name, case-insensitive
+	 * @return entry or null
+	 */
+	public Entry getEntry(String name) {
+		var key = getKey(name);
+		return commandNameNameMap.containsKey(key) ? getEntryForKey(key) : null;
+	}
+
+	/**
+	 * creates a new instance of the named algorithm
+	 *
+	 * @param name command name or name, case-insensitive
+	 * @return new algorithm instance or null, if not found
+	 */
+	public AlgorithmBase newInstance(String name) {
+		var provider = commandNameProviderMap.get(getKey(name));
+		return provider != null ? provider.get() : null;
+	}
+
+	private String getKey(String name) {
+		var key = name.toLowerCase();
+		if (!commandNameNameMap.containsKey(key))
+			key = StringUtils.toCamelCase(name).toLowerCase();
+		return key;
+	}
+
+	private Entry getEntryForKey(String key) {
+		return commandNameEntryMap.computeIfAbsent(key, k -> {
+			var provider = commandNameProviderMap.get(k);
+			var name = commandNameNameMap.get(k);
+			return new Entry(name, StringUtils.toCamelCase(name), provider.get().getDescription(), listParameters(provider.type()));
+		});
+	}
+
+	/**
+	 * gets the name of the provided algorithm from its public static Name constant, if present, otherwise from an instance
+	 */
+	private static String getName(ServiceLoader.Provider<AlgorithmBase> provider) {
+		try {
+			var field = provider.type().getField("Name");
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class && field.get(null) instanceof String name)
+				return name;
+		} catch (ReflectiveOperationException ignored) {
+		}
+		return provider.get().getName();
+	}
+
+	/**
+	 * parameters are the properties exposed by an algorithm through public setXxx(value) methods that have a matching
+	 * getXxx() or isXxx() method
+	 */
+	private static List<String> listParameters(Class<? extends AlgorithmBase> clazz) {
+		var getters = new HashSet<String>();
+		for (var method : clazz.getMethods()) {
+			if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+				if (method.getName().startsWith("get"))
+					getters.add(method.getName().substring(3));
+				else if (method.getName().startsWith("is"))
+					getters.add(method.getName().substring(2));
+			}
+		}
+		var parameters = new ArrayList<String>();
+		for (var method : clazz.getMethods()) {
+			if (method.getName().startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())
+				&& getters.contains(method.getName().substring(3)))
+				parameters.add(Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4));
+		}
+		parameters.sort(String::compareTo);
+		return List.copyOf(parameters);
+	}
+
+	private static class InstanceHolder {
+		private static final AlgorithmRegistry instance = new AlgorithmRegistry();
+	}
+}
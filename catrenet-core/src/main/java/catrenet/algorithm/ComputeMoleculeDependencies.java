@@ -22,13 +22,9 @@ package catrenet.algorithm;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import catrenet.window.MainWindow;
-import jloda.fx.util.AService;
-import jloda.fx.window.NotificationManager;
 import jloda.graph.Graph;
 import jloda.graph.Node;
 import jloda.util.CanceledException;
-import jloda.util.StringUtils;
 import jloda.util.progress.ProgressListener;
 
 import java.util.ArrayList;
@@ -120,28 +116,4 @@ public class ComputeMoleculeDependencies implements IDescribed {
 		}
 		return false;
 	}
-
-	/**
-	 * run the calculation in a separate thread and then post process the graph
-	 *
-	 * @param mainWindow
-	 */
-	public static void run(MainWindow mainWindow) {
-		var service = new AService<Graph>(mainWindow.getStatusPane());
-		service.setCallable(() -> apply(service.getProgressListener(), mainWindow.getInputReactionSystem(), null));
-		service.setOnScheduled(e -> mainWindow.getDocument().setReactionDependencyNetwork(null));
-		service.setOnFailed(e -> NotificationManager.showError(service.getException().getMessage()));
-		service.setOnCancelled(e -> NotificationManager.showWarning("User canceled compute molecule dependencies"));
-		service.setOnSucceeded(a -> {
-			var graph = service.getValue();
-			mainWindow.getDocument().setReactionDependencyNetwork(graph);
-			final var textArea = mainWindow.getTabManager().getTextTab("Molecule dependencies", null).getTextArea();
-			var buf = new StringBuilder();
-			buf.append("# Molecule dependencies (%,d):%n".formatted(graph.getNumberOfEdges()));
-			var lines = graph.edgeStream().map(e -> e.getSource().getInfo() + " -> " + e.getTarget().getInfo()).sorted().toList();
-			buf.append(StringUtils.toString(lines, "\n"));
-			textArea.setText(buf.toString());
-		});
-		service.restart();
-	}
 }
@@ -22,16 +22,13 @@ package catrenet.algorithm;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import catrenet.window.MainWindow;
-import catrenet.window.MainWindowController;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.WeakChangeListener;
-import jloda.fx.util.AService;
 import jloda.util.CanceledException;
 import jloda.util.Single;
 import jloda.util.StringUtils;
+import jloda.util.progress.ProgressListener;
 import jloda.util.progress.ProgressSilent;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -46,24 +43,14 @@ public class ComputeNecessarilySpontaneousInRAF implements IDescribed {
         return "determine those reactions that must initially run uncatalyzed and then beome catalyzed later";
     }
 
-    public static void apply(MainWindow window, final ReactionSystem inputReactions, MainWindowController controller, ChangeListener<Boolean> runningListener) {
-
-		final AService<Collection<String>> service = new AService<>(controller.getBottomFlowPane());
-
-        service.setCallable(() -> {
-            final ReactionSystem maxRAF = (new MaxRAFAlgorithm()).apply(inputReactions, service.getProgressListener());
-            return maxRAF.getReactions().parallelStream().filter(r -> computeMaxRAFsForModifiedReactions(maxRAF, r) < maxRAF.getReactions().size()).map(Reaction::getName).collect(Collectors.toCollection(TreeSet::new));
-        });
-
-        service.runningProperty().addListener(new WeakChangeListener<>(runningListener));
-
-        service.setOnSucceeded(c -> {
-            final String output = String.format("Necessarily spontaneous reactions (%d): %s\n",
-                    service.getValue().size(), StringUtils.toString(service.getValue(), ", "));
-            controller.getLogTextArea().setText(controller.getLogTextArea().getText() + "\nMaxRAF: " + output);
-            window.getController().getLogTab().getTabPane().getSelectionModel().select(window.getController().getLogTab());
-        });
-        service.start();
+    /**
+     * computes the names of all reactions of the max RAF that are necessarily spontaneous
+     *
+     * @return names of necessarily spontaneous reactions
+     */
+    public static Collection<String> apply(final ReactionSystem inputReactions, ProgressListener progress) throws CanceledException {
+        final ReactionSystem maxRAF = (new MaxRAFAlgorithm()).apply(inputReactions, progress);
+        return maxRAF.getReactions().parallelStream().filter(r -> computeMaxRAFsForModifiedReactions(maxRAF, r) < maxRAF.getReactions().size()).map(Reaction::getName).collect(Collectors.toCollection(TreeSet::new));
     }
 
     private static int computeMaxRAFsForModifiedReactions(ReactionSystem maxRAF, Reaction r0) {
@@ -72,26 +59,26 @@ public class ComputeNecessarilySpontaneousInRAF implements IDescribed {
 
         final Single<Integer> maxSize = new Single<>(0);
         for (MoleculeType and : catalystConjunctions) {
-            final ReactionSystem input = new ReactionSystem();
-            input.getFoods().addAll(maxRAF.getFoods());
+            final ArrayList<Reaction> reactions = new ArrayList<>(maxRAF.size() + 1);
             for (Reaction r : maxRAF.getReactions()) {
                 if (r != r0)
-                    input.getReactions().add(r);
+                    reactions.add(r);
                 else {
                     if (r.getDirection() == Reaction.Direction.forward || r.getDirection() == Reaction.Direction.both) {
                         final Reaction modified = new Reaction(r.getName() + (r.getDirection() == Reaction.Direction.both ? "/+" : ""), r);
                         modified.setDirection(Reaction.Direction.forward);
                         modified.getReactants().addAll(MoleculeType.valuesOf(StringUtils.split(and.getName(), '&')));
-                        input.getReactions().add(modified);
+                        reactions.add(modified);
                     }
                     if (r.getDirection() == Reaction.Direction.reverse || r.getDirection() == Reaction.Direction.both) {
                         final Reaction modified = new Reaction(r.getName() + (r.getDirection() == Reaction.Direction.both ? "/-" : ""), r);
                         modified.setDirection(Reaction.Direction.reverse);
                         modified.getProducts().addAll(MoleculeType.valuesOf(StringUtils.split(and.getName(), '&')));
-                        input.getReactions().add(modified);
+                        reactions.add(modified);
                     }
                 }
             }
+            final ReactionSystem input = ReactionSystem.createUnmodifiable(null, maxRAF.getFoods(), reactions);
             try {
                 maxSize.set(Math.max(maxSize.get(), (int) (new MaxRAFAlgorithm()).apply(input, new ProgressSilent()).getReactionNames().stream().filter(n -> !n.endsWith("/-")).count()));
             } catch (CanceledException ignored) {
@@ -19,19 +19,15 @@
 
 package catrenet.algorithm;
 
+import catrenet.model.EdgeType;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import catrenet.view.EdgeType;
-import catrenet.window.MainWindow;
-import jloda.fx.util.AService;
-import jloda.fx.window.NotificationManager;
 import jloda.graph.Graph;
 import jloda.graph.Node;
 import jloda.util.Basic;
 import jloda.util.CanceledException;
 import jloda.util.ExecuteInParallel;
-import jloda.util.StringUtils;
 import jloda.util.progress.ProgressListener;
 
 import java.util.*;
@@ -254,30 +250,4 @@ public class ComputeReactionDependencies implements IDescribed {
 		progress.reportTaskCompleted();
 		return graph;
 	}
-
-	/**
-	 * run the calculation in a separate thread and then post process the graph
-	 *
-	 * @param mainWindow
-	 */
-	public static void run(MainWindow mainWindow) {
-		var service = new AService<Graph>(mainWindow.getStatusPane());
-		service.setCallable(() -> apply(service.getProgressListener(), mainWindow.getInputReactionSystem(), null));
-		service.setOnScheduled(e -> mainWindow.getDocument().setReactionDependencyNetwork(null));
-		service.setOnFailed(e -> NotificationManager.showError(service.getException().getMessage()));
-		service.setOnCancelled(e -> NotificationManager.showWarning("User canceled compute dependencies"));
-		service.setOnSucceeded(a -> {
-			var graph = service.getValue();
-			mainWindow.getDocument().setReactionDependencyNetwork(graph);
-			final var textArea = mainWindow.getTabManager().getTextTab("Dependencies", null).getTextArea();
-			var buf = new StringBuilder();
-			buf.append("# Earliest reactions (%,d):%n".formatted(graph.nodeStream().filter(v -> v.getInDegree() == 0 && v.getOutDegree() > 0).count()));
-			buf.append(StringUtils.toString(new TreeSet<>(graph.nodeStream().filter(v -> v.getInDegree() == 0 && v.getOutDegree() > 0).map(v -> v.getInfo().toString()).toList()), "\n")).append("\n");
-			buf.append("# Dependencies (%,d):%n".formatted(graph.getNumberOfEdges()));
-			var lines = graph.edgeStream().map(e -> e.getSource().getInfo() + " -> " + e.getTarget().getInfo()).sorted().toList();
-			buf.append(StringUtils.toString(lines, "\n"));
-			textArea.setText(buf.toString());
-		});
-		service.restart();
-	}
 }
@@ -56,9 +56,9 @@ public class Importance implements IDescribed {
             final var increment = 5000000 / inputSystem.getFoods().size();
 
             for (var food : inputSystem.getFoods()) {
-                final var replicateInput = inputSystem.shallowCopy();
-                replicateInput.setName("Food importance");
-                replicateInput.getFoods().remove(food);
+                final var foods = new ArrayList<>(inputSystem.getFoods());
+                foods.remove(food);
+                final var replicateInput = ReactionSystem.createUnmodifiable("Food importance", foods, inputSystem.getReactions());
                 final var replicateOutput = algorithm.apply(replicateInput, new ProgressSilent());
 
                 final var importance = 100f * (originalResult.size() - replicateOutput.size()) / (float) originalResult.size();
@@ -94,9 +94,9 @@ public class Importance implements IDescribed {
                 final var sizeToCompareAgainst = originalResult.size() - 1;
 
                 for (var reaction : inputSystem.getReactions()) {
-                    final var replicateInput = inputSystem.shallowCopy();
-                    replicateInput.setName("Reaction importance");
-                    replicateInput.getReactions().remove(reaction);
+                    final var reactions = new ArrayList<>(inputSystem.getReactions());
+                    reactions.remove(reaction);
+                    final var replicateInput = ReactionSystem.createUnmodifiable("Reaction importance", inputSystem.getFoods(), reactions);
                     final var replicateOutput = algorithm.apply(replicateInput, new ProgressSilent());
                     if (replicateOutput.size() < sizeToCompareAgainst) {
                         final var importance = 100f * (sizeToCompareAgainst - replicateOutput.size()) / sizeToCompareAgainst;
@@ -0,0 +1,219 @@
+/*
+ *  IncrementalAnalysis.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * runs algorithms on an input reaction system that changes by a few reactions between runs.
+ * For each algorithm, the last input and result are kept. If the food set is unchanged and only a few reactions were added or
+ * removed, the max CAF, max RAF, max pseudo RAF and the trivial CAFs and RAFs are updated from the previous result, otherwise
+ * the algorithm is run from scratch.
+ * <p>
+ * In the absence of inhibitions, the max RAF and max pseudo RAF are greatest fixed points and the max CAF is a least fixed
+ * point that all grow with the set of reactions. So, after removing reactions, the new result is contained in the previous one
+ * and is obtained by iterating on the remainder of the previous result. After adding reactions, the new result contains
+ * this and only the remaining reactions need to be decided, starting from the molecules that the contained part generates.
+ * Inhibitions break this monotonicity, so max CAFs and RAFs of systems with inhibitions are always recomputed.
+ * Daniel Huson, 10.2026
+ */
+public class IncrementalAnalysis {
+	private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+	private double maxChangeFraction = 0.1;
+
+	/**
+	 * applies the algorithm to the input, updating the previous result, if possible
+	 *
+	 * @return result
+	 */
+	public ReactionSystem apply(AlgorithmBase algorithm, ReactionSystem input, ProgressListener progress) throws CanceledException {
+		var reactions = identitySet(input.getReactions());
+		var foods = new HashSet<>(input.getFoods());
+		var inhibitionsPresent = reactions.stream().anyMatch(r -> !r.getInhibitions().isEmpty());
+		var kind = Kind.of(algorithm);
+
+		var previous = snapshots.get(algorithm.getName());
+		if (kind != null && previous != null && previous.kind() == kind && previous.foods().equals(foods)
+			&& (kind.isTrivial() || !inhibitionsPresent && !previous.inhibitionsPresent())) {
+			var added = identitySet(reactions);
+			added.removeAll(previous.reactions());
+			var removed = identitySet(previous.reactions());
+			removed.removeAll(reactions);
+			if (added.size() + removed.size() <= Math.max(10, maxChangeFraction * reactions.size())) {
+				var update = update(kind, foods, reactions, previous, added, removed, progress);
+				snapshots.put(algorithm.getName(), new Snapshot(kind, reactions, foods, inhibitionsPresent, update.reactions(), update.molecules()));
+				return createResult(algorithm.getName(), kind, input, update.reactions());
+			}
+		}
+		var result = algorithm.apply(input, progress);
+		if (kind != null)
+			snapshots.put(algorithm.getName(), new Snapshot(kind, reactions, foods, inhibitionsPresent, identitySet(result.getReactions()), null));
+		return result;
+	}
+
+	private static FixedPoint update(Kind kind, Set<MoleculeType> foods, Set<Reaction> reactions, Snapshot previous, Set<Reaction> added, Set<Reaction> removed,
+									 ProgressListener progress) throws CanceledException {
+		if (kind.isTrivial()) {
+			var selected = identitySet(previous.result());
+			selected.removeAll(removed);
+			for (var reaction : added) {
+				if (kind == Kind.TrivialCAFs ? TrivialCAFsAlgorithm.isTrivialCAF(reaction, foods) : TrivialRAFsAlgorithm.isTrivialRAF(reaction, foods))
+					selected.add(reaction);
+			}
+			return new FixedPoint(selected, null);
+		}
+
+		var fixedPoint = new FixedPoint(previous.result(), previous.molecules());
+		// if a reaction of the previous result was removed, the new result lies in the remainder of the previous one:
+		if (removed.stream().anyMatch(previous.result()::contains)) {
+			var kept = identitySet(previous.result());
+			kept.removeAll(removed);
+			fixedPoint = (kind == Kind.MaxCAF ? leastFixedPoint(foods, kept, progress) : greatestFixedPoint(kind == Kind.MaxPseudoRAF, foods, kept, progress));
+		}
+		// if reactions were added, the new result contains the current one, so only the other reactions need to be decided:
+		if (!added.isEmpty()) {
+			var selected = identitySet(fixedPoint.reactions());
+			var molecules = fixedPoint.molecules();
+			if (molecules == null)
+				molecules = (kind == Kind.MaxRAF ? Utilities.computeClosure(foods, selected) : Utilities.addAllMentionedProducts(foods, selected));
+			var candidates = identitySet(reactions);
+			candidates.removeAll(selected);
+			var extension = (kind == Kind.MaxCAF ? leastFixedPoint(molecules, candidates, progress) : greatestFixedPoint(kind == Kind.MaxPseudoRAF, molecules, candidates, progress));
+			selected.addAll(extension.reactions());
+			fixedPoint = new FixedPoint(selected, extension.molecules());
+		}
+		return fixedPoint;
+	}
+
+	private static ReactionSystem createResult(String name, Kind kind, ReactionSystem input, Set<Reaction> selected) {
+		var result = new ReactionSystem(name);
+		if (kind.isTrivial()) {
+			result.getReactions().setAll(input.getReactions().stream().filter(selected::contains).toList());
+			result.getFoods().setAll(result.computeMentionedFoods(input.getFoods()));
+		} else if (!selected.isEmpty()) {
+			result.getReactions().setAll(new TreeSet<>(selected));
+			result.getFoods().setAll(result.computeMentionedFoods(input.getFoods()));
+		}
+		return result;
+	}
+
+	/**
+	 * repeatedly removes all reactions that cannot run on the molecules generated from the given ones, as in MaxRAFAlgorithm
+	 * and MaxPseudoRAFAlgorithm
+	 *
+	 * @return the remaining reactions and the molecules that they generate
+	 */
+	private static FixedPoint greatestFixedPoint(boolean pseudo, Set<MoleculeType> molecules, Set<Reaction> reactions, ProgressListener progress) throws CanceledException {
+		var current = reactions;
+		while (true) {
+			progress.checkForCancel();
+			var generated = (pseudo ? Utilities.addAllMentionedProducts(molecules, current) : Utilities.computeClosure(molecules, current));
+			var next = Utilities.filterReactions(generated, current);
+			if (next.size() == current.size())
+				return new FixedPoint(identitySet(current), generated);
+			current = next;
+		}
+	}
+
+	/**
+	 * repeatedly adds all reactions that can run on the given molecules and the products of the reactions added so far,
+	 * as in MaxCAFAlgorithm
+	 *
+	 * @return the added reactions and the molecules that they generate
+	 */
+	private static FixedPoint leastFixedPoint(Set<MoleculeType> molecules, Set<Reaction> reactions, ProgressListener progress) throws CanceledException {
+		var current = Utilities.filterReactions(molecules, reactions);
+		while (true) {
+			progress.checkForCancel();
+			molecules = Utilities.addAllMentionedProducts(molecules, current);
+			var next = Utilities.filterReactions(molecules, reactions);
+			if (next.size() <= current.size())
+				return new FixedPoint(identitySet(current), molecules);
+			current = next;
+		}
+	}
+
+	/**
+	 * reactions are compared by identity, as the parsed input reuses the reaction objects of unchanged lines
+	 */
+	private static Set<Reaction> identitySet(Collection<Reaction> reactions) {
+		var set = Collections.newSetFromMap(new IdentityHashMap<Reaction, Boolean>(2 * reactions.size()));
+		set.addAll(reactions);
+		return set;
+	}
+
+	/**
+	 * forgets all previous results
+	 */
+	public void clear() {
+		snapshots.clear();
+	}
+
+	public double getMaxChangeFraction() {
+		return maxChangeFraction;
+	}
+
+	/**
+	 * set the largest fraction of reactions that may change for the results to be updated rather than recomputed
+	 */
+	public void setMaxChangeFraction(double maxChangeFraction) {
+		this.maxChangeFraction = maxChangeFraction;
+	}
+
+	private enum Kind {
+		MaxCAF, MaxRAF, MaxPseudoRAF, TrivialCAFs, TrivialRAFs;
+
+		boolean isTrivial() {
+			return this == TrivialCAFs || this == TrivialRAFs;
+		}
+
+		static Kind of(AlgorithmBase algorithm) {
+			if (algorithm.getClass() == MaxCAFAlgorithm.class)
+				return MaxCAF;
+			else if (algorithm.getClass() == MaxRAFAlgorithm.class)
+				return MaxRAF;
+			else if (algorithm.getClass() == MaxPseudoRAFAlgorithm.class)
+				return MaxPseudoRAF;
+			else if (algorithm.getClass() == TrivialCAFsAlgorithm.class)
+				return TrivialCAFs;
+			else if (algorithm.getClass() == TrivialRAFsAlgorithm.class)
+				return TrivialRAFs;
+			else
+				return null;
+		}
+	}
+
+	/**
+	 * the last input and result of an algorithm, and the molecules generated by the result, if known
+	 */
+	private record Snapshot(Kind kind, Set<Reaction> reactions, Set<MoleculeType> foods, boolean inhibitionsPresent,
+							Set<Reaction> result, Set<MoleculeType> molecules) {
+	}
+
+	private record FixedPoint(Set<Reaction> reactions, Set<MoleculeType> molecules) {
+	}
+}
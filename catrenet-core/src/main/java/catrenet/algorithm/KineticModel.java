@@ -0,0 +1,345 @@
+/*
+ *  KineticModel.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * a reaction system compiled for kinetic simulation. Molecules are numbered in alphabetical order and each direction
+ * of each reaction is a channel, followed by one decay channel for each non-food molecule. For each channel, the model
+ * holds its reactants and their coefficients, its column of the sparse stoichiometry matrix, its catalyst conjunctions
+ * and its inhibitors.
+ * <p>
+ * The rate of a channel is k * h(x) * c(x) / (1 + s * i(x)), where h(x) is the mass-action term of the reactants,
+ * c(x) is the uncatalyzed rate plus, for each catalyst conjunction, the product of the amounts of its elements (or 1,
+ * if the reaction has no catalyst), i(x) is the total amount of inhibitors and s is the inhibition strength.
+ * Decay channels have rate d * x
+ * Daniel Huson, 10.2026
+ */
+public final class KineticModel {
+	/**
+	 * kinetic constants
+	 *
+	 * @param rateConstant       rate constant k of all reactions
+	 * @param uncatalyzedRate    rate of a catalyzed reaction in the absence of all catalysts, relative to one catalyst molecule
+	 * @param inhibitionStrength inhibition strength s
+	 * @param decayRate          decay rate d of each non-food molecule
+	 */
+	public record Constants(double rateConstant, double uncatalyzedRate, double inhibitionStrength, double decayRate) {
+		public Constants {
+			if (!(rateConstant > 0))
+				throw new IllegalArgumentException("Rate constant: must be positive");
+			if (!(uncatalyzedRate >= 0 && inhibitionStrength >= 0 && decayRate >= 0))
+				throw new IllegalArgumentException("Uncatalyzed rate, inhibition strength and decay rate: must be non-negative");
+		}
+	}
+
+	final String[] molecules;
+	final boolean[] food;
+	final int numberOfReactions;
+
+	final int[] channel2reaction; // -1 for decay channels
+	final int[][] reactants;
+	final int[][] reactantCoefficients;
+	final int[][] changed; // molecules whose amount changes when the channel fires
+	final int[][] changes;
+	final int[][][] catalysts; // null, if uncatalyzed
+	final int[][] inhibitors;
+
+	/**
+	 * compiles the given reaction system
+	 */
+	public KineticModel(ReactionSystem reactionSystem) {
+		var reactions = new ArrayList<>(reactionSystem.getReactions());
+		reactions.sort(Comparator.comparing(Reaction::getName));
+		numberOfReactions = reactions.size();
+
+		var moleculeSet = new TreeSet<>(reactionSystem.getFoods());
+		for (var reaction : reactions) {
+			moleculeSet.addAll(reaction.getReactants());
+			moleculeSet.addAll(reaction.getProducts());
+			moleculeSet.addAll(reaction.getInhibitions());
+			moleculeSet.addAll(reaction.getCatalystElements());
+		}
+		var molecule2index = new HashMap<MoleculeType, Integer>();
+		molecules = new String[moleculeSet.size()];
+		for (var molecule : moleculeSet) {
+			molecules[molecule2index.size()] = molecule.getName();
+			molecule2index.put(molecule, molecule2index.size());
+		}
+		food = new boolean[molecules.length];
+		for (var molecule : reactionSystem.getFoods())
+			food[molecule2index.get(molecule)] = true;
+
+		var channel2reactionList = new ArrayList<Integer>();
+		var reactantsList = new ArrayList<int[]>();
+		var coefficientsList = new ArrayList<int[]>();
+		var changedList = new ArrayList<int[]>();
+		var changesList = new ArrayList<int[]>();
+		var catalystsList = new ArrayList<int[][]>();
+		var inhibitorsList = new ArrayList<int[]>();
+
+		for (var r = 0; r < reactions.size(); r++) {
+			var reaction = reactions.get(r);
+			int[][] conjunctions = null;
+			if (!reaction.getCatalysts().isBlank()) {
+				conjunctions = reaction.getCatalystConjunctions().stream()
+						.map(c -> Arrays.stream(StringUtils.split(c.getName(), '&')).mapToInt(name -> molecule2index.get(MoleculeType.valueOf(name))).distinct().toArray())
+						.toArray(int[][]::new);
+			}
+			var inhibitions = reaction.getInhibitions().stream().mapToInt(molecule2index::get).toArray();
+
+			for (var forward : List.of(true, false)) {
+				if (forward ? reaction.getDirection() == Reaction.Direction.reverse : reaction.getDirection() == Reaction.Direction.forward)
+					continue;
+				var inputs = (forward ? reaction.getReactants() : reaction.getProducts());
+				var outputs = (forward ? reaction.getProducts() : reaction.getReactants());
+
+				var change = new TreeMap<Integer, Integer>();
+				var inputIndices = new int[inputs.size()];
+				var inputCoefficients = new int[inputs.size()];
+				var i = 0;
+				for (var molecule : inputs) {
+					var coefficient = (forward ? reaction.getReactantCoefficient(molecule) : reaction.getProductCoefficient(molecule));
+					inputIndices[i] = molecule2index.get(molecule);
+					inputCoefficients[i++] = coefficient;
+					change.merge(molecule2index.get(molecule), -coefficient, Integer::sum);
+				}
+				for (var molecule : outputs) {
+					var coefficient = (forward ? reaction.getProductCoefficient(molecule) : reaction.getReactantCoefficient(molecule));
+					change.merge(molecule2index.get(molecule), coefficient, Integer::sum);
+				}
+				change.values().removeIf(value -> value == 0);
+
+				channel2reactionList.add(r);
+				reactantsList.add(inputIndices);
+				coefficientsList.add(inputCoefficients);
+				changedList.add(change.keySet().stream().mapToInt(Integer::intValue).toArray());
+				changesList.add(change.values().stream().mapToInt(Integer::intValue).toArray());
+				catalystsList.add(conjunctions);
+				inhibitorsList.add(inhibitions);
+			}
+		}
+		for (var m = 0; m < molecules.length; m++) {
+			if (!food[m]) {
+				channel2reactionList.add(-1);
+				reactantsList.add(new int[]{m});
+				coefficientsList.add(new int[]{1});
+				changedList.add(new int[]{m});
+				changesList.add(new int[]{-1});
+				catalystsList.add(null);
+				inhibitorsList.add(new int[0]);
+			}
+		}
+
+		channel2reaction = channel2reactionList.stream().mapToInt(Integer::intValue).toArray();
+		reactants = reactantsList.toArray(int[][]::new);
+		reactantCoefficients = coefficientsList.toArray(int[][]::new);
+		changed = changedList.toArray(int[][]::new);
+		changes = changesList.toArray(int[][]::new);
+		catalysts = catalystsList.toArray(int[][][]::new);
+		inhibitors = inhibitorsList.toArray(int[][]::new);
+	}
+
+	/**
+	 * the names of all molecules, in the order used for amounts
+	 */
+	public List<String> getMolecules() {
+		return List.of(molecules);
+	}
+
+	public boolean isFood(int molecule) {
+		return food[molecule];
+	}
+
+	public int getNumberOfReactions() {
+		return numberOfReactions;
+	}
+
+	public int getNumberOfChannels() {
+		return channel2reaction.length;
+	}
+
+	/**
+	 * the distinct molecules whose amounts determine the rate of the channel
+	 */
+	int[] computeInputs(int channel) {
+		var set = new TreeSet<Integer>();
+		for (var m : reactants[channel])
+			set.add(m);
+		if (catalysts[channel] != null) {
+			for (var conjunction : catalysts[channel]) {
+				for (var m : conjunction)
+					set.add(m);
+			}
+		}
+		for (var m : inhibitors[channel])
+			set.add(m);
+		return set.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * for each molecule, the channels whose rates depend on its amount
+	 */
+	int[][] computeReaders() {
+		var readers = new ArrayList<TreeSet<Integer>>();
+		for (var m = 0; m < molecules.length; m++)
+			readers.add(new TreeSet<>());
+		for (var c = 0; c < channel2reaction.length; c++) {
+			for (var m : computeInputs(c))
+				readers.get(m).add(c);
+		}
+		return readers.stream().map(set -> set.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+	}
+
+	/**
+	 * stochastic propensity of a channel, using the number of distinct combinations of reactant molecules
+	 */
+	double propensity(int channel, int[] counts, Constants constants) {
+		var value = (channel2reaction[channel] >= 0 ? constants.rateConstant() : constants.decayRate());
+		var channelReactants = reactants[channel];
+		var coefficients = reactantCoefficients[channel];
+		for (var i = 0; i < channelReactants.length; i++) {
+			var count = counts[channelReactants[i]];
+			for (var k = 0; k < coefficients[i]; k++)
+				value *= (double) (count - k) / (k + 1);
+			if (value <= 0)
+				return 0;
+		}
+		if (catalysts[channel] != null) {
+			var catalysis = constants.uncatalyzedRate();
+			for (var conjunction : catalysts[channel]) {
+				var product = 1.0;
+				for (var m : conjunction)
+					product *= counts[m];
+				catalysis += product;
+			}
+			value *= catalysis;
+		}
+		if (inhibitors[channel].length > 0 && constants.inhibitionStrength() > 0) {
+			var inhibition = 0L;
+			for (var m : inhibitors[channel])
+				inhibition += counts[m];
+			value /= (1 + constants.inhibitionStrength() * inhibition);
+		}
+		return value;
+	}
+
+	/**
+	 * deterministic mass-action rate of a channel, negative concentrations are treated as 0
+	 */
+	double rate(int channel, double[] concentrations, Constants constants) {
+		var value = (channel2reaction[channel] >= 0 ? constants.rateConstant() : constants.decayRate());
+		var channelReactants = reactants[channel];
+		var coefficients = reactantCoefficients[channel];
+		for (var i = 0; i < channelReactants.length; i++) {
+			var x = Math.max(0, concentrations[channelReactants[i]]);
+			value *= (coefficients[i] == 1 ? x : Math.pow(x, coefficients[i]));
+		}
+		if (value == 0)
+			return 0;
+		if (catalysts[channel] != null) {
+			var catalysis = constants.uncatalyzedRate();
+			for (var conjunction : catalysts[channel]) {
+				var product = 1.0;
+				for (var m : conjunction)
+					product *= Math.max(0, concentrations[m]);
+				catalysis += product;
+			}
+			value *= catalysis;
+		}
+		if (inhibitors[channel].length > 0 && constants.inhibitionStrength() > 0) {
+			var inhibition = 0.0;
+			for (var m : inhibitors[channel])
+				inhibition += Math.max(0, concentrations[m]);
+			value /= (1 + constants.inhibitionStrength() * inhibition);
+		}
+		return value;
+	}
+
+	/**
+	 * computes the partial derivatives of the deterministic rate of a channel with respect to its inputs
+	 *
+	 * @param inputs      the inputs of the channel, as computed by computeInputs
+	 * @param derivatives receives the partial derivative for each input
+	 */
+	void rateDerivatives(int channel, int[] inputs, double[] concentrations, Constants constants, double[] derivatives) {
+		Arrays.fill(derivatives, 0, inputs.length, 0.0);
+		var k = (channel2reaction[channel] >= 0 ? constants.rateConstant() : constants.decayRate());
+
+		var channelReactants = reactants[channel];
+		var coefficients = reactantCoefficients[channel];
+		var mass = 1.0;
+		for (var i = 0; i < channelReactants.length; i++)
+			mass *= Math.pow(Math.max(0, concentrations[channelReactants[i]]), coefficients[i]);
+
+		var catalysis = 1.0;
+		if (catalysts[channel] != null) {
+			catalysis = constants.uncatalyzedRate();
+			for (var conjunction : catalysts[channel]) {
+				var product = 1.0;
+				for (var m : conjunction)
+					product *= Math.max(0, concentrations[m]);
+				catalysis += product;
+			}
+		}
+
+		var inhibition = 1.0;
+		var inhibitionDerivative = 0.0;
+		if (inhibitors[channel].length > 0 && constants.inhibitionStrength() > 0) {
+			var total = 0.0;
+			for (var m : inhibitors[channel])
+				total += Math.max(0, concentrations[m]);
+			var denominator = 1 + constants.inhibitionStrength() * total;
+			inhibition = 1 / denominator;
+			inhibitionDerivative = -constants.inhibitionStrength() / (denominator * denominator);
+		}
+
+		for (var i = 0; i < channelReactants.length; i++) {
+			var massDerivative = coefficients[i] * Math.pow(Math.max(0, concentrations[channelReactants[i]]), coefficients[i] - 1);
+			for (var j = 0; j < channelReactants.length; j++) {
+				if (j != i)
+					massDerivative *= Math.pow(Math.max(0, concentrations[channelReactants[j]]), coefficients[j]);
+			}
+			derivatives[Arrays.binarySearch(inputs, channelReactants[i])] += k * massDerivative * catalysis * inhibition;
+		}
+		if (catalysts[channel] != null && mass > 0) {
+			for (var conjunction : catalysts[channel]) {
+				for (var m : conjunction) {
+					var product = 1.0;
+					for (var other : conjunction) {
+						if (other != m)
+							product *= Math.max(0, concentrations[other]);
+					}
+					derivatives[Arrays.binarySearch(inputs, m)] += k * mass * product * inhibition;
+				}
+			}
+		}
+		if (inhibitionDerivative != 0 && mass > 0) {
+			for (var m : inhibitors[channel])
+				derivatives[Arrays.binarySearch(inputs, m)] += k * mass * catalysis * inhibitionDerivative;
+		}
+	}
+}
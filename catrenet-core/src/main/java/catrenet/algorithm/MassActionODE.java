@@ -0,0 +1,609 @@
+/*
+ *  MassActionODE.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+import org.apache.commons.math3.exception.MathIllegalArgumentException;
+import org.apache.commons.math3.exception.MathIllegalStateException;
+import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
+import org.apache.commons.math3.ode.events.EventHandler;
+import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
+import org.apache.commons.math3.ode.sampling.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * deterministic mass-action kinetics of a catalytic reaction system, dx/dt = S v(x), where S is the sparse
+ * stoichiometry matrix and v(x) are the rates of the channels of the kinetic model.
+ * <p>
+ * Integrates using a linearly implicit Rosenbrock method (ROS2 of Verwer et al., for stiff systems), with the sparse
+ * Jacobian and a preconditioned BiCGSTAB linear solver, or the adaptive Dormand-Prince 5(4) method (for non-stiff
+ * systems). Integration stops when a steady state is reached, that is, when no concentration changes faster than the
+ * steady state tolerance times the largest concentration. Several sets of kinetic constants can be integrated in parallel
+ * Daniel Huson, 10.2026
+ */
+public class MassActionODE {
+	public enum Solver {Rosenbrock, DormandPrince}
+
+	private static final double GAMMA = 1 + 1 / Math.sqrt(2);
+
+	/**
+	 * integration settings
+	 *
+	 * @param solver               the solver
+	 * @param maxTime              integrate up to this time
+	 * @param sampleInterval       report the state at multiples of this time and at the end, or only at the end, if 0
+	 * @param foodConcentration    initial concentration of each food molecule, other molecules are initially absent
+	 * @param constantFood         keep the concentrations of food molecules constant
+	 * @param absoluteTolerance    absolute error tolerance of each step
+	 * @param relativeTolerance    relative error tolerance of each step
+	 * @param steadyStateTolerance stop when all rates of change are at most this times the largest concentration (or 1)
+	 */
+	public record Settings(Solver solver, double maxTime, double sampleInterval, double foodConcentration, boolean constantFood,
+						   double absoluteTolerance, double relativeTolerance, double steadyStateTolerance) {
+		public Settings {
+			if (!(maxTime > 0))
+				throw new IllegalArgumentException("Max time: must be positive");
+			if (!(sampleInterval >= 0))
+				throw new IllegalArgumentException("Sample interval: must be non-negative");
+			if (!(foodConcentration >= 0))
+				throw new IllegalArgumentException("Food concentration: must be non-negative");
+			if (!(absoluteTolerance > 0 && relativeTolerance > 0))
+				throw new IllegalArgumentException("Tolerances: must be positive");
+			if (!(steadyStateTolerance >= 0))
+				throw new IllegalArgumentException("Steady state tolerance: must be non-negative");
+		}
+	}
+
+	/**
+	 * result of one integration
+	 *
+	 * @param parameterSet         the number of the set of kinetic constants
+	 * @param time                 time reached
+	 * @param steps                number of accepted steps
+	 * @param maxRate              largest absolute rate of change of any concentration at the end
+	 * @param nonFoodSpecies       number of non-food molecule types whose concentration exceeds the absolute tolerance
+	 * @param nonFoodConcentration total concentration of non-food molecules
+	 * @param status               steady state, max time (no steady state reached) or failed (step size too small)
+	 */
+	public record Result(int parameterSet, double time, long steps, double maxRate, int nonFoodSpecies, double nonFoodConcentration, String status) {
+	}
+
+	/**
+	 * receives the states of an integration. Called by the thread that performs the integration, the array is reused
+	 */
+	public interface TimeSeriesListener {
+		void sample(int parameterSet, double time, double[] concentrations);
+	}
+
+	private final Settings settings;
+	private final KineticModel model;
+	private final boolean[] fixed;
+	private final double[] initialConcentrations;
+
+	// the Jacobian in compressed sparse row format, with all diagonal entries
+	private final int[][] inputs; // for each channel, the molecules that its rate depends on
+	private final int[][] positions; // for each channel, the entry of each pair of changed molecule and input, -1 for fixed molecules
+	private final int[] rowStart;
+	private final int[] columns;
+	private final int[] diagonal;
+
+	/**
+	 * sets up the integration of the given reaction system
+	 */
+	public MassActionODE(ReactionSystem reactionSystem, Settings settings) {
+		this.settings = settings;
+		this.model = new KineticModel(reactionSystem);
+
+		var n = model.molecules.length;
+		fixed = new boolean[n];
+		initialConcentrations = new double[n];
+		for (var m = 0; m < n; m++) {
+			if (model.isFood(m)) {
+				fixed[m] = settings.constantFood();
+				initialConcentrations[m] = settings.foodConcentration();
+			}
+		}
+
+		var numberOfChannels = model.getNumberOfChannels();
+		inputs = new int[numberOfChannels][];
+		var rows = new ArrayList<TreeSet<Integer>>(n);
+		for (var m = 0; m < n; m++) {
+			rows.add(new TreeSet<>());
+			rows.get(m).add(m);
+		}
+		for (var c = 0; c < numberOfChannels; c++) {
+			inputs[c] = model.computeInputs(c);
+			for (var row : model.changed[c]) {
+				if (!fixed[row]) {
+					for (var column : inputs[c])
+						rows.get(row).add(column);
+				}
+			}
+		}
+		rowStart = new int[n + 1];
+		for (var m = 0; m < n; m++)
+			rowStart[m + 1] = rowStart[m] + rows.get(m).size();
+		columns = new int[rowStart[n]];
+		diagonal = new int[n];
+		for (var m = 0; m < n; m++) {
+			var k = rowStart[m];
+			for (var column : rows.get(m)) {
+				if (column == m)
+					diagonal[m] = k;
+				columns[k++] = column;
+			}
+		}
+		positions = new int[numberOfChannels][];
+		for (var c = 0; c < numberOfChannels; c++) {
+			var changed = model.changed[c];
+			positions[c] = new int[changed.length * inputs[c].length];
+			for (var i = 0; i < changed.length; i++) {
+				for (var j = 0; j < inputs[c].length; j++)
+					positions[c][i * inputs[c].length + j] = (fixed[changed[i]] ? -1 : entry(changed[i], inputs[c][j]));
+			}
+		}
+	}
+
+	private int entry(int row, int column) {
+		var low = rowStart[row];
+		var high = rowStart[row + 1] - 1;
+		while (low <= high) {
+			var mid = (low + high) >>> 1;
+			if (columns[mid] < column)
+				low = mid + 1;
+			else if (columns[mid] > column)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	/**
+	 * the names of all molecules, in the order used for concentrations
+	 */
+	public List<String> getMolecules() {
+		return model.getMolecules();
+	}
+
+	public int getNumberOfChannels() {
+		return model.getNumberOfChannels();
+	}
+
+	/**
+	 * number of non-zero entries of the sparse Jacobian
+	 */
+	public int getNumberOfNonZeros() {
+		return columns.length;
+	}
+
+	/**
+	 * integrates for several sets of kinetic constants in parallel
+	 *
+	 * @param parameterSets  sets of kinetic constants, numbered from 1
+	 * @param executor       executor used to run integrations in parallel
+	 * @param listener       receives the states of all integrations, must be thread-safe, may be null
+	 * @param resultListener receives each result as soon as its integration is done, called on this thread, may be null
+	 * @param progress       progress listener
+	 * @return results, in order of parameter set
+	 */
+	public List<Result> apply(List<KineticModel.Constants> parameterSets, ExecutorService executor, TimeSeriesListener listener, Consumer<Result> resultListener, ProgressListener progress) throws CanceledException {
+		return ParallelRuns.apply(parameterSets.size(), executor, (parameterSet, canceled) -> run(parameterSet, parameterSets.get(parameterSet - 1), listener, canceled), resultListener, progress);
+	}
+
+	/**
+	 * integrates for one set of kinetic constants
+	 *
+	 * @param parameterSet the number reported to the listener and in the result
+	 * @param constants    the kinetic constants
+	 * @param listener     receives the states, may be null
+	 * @param progress     progress listener, used for cancellation
+	 * @return result
+	 */
+	public Result apply(int parameterSet, KineticModel.Constants constants, TimeSeriesListener listener, ProgressListener progress) throws CanceledException {
+		return run(parameterSet, constants, listener, progress::isUserCancelled);
+	}
+
+	private Result run(int parameterSet, KineticModel.Constants constants, TimeSeriesListener listener, BooleanSupplier canceled) throws CanceledException {
+		return switch (settings.solver()) {
+			case Rosenbrock -> runRosenbrock(parameterSet, constants, listener, canceled);
+			case DormandPrince -> runDormandPrince(parameterSet, constants, listener, canceled);
+		};
+	}
+
+	/**
+	 * ROS2 with step size control using the embedded first-order solution. Steps are shortened to end at sample times
+	 */
+	private Result runRosenbrock(int parameterSet, KineticModel.Constants constants, TimeSeriesListener listener, BooleanSupplier canceled) throws CanceledException {
+		var n = initialConcentrations.length;
+		var y = initialConcentrations.clone();
+		var yNew = new double[n];
+		var f0 = new double[n];
+		var f1 = new double[n];
+		var k1 = new double[n];
+		var k2 = new double[n];
+		var jacobian = new double[columns.length];
+		var matrix = new double[columns.length];
+		var solver = new LinearSolver(n);
+		var buffer = new double[model.molecules.length];
+
+		var sampleInterval = settings.sampleInterval();
+		var sampling = (listener != null && sampleInterval > 0);
+		var nextSample = 0.0;
+		var lastSample = -1.0;
+
+		var time = 0.0;
+		var h = 1e-3 * (sampling ? Math.min(sampleInterval, settings.maxTime()) : settings.maxTime());
+		var minStep = 1e-12 * settings.maxTime();
+		var steps = 0L;
+		String status;
+
+		derivatives(y, constants, f0);
+		while (true) {
+			if (sampling && time >= nextSample) {
+				listener.sample(parameterSet, time, y);
+				lastSample = time;
+				nextSample += sampleInterval;
+			}
+			if (isSteadyState(y, f0)) {
+				status = "steady state";
+				break;
+			}
+			if (time >= settings.maxTime()) {
+				status = "max time";
+				break;
+			}
+			if (h < minStep) {
+				status = "failed";
+				break;
+			}
+
+			var end = (sampling ? Math.min(nextSample, settings.maxTime()) : settings.maxTime());
+			var step = Math.min(h, end - time);
+
+			jacobian(y, constants, jacobian, buffer);
+			for (var row = 0; row < n; row++) {
+				for (var k = rowStart[row]; k < rowStart[row + 1]; k++)
+					matrix[k] = (columns[k] == row ? 1 : 0) - GAMMA * step * jacobian[k];
+			}
+			if (!solver.solve(matrix, f0, k1)) {
+				h = 0.5 * step;
+				continue;
+			}
+			for (var i = 0; i < n; i++)
+				yNew[i] = y[i] + step * k1[i];
+			derivatives(yNew, constants, f1);
+			for (var i = 0; i < n; i++)
+				f1[i] -= 2 * k1[i];
+			if (!solver.solve(matrix, f1, k2)) {
+				h = 0.5 * step;
+				continue;
+			}
+
+			var error = 0.0;
+			for (var i = 0; i < n; i++) {
+				yNew[i] = y[i] + 1.5 * step * k1[i] + 0.5 * step * k2[i];
+				var scale = settings.absoluteTolerance() + settings.relativeTolerance() * Math.max(Math.abs(y[i]), Math.abs(yNew[i]));
+				var e = 0.5 * step * (k1[i] + k2[i]) / scale;
+				error += e * e;
+			}
+			error = Math.sqrt(error / Math.max(1, n));
+
+			if (error <= 1) {
+				time = (step == end - time ? end : time + step);
+				System.arraycopy(yNew, 0, y, 0, n);
+				derivatives(y, constants, f0);
+				steps++;
+				if ((steps & 0x3F) == 0 && canceled.getAsBoolean())
+					throw new CanceledException();
+			}
+			h = step * Math.min(5, Math.max(0.2, 0.9 / Math.sqrt(Math.max(error, 1e-10))));
+		}
+		if (listener != null && lastSample != time)
+			listener.sample(parameterSet, time, y);
+		return createResult(parameterSet, time, steps, y, f0, status);
+	}
+
+	/**
+	 * Dormand-Prince 5(4), using the integrator of Apache Commons Math, with a steady state event
+	 */
+	private Result runDormandPrince(int parameterSet, KineticModel.Constants constants, TimeSeriesListener listener, BooleanSupplier canceled) throws CanceledException {
+		var n = initialConcentrations.length;
+		var y = initialConcentrations.clone();
+		var f = new double[n];
+
+		var integrator = new DormandPrince54Integrator(1e-12 * settings.maxTime(), settings.maxTime(), settings.absoluteTolerance(), settings.relativeTolerance());
+		var steps = new long[]{0};
+		var lastSample = new double[]{-1};
+		integrator.addStepHandler(new StepHandler() {
+			@Override
+			public void init(double t0, double[] y0, double t) {
+			}
+
+			@Override
+			public void handleStep(StepInterpolator interpolator, boolean isLast) {
+				steps[0]++;
+				if ((steps[0] & 0x3F) == 0 && canceled.getAsBoolean())
+					throw new CancellationRequest();
+			}
+		});
+		if (listener != null && settings.sampleInterval() > 0) {
+			integrator.addStepHandler(new StepNormalizer(settings.sampleInterval(), new FixedStepHandler() {
+				@Override
+				public void init(double t0, double[] y0, double t) {
+				}
+
+				@Override
+				public void handleStep(double t, double[] state, double[] derivatives, boolean isLast) {
+					listener.sample(parameterSet, t, state);
+					lastSample[0] = t;
+				}
+			}, StepNormalizerMode.MULTIPLES, StepNormalizerBounds.FIRST));
+		}
+		var buffer = new double[n];
+		integrator.addEventHandler(new EventHandler() {
+			@Override
+			public void init(double t0, double[] y0, double t) {
+			}
+
+			@Override
+			public double g(double t, double[] state) {
+				derivatives(state, constants, buffer);
+				return steadyStateDistance(state, buffer);
+			}
+
+			@Override
+			public Action eventOccurred(double t, double[] state, boolean increasing) {
+				return Action.STOP;
+			}
+
+			@Override
+			public void resetState(double t, double[] state) {
+			}
+		}, settings.maxTime() / 100, 1e-9 * settings.maxTime(), 100);
+
+		var time = 0.0;
+		String status;
+		derivatives(y, constants, f);
+		if (isSteadyState(y, f))
+			status = "steady state";
+		else {
+			try {
+				time = integrator.integrate(new FirstOrderDifferentialEquations() {
+					@Override
+					public int getDimension() {
+						return n;
+					}
+
+					@Override
+					public void computeDerivatives(double t, double[] state, double[] derivatives) {
+						MassActionODE.this.derivatives(state, constants, derivatives);
+					}
+				}, 0, initialConcentrations, settings.maxTime(), y);
+				derivatives(y, constants, f);
+				status = (time < settings.maxTime() || isSteadyState(y, f) ? "steady state" : "max time");
+			} catch (CancellationRequest ex) {
+				throw new CanceledException();
+			} catch (MathIllegalArgumentException | MathIllegalStateException ex) {
+				derivatives(y, constants, f);
+				status = "failed";
+			}
+		}
+		if (listener != null && lastSample[0] != time)
+			listener.sample(parameterSet, time, y);
+		return createResult(parameterSet, time, steps[0], y, f, status);
+	}
+
+	/**
+	 * the rate kernel: computes the rate of each channel and adds its contribution to the rates of change of its molecules
+	 */
+	private void derivatives(double[] y, KineticModel.Constants constants, double[] dy) {
+		Arrays.fill(dy, 0.0);
+		for (var c = 0; c < inputs.length; c++) {
+			var rate = model.rate(c, y, constants);
+			if (rate != 0) {
+				var changed = model.changed[c];
+				var changes = model.changes[c];
+				for (var i = 0; i < changed.length; i++)
+					dy[changed[i]] += changes[i] * rate;
+			}
+		}
+		for (var m = 0; m < dy.length; m++) {
+			if (fixed[m])
+				dy[m] = 0;
+		}
+	}
+
+	/**
+	 * computes the sparse Jacobian of the rates of change
+	 */
+	private void jacobian(double[] y, KineticModel.Constants constants, double[] values, double[] buffer) {
+		Arrays.fill(values, 0.0);
+		for (var c = 0; c < inputs.length; c++) {
+			var channelInputs = inputs[c];
+			model.rateDerivatives(c, channelInputs, y, constants, buffer);
+			var changes = model.changes[c];
+			var channelPositions = positions[c];
+			for (var i = 0; i < changes.length; i++) {
+				for (var j = 0; j < channelInputs.length; j++) {
+					var position = channelPositions[i * channelInputs.length + j];
+					if (position >= 0)
+						values[position] += changes[i] * buffer[j];
+				}
+			}
+		}
+	}
+
+	private boolean isSteadyState(double[] y, double[] dy) {
+		return steadyStateDistance(y, dy) <= 0;
+	}
+
+	/**
+	 * the largest rate of change minus the steady state tolerance times the largest concentration (or 1)
+	 */
+	private double steadyStateDistance(double[] y, double[] dy) {
+		var maxRate = 0.0;
+		var maxConcentration = 1.0;
+		for (var m = 0; m < y.length; m++) {
+			maxRate = Math.max(maxRate, Math.abs(dy[m]));
+			maxConcentration = Math.max(maxConcentration, Math.abs(y[m]));
+		}
+		return maxRate - settings.steadyStateTolerance() * maxConcentration;
+	}
+
+	private Result createResult(int parameterSet, double time, long steps, double[] y, double[] dy, String status) {
+		var maxRate = 0.0;
+		var nonFoodSpecies = 0;
+		var nonFoodConcentration = 0.0;
+		for (var m = 0; m < y.length; m++) {
+			maxRate = Math.max(maxRate, Math.abs(dy[m]));
+			if (!model.isFood(m) && y[m] > settings.absoluteTolerance()) {
+				nonFoodSpecies++;
+				nonFoodConcentration += y[m];
+			}
+		}
+		return new Result(parameterSet, time, steps, maxRate, nonFoodSpecies, nonFoodConcentration, status);
+	}
+
+	private static double dot(double[] a, double[] b) {
+		var sum = 0.0;
+		for (var i = 0; i < a.length; i++)
+			sum += a[i] * b[i];
+		return sum;
+	}
+
+	private static double norm(double[] a) {
+		return Math.sqrt(dot(a, a));
+	}
+
+	/**
+	 * thrown by the step handler to abort an integration
+	 */
+	private static class CancellationRequest extends RuntimeException {
+	}
+
+	/**
+	 * BiCGSTAB with Jacobi preconditioning, for the sparse linear systems of the Rosenbrock method
+	 */
+	private class LinearSolver {
+		private final double[] r;
+		private final double[] r0;
+		private final double[] p;
+		private final double[] v;
+		private final double[] s;
+		private final double[] t;
+		private final double[] pHat;
+		private final double[] sHat;
+		private final int maxIterations;
+
+		private LinearSolver(int n) {
+			r = new double[n];
+			r0 = new double[n];
+			p = new double[n];
+			v = new double[n];
+			s = new double[n];
+			t = new double[n];
+			pHat = new double[n];
+			sHat = new double[n];
+			maxIterations = Math.max(100, Math.min(n, 2000));
+		}
+
+		/**
+		 * solves matrix * x = b
+		 *
+		 * @return true, if converged
+		 */
+		private boolean solve(double[] matrix, double[] b, double[] x) {
+			var n = b.length;
+			var bNorm = norm(b);
+			Arrays.fill(x, 0.0);
+			if (bNorm == 0)
+				return true;
+			var tolerance = 1e-10 * bNorm;
+
+			System.arraycopy(b, 0, r, 0, n);
+			System.arraycopy(b, 0, r0, 0, n);
+			Arrays.fill(p, 0.0);
+			Arrays.fill(v, 0.0);
+			double rho = 1, alpha = 1, omega = 1;
+
+			for (var iteration = 0; iteration < maxIterations; iteration++) {
+				var rhoNext = dot(r0, r);
+				if (rhoNext == 0 || omega == 0)
+					return false;
+				var beta = (rhoNext / rho) * (alpha / omega);
+				for (var i = 0; i < n; i++)
+					p[i] = r[i] + beta * (p[i] - omega * v[i]);
+				precondition(matrix, p, pHat);
+				multiply(matrix, pHat, v);
+				var denominator = dot(r0, v);
+				if (denominator == 0)
+					return false;
+				alpha = rhoNext / denominator;
+				for (var i = 0; i < n; i++)
+					s[i] = r[i] - alpha * v[i];
+				if (norm(s) <= tolerance) {
+					for (var i = 0; i < n; i++)
+						x[i] += alpha * pHat[i];
+					return true;
+				}
+				precondition(matrix, s, sHat);
+				multiply(matrix, sHat, t);
+				var tt = dot(t, t);
+				if (tt == 0)
+					return false;
+				omega = dot(t, s) / tt;
+				for (var i = 0; i < n; i++) {
+					x[i] += alpha * pHat[i] + omega * sHat[i];
+					r[i] = s[i] - omega * t[i];
+				}
+				if (norm(r) <= tolerance)
+					return true;
+				rho = rhoNext;
+			}
+			return false;
+		}
+
+		private void multiply(double[] matrix, double[] x, double[] result) {
+			for (var row = 0; row < result.length; row++) {
+				var sum = 0.0;
+				for (var k = rowStart[row]; k < rowStart[row + 1]; k++)
+					sum += matrix[k] * x[columns[k]];
+				result[row] = sum;
+			}
+		}
+
+		private void precondition(double[] matrix, double[] x, double[] result) {
+			for (var row = 0; row < result.length; row++) {
+				var d = matrix[diagonal[row]];
+				result[row] = (d != 0 ? x[row] / d : x[row]);
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ *  MinIRAFHeuristic.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.CollectionUtils;
+import jloda.util.progress.ProgressListener;
+import jloda.util.progress.ProgressSilent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * heuristically tries to compute a minimum irreducible RAF
+ * Daniel Huson, 3.2020
+ * Based on notes by Mike Steel
+ */
+public class MinIRAFHeuristic extends AlgorithmBase {
+    public static final String Name = "iRAF";
+
+    private int numberOfRandomInsertionOrders = 100;
+
+    @Override
+    public String getName() {
+        return Name;
+    }
+
+    @Override
+    public String getDescription() {
+        return "searches for irreducible RAFs in a heuristic fashion [HS23]";
+    }
+
+    /**
+	 * heuristically tries to compute a minimum irreducible RAF
+     *
+     * @param input - unexpanded catalytic reaction system
+     * @return irr RAF or null
+     */
+    public ReactionSystem apply(ReactionSystem input, ProgressListener progress) throws CanceledException {
+		var list = applyAllSmallest(input, progress);
+		if (!list.isEmpty())
+			return list.get(0);
+		else return null;
+    }
+
+    /**
+	 * heuristically tries to compute a minimum irreducible RAF
+     *
+     * @param input - unexpanded catalytic reaction system
+     * @return irr RAF or null
+     */
+    public ArrayList<ReactionSystem> applyAllSmallest(ReactionSystem input, ProgressListener progress) throws CanceledException {
+        final var maxRAF = new MaxRAFAlgorithm().apply(input, new ProgressSilent());
+        // sorted by name, so that the random orderings do not depend on the order of the reactions in the max RAF
+        final var reactions = new ArrayList<>(new TreeSet<>(maxRAF.getReactions()));
+
+        progress.setMaximum(getNumberOfRandomInsertionOrders());
+        progress.setProgress(0);
+
+        // each run removes reactions in a random order given by the master seed and the run number, so runs are
+        // independent and are performed in parallel, and the merged result doesn't depend on the number of threads.
+        // The runs don't use the progress listener, which need not be thread-safe, instead, the calling thread
+        // reports their progress and checks for cancellation
+        final var canceled = new AtomicBoolean(false);
+        final var completed = new AtomicInteger(0);
+        final var smallestSize = new AtomicInteger(maxRAF.size());
+        final var task = ForkJoinPool.commonPool().submit(() -> IntStream.range(0, getNumberOfRandomInsertionOrders()).parallel().mapToObj(run -> {
+            final var smaller = new ArrayList<ReactionSystem>();
+            var work = maxRAF;
+            try {
+                for (var r : RandomStreams.shuffle(reactions, RandomStreams.get(Name, run))) {
+                    if (canceled.get())
+                        return smaller;
+                    var reactionsWithout = new ArrayList<>(work.getReactions());
+                    reactionsWithout.remove(r);
+                    var next = new MaxRAFAlgorithm().apply(ReactionSystem.createUnmodifiable(Name, work.getFoods(), reactionsWithout), new ProgressSilent());
+                    next.setName(Name);
+                    if (next.size() > 0 && next.size() <= reactionsWithout.size()) {
+                        work = next;
+                        // sizes only shrink within a run, so only the latest result of a run can be among the smallest overall,
+                        // and it is kept only while no smaller one has been found by any run
+                        smaller.clear();
+                        if (next.size() <= smallestSize.accumulateAndGet(next.size(), Math::min))
+                            smaller.add(next);
+                        if (next.size() == 1)
+                            break;
+                    }
+                }
+                completed.incrementAndGet();
+            } catch (CanceledException ex) {
+                canceled.set(true);
+            }
+            return smaller;
+        }).toList());
+
+        List<ArrayList<ReactionSystem>> runs;
+        var reportedSize = maxRAF.size();
+        while (true) {
+            try {
+                runs = task.get(100, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException ignored) {
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                canceled.set(true);
+                runs = task.join();
+                break;
+            } catch (ExecutionException ex) {
+                throw (ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(ex.getCause()));
+            }
+            progress.setProgress(completed.get());
+            if (smallestSize.get() < reportedSize) {
+                reportedSize = smallestSize.get();
+                progress.setSubtask("" + reportedSize);
+            }
+            try {
+                progress.checkForCancel();
+            } catch (CanceledException ex) {
+                canceled.set(true);
+                runs = task.join();
+                break;
+            }
+        }
+
+        // merge runs in order
+        final var best = new ArrayList<ReactionSystem>();
+        var bestSize = maxRAF.size();
+        for (var smaller : runs) {
+            for (var next : smaller) {
+                if (next.size() < bestSize) {
+                    best.clear();
+                    bestSize = next.size();
+                }
+                if (next.size() == bestSize && best.stream().noneMatch(a -> CollectionUtils.equalsAsSets(next.getReactions(), a.getReactions()))) {
+                    best.add(next);
+                }
+            }
+        }
+        if (!canceled.get()) {
+            progress.setProgress(completed.get());
+            if (bestSize < reportedSize)
+                progress.setSubtask("" + bestSize);
+            progress.reportTaskCompleted();
+        }
+
+        if (best.isEmpty()) {
+            var result = maxRAF.shallowCopy();
+            result.setName(Name);
+            best.add(result);
+        }
+        return best;
+    }
+
+    public int getNumberOfRandomInsertionOrders() {
+        return numberOfRandomInsertionOrders;
+    }
+
+    public void setNumberOfRandomInsertionOrders(int numberOfRandomInsertionOrders) {
+        this.numberOfRandomInsertionOrders = numberOfRandomInsertionOrders;
+    }
+}
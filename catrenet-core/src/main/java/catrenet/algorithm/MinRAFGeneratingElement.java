@@ -22,10 +22,6 @@ package catrenet.algorithm;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import javafx.beans.property.IntegerProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import jloda.fx.window.NotificationManager;
 import jloda.util.CanceledException;
 import jloda.util.SetUtils;
 import jloda.util.StringUtils;
@@ -33,6 +29,7 @@ import jloda.util.progress.ProgressListener;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static catrenet.io.ModelIO.FORMAL_FOOD;
 
@@ -47,7 +44,7 @@ public class MinRAFGeneratingElement extends AlgorithmBase {
     private final MinIRAFHeuristic minIRAFHeuristic;
 
 
-    private final ObservableList<MoleculeType> targets = FXCollections.observableArrayList();
+    private final ArrayList<MoleculeType> targets = new ArrayList<>();
 
     public MinRAFGeneratingElement() {
         this.minIRAFHeuristic = new MinIRAFHeuristic();
@@ -63,7 +60,7 @@ public class MinRAFGeneratingElement extends AlgorithmBase {
         return "Identifies a subset of the maxRAF that is (i) a RAF and (ii) generates a given element x (not in the food set) and (iii) which is minimal amongst all such sets satisfying (i) and (ii)";
     }
 
-    public ObservableList<MoleculeType> getTargets() {
+    public List<MoleculeType> getTargets() {
         return targets;
     }
 
@@ -84,16 +81,16 @@ public class MinRAFGeneratingElement extends AlgorithmBase {
         empty.setName(resultSystemName);
 
         if (getTargets().isEmpty()) {
-            NotificationManager.showWarning("No targets selected");
+            System.err.println("Warning: No targets selected");
             return empty;
         } else if (SetUtils.intersect(input.getFoods(), getTargets())) {
-            NotificationManager.showWarning("A target element is contained in food set");
+            System.err.println("Warning: A target element is contained in food set");
             return empty;
         }
 
         var maxRAF = (new MaxRAFAlgorithm()).apply(input, progress);
         if (maxRAF.size() == 0) {
-            NotificationManager.showWarning("Max RAF is empty");
+            System.err.println("Warning: Max RAF is empty");
             return empty;
         }
 
@@ -110,13 +107,13 @@ public class MinRAFGeneratingElement extends AlgorithmBase {
         var iRAF = minIRAFHeuristic.apply(augmented, progress);
         iRAF.setName(resultSystemName);
         if (iRAF.size() == 0) {
-            NotificationManager.showWarning("Irreducible RAF is empty");
+            System.err.println("Warning: Irreducible RAF is empty");
             return empty;
         }
         var coreRAF = new CoreRAFAlgorithm().apply(augmented, progress);
 
         if (coreRAF.size() > 0) {
-            NotificationManager.showInformation("Irreducible is unique");
+            System.err.println("Irreducible is unique");
         }
         return iRAF;
     }
@@ -136,7 +133,11 @@ public class MinRAFGeneratingElement extends AlgorithmBase {
         }
     }
 
-    public IntegerProperty numberOfRandomInsertionOrdersProperty() {
-        return minIRAFHeuristic.numberOfRandomInsertionOrdersProperty();
+    public int getNumberOfRandomInsertionOrders() {
+        return minIRAFHeuristic.getNumberOfRandomInsertionOrders();
+    }
+
+    public void setNumberOfRandomInsertionOrders(int numberOfRandomInsertionOrders) {
+        minIRAFHeuristic.setNumberOfRandomInsertionOrders(numberOfRandomInsertionOrders);
     }
 }
@@ -36,6 +36,8 @@ import java.util.*;
 public class MuCAFAlgorithm extends AlgorithmBase {
     public static final String Name = "MU CAF";
 
+    private int run = 0;
+
     @Override
     public String getName() {
         return Name;
@@ -56,7 +58,8 @@ public class MuCAFAlgorithm extends AlgorithmBase {
         final ReactionSystem result = new ReactionSystem();
         result.setName(Name);
 
-		final ArrayList<Reaction> inputReactions = CollectionUtils.randomize(input.getReactions(), new Random());
+		// the order in which reactions are considered is determined by the master seed and the run number
+		final ArrayList<Reaction> inputReactions = RandomStreams.shuffle(input.getReactions(), RandomStreams.get(Name, getRun()));
 		final Set<MoleculeType> inputFood = new TreeSet<>(input.getFoods());
 
         final ArrayList<Set<MoleculeType>> molecules = new ArrayList<>();
@@ -96,4 +99,15 @@ public class MuCAFAlgorithm extends AlgorithmBase {
 
         return result;
     }
+
+    public int getRun() {
+        return run;
+    }
+
+    /**
+     * set the run number, different runs consider reactions in different random orders
+     */
+    public void setRun(int run) {
+        this.run = run;
+    }
 }
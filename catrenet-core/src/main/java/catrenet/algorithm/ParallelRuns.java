@@ -0,0 +1,102 @@
+/*
+ *  ParallelRuns.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * runs numbered, independent computations in parallel, such as the trajectories of a stochastic simulation or the
+ * integrations of an ODE model, and collects their results in order. On cancellation or failure, all remaining
+ * computations are told to stop
+ * Daniel Huson, 10.2026
+ */
+class ParallelRuns {
+	/**
+	 * one computation
+	 */
+	interface Run<R> {
+		/**
+		 * @param number   the number of the computation, from 1
+		 * @param canceled reports whether the computation should stop
+		 * @return result
+		 */
+		R apply(int number, BooleanSupplier canceled) throws CanceledException;
+	}
+
+	private record Numbered<R>(int number, R result) {
+	}
+
+	/**
+	 * runs the given number of computations in parallel
+	 *
+	 * @param count          number of computations
+	 * @param executor       executor used to run computations in parallel
+	 * @param run            the computation
+	 * @param resultListener receives each result as soon as its computation is done, called on this thread, may be null
+	 * @param progress       progress listener
+	 * @return results, in order of number
+	 */
+	static <R> List<R> apply(int count, ExecutorService executor, Run<R> run, Consumer<R> resultListener, ProgressListener progress) throws CanceledException {
+		var canceled = new AtomicBoolean(false);
+		var completionService = new ExecutorCompletionService<Numbered<R>>(executor);
+		for (var i = 1; i <= count; i++) {
+			var number = i;
+			completionService.submit(() -> new Numbered<>(number, run.apply(number, canceled::get)));
+		}
+		progress.setMaximum(count);
+		progress.setProgress(0);
+
+		var results = new ArrayList<R>(Collections.nCopies(count, null));
+		try {
+			for (var i = 0; i < count; i++) {
+				var numbered = completionService.take().get();
+				results.set(numbered.number() - 1, numbered.result());
+				if (resultListener != null)
+					resultListener.accept(numbered.result());
+				progress.incrementProgress();
+			}
+		} catch (CanceledException ex) {
+			canceled.set(true);
+			throw ex;
+		} catch (InterruptedException ex) {
+			canceled.set(true);
+			throw new CanceledException();
+		} catch (ExecutionException ex) {
+			canceled.set(true);
+			if (ex.getCause() instanceof CanceledException canceledException)
+				throw canceledException;
+			if (ex.getCause() instanceof RuntimeException runtimeException)
+				throw runtimeException;
+			throw new RuntimeException(ex.getCause());
+		}
+		return Collections.unmodifiableList(results);
+	}
+}
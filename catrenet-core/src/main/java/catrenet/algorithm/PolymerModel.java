@@ -0,0 +1,449 @@
+/*
+ *  PolymerModel.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import catrenet.io.ArrowNotation;
+import catrenet.io.BinaryModelIO;
+import catrenet.io.ReactionNotation;
+import jloda.util.StringUtils;
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.apache.commons.math3.random.Well19937c;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * implements the polymer model
+ * Based on notes by Mike Steel
+ * Daniel Huson, 8.2023, 10.2026
+ */
+public class PolymerModel implements IDescribed {
+	public static String Name = "PolymerModel";
+	private Parameters inputParameters;
+
+	/**
+	 * constructor
+	 */
+	public PolymerModel() {
+	}
+
+	public String getName() {
+		return Name;
+	}
+
+	@Override
+	public String getDescription() {
+		return "runs the polymer model with alphabet-size a, food set max length k, polymer max length n and mean number of catalyzed reactions m";
+	}
+
+	public ReactionSystem apply() {
+		if (inputParameters != null) {
+			return apply(inputParameters);
+		} else
+			return null;
+	}
+
+	/**
+	 * runs the polymer model with alphabet-size k, polymer length n and mean number of catalyzed reactions m
+	 *
+	 * @param a alphabet size
+	 * @param k food items max length
+	 * @param n polymer max length
+	 * @param m mean number of reactions catalyzed by any molecule (Poisson distribution)
+	 * @param r the replicateNumber
+	 * @return reaction system
+	 */
+	public static ReactionSystem apply(int a, int k, int n, double m, int r) {
+		return apply(new Parameters(a, k, n, m, r));
+	}
+
+	/**
+	 * runs the polymer model, only catalyzed reactions are kept in memory
+	 *
+	 * @param parameters parameters
+	 * @return reaction system
+	 */
+	public static ReactionSystem apply(Parameters parameters) {
+		var reactionSystem = new ReactionSystem(getModelName(parameters));
+		var a = parameters.a();
+		for (var id : getFoodIds(parameters)) {
+			reactionSystem.getFoods().add(MoleculeType.valueOf(getMoleculeName(a, id)));
+		}
+
+		var reactions = new ArrayList<Reaction>();
+		var buf = new StringBuilder();
+		try {
+			generate(parameters, (index, reactant1, reactant2, product, catalysts) -> {
+				var reaction = new Reaction(getReactionName(index));
+				reaction.getReactants().add(MoleculeType.valueOf(getMoleculeName(a, reactant1)));
+				reaction.getReactants().add(MoleculeType.valueOf(getMoleculeName(a, reactant2)));
+				reaction.getProducts().add(MoleculeType.valueOf(getMoleculeName(a, product)));
+				reaction.setDirection(Reaction.Direction.both);
+				buf.setLength(0);
+				appendMolecules(buf, a, catalysts, ",");
+				reaction.setCatalysts(buf.toString());
+				reactions.add(reaction);
+			});
+		} catch (IOException ignored) { // doesn't happen, sink doesn't throw
+		}
+		reactionSystem.getReactions().addAll(reactions);
+		return reactionSystem;
+	}
+
+	/**
+	 * runs the polymer model and writes the resulting reaction system in text format, without keeping it in memory.
+	 * The output is the same as writing the result of apply(parameters) using ModelIO.write(...) with food
+	 *
+	 * @param parameters       parameters
+	 * @param w                writer
+	 * @param reactionNotation reaction notation
+	 * @param arrowNotation    arrow notation
+	 */
+	public static void write(Parameters parameters, Writer w, ReactionNotation reactionNotation, ArrowNotation arrowNotation) throws IOException {
+		var a = parameters.a();
+		var buf = new StringBuilder("Food: ");
+		appendMolecules(buf, a, getFoodIds(parameters), reactionNotation == ReactionNotation.Full ? ", " : " ");
+		w.write(buf.append("\n\n").toString());
+
+		var arrow = (arrowNotation == ArrowNotation.UsesEquals ? "<=>" : "<->");
+		generate(parameters, (index, reactant1, reactant2, product, catalysts) -> {
+			buf.setLength(0);
+			buf.append(getReactionName(index)).append(reactionNotation == ReactionNotation.Tabbed ? "\t" : " : ");
+			// reactants are listed in lexicographic order, as in Reaction
+			var name1 = getMoleculeName(a, reactant1);
+			var name2 = getMoleculeName(a, reactant2);
+			var cmp = name1.compareTo(name2);
+			buf.append(cmp <= 0 ? name1 : name2);
+			if (cmp != 0)
+				buf.append(" + ").append(cmp < 0 ? name2 : name1);
+			if (reactionNotation == ReactionNotation.Tabbed) {
+				buf.append(" ").append(arrow).append(" ").append(getMoleculeName(a, product)).append("\t");
+				appendMolecules(buf, a, catalysts, ",");
+			} else {
+				buf.append(" [");
+				appendMolecules(buf, a, catalysts, ",");
+				buf.append("] ").append(arrow).append(" ").append(getMoleculeName(a, product));
+			}
+			w.write(buf.append("\n").toString());
+		});
+		w.flush();
+	}
+
+	/**
+	 * runs the polymer model and writes the resulting reaction system in binary format, without keeping it in memory
+	 *
+	 * @param parameters parameters
+	 * @param outs       output stream
+	 */
+	public static void writeBinary(Parameters parameters, OutputStream outs) throws IOException {
+		var a = parameters.a();
+		var numberOfMolecules = (int) getNumberOfPolymers(a, Math.max(parameters.k(), parameters.n()));
+		var moleculeNames = new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return getMoleculeName(a, index);
+			}
+
+			@Override
+			public int size() {
+				return numberOfMolecules;
+			}
+		};
+		var writer = new BinaryModelIO.Writer(outs, getModelName(parameters), moleculeNames, getFoodIds(parameters));
+		generate(parameters, (index, reactant1, reactant2, product, catalysts) -> {
+			var conjunctions = new int[catalysts.length][];
+			for (var i = 0; i < catalysts.length; i++)
+				conjunctions[i] = new int[]{catalysts[i]};
+			writer.writeReaction(getReactionName(index), Reaction.Direction.both, reactant1 == reactant2 ? new int[]{reactant1} : new int[]{reactant1, reactant2}, new int[]{product}, conjunctions, new int[0]);
+		});
+		writer.finish();
+	}
+
+	/**
+	 * runs the polymer model and reports all catalyzed reactions to the sink, in order.
+	 * <p>
+	 * Polymers are encoded as integers: the polymer of length L with base-a digits c is given the id
+	 * a+a^2+...+a^(L-1)+c, so ids enumerate all polymers by length and then lexicographically.
+	 * All ligation reactions are numbered implicitly, in the order in which polymers are enumerated recursively and
+	 * then by split position, and random catalysts are drawn exactly as they were when all reactions were kept in
+	 * a list, so the same parameters and seed give the same reaction system. Only the catalyst assignments
+	 * (one long per assignment) and the polymer enumeration order (one int per polymer) are held in memory.
+	 *
+	 * @param parameters parameters
+	 * @param sink       receives all catalyzed reactions
+	 */
+	public static void generate(Parameters parameters, Sink sink) throws IOException {
+		generate(parameters, Skeleton.of(parameters.a(), parameters.n()), sink);
+	}
+
+	/**
+	 * runs the polymer model using a precomputed skeleton, see generate(parameters, sink)
+	 *
+	 * @param parameters parameters
+	 * @param skeleton   skeleton for alphabet size a and polymer max length n
+	 * @param sink       receives all catalyzed reactions
+	 */
+	public static void generate(Parameters parameters, Skeleton skeleton, Sink sink) throws IOException {
+		if (skeleton.a() != parameters.a() || skeleton.n() != parameters.n())
+			throw new IllegalArgumentException("Skeleton doesn't match parameters: a=%d, n=%d".formatted(parameters.a(), parameters.n()));
+		var a = skeleton.a();
+		var polymers = skeleton.polymers;
+		var offsets = skeleton.offsets;
+		var numberOfReactions = (int) skeleton.numberOfReactions();
+		if (numberOfReactions == 0)
+			return;
+
+		var random = new Random(parameters.seed());
+		// var distribution = new PoissonDistribution(new Well19937c(r), m, 1.0E-12, 10000000);
+		var distribution = new BinomialDistribution(new Well19937c(parameters.seed()), numberOfReactions, parameters.m() / numberOfReactions);
+
+		// each assignment is encoded as reaction-index<<32 | polymer-position, so sorting groups catalysts by
+		// reaction and keeps them in the order in which they were assigned
+		var assignments = new long[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16L, (long) (1.1 * parameters.m() * polymers.length)))];
+		var count = 0;
+		for (var p = 0; p < polymers.length; p++) {
+			var replicate = distribution.sample();
+			while (replicate > 0) {
+				if (count == assignments.length)
+					assignments = Arrays.copyOf(assignments, (int) Math.min(Integer.MAX_VALUE - 8, 2L * assignments.length));
+				assignments[count++] = ((long) random.nextInt(numberOfReactions) << 32) | p;
+				replicate--;
+			}
+		}
+		Arrays.sort(assignments, 0, count);
+
+		var index = 0;
+		var next = 0;
+		for (var polymer : polymers) {
+			var length = 1;
+			while (polymer >= offsets[length])
+				length++;
+			var code = polymer - offsets[length - 1];
+			for (var i = 1; i < length; i++) {
+				if (next < count && (int) (assignments[next] >>> 32) == index) {
+					var end = next;
+					while (end < count && (int) (assignments[end] >>> 32) == index)
+						end++;
+					var catalysts = new int[end - next];
+					for (var c = 0; c < catalysts.length; c++)
+						catalysts[c] = polymers[(int) assignments[next + c]];
+					next = end;
+
+					var power = pow(a, length - i);
+					var prefix = (int) (offsets[i - 1] + code / power);
+					var suffix = (int) (offsets[length - i - 1] + code % power);
+					sink.reaction(index, prefix, suffix, polymer, catalysts);
+				}
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * get the ids of all food molecules, in the order used in the reaction system
+	 */
+	public static int[] getFoodIds(Parameters parameters) {
+		var food = new int[(int) getNumberOfPolymers(parameters.a(), parameters.k())];
+		enumerateRec(parameters.a(), parameters.k(), 0, 0L, food, new int[]{0});
+		return food;
+	}
+
+	/**
+	 * get the name of the polymer with the given id, using letters a, b, c,...
+	 */
+	public static String getMoleculeName(int a, int id) {
+		var length = getLength(a, id);
+		var code = id - getNumberOfPolymers(a, length - 1);
+		var chars = new char[length];
+		for (var i = length - 1; i >= 0; i--) {
+			chars[i] = (char) ('a' + code % a);
+			code /= a;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * get the name of the reaction with the given index, r001, r002,...
+	 */
+	public static String getReactionName(int index) {
+		var number = String.valueOf(index + 1);
+		return (number.length() >= 3 ? "r" + number : "r" + "00".substring(number.length() - 1) + number);
+	}
+
+	public static String getModelName(Parameters parameters) {
+		return "PolymerModel_a%d_k%d_n%d_m%s_r%d".formatted(parameters.a(), parameters.k(), parameters.n(), StringUtils.removeTrailingZerosAfterDot("%.2f", parameters.m()), parameters.seed());
+	}
+
+	/**
+	 * number of polymers of length 1 to n
+	 */
+	public static long getNumberOfPolymers(int a, int n) {
+		try {
+			var count = 0L;
+			var power = 1L;
+			for (var length = 1; length <= n; length++) {
+				power = Math.multiplyExact(power, a);
+				count = Math.addExact(count, power);
+			}
+			return count;
+		} catch (ArithmeticException ex) {
+			throw new IllegalArgumentException("Too many polymers: a=%d, n=%d".formatted(a, n));
+		}
+	}
+
+	/**
+	 * number of ligation reactions on polymers of length 1 to n
+	 */
+	public static long getNumberOfReactions(int a, int n) {
+		try {
+			var count = 0L;
+			var power = 1L;
+			for (var length = 1; length <= n; length++) {
+				power = Math.multiplyExact(power, a);
+				count = Math.addExact(count, Math.multiplyExact(power, length - 1));
+			}
+			return count;
+		} catch (ArithmeticException ex) {
+			throw new IllegalArgumentException("Too many reactions: a=%d, n=%d".formatted(a, n));
+		}
+	}
+
+	/**
+	 * enumerates polymers in the order used by the original string-based implementation: first all
+	 * extensions of the prefix by one letter, then recursively all longer extensions of each of these
+	 */
+	private static void enumerateRec(int a, int n, int length, long code, int[] polymers, int[] count) {
+		if (length < n) {
+			var offset = getNumberOfPolymers(a, length);
+			for (var i = 0; i < a; i++) {
+				polymers[count[0]++] = (int) (offset + code * a + i);
+			}
+			for (var i = 0; i < a; i++) {
+				enumerateRec(a, n, length + 1, code * a + i, polymers, count);
+			}
+		}
+	}
+
+	/**
+	 * get the length of the polymer with the given id
+	 */
+	public static int getLength(int a, int id) {
+		var length = 1;
+		var power = (long) a;
+		var count = power;
+		while (id >= count) {
+			power *= a;
+			count += power;
+			length++;
+		}
+		return length;
+	}
+
+	private static long pow(int a, int e) {
+		var result = 1L;
+		for (var i = 0; i < e; i++)
+			result *= a;
+		return result;
+	}
+
+	private static void appendMolecules(StringBuilder buf, int a, int[] ids, String separator) {
+		for (var i = 0; i < ids.length; i++) {
+			if (i > 0)
+				buf.append(separator);
+			buf.append(getMoleculeName(a, ids[i]));
+		}
+	}
+
+	public Parameters getInputParameters() {
+		return inputParameters;
+	}
+
+	public void setInputParameters(Parameters inputParameters) {
+		this.inputParameters = inputParameters;
+	}
+
+	public record Parameters(int a, int k, int n, double m, int seed) {
+	}
+
+	/**
+	 * the part of a polymer model that only depends on the alphabet size a and polymer max length n: the polymers in
+	 * order of enumeration and the number of ligation reactions. A skeleton is immutable and can be shared by
+	 * concurrent runs with different m and seeds
+	 */
+	public static final class Skeleton {
+		private final int a;
+		private final int n;
+		private final int[] polymers;
+		private final long[] offsets;
+		private final long numberOfReactions;
+
+		private Skeleton(int a, int n) {
+			var numberOfPolymers = getNumberOfPolymers(a, n);
+			numberOfReactions = getNumberOfReactions(a, n);
+			if (numberOfPolymers > Integer.MAX_VALUE || numberOfReactions > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Too many reactions: a=%d, n=%d".formatted(a, n));
+			this.a = a;
+			this.n = n;
+			polymers = new int[(int) numberOfPolymers];
+			enumerateRec(a, n, 0, 0L, polymers, new int[]{0});
+			offsets = new long[n + 1];
+			for (var length = 1; length <= n; length++)
+				offsets[length] = getNumberOfPolymers(a, length);
+		}
+
+		public static Skeleton of(int a, int n) {
+			return new Skeleton(a, n);
+		}
+
+		public int a() {
+			return a;
+		}
+
+		public int n() {
+			return n;
+		}
+
+		public long numberOfReactions() {
+			return numberOfReactions;
+		}
+	}
+
+	/**
+	 * receives the catalyzed reactions of a polymer model, molecules are given by id
+	 */
+	public interface Sink {
+		/**
+		 * receive a reaction reactant1 + reactant2 <-> product
+		 *
+		 * @param index     reaction index, the reaction name is given by getReactionName(index)
+		 * @param catalysts catalyst ids, in order of assignment, may contain repeats
+		 */
+		void reaction(int index, int reactant1, int reactant2, int product, int[] catalysts) throws IOException;
+	}
+}
+
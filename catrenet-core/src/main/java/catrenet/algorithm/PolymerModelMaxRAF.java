@@ -0,0 +1,251 @@
+/*
+ *  PolymerModelMaxRAF.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * computes the max RAF of a polymer model directly from its parameters, without creating any reactions or molecules.
+ * Molecules are the integer-encoded polymers of PolymerModel, a catalyzed reaction is stored as its index, its product,
+ * its split position and its catalysts, and reactants are decoded from the product and split position when needed.
+ * The result is the same as running MaxRAFAlgorithm on the reaction system produced by PolymerModel.apply()
+ * Daniel Huson, 10.2026
+ */
+public class PolymerModelMaxRAF {
+	public static final String Name = "Polymer Model Max RAF";
+
+	/**
+	 * the max RAF of a polymer model
+	 *
+	 * @param parameters        the model parameters
+	 * @param numberOfReactions the number of catalyzed reactions in the model
+	 * @param reactions         indices of the reactions contained in the max RAF, ascending, reaction names are given by PolymerModel.getReactionName(index)
+	 */
+	public record Result(PolymerModel.Parameters parameters, int numberOfReactions, int[] reactions) {
+		public int size() {
+			return reactions.length;
+		}
+
+		public boolean isEmpty() {
+			return reactions.length == 0;
+		}
+
+		/**
+		 * regenerates the model and returns the max RAF as a reaction system, as computed by MaxRAFAlgorithm
+		 */
+		public ReactionSystem toReactionSystem() {
+			var result = new ReactionSystem();
+			result.setName(MaxRAFAlgorithm.Name);
+			if (!isEmpty()) {
+				var a = parameters.a();
+				var buf = new StringBuilder();
+				var list = new ArrayList<Reaction>(reactions.length);
+				try {
+					PolymerModel.generate(parameters, (index, reactant1, reactant2, product, catalysts) -> {
+						if (Arrays.binarySearch(reactions, index) >= 0) {
+							var reaction = new Reaction(PolymerModel.getReactionName(index));
+							reaction.getReactants().add(MoleculeType.valueOf(PolymerModel.getMoleculeName(a, reactant1)));
+							reaction.getReactants().add(MoleculeType.valueOf(PolymerModel.getMoleculeName(a, reactant2)));
+							reaction.getProducts().add(MoleculeType.valueOf(PolymerModel.getMoleculeName(a, product)));
+							reaction.setDirection(Reaction.Direction.both);
+							buf.setLength(0);
+							for (var c : catalysts) {
+								if (!buf.isEmpty())
+									buf.append(",");
+								buf.append(PolymerModel.getMoleculeName(a, c));
+							}
+							reaction.setCatalysts(buf.toString());
+							list.add(reaction);
+						}
+					});
+				} catch (IOException ignored) { // doesn't happen, sink doesn't throw
+				}
+				result.getReactions().setAll(list);
+				var foods = new ArrayList<MoleculeType>();
+				for (var id : PolymerModel.getFoodIds(parameters))
+					foods.add(MoleculeType.valueOf(PolymerModel.getMoleculeName(a, id)));
+				result.getFoods().setAll(result.computeMentionedFoods(foods));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * generates the polymer model for the given parameters and computes its max RAF
+	 *
+	 * @param parameters polymer model parameters
+	 * @param progress   progress listener
+	 * @return max RAF, empty, if none exists
+	 */
+	public static Result apply(PolymerModel.Parameters parameters, ProgressListener progress) throws CanceledException {
+		return apply(parameters, PolymerModel.Skeleton.of(parameters.a(), parameters.n()), progress);
+	}
+
+	/**
+	 * generates the polymer model for the given parameters and computes its max RAF
+	 *
+	 * @param parameters polymer model parameters
+	 * @param skeleton   skeleton for the alphabet size and polymer max length, can be reused for different m and seeds
+	 * @param progress   progress listener
+	 * @return max RAF, empty, if none exists
+	 */
+	public static Result apply(PolymerModel.Parameters parameters, PolymerModel.Skeleton skeleton, ProgressListener progress) throws CanceledException {
+		var a = parameters.a();
+		var n = parameters.n();
+		var numberOfMolecules = (int) PolymerModel.getNumberOfPolymers(a, Math.max(parameters.k(), n));
+
+		// the catalysis table: one entry per catalyzed reaction
+		var table = new Table(a);
+		try {
+			PolymerModel.generate(parameters, skeleton, table::add);
+		} catch (IOException ignored) { // doesn't happen, sink doesn't throw
+		}
+		var count = table.count;
+
+		var offsets = new long[n + 1];
+		for (var length = 1; length <= n; length++)
+			offsets[length] = PolymerModel.getNumberOfPolymers(a, length);
+		var powers = new long[n + 1];
+		powers[0] = 1;
+		for (var length = 1; length <= n; length++)
+			powers[length] = powers[length - 1] * a;
+
+		var food = new BitSet(numberOfMolecules);
+		for (var id : PolymerModel.getFoodIds(parameters))
+			food.set(id);
+
+		var alive = new BitSet(count);
+		alive.set(0, count);
+		var aliveCount = count;
+
+		progress.setMaximum(100);
+		progress.setProgress(0);
+
+		var closure = new BitSet(numberOfMolecules);
+		var iteration = 0;
+		while (aliveCount > 0) {
+			// closure of the food set under all remaining reactions, in both directions
+			closure.clear();
+			closure.or(food);
+			var changed = true;
+			while (changed) {
+				changed = false;
+				for (var r = alive.nextSetBit(0); r >= 0; r = alive.nextSetBit(r + 1)) {
+					var product = table.products[r];
+					var length = table.lengths[r];
+					var split = table.splits[r];
+					var code = product - offsets[length - 1];
+					var power = powers[length - split];
+					var prefix = (int) (offsets[split - 1] + code / power);
+					var suffix = (int) (offsets[length - split - 1] + code % power);
+					var hasReactants = closure.get(prefix) && closure.get(suffix);
+					var hasProduct = closure.get(product);
+					if (hasReactants && !hasProduct) {
+						closure.set(product);
+						changed = true;
+					} else if (hasProduct && !hasReactants) {
+						closure.set(prefix);
+						closure.set(suffix);
+						changed = true;
+					}
+				}
+				progress.checkForCancel();
+			}
+
+			// keep only reactions that can run and are catalyzed by a molecule in the closure; as the closure is
+			// closed under both directions of all remaining reactions, a reaction can run iff its product is present
+			var removed = 0;
+			for (var r = alive.nextSetBit(0); r >= 0; r = alive.nextSetBit(r + 1)) {
+				var keep = false;
+				if (closure.get(table.products[r])) {
+					for (var c = table.catalystStarts[r]; c < table.catalystStarts[r + 1]; c++) {
+						if (closure.get(table.catalysts[c])) {
+							keep = true;
+							break;
+						}
+					}
+				}
+				if (!keep) {
+					alive.clear(r);
+					removed++;
+				}
+			}
+			aliveCount -= removed;
+			progress.setProgress(Math.min(100, ++iteration));
+			if (removed == 0)
+				break;
+		}
+
+		var reactions = new int[aliveCount];
+		var i = 0;
+		for (var r = alive.nextSetBit(0); r >= 0; r = alive.nextSetBit(r + 1))
+			reactions[i++] = table.indices[r];
+		return new Result(parameters, count, reactions);
+	}
+
+	/**
+	 * catalyzed reactions of a polymer model in compact form
+	 */
+	private static class Table {
+		private final int a;
+		private int count = 0;
+		private int[] indices = new int[1024];
+		private int[] products = new int[1024];
+		private short[] lengths = new short[1024];
+		private short[] splits = new short[1024];
+		private int[] catalystStarts = new int[1025];
+		private int[] catalysts = new int[1024];
+
+		private Table(int a) {
+			this.a = a;
+		}
+
+		private void add(int index, int reactant1, int reactant2, int product, int[] catalystIds) {
+			if (count == indices.length) {
+				var capacity = (int) Math.min(Integer.MAX_VALUE - 8, 2L * count);
+				indices = Arrays.copyOf(indices, capacity);
+				products = Arrays.copyOf(products, capacity);
+				lengths = Arrays.copyOf(lengths, capacity);
+				splits = Arrays.copyOf(splits, capacity);
+				catalystStarts = Arrays.copyOf(catalystStarts, capacity + 1);
+			}
+			var start = catalystStarts[count];
+			if (start + catalystIds.length > catalysts.length)
+				catalysts = Arrays.copyOf(catalysts, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * catalysts.length, start + catalystIds.length)));
+			System.arraycopy(catalystIds, 0, catalysts, start, catalystIds.length);
+
+			indices[count] = index;
+			products[count] = product;
+			lengths[count] = (short) PolymerModel.getLength(a, product);
+			splits[count] = (short) PolymerModel.getLength(a, reactant1);
+			count++;
+			catalystStarts[count] = start + catalystIds.length;
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ *  PolymerModelRAFThreshold.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+import jloda.util.progress.ProgressSilent;
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * estimates the RAF emergence threshold of the polymer model, that is, the mean number of catalyzed reactions m
+ * at which a max RAF exists with probability 0.5, for given alphabet size a, food max length k and polymer max length n.
+ * <p>
+ * Uses noisy bisection: at each value of m, batches of replicates are run in parallel until the confidence interval
+ * for the probability of a RAF lies above or below 0.5, or the replicate limit is reached. As the interval is checked
+ * after every batch, each check uses a Bonferroni-corrected confidence level, so that the probability of a wrong decision
+ * at a single value of m is at most 1 - confidence over all checks. Errors at different values of m are not corrected for.
+ * The same seeds are used for all values of m, and the polymer model skeleton is computed only once
+ * Daniel Huson, 10.2026
+ */
+public class PolymerModelRAFThreshold {
+	/**
+	 * search settings
+	 *
+	 * @param lower         initial lower end of the search interval for m
+	 * @param upper         initial upper end of the search interval for m
+	 * @param tolerance     stop when the interval for m is at most this wide
+	 * @param batchSize     number of replicates run in parallel in one batch
+	 * @param maxReplicates maximal number of replicates at a single value of m
+	 * @param confidence    confidence level used to decide whether the probability of a RAF is above or below 0.5 at one value of m
+	 */
+	public record Settings(double lower, double upper, double tolerance, int batchSize, int maxReplicates, double confidence) {
+		public Settings {
+			if (!(lower > 0 && lower < upper))
+				throw new IllegalArgumentException("Search interval: must have 0 < lower < upper");
+			if (!(tolerance > 0))
+				throw new IllegalArgumentException("Tolerance: must be positive");
+			if (batchSize < 1 || maxReplicates < batchSize)
+				throw new IllegalArgumentException("Replicates: must have 1 <= batch size <= max replicates");
+			if (!(confidence > 0 && confidence < 1))
+				throw new IllegalArgumentException("Confidence: must be between 0 and 1");
+		}
+	}
+
+	/**
+	 * result of the search
+	 *
+	 * @param threshold  estimated threshold, NaN if not found
+	 * @param lower      lower end of final interval for m
+	 * @param upper      upper end of final interval for m
+	 * @param mValues    number of values of m tested
+	 * @param replicates total number of replicates run
+	 * @param status     ok, undecided (the probability of a RAF at the threshold estimate is indistinguishable from 0.5
+	 *                   using the max number of replicates), below search range (a RAF is likely at m = tolerance or less,
+	 *                   the threshold lies in [0, upper]) or not found
+	 */
+	public record Result(int a, int k, int n, double threshold, double lower, double upper, int mValues, long replicates, String status) {
+	}
+
+	/**
+	 * one tested value of m
+	 */
+	public record Step(int a, int k, int n, double m, int rafs, int replicates, int decision) {
+	}
+
+	/**
+	 * runs the search
+	 *
+	 * @param a        alphabet size
+	 * @param k        food max length
+	 * @param n        polymer max length
+	 * @param settings search settings
+	 * @param executor executor used to run replicates in parallel
+	 * @param log      receives each tested value of m, may be null
+	 * @param progress progress listener, used for cancellation
+	 * @return result
+	 */
+	public static Result apply(int a, int k, int n, Settings settings, ExecutorService executor, Consumer<Step> log, ProgressListener progress) throws CanceledException {
+		var search = new Search(a, k, n, settings, executor, log, progress);
+
+		var lower = settings.lower();
+		var upper = Math.min(settings.upper(), search.maxM);
+
+		// make sure that the interval contains the threshold, extend it if necessary
+		int decision;
+		var upperTested = false;
+		while ((decision = search.test(lower)) > 0 && lower > settings.tolerance()) {
+			upper = lower;
+			upperTested = true;
+			lower /= 2;
+		}
+		if (decision == 0)
+			return search.result(lower, lower, lower, "undecided");
+		if (decision > 0)
+			return search.result(Double.NaN, 0, lower, "below search range");
+		if (!upperTested) {
+			while ((decision = search.test(upper)) < 0 && upper < search.maxM) {
+				lower = upper;
+				upper = Math.min(2 * upper, search.maxM);
+			}
+			if (decision == 0)
+				return search.result(upper, upper, upper, "undecided");
+			if (decision < 0)
+				return search.result(Double.NaN, upper, upper, "not found");
+		}
+
+		// bisection
+		while (upper - lower > settings.tolerance()) {
+			var m = 0.5 * (lower + upper);
+			decision = search.test(m);
+			if (decision < 0)
+				lower = m;
+			else if (decision > 0)
+				upper = m;
+			else
+				return search.result(m, lower, upper, "undecided");
+		}
+		return search.result(0.5 * (lower + upper), lower, upper, "ok");
+	}
+
+	/**
+	 * state of a search
+	 */
+	private static class Search {
+		private final int a;
+		private final int k;
+		private final int n;
+		private final Settings settings;
+		private final ExecutorService executor;
+		private final Consumer<Step> log;
+		private final ProgressListener progress;
+		private final PolymerModel.Skeleton skeleton;
+		private final double z;
+		private final double maxM;
+		private int mValues = 0;
+		private long replicates = 0;
+
+		private Search(int a, int k, int n, Settings settings, ExecutorService executor, Consumer<Step> log, ProgressListener progress) {
+			this.a = a;
+			this.k = k;
+			this.n = n;
+			this.settings = settings;
+			this.executor = executor;
+			this.log = log;
+			this.progress = progress;
+			this.skeleton = PolymerModel.Skeleton.of(a, n);
+			var checks = (settings.maxReplicates() + settings.batchSize() - 1) / settings.batchSize();
+			var alpha = (1 - settings.confidence()) / checks; // Bonferroni correction for checking after each batch
+			this.z = new NormalDistribution().inverseCumulativeProbability(1 - 0.5 * alpha);
+			this.maxM = skeleton.numberOfReactions();
+		}
+
+		/**
+		 * determines whether the probability of a RAF at m is below (-1) or above (1) 0.5, or is undecided (0)
+		 */
+		private int test(double m) throws CanceledException {
+			mValues++;
+			var rafs = 0;
+			var count = 0;
+			var decision = 0;
+			while (decision == 0 && count < settings.maxReplicates()) {
+				var tasks = new ArrayList<Callable<Boolean>>(settings.batchSize());
+				for (var i = 0; i < settings.batchSize() && count + i < settings.maxReplicates(); i++) {
+					var parameters = new PolymerModel.Parameters(a, k, n, m, count + i + 1);
+					tasks.add(() -> !PolymerModelMaxRAF.apply(parameters, skeleton, new ProgressSilent()).isEmpty());
+				}
+				try {
+					for (var future : executor.invokeAll(tasks)) {
+						if (future.get())
+							rafs++;
+					}
+				} catch (InterruptedException ex) {
+					throw new CanceledException();
+				} catch (ExecutionException ex) {
+					throw new RuntimeException(ex.getCause());
+				}
+				count += tasks.size();
+				progress.checkForCancel();
+
+				// Wilson score interval
+				var p = (double) rafs / count;
+				var denominator = 1 + z * z / count;
+				var center = (p + z * z / (2.0 * count)) / denominator;
+				var halfWidth = z * Math.sqrt(p * (1 - p) / count + z * z / (4.0 * count * count)) / denominator;
+				if (center + halfWidth < 0.5)
+					decision = -1;
+				else if (center - halfWidth > 0.5)
+					decision = 1;
+			}
+			replicates += count;
+			if (log != null)
+				log.accept(new Step(a, k, n, m, rafs, count, decision));
+			return decision;
+		}
+
+		private Result result(double threshold, double lower, double upper, String status) {
+			return new Result(a, k, n, threshold, lower, upper, mValues, replicates, status);
+		}
+	}
+}
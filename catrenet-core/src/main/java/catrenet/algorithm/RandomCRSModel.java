@@ -0,0 +1,357 @@
+/*
+ *  RandomCRSModel.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.io.BinaryModelIO;
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * random catalytic reaction systems for benchmarking, of sizes from hundreds to tens of millions of reactions
+ * <p>
+ * Molecules are m0,...,m(M-1), the first F of which form the food set. Each reaction either joins two reactants
+ * into one product or splits one reactant into two products, always with products of higher index than reactants
+ * (ligation) or reactants of higher index than products (cleavage), so that all molecules are potentially food generated.
+ * Every reaction has 1+Poisson(c-1) catalysts, chosen uniformly (Erdos-Renyi) or by a Zipf power-law over a random
+ * ranking of the molecules (a few molecules catalyze many reactions). Optionally, catalysts are conjunctions of two
+ * molecules, reactions are reversible and reactions are inhibited by a random molecule.
+ * <p>
+ * Reactions are generated one at a time and can be streamed to text or binary output without keeping them in memory.
+ * The same parameters always produce the same model.
+ * Daniel Huson, 10.2026
+ */
+public class RandomCRSModel implements IDescribed {
+	public static String Name = "RandomCRSModel";
+
+	public enum Catalysis {ErdosRenyi, PowerLaw}
+
+	/**
+	 * parameters
+	 *
+	 * @param catalysis              how catalysts are chosen
+	 * @param molecules              number of molecules M
+	 * @param food                   number of food molecules F
+	 * @param reactions              number of reactions R
+	 * @param meanCatalysts          mean number of catalysts per reaction c, at least 1
+	 * @param exponent               power-law exponent, used for PowerLaw catalysis
+	 * @param conjunctionProbability probability that a catalyst is a conjunction of two molecules
+	 * @param reversibleProbability  probability that a reaction is reversible
+	 * @param inhibitorProbability   probability that a reaction has an inhibitor
+	 * @param seed                   random seed
+	 */
+	public record Parameters(Catalysis catalysis, int molecules, int food, int reactions, double meanCatalysts, double exponent,
+							 double conjunctionProbability, double reversibleProbability, double inhibitorProbability, long seed) {
+		public Parameters {
+			if (food < 1 || molecules <= food)
+				throw new IllegalArgumentException("Require 1 <= food < molecules");
+			if (reactions < 0)
+				throw new IllegalArgumentException("Require reactions >= 0");
+			if (meanCatalysts < 1)
+				throw new IllegalArgumentException("Require meanCatalysts >= 1");
+		}
+
+		/**
+		 * default parameters for the given number of reactions: M=max(10,R/10), F=max(2,M/100), c=2, exponent 2
+		 */
+		public static Parameters of(Catalysis catalysis, int reactions, long seed) {
+			var molecules = Math.max(10, reactions / 10);
+			return new Parameters(catalysis, molecules, Math.max(2, molecules / 100), reactions, 2.0, 2.0, 0, 0, 0, seed);
+		}
+
+		public String toString() {
+			return "%s M=%d F=%d R=%d c=%s exponent=%s conjunctions=%s reversible=%s inhibitors=%s seed=%d".formatted(catalysis, molecules, food, reactions,
+					meanCatalysts, exponent, conjunctionProbability, reversibleProbability, inhibitorProbability, seed);
+		}
+	}
+
+	/**
+	 * receives generated reactions
+	 */
+	public interface Sink {
+		/**
+		 * receive a reaction
+		 *
+		 * @param index     reaction index, the reaction name is r(index+1)
+		 * @param catalysts disjunction of conjunctions of molecule ids
+		 */
+		void reaction(int index, Reaction.Direction direction, int[] reactants, int[] products, int[][] catalysts, int[] inhibitors) throws IOException;
+	}
+
+	private Parameters inputParameters;
+
+	public RandomCRSModel() {
+	}
+
+	public String getName() {
+		return Name;
+	}
+
+	@Override
+	public String getDescription() {
+		return "generates a random CRS with Erdos-Renyi or power-law catalysis, and optional conjunctive catalysts, reversible reactions and inhibitors";
+	}
+
+	public Parameters getInputParameters() {
+		return inputParameters;
+	}
+
+	public void setInputParameters(Parameters inputParameters) {
+		this.inputParameters = inputParameters;
+	}
+
+	public ReactionSystem apply() {
+		return inputParameters != null ? apply(inputParameters) : null;
+	}
+
+	/**
+	 * generate a reaction system in memory
+	 *
+	 * @param parameters parameters
+	 * @return reaction system
+	 */
+	public static ReactionSystem apply(Parameters parameters) {
+		var reactionSystem = new ReactionSystem(getModelName(parameters));
+		var molecules = new MoleculeType[parameters.molecules()];
+		for (var i = 0; i < molecules.length; i++)
+			molecules[i] = MoleculeType.valueOf(getMoleculeName(i));
+		reactionSystem.getFoods().addAll(Arrays.asList(molecules).subList(0, parameters.food()));
+
+		var reactions = new ArrayList<Reaction>(parameters.reactions());
+		var buf = new StringBuilder();
+		try {
+			generate(parameters, (index, direction, reactants, products, catalysts, inhibitors) -> {
+				var reaction = new Reaction(getReactionName(index));
+				reaction.setDirection(direction);
+				for (var id : reactants)
+					reaction.getReactants().add(molecules[id]);
+				for (var id : products)
+					reaction.getProducts().add(molecules[id]);
+				buf.setLength(0);
+				appendCatalysts(buf, catalysts);
+				reaction.setCatalysts(buf.toString());
+				for (var id : inhibitors)
+					reaction.getInhibitions().add(molecules[id]);
+				reactions.add(reaction);
+			});
+		} catch (IOException ignored) { // doesn't happen, sink doesn't throw
+		}
+		reactionSystem.getReactions().addAll(reactions);
+		reactionSystem.updateIsInhibitorsPresent();
+		return reactionSystem;
+	}
+
+	/**
+	 * write a generated reaction system in full text notation, without constructing it in memory
+	 *
+	 * @param parameters parameters
+	 * @param w          writer
+	 */
+	public static void write(Parameters parameters, Writer w) throws IOException {
+		w.write("# " + getModelName(parameters) + ": " + parameters + "\n\n");
+		var buf = new StringBuilder("Food:");
+		for (var i = 0; i < parameters.food(); i++) {
+			buf.append(i == 0 ? " " : ", ").append(getMoleculeName(i));
+		}
+		w.write(buf.append("\n\n").toString());
+		generate(parameters, (index, direction, reactants, products, catalysts, inhibitors) -> {
+			buf.setLength(0);
+			buf.append(getReactionName(index)).append(" : ");
+			appendMolecules(buf, reactants, " + ");
+			buf.append(" [");
+			appendCatalysts(buf, catalysts);
+			buf.append("]");
+			if (inhibitors.length > 0) {
+				buf.append(" {");
+				appendMolecules(buf, inhibitors, ",");
+				buf.append("}");
+			}
+			buf.append(direction == Reaction.Direction.both ? " <-> " : " -> ");
+			appendMolecules(buf, products, " + ");
+			buf.append("\n");
+			w.write(buf.toString());
+		});
+		w.flush();
+	}
+
+	/**
+	 * write a generated reaction system in binary format, without constructing it in memory
+	 *
+	 * @param parameters parameters
+	 * @param outs       output stream
+	 */
+	public static void writeBinary(Parameters parameters, OutputStream outs) throws IOException {
+		var moleculeNames = new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return getMoleculeName(index);
+			}
+
+			@Override
+			public int size() {
+				return parameters.molecules();
+			}
+		};
+		var food = new int[parameters.food()];
+		for (var i = 0; i < food.length; i++)
+			food[i] = i;
+		var writer = new BinaryModelIO.Writer(outs, getModelName(parameters), moleculeNames, food);
+		generate(parameters, (index, direction, reactants, products, catalysts, inhibitors) -> writer.writeReaction(getReactionName(index), direction, reactants, products, catalysts, inhibitors));
+		writer.finish();
+	}
+
+	/**
+	 * generate all reactions and pass them to the sink. Arrays passed to the sink are reused between calls.
+	 *
+	 * @param parameters parameters
+	 * @param sink       sink
+	 */
+	public static void generate(Parameters parameters, Sink sink) throws IOException {
+		var random = new SplittableRandom(parameters.seed());
+		var numberOfMolecules = parameters.molecules();
+		var food = parameters.food();
+
+		// for power-law catalysis: cumulative Zipf weights over a random ranking of the molecules
+		double[] cumulative = null;
+		int[] ranking = null;
+		if (parameters.catalysis() == Catalysis.PowerLaw) {
+			cumulative = new double[numberOfMolecules];
+			var sum = 0.0;
+			for (var i = 0; i < numberOfMolecules; i++) {
+				sum += Math.pow(i + 1, -parameters.exponent());
+				cumulative[i] = sum;
+			}
+			ranking = new int[numberOfMolecules];
+			for (var i = 0; i < numberOfMolecules; i++)
+				ranking[i] = i;
+			for (var i = numberOfMolecules - 1; i > 0; i--) {
+				var j = random.nextInt(i + 1);
+				var tmp = ranking[i];
+				ranking[i] = ranking[j];
+				ranking[j] = tmp;
+			}
+		}
+
+		var one = new int[1];
+		var two = new int[2];
+		var none = new int[0];
+		var inhibitor = new int[1];
+		var poissonThreshold = Math.exp(-(parameters.meanCatalysts() - 1));
+
+		for (var index = 0; index < parameters.reactions(); index++) {
+			final int[] reactants;
+			final int[] products;
+			if (random.nextBoolean()) { // ligation: two reactants of lower index than the product
+				one[0] = food + random.nextInt(numberOfMolecules - food);
+				two[0] = random.nextInt(one[0]);
+				two[1] = random.nextInt(one[0]);
+				reactants = (two[0] == two[1] ? Arrays.copyOf(two, 1) : two);
+				products = one;
+			} else { // cleavage: two products of lower index than the reactant
+				one[0] = food + random.nextInt(numberOfMolecules - food);
+				two[0] = random.nextInt(one[0]);
+				two[1] = random.nextInt(one[0]);
+				reactants = one;
+				products = (two[0] == two[1] ? Arrays.copyOf(two, 1) : two);
+			}
+
+			var numberOfCatalysts = 1;
+			for (var p = random.nextDouble(); p > poissonThreshold; p *= random.nextDouble()) {
+				numberOfCatalysts++;
+			}
+			var catalysts = new int[numberOfCatalysts][];
+			var count = 0;
+			for (var c = 0; c < numberOfCatalysts; c++) {
+				var catalyst = (ranking != null ? ranking[sampleIndex(cumulative, random)] : random.nextInt(numberOfMolecules));
+				int[] conjunction;
+				if (parameters.conjunctionProbability() > 0 && random.nextDouble() < parameters.conjunctionProbability()) {
+					var other = random.nextInt(numberOfMolecules);
+					conjunction = (other == catalyst ? new int[]{catalyst} : new int[]{Math.min(catalyst, other), Math.max(catalyst, other)});
+				} else
+					conjunction = new int[]{catalyst};
+				if (!contains(catalysts, count, conjunction))
+					catalysts[count++] = conjunction;
+			}
+			if (count < numberOfCatalysts)
+				catalysts = Arrays.copyOf(catalysts, count);
+
+			final int[] inhibitors;
+			if (parameters.inhibitorProbability() > 0 && random.nextDouble() < parameters.inhibitorProbability()) {
+				inhibitor[0] = random.nextInt(numberOfMolecules);
+				inhibitors = inhibitor;
+			} else
+				inhibitors = none;
+
+			var direction = (parameters.reversibleProbability() > 0 && random.nextDouble() < parameters.reversibleProbability() ? Reaction.Direction.both : Reaction.Direction.forward);
+
+			sink.reaction(index, direction, reactants, products, catalysts, inhibitors);
+		}
+	}
+
+	public static String getModelName(Parameters parameters) {
+		return "Random%s_R%d_M%d_F%d_s%d".formatted(parameters.catalysis(), parameters.reactions(), parameters.molecules(), parameters.food(), parameters.seed());
+	}
+
+	public static String getMoleculeName(int id) {
+		return "m" + id;
+	}
+
+	public static String getReactionName(int index) {
+		return "r" + (index + 1);
+	}
+
+	private static int sampleIndex(double[] cumulative, SplittableRandom random) {
+		var value = random.nextDouble() * cumulative[cumulative.length - 1];
+		var pos = Arrays.binarySearch(cumulative, value);
+		return Math.min(cumulative.length - 1, pos >= 0 ? pos : -pos - 1);
+	}
+
+	private static boolean contains(int[][] catalysts, int count, int[] conjunction) {
+		for (var i = 0; i < count; i++) {
+			if (Arrays.equals(catalysts[i], conjunction))
+				return true;
+		}
+		return false;
+	}
+
+	private static void appendMolecules(StringBuilder buf, int[] ids, String separator) {
+		for (var i = 0; i < ids.length; i++) {
+			if (i > 0)
+				buf.append(separator);
+			buf.append(getMoleculeName(ids[i]));
+		}
+	}
+
+	private static void appendCatalysts(StringBuilder buf, int[][] catalysts) {
+		for (var c = 0; c < catalysts.length; c++) {
+			if (c > 0)
+				buf.append(",");
+			appendMolecules(buf, catalysts[c], "&");
+		}
+	}
+}
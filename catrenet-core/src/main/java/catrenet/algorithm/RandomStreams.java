@@ -0,0 +1,94 @@
+/*
+ *  RandomStreams.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * reproducible random number streams for randomized algorithms.
+ * Each stream is determined by the master seed, the name of the task and an index (such as a run number), and not by
+ * the order in which streams are requested, so that runs performed in parallel give the same results for any number
+ * of threads. A stream must only be used by one thread at a time
+ * Daniel Huson, 10.2026
+ */
+public final class RandomStreams {
+	public static final long DEFAULT_MASTER_SEED = 42L;
+
+	private static volatile long masterSeed = DEFAULT_MASTER_SEED;
+
+	private RandomStreams() {
+	}
+
+	public static long getMasterSeed() {
+		return masterSeed;
+	}
+
+	public static void setMasterSeed(long masterSeed) {
+		RandomStreams.masterSeed = masterSeed;
+	}
+
+	/**
+	 * get the random number stream for the given task and index
+	 *
+	 * @param task  name of the task, e.g. the name of an algorithm
+	 * @param index index within the task, e.g. the run number
+	 * @return new stream, always the same for the same master seed, task and index
+	 */
+	public static SplittableRandom get(String task, long index) {
+		return new SplittableRandom(mix64(mix64(masterSeed ^ mix64(task.hashCode())) + index));
+	}
+
+	/**
+	 * returns the list of items in random order
+	 */
+	public static <T> ArrayList<T> shuffle(Collection<T> items, RandomGenerator random) {
+		var list = new ArrayList<>(items);
+		for (var i = list.size() - 1; i > 0; i--) {
+			var j = random.nextInt(i + 1);
+			list.set(j, list.set(i, list.get(j)));
+		}
+		return list;
+	}
+
+	/**
+	 * wraps a generator as a Random, for use with APIs that require one
+	 */
+	public static Random asRandom(RandomGenerator generator) {
+		return new Random() {
+			@Override
+			protected int next(int bits) {
+				return generator.nextInt() >>> (32 - bits);
+			}
+		};
+	}
+
+	/**
+	 * SplitMix64 finalizer
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
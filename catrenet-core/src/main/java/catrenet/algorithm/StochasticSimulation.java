@@ -0,0 +1,400 @@
+/*
+ *  StochasticSimulation.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.ReactionSystem;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * stochastic simulation of the dynamics of a catalytic reaction system, using Gillespie's direct method or the
+ * next reaction method of Gibson and Bruck.
+ * <p>
+ * The channels and their rates are described in KineticModel. For the propensity of a channel, h(x) is the number of
+ * distinct combinations of reactant molecules (using the reactant coefficients).
+ * Food molecules are held at a constant count, unless requested otherwise, and non-food molecules decay at the given
+ * rate. Independent trajectories use independent random streams, so results do not depend on the number of threads
+ * Daniel Huson, 10.2026
+ */
+public class StochasticSimulation {
+	public static final String Name = "Stochastic Simulation";
+
+	public enum Method {Direct, NextReaction}
+
+	/**
+	 * simulation settings
+	 *
+	 * @param method             the simulation method
+	 * @param maxTime            simulate up to this time
+	 * @param maxSteps           max number of reaction events per trajectory
+	 * @param sampleInterval     report the state at multiples of this time, or only the final state, if 0
+	 * @param foodCount          initial count of each food molecule, other molecules are initially absent
+	 * @param constantFood       keep the counts of food molecules constant
+	 * @param rateConstant       rate constant k of all reactions
+	 * @param uncatalyzedRate    rate of a catalyzed reaction in the absence of all catalysts, relative to one catalyst molecule
+	 * @param inhibitionStrength inhibition strength s
+	 * @param decayRate          decay rate of each non-food molecule
+	 */
+	public record Settings(Method method, double maxTime, long maxSteps, double sampleInterval, int foodCount, boolean constantFood,
+						   double rateConstant, double uncatalyzedRate, double inhibitionStrength, double decayRate) {
+		public Settings {
+			if (!(maxTime > 0))
+				throw new IllegalArgumentException("Max time: must be positive");
+			if (maxSteps < 1)
+				throw new IllegalArgumentException("Max steps: must be positive");
+			if (!(sampleInterval >= 0))
+				throw new IllegalArgumentException("Sample interval: must be non-negative");
+			if (foodCount < 0)
+				throw new IllegalArgumentException("Food count: must be non-negative");
+			new KineticModel.Constants(rateConstant, uncatalyzedRate, inhibitionStrength, decayRate);
+		}
+
+		public KineticModel.Constants constants() {
+			return new KineticModel.Constants(rateConstant, uncatalyzedRate, inhibitionStrength, decayRate);
+		}
+	}
+
+	/**
+	 * result of one trajectory
+	 *
+	 * @param trajectory       the trajectory number
+	 * @param time             time reached
+	 * @param steps            number of reaction events
+	 * @param nonFoodSpecies   number of non-food molecule types present at the end
+	 * @param nonFoodMolecules total count of non-food molecules at the end
+	 * @param reactionsFired   number of reactions that fired at least once, in at least one direction
+	 * @param status           ok, extinct (no reaction can fire anymore) or max steps
+	 */
+	public record Result(int trajectory, double time, long steps, int nonFoodSpecies, long nonFoodMolecules, int reactionsFired, String status) {
+	}
+
+	/**
+	 * receives the states of a trajectory. Called by the thread that computes the trajectory, the counts array is reused
+	 */
+	public interface TrajectoryListener {
+		void sample(int trajectory, double time, int[] counts);
+	}
+
+	private final Settings settings;
+	private final KineticModel model;
+	private final KineticModel.Constants constants;
+
+	private final boolean[] fixed;
+	private final int[] initialCounts;
+	private final int[][] dependents; // channels whose propensity changes when the channel fires
+
+	/**
+	 * sets up the simulation of the given reaction system
+	 */
+	public StochasticSimulation(ReactionSystem reactionSystem, Settings settings) {
+		this.settings = settings;
+		this.model = new KineticModel(reactionSystem);
+		this.constants = settings.constants();
+
+		var numberOfMolecules = model.molecules.length;
+		fixed = new boolean[numberOfMolecules];
+		initialCounts = new int[numberOfMolecules];
+		for (var m = 0; m < numberOfMolecules; m++) {
+			if (model.isFood(m)) {
+				fixed[m] = settings.constantFood();
+				initialCounts[m] = settings.foodCount();
+			}
+		}
+
+		var readers = model.computeReaders();
+		dependents = new int[model.getNumberOfChannels()][];
+		for (var c = 0; c < dependents.length; c++) {
+			var set = new TreeSet<Integer>();
+			for (var m : model.changed[c]) {
+				if (!fixed[m])
+					for (var reader : readers[m])
+						set.add(reader);
+			}
+			dependents[c] = set.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	/**
+	 * the names of all molecules, in the order used for counts
+	 */
+	public List<String> getMolecules() {
+		return model.getMolecules();
+	}
+
+	public int getNumberOfChannels() {
+		return model.getNumberOfChannels();
+	}
+
+	/**
+	 * runs independent trajectories in parallel
+	 *
+	 * @param numberOfTrajectories number of trajectories
+	 * @param executor             executor used to run trajectories in parallel
+	 * @param listener             receives the states of all trajectories, must be thread-safe, may be null
+	 * @param resultListener       receives each result as soon as its trajectory is done, called on this thread, may be null
+	 * @param progress             progress listener
+	 * @return results, in order of trajectory number
+	 */
+	public List<Result> apply(int numberOfTrajectories, ExecutorService executor, TrajectoryListener listener, Consumer<Result> resultListener, ProgressListener progress) throws CanceledException {
+		return ParallelRuns.apply(numberOfTrajectories, executor, (trajectory, canceled) -> run(trajectory, listener, canceled), resultListener, progress);
+	}
+
+	/**
+	 * runs one trajectory
+	 *
+	 * @param trajectory the trajectory number, determines the random stream
+	 * @param listener   receives the states, may be null
+	 * @param progress   progress listener, used for cancellation
+	 * @return result
+	 */
+	public Result apply(int trajectory, TrajectoryListener listener, ProgressListener progress) throws CanceledException {
+		return run(trajectory, listener, progress::isUserCancelled);
+	}
+
+	private Result run(int trajectory, TrajectoryListener listener, BooleanSupplier canceled) throws CanceledException {
+		var random = RandomStreams.get(Name, trajectory);
+		var counts = initialCounts.clone();
+		var numberOfChannels = model.getNumberOfChannels();
+		var propensities = new double[numberOfChannels];
+		for (var c = 0; c < numberOfChannels; c++)
+			propensities[c] = model.propensity(c, counts, constants);
+		var fired = new boolean[model.getNumberOfReactions()];
+
+		var sampleInterval = settings.sampleInterval();
+		var nextSample = 0.0;
+
+		var direct = (settings.method() == Method.Direct);
+		var tree = (direct ? new SumTree(propensities) : null);
+		var queue = (direct ? null : new IndexedPriorityQueue(numberOfChannels));
+		if (!direct) {
+			for (var c = 0; c < numberOfChannels; c++)
+				queue.set(c, nextTime(0, propensities[c], random));
+		}
+
+		var time = 0.0;
+		var steps = 0L;
+		var status = "ok";
+		while (true) {
+			int channel;
+			double next;
+			if (direct) {
+				var total = tree.total();
+				next = (total > 0 ? time + random.nextExponential() / total : Double.POSITIVE_INFINITY);
+				channel = (total > 0 ? tree.select(random.nextDouble() * total) : -1);
+			} else if (numberOfChannels > 0) {
+				channel = queue.top();
+				next = queue.get(channel);
+			} else {
+				channel = -1;
+				next = Double.POSITIVE_INFINITY;
+			}
+
+			if (listener != null && sampleInterval > 0) {
+				while (nextSample < next && nextSample <= settings.maxTime()) {
+					listener.sample(trajectory, nextSample, counts);
+					nextSample += sampleInterval;
+				}
+			}
+			if (next > settings.maxTime()) {
+				if (next == Double.POSITIVE_INFINITY)
+					status = "extinct";
+				time = settings.maxTime();
+				break;
+			}
+			if (steps == settings.maxSteps()) {
+				status = "max steps";
+				break;
+			}
+
+			time = next;
+			steps++;
+			if (model.channel2reaction[channel] >= 0)
+				fired[model.channel2reaction[channel]] = true;
+			var changedMolecules = model.changed[channel];
+			var changedCounts = model.changes[channel];
+			for (var i = 0; i < changedMolecules.length; i++) {
+				if (!fixed[changedMolecules[i]])
+					counts[changedMolecules[i]] += changedCounts[i];
+			}
+
+			for (var c : dependents[channel]) {
+				var oldPropensity = propensities[c];
+				propensities[c] = model.propensity(c, counts, constants);
+				if (direct)
+					tree.set(c, propensities[c]);
+				else if (c != channel) {
+					if (oldPropensity > 0 && propensities[c] > 0)
+						queue.set(c, time + (oldPropensity / propensities[c]) * (queue.get(c) - time));
+					else
+						queue.set(c, nextTime(time, propensities[c], random));
+				}
+			}
+			if (!direct)
+				queue.set(channel, nextTime(time, propensities[channel], random));
+
+			if ((steps & 0xFFFF) == 0 && canceled.getAsBoolean())
+				throw new CanceledException();
+		}
+		if (listener != null && sampleInterval == 0)
+			listener.sample(trajectory, time, counts);
+
+		var nonFoodSpecies = 0;
+		var nonFoodMolecules = 0L;
+		for (var m = 0; m < counts.length; m++) {
+			if (!model.isFood(m) && counts[m] > 0) {
+				nonFoodSpecies++;
+				nonFoodMolecules += counts[m];
+			}
+		}
+		var reactionsFired = 0;
+		for (var value : fired) {
+			if (value)
+				reactionsFired++;
+		}
+		return new Result(trajectory, time, steps, nonFoodSpecies, nonFoodMolecules, reactionsFired, status);
+	}
+
+	private static double nextTime(double time, double propensity, RandomGenerator random) {
+		return (propensity > 0 ? time + random.nextExponential() / propensity : Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * binary tree of partial sums of propensities, for selecting a channel of the direct method in logarithmic time
+	 */
+	private static class SumTree {
+		private final int leaves;
+		private final double[] sums;
+
+		private SumTree(double[] values) {
+			var size = 1;
+			while (size < values.length)
+				size *= 2;
+			leaves = size;
+			sums = new double[2 * size];
+			System.arraycopy(values, 0, sums, size, values.length);
+			for (var node = size - 1; node >= 1; node--)
+				sums[node] = sums[2 * node] + sums[2 * node + 1];
+		}
+
+		private double total() {
+			return sums[1];
+		}
+
+		private void set(int index, double value) {
+			var node = leaves + index;
+			sums[node] = value;
+			for (node /= 2; node >= 1; node /= 2)
+				sums[node] = sums[2 * node] + sums[2 * node + 1];
+		}
+
+		/**
+		 * selects the channel at which the cumulative sum of propensities exceeds the given value
+		 */
+		private int select(double value) {
+			var node = 1;
+			while (node < leaves) {
+				var left = sums[2 * node];
+				if (left > 0 && (value < left || sums[2 * node + 1] == 0))
+					node = 2 * node;
+				else {
+					value -= left;
+					node = 2 * node + 1;
+				}
+			}
+			return node - leaves;
+		}
+	}
+
+	/**
+	 * binary min-heap of the putative times of all channels, with the position of each channel, so that the time of
+	 * any channel can be changed in logarithmic time
+	 */
+	private static class IndexedPriorityQueue {
+		private final double[] times;
+		private final int[] heap;
+		private final int[] position;
+
+		private IndexedPriorityQueue(int size) {
+			times = new double[size];
+			heap = new int[size];
+			position = new int[size];
+			for (var i = 0; i < size; i++) {
+				heap[i] = i;
+				position[i] = i;
+			}
+		}
+
+		private int top() {
+			return heap[0];
+		}
+
+		private double get(int index) {
+			return times[index];
+		}
+
+		private void set(int index, double time) {
+			var old = times[index];
+			times[index] = time;
+			if (time < old)
+				siftUp(position[index]);
+			else
+				siftDown(position[index]);
+		}
+
+		private void siftUp(int i) {
+			while (i > 0) {
+				var parent = (i - 1) / 2;
+				if (times[heap[parent]] <= times[heap[i]])
+					break;
+				swap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+			while (true) {
+				var smallest = i;
+				var left = 2 * i + 1;
+				if (left < heap.length && times[heap[left]] < times[heap[smallest]])
+					smallest = left;
+				if (left + 1 < heap.length && times[heap[left + 1]] < times[heap[smallest]])
+					smallest = left + 1;
+				if (smallest == i)
+					break;
+				swap(i, smallest);
+				i = smallest;
+			}
+		}
+
+		private void swap(int i, int j) {
+			var tmp = heap[i];
+			heap[i] = heap[j];
+			heap[j] = tmp;
+			position[heap[i]] = i;
+			position[heap[j]] = j;
+		}
+	}
+}
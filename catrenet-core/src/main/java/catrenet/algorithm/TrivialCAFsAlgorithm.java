@@ -19,11 +19,13 @@
 
 package catrenet.algorithm;
 
+import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
 import jloda.util.CanceledException;
 import jloda.util.progress.ProgressListener;
 
+import java.util.Collection;
 import java.util.stream.Collectors;
 
 /**
@@ -52,13 +54,18 @@ public class TrivialCAFsAlgorithm extends AlgorithmBase {
     public ReactionSystem apply(ReactionSystem input, ProgressListener progress) throws CanceledException {
         final ReactionSystem result = new ReactionSystem(Name);
 
-        result.getReactions().addAll(
-                input.getReactions().parallelStream().filter(r ->
-                        ((r.getDirection() == Reaction.Direction.forward || r.getDirection() == Reaction.Direction.both)) &&
-                                r.isCatalyzedAndUninhibitedAndHasAllReactants(input.getFoods(), Reaction.Direction.forward)
-                                || ((r.getDirection() == Reaction.Direction.reverse || r.getDirection() == Reaction.Direction.both)) &&
-                                r.isCatalyzedAndUninhibitedAndHasAllReactants(input.getFoods(), Reaction.Direction.reverse)).collect(Collectors.toList()));
+        result.getReactions().addAll(input.getReactions().parallelStream().filter(r -> isTrivialCAF(r, input.getFoods())).collect(Collectors.toList()));
         result.getFoods().setAll(result.computeMentionedFoods(input.getFoods()));
         return result;
     }
+
+    /**
+     * does the reaction run using only the food set?
+     */
+    public static boolean isTrivialCAF(Reaction r, Collection<MoleculeType> foods) {
+        return ((r.getDirection() == Reaction.Direction.forward || r.getDirection() == Reaction.Direction.both)) &&
+               r.isCatalyzedAndUninhibitedAndHasAllReactants(foods, Reaction.Direction.forward)
+               || ((r.getDirection() == Reaction.Direction.reverse || r.getDirection() == Reaction.Direction.both)) &&
+                  r.isCatalyzedAndUninhibitedAndHasAllReactants(foods, Reaction.Direction.reverse);
+    }
 }
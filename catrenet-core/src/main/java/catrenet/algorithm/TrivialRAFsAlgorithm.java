@@ -19,11 +19,13 @@
 
 package catrenet.algorithm;
 
+import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
 import jloda.util.CollectionUtils;
 import jloda.util.progress.ProgressListener;
 
+import java.util.Collection;
 import java.util.stream.Collectors;
 
 /**
@@ -52,14 +54,18 @@ public class TrivialRAFsAlgorithm extends AlgorithmBase {
     public ReactionSystem apply(ReactionSystem input, ProgressListener progress) {
         final ReactionSystem result = new ReactionSystem(Name);
 
-        result.getReactions().addAll(
-                input.getReactions().parallelStream()
-                        .filter(r -> ((r.getDirection() == Reaction.Direction.forward || r.getDirection() == Reaction.Direction.both) &&
-									  r.isCatalyzedAndUninhibitedAndHasAllReactants(input.getFoods(), CollectionUtils.union(input.getFoods(), r.getProducts()), input.getFoods(), Reaction.Direction.forward))
-									 || ((r.getDirection() == Reaction.Direction.reverse || r.getDirection() == Reaction.Direction.both) &&
-										 r.isCatalyzedAndUninhibitedAndHasAllReactants(input.getFoods(), CollectionUtils.union(input.getFoods(), r.getReactants()), input.getFoods(), Reaction.Direction.reverse)))
-                        .collect(Collectors.toList()));
+        result.getReactions().addAll(input.getReactions().parallelStream().filter(r -> isTrivialRAF(r, input.getFoods())).collect(Collectors.toList()));
         result.getFoods().setAll(result.computeMentionedFoods(input.getFoods()));
         return result;
     }
+
+    /**
+     * does the reaction run using only the food set, where the catalyst may also be a product of the reaction?
+     */
+    public static boolean isTrivialRAF(Reaction r, Collection<MoleculeType> foods) {
+        return ((r.getDirection() == Reaction.Direction.forward || r.getDirection() == Reaction.Direction.both) &&
+                r.isCatalyzedAndUninhibitedAndHasAllReactants(foods, CollectionUtils.union(foods, r.getProducts()), foods, Reaction.Direction.forward))
+               || ((r.getDirection() == Reaction.Direction.reverse || r.getDirection() == Reaction.Direction.both) &&
+                   r.isCatalyzedAndUninhibitedAndHasAllReactants(foods, CollectionUtils.union(foods, r.getReactants()), foods, Reaction.Direction.reverse));
+    }
 }
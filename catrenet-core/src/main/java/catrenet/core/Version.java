@@ -17,9 +17,24 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.main;
+package catrenet.core;
 
+import java.io.File;
+
+/**
+ * program name, version and default properties file, shared by the application and the command-line tools
+ */
 public class Version {
 	static public final String NAME = "CatReNet";
 	static public final String SHORT_DESCRIPTION = "CatReNet (version 2.0.0_alpha, built 1 Oct 2024)";
+
+	/**
+	 * gets the default properties file of the program
+	 */
+	public static String getDefaultPropertiesFile() {
+		if (System.getProperty("os.name").toLowerCase().startsWith("mac"))
+			return System.getProperty("user.home") + "/Library/Preferences/CatReNet.def";
+		else
+			return System.getProperty("user.home") + File.separator + ".CatReNet.def";
+	}
 }
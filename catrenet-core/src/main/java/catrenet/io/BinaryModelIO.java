@@ -0,0 +1,269 @@
+/*
+ *  BinaryModelIO.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.io;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.FileUtils;
+import jloda.util.StringUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * compact binary format for reaction systems, written and read in a streaming fashion
+ * <p>
+ * Layout: magic "CRSB", version byte, system name, number of molecules followed by their names, food molecule ids,
+ * then one record per reaction, each preceded by a 1 byte and terminated by a 0 byte. A reaction record contains
+ * the reaction name, direction, reactant ids, product ids, catalysts as a disjunction of conjunctions of ids,
+ * and inhibitor ids. All counts and ids are unsigned variable-length integers.
+ * Catalyst expressions that use parentheses are stored in disjunctive normal form.
+ * Daniel Huson, 10.2026
+ */
+public class BinaryModelIO {
+	private static final byte[] MAGIC = "CRSB".getBytes(StandardCharsets.US_ASCII);
+	private static final int VERSION = 1;
+
+	/**
+	 * does the named file start with the binary format magic number?
+	 *
+	 * @param fileName file
+	 * @return true, if binary format
+	 */
+	public static boolean isBinaryFormat(String fileName) {
+		if (fileName.equalsIgnoreCase("stdin"))
+			return false;
+		try (var ins = FileUtils.getInputStreamPossiblyZIPorGZIP(fileName)) {
+			var bytes = ins.readNBytes(MAGIC.length);
+			return Arrays.equals(bytes, MAGIC);
+		} catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * write a reaction system in binary format
+	 */
+	public static void write(ReactionSystem reactionSystem, OutputStream outs) throws IOException {
+		var moleculeIdMap = new HashMap<MoleculeType, Integer>();
+		var names = new ArrayList<String>();
+		var molecules = new ArrayList<>(reactionSystem.getFoods());
+		for (var reaction : reactionSystem.getReactions()) {
+			molecules.addAll(reaction.getReactants());
+			molecules.addAll(reaction.getProducts());
+			molecules.addAll(reaction.getInhibitions());
+			if (!reaction.getCatalysts().isBlank())
+				molecules.addAll(reaction.getCatalystElements());
+		}
+		for (var molecule : molecules) {
+			if (!moleculeIdMap.containsKey(molecule)) {
+				moleculeIdMap.put(molecule, names.size());
+				names.add(molecule.getName());
+			}
+		}
+
+		var writer = new Writer(outs, reactionSystem.getName(), names, reactionSystem.getFoods().stream().mapToInt(moleculeIdMap::get).toArray());
+		for (var reaction : reactionSystem.getReactions()) {
+			var catalysts = new ArrayList<int[]>();
+			for (var conjunction : getConjunctions(reaction)) {
+				catalysts.add(Arrays.stream(StringUtils.split(conjunction, '&')).mapToInt(name -> moleculeIdMap.get(MoleculeType.valueOf(name))).toArray());
+			}
+			writer.writeReaction(reaction.getName(), reaction.getDirection(), reaction.getReactants().stream().mapToInt(moleculeIdMap::get).toArray(),
+					reaction.getProducts().stream().mapToInt(moleculeIdMap::get).toArray(), catalysts.toArray(new int[0][]),
+					reaction.getInhibitions().stream().mapToInt(moleculeIdMap::get).toArray());
+		}
+		writer.finish();
+	}
+
+	/**
+	 * get the catalyst conjunctions of a reaction, keeping the order of the catalyst string, if it doesn't use parentheses
+	 */
+	private static List<String> getConjunctions(Reaction reaction) {
+		var catalysts = reaction.getCatalysts();
+		if (catalysts.isBlank())
+			return List.of();
+		else if (catalysts.contains("("))
+			return reaction.getCatalystConjunctions().stream().map(MoleculeType::getName).toList();
+		else
+			return Arrays.stream(StringUtils.split(catalysts, ',')).filter(s -> !s.isBlank()).toList();
+	}
+
+	/**
+	 * read a reaction system in binary format
+	 *
+	 * @param reactionSystem reaction system to read into
+	 * @param ins            input stream
+	 */
+	public static void read(ReactionSystem reactionSystem, InputStream ins) throws IOException {
+		var in = new DataInputStream(ins instanceof BufferedInputStream ? ins : new BufferedInputStream(ins));
+		var magic = in.readNBytes(MAGIC.length);
+		if (!Arrays.equals(magic, MAGIC))
+			throw new IOException("Not in binary CRS format");
+		var version = in.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported binary CRS format version: " + version);
+
+		var name = in.readUTF();
+		if (!name.isEmpty())
+			reactionSystem.setName(name);
+
+		var molecules = new MoleculeType[readInt(in)];
+		for (var i = 0; i < molecules.length; i++) {
+			molecules[i] = MoleculeType.valueOf(in.readUTF());
+		}
+		var foods = new ArrayList<MoleculeType>();
+		for (var i = readInt(in); i > 0; i--) {
+			foods.add(molecules[readInt(in)]);
+		}
+		reactionSystem.getFoods().addAll(foods);
+
+		var directions = Reaction.Direction.values();
+		var reactions = new ArrayList<Reaction>();
+		var buf = new StringBuilder();
+		while (in.readUnsignedByte() == 1) {
+			var reaction = new Reaction(in.readUTF());
+			reaction.setDirection(directions[in.readUnsignedByte()]);
+			for (var i = readInt(in); i > 0; i--) {
+				reaction.getReactants().add(molecules[readInt(in)]);
+			}
+			for (var i = readInt(in); i > 0; i--) {
+				reaction.getProducts().add(molecules[readInt(in)]);
+			}
+			buf.setLength(0);
+			for (var i = readInt(in); i > 0; i--) {
+				if (!buf.isEmpty())
+					buf.append(",");
+				for (var j = readInt(in); j > 0; j--) {
+					buf.append(molecules[readInt(in)].getName());
+					if (j > 1)
+						buf.append("&");
+				}
+			}
+			reaction.setCatalysts(buf.toString());
+			for (var i = readInt(in); i > 0; i--) {
+				reaction.getInhibitions().add(molecules[readInt(in)]);
+			}
+			reactions.add(reaction);
+			if (reactions.size() == 100000) { // add in batches to limit list change notifications
+				reactionSystem.getReactions().addAll(reactions);
+				reactions.clear();
+			}
+		}
+		reactionSystem.getReactions().addAll(reactions);
+	}
+
+	/**
+	 * streaming writer, used to write reactions one by one without constructing them
+	 */
+	public static class Writer implements Closeable {
+		private final DataOutputStream out;
+		private final int numberOfMolecules;
+		private boolean finished = false;
+
+		/**
+		 * setup writer and write header
+		 *
+		 * @param outs          output stream
+		 * @param name          name of reaction system
+		 * @param moleculeNames names of all molecules, ids are indices into this list
+		 * @param food          ids of food molecules
+		 */
+		public Writer(OutputStream outs, String name, List<String> moleculeNames, int[] food) throws IOException {
+			this.out = new DataOutputStream(outs instanceof BufferedOutputStream ? outs : new BufferedOutputStream(outs, 1 << 16));
+			this.numberOfMolecules = moleculeNames.size();
+			out.write(MAGIC);
+			out.writeByte(VERSION);
+			out.writeUTF(name != null ? name : "");
+			writeInt(out, moleculeNames.size());
+			for (var moleculeName : moleculeNames) {
+				out.writeUTF(moleculeName);
+			}
+			writeIds(food);
+		}
+
+		/**
+		 * write a reaction
+		 *
+		 * @param catalysts disjunction of conjunctions of molecule ids, empty if uncatalyzed
+		 */
+		public void writeReaction(String name, Reaction.Direction direction, int[] reactants, int[] products, int[][] catalysts, int[] inhibitors) throws IOException {
+			out.writeByte(1);
+			out.writeUTF(name);
+			out.writeByte(direction.ordinal());
+			writeIds(reactants);
+			writeIds(products);
+			writeInt(out, catalysts.length);
+			for (var conjunction : catalysts) {
+				writeIds(conjunction);
+			}
+			writeIds(inhibitors);
+		}
+
+		/**
+		 * write the end marker and flush, does not close the underlying stream
+		 */
+		public void finish() throws IOException {
+			if (!finished) {
+				out.writeByte(0);
+				out.flush();
+				finished = true;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			finish();
+			out.close();
+		}
+
+		private void writeIds(int[] ids) throws IOException {
+			writeInt(out, ids.length);
+			for (var id : ids) {
+				if (id < 0 || id >= numberOfMolecules)
+					throw new IOException("Molecule id out of range: " + id);
+				writeInt(out, id);
+			}
+		}
+	}
+
+	private static void writeInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readInt(DataInputStream in) throws IOException {
+		var value = 0;
+		for (var shift = 0; shift < 32; shift += 7) {
+			var b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+}
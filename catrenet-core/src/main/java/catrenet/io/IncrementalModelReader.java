@@ -0,0 +1,181 @@
+/*
+ *  IncrementalModelReader.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.io;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+
+import java.util.*;
+
+import static catrenet.io.ModelIO.FORMAL_FOOD;
+
+/**
+ * reads food and reactions texts as ModelIO.read does, but keeps the parse of each line in a cache keyed by the line,
+ * so that after an edit only the changed lines are parsed again. Parsed reactions are reused, so that a reaction
+ * system can be patched with minimal list changes
+ * Daniel Huson, 10.2026
+ */
+public class IncrementalModelReader {
+	private ReactionNotation reactionNotation;
+	private Map<String, ParsedLine> cache = new HashMap<>();
+
+	/**
+	 * parses the given texts, reusing all cached lines
+	 *
+	 * @param foodText      food text, the first line is read as if prefixed by "Food:"
+	 * @param reactionsText reactions text
+	 * @return the result, which either contains food and reactions, or the first error
+	 */
+	public synchronized Result read(String foodText, String reactionsText, ReactionNotation reactionNotation) {
+		if (reactionNotation != this.reactionNotation) {
+			cache.clear();
+			this.reactionNotation = reactionNotation;
+		}
+		var nextCache = new HashMap<String, ParsedLine>();
+		var foods = new ArrayList<MoleculeType>();
+		var reactions = new ArrayList<Reaction>();
+		var reactionNames = new HashSet<String>();
+		var formalFoodPresent = false;
+		var parsedLines = 0;
+
+		for (var source : Source.values()) {
+			var text = (source == Source.Food ? "Food: " + foodText : reactionsText);
+			var lineNumber = 0;
+			for (var it = text.lines().iterator(); it.hasNext(); ) {
+				var line = it.next();
+				lineNumber++;
+				if (line.startsWith("#"))
+					continue;
+				line = line.trim();
+				if (line.isEmpty())
+					continue;
+
+				var parsed = nextCache.get(line);
+				if (parsed == null) {
+					parsed = cache.get(line);
+					if (parsed == null) {
+						parsed = parse(line);
+						parsedLines++;
+					}
+					nextCache.put(line, parsed);
+				}
+				if (parsed.error() != null) {
+					cache.putAll(nextCache);
+					return new Result(null, null, source, lineNumber, parsed.error(), parsedLines);
+				}
+
+				for (var food : parsed.foods()) {
+					foods.add(food);
+					if (FORMAL_FOOD.equals(food))
+						formalFoodPresent = true;
+				}
+				for (var reaction : parsed.reactions()) {
+					if (!reactionNames.add(reaction.getName())) {
+						cache.putAll(nextCache);
+						return new Result(null, null, source, lineNumber, "Multiple reactions have the same name: " + reaction.getName(), parsedLines);
+					}
+					reactions.add(reaction);
+					if (!formalFoodPresent && reaction.getCatalysts().contains(FORMAL_FOOD.getName())) {
+						foods.add(FORMAL_FOOD);
+						formalFoodPresent = true;
+					}
+				}
+			}
+		}
+		cache = nextCache;
+		return new Result(foods, reactions, null, 0, null, parsedLines);
+	}
+
+	private ParsedLine parse(String line) {
+		try {
+			var foods = new ArrayList<MoleculeType>();
+			var reactions = new ArrayList<Reaction>();
+			ModelIO.parseLine(line, reactionNotation, foods, reactions);
+			return new ParsedLine(foods, reactions, null);
+		} catch (Exception ex) {
+			return new ParsedLine(List.of(), List.of(), ex.getMessage());
+		}
+	}
+
+	/**
+	 * clears the cache
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * changes the target list to equal the source list, by replacing the range between the longest common prefix and
+	 * suffix, with items compared by identity
+	 *
+	 * @return true, if the target was changed
+	 */
+	public static <T> boolean patch(List<T> target, List<T> source) {
+		var prefix = 0;
+		var max = Math.min(target.size(), source.size());
+		while (prefix < max && target.get(prefix) == source.get(prefix))
+			prefix++;
+		var suffix = 0;
+		while (suffix < max - prefix && target.get(target.size() - 1 - suffix) == source.get(source.size() - 1 - suffix))
+			suffix++;
+		if (prefix == target.size() && prefix == source.size())
+			return false;
+		var targetEnd = target.size() - suffix;
+		var sourceEnd = source.size() - suffix;
+		if (prefix < targetEnd)
+			target.subList(prefix, targetEnd).clear();
+		if (prefix < sourceEnd)
+			target.addAll(prefix, source.subList(prefix, sourceEnd));
+		return true;
+	}
+
+	public enum Source {Food, Reactions}
+
+	private record ParsedLine(List<MoleculeType> foods, List<Reaction> reactions, String error) {
+	}
+
+	/**
+	 * result of reading
+	 *
+	 * @param foods       the food items, or null, if there is an error
+	 * @param reactions   the reactions, or null, if there is an error
+	 * @param errorSource the text containing the error
+	 * @param errorLine   the line number of the error, 1-based
+	 * @param error       the error message, or null
+	 * @param parsedLines number of lines that were not found in the cache
+	 */
+	public record Result(List<MoleculeType> foods, List<Reaction> reactions, Source errorSource, int errorLine,
+						 String error, int parsedLines) {
+		public boolean isOk() {
+			return error == null;
+		}
+
+		/**
+		 * patches the foods and reactions of the given reaction system to equal this result
+		 *
+		 * @return true, if anything changed
+		 */
+		public boolean apply(ReactionSystem reactionSystem) {
+			var changed = patch(reactionSystem.getFoods(), foods);
+			return patch(reactionSystem.getReactions(), reactions) || changed;
+		}
+	}
+}
@@ -22,16 +22,12 @@ package catrenet.io;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import catrenet.settings.ArrowNotation;
-import catrenet.settings.ReactionNotation;
 import jloda.util.Basic;
 import jloda.util.IOExceptionWithLineNumber;
 import jloda.util.StringUtils;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -79,7 +75,7 @@ public class ModelIO {
 	 */
 	public static String read(ReactionSystem reactionSystem, Reader r, ReactionNotation reactionNotation) throws IOException {
 		final var reactionNames = new HashSet<String>();
-		final var auxReactions = new HashSet<Reaction>();
+		final var lineReactions = new ArrayList<Reaction>();
 
 		final var buf = new StringBuilder();
 
@@ -100,28 +96,16 @@ public class ModelIO {
 				line = line.trim();
 				if (!line.isEmpty())
 					try {
-						if (line.startsWith("Food:") || (line.startsWith("F:") && !line.contains("->") && !line.contains("=>") && !line.contains("<-") && !line.contains("<="))) {
-							reactionSystem.getFoods().addAll(parseFood(line));
-						} else {
-							List<String> list;
-							if (line.contains(";") && StringUtils.countOccurrences(line, ':') > 1) {
-								list = new ArrayList<>();
-								for (var token : line.split(";")) {
-									if (!token.isBlank())
-										list.add(token.trim());
-								}
-							} else
-								list = List.of(line);
-							for (var reactionLine : list) {
-								var reaction = Reaction.parse(reactionLine, auxReactions, reactionNotation.equals(ReactionNotation.Tabbed));
-								if (reactionNames.contains(reaction.getName()))
-									throw new IOException("Multiple reactions have the same name: " + reaction.getName());
-								reactionSystem.getReactions().add(reaction);
-								reactionNames.add(reaction.getName());
-								if (reaction.getCatalysts().contains(FORMAL_FOOD.getName())) {
-									if (!reactionSystem.getFoods().contains(FORMAL_FOOD))
-										reactionSystem.getFoods().add(FORMAL_FOOD);
-								}
+						lineReactions.clear();
+						parseLine(line, reactionNotation, reactionSystem.getFoods(), lineReactions);
+						for (var reaction : lineReactions) {
+							if (reactionNames.contains(reaction.getName()))
+								throw new IOException("Multiple reactions have the same name: " + reaction.getName());
+							reactionSystem.getReactions().add(reaction);
+							reactionNames.add(reaction.getName());
+							if (reaction.getCatalysts().contains(FORMAL_FOOD.getName())) {
+								if (!reactionSystem.getFoods().contains(FORMAL_FOOD))
+									reactionSystem.getFoods().add(FORMAL_FOOD);
 							}
 						}
 					} catch (Exception ex) {
@@ -134,6 +118,29 @@ public class ModelIO {
 		return buf.toString();
 	}
 
+	/**
+	 * parses a single trimmed, non-empty and non-comment line, adding its food items or reactions to the given collections.
+	 * Does not check for reactions with the same name, nor add the formal food item
+	 */
+	public static void parseLine(String line, ReactionNotation reactionNotation, Collection<MoleculeType> foods, Collection<Reaction> reactions) throws IOException {
+		if (line.startsWith("Food:") || (line.startsWith("F:") && !line.contains("->") && !line.contains("=>") && !line.contains("<-") && !line.contains("<="))) {
+			foods.addAll(parseFood(line));
+		} else {
+			List<String> list;
+			if (line.contains(";") && StringUtils.countOccurrences(line, ':') > 1) {
+				list = new ArrayList<>();
+				for (var token : line.split(";")) {
+					if (!token.isBlank())
+						list.add(token.trim());
+				}
+			} else
+				list = List.of(line);
+			for (var reactionLine : list) {
+				reactions.add(Reaction.parse(reactionLine, Collections.emptySet(), reactionNotation.equals(ReactionNotation.Tabbed)));
+			}
+		}
+	}
+
 	/**
 	 * write model as string
 	 *
@@ -17,7 +17,7 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.settings;
+package catrenet.io;
 
 import jloda.util.Pair;
 import jloda.util.StringUtils;
@@ -1,5 +1,5 @@
 /*
- *  ImportWimsFormat.java Copyright (C) 2024 Daniel H. Huson
+ *  WimsFormat.java Copyright (C) 2024 Daniel H. Huson
  *
  *  (Some files contain contributions from other authors, who are then mentioned separately.)
  *
@@ -17,13 +17,8 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.action;
+package catrenet.io;
 
-import catrenet.io.FileOpener;
-import javafx.stage.FileChooser;
-import javafx.stage.Stage;
-import jloda.fx.util.RecentFilesManager;
-import jloda.fx.util.TextFileFilter;
 import jloda.util.*;
 
 import java.io.File;
@@ -32,28 +27,10 @@ import java.util.ArrayList;
 import java.util.HashSet;
 
 /**
- * imports data in Wim's format
+ * parses data in Wim's format
  * Daniel Huson, 2.2020
  */
-public class ImportWimsFormat {
-
-    public static void apply(Stage stage) {
-        File previousDir = new File(ProgramProperties.get("ImportDir", ""));
-
-        final FileChooser fileChooser = new FileChooser();
-        if (previousDir.isDirectory())
-            fileChooser.setInitialDirectory(previousDir);
-        fileChooser.setTitle("Import File - " + ProgramProperties.getProgramVersion());
-        fileChooser.getExtensionFilters().add(TextFileFilter.getInstance());
-        final File selectedFile = fileChooser.showOpenDialog(stage);
-
-        if (selectedFile != null) {
-            ProgramProperties.put("ImportDir", selectedFile.getParent());
-            (new FileOpener()).accept(selectedFile.getPath());
-            RecentFilesManager.getInstance().insertRecentFile(selectedFile.getPath());
-        }
-    }
-
+public class WimsFormat {
     /**
      * does this file require importing?
      *
@@ -17,7 +17,7 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.view;
+package catrenet.model;
 
 /**
  * edge type in reaction graph
@@ -21,15 +21,15 @@ package catrenet.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * a molecule type
  * Daniel Huson, 6.2019
  */
 public class MoleculeType implements Comparable<MoleculeType> {
-    private final static Map<String, MoleculeType> name2type = new HashMap<>();
+    private final static Map<String, MoleculeType> name2type = new ConcurrentHashMap<>();
 
     private final String name;
 
@@ -39,9 +39,7 @@ public class MoleculeType implements Comparable<MoleculeType> {
      * @return molecule
      */
     public static MoleculeType valueOf(String name) {
-        if (!name2type.containsKey(name))
-            name2type.put(name, new MoleculeType(name));
-        return name2type.get(name);
+        return name2type.computeIfAbsent(name, MoleculeType::new);
     }
 
     private MoleculeType(String name) {
@@ -0,0 +1,191 @@
+/*
+ *  NotifyingList.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.model;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * array list that reports each change to its owner, used for the reactions and foods of a reaction system.
+ * Each operation is reported as a single change, that is, bulk operations are reported once, not per element.
+ * A fixed list cannot be changed and so never reports anything
+ * Daniel Huson, 10.2026
+ */
+public final class NotifyingList<T> extends AbstractList<T> implements RandomAccess {
+	/**
+	 * a change: the items in positions from to from + removed.size() were replaced by the added items
+	 */
+	record Change<T>(int from, List<T> removed, List<T> added) {
+	}
+
+	private final List<T> items;
+	private final boolean fixed;
+	private final ArrayList<Consumer<Change<T>>> listeners = new ArrayList<>();
+
+	NotifyingList() {
+		this.items = new ArrayList<>();
+		this.fixed = false;
+	}
+
+	private NotifyingList(T[] items) {
+		this.items = Arrays.asList(items);
+		this.fixed = true;
+	}
+
+	/**
+	 * creates a list that cannot be changed, on the given array, which must not be changed by the caller
+	 */
+	static <T> NotifyingList<T> fixed(T[] items) {
+		return new NotifyingList<>(items);
+	}
+
+	void addListener(Consumer<Change<T>> listener) {
+		if (!fixed)
+			listeners.add(listener);
+	}
+
+	@Override
+	public T get(int index) {
+		return items.get(index);
+	}
+
+	@Override
+	public int size() {
+		return items.size();
+	}
+
+	@Override
+	public T set(int index, T item) {
+		checkModifiable();
+		var old = items.set(index, item);
+		fire(index, Collections.singletonList(old), Collections.singletonList(item));
+		return old;
+	}
+
+	@Override
+	public void add(int index, T item) {
+		checkModifiable();
+		items.add(index, item);
+		modCount++;
+		fire(index, Collections.emptyList(), Collections.singletonList(item));
+	}
+
+	@Override
+	public T remove(int index) {
+		checkModifiable();
+		var old = items.remove(index);
+		modCount++;
+		fire(index, Collections.singletonList(old), Collections.emptyList());
+		return old;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> collection) {
+		return addAll(items.size(), collection);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> collection) {
+		checkModifiable();
+		var added = new ArrayList<T>(collection);
+		if (added.isEmpty())
+			return false;
+		items.addAll(index, added);
+		modCount++;
+		fire(index, Collections.emptyList(), added);
+		return true;
+	}
+
+	/**
+	 * replaces all items by the given ones
+	 */
+	public void setAll(Collection<? extends T> collection) {
+		checkModifiable();
+		var added = new ArrayList<T>(collection);
+		var removed = new ArrayList<>(items);
+		items.clear();
+		items.addAll(added);
+		modCount++;
+		fire(0, removed, added);
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		if (!items.isEmpty()) {
+			var removed = new ArrayList<>(items);
+			items.clear();
+			modCount++;
+			fire(0, removed, Collections.emptyList());
+		}
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		checkModifiable();
+		if (fromIndex < toIndex) {
+			var range = items.subList(fromIndex, toIndex);
+			var removed = new ArrayList<>(range);
+			range.clear();
+			modCount++;
+			fire(fromIndex, removed, Collections.emptyList());
+		}
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		checkModifiable();
+		var kept = new ArrayList<T>(items.size());
+		for (var item : items) {
+			if (!filter.test(item))
+				kept.add(item);
+		}
+		if (kept.size() == items.size())
+			return false;
+		setAll(kept);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> collection) {
+		var set = (collection instanceof Set<?> ? collection : new HashSet<>(collection));
+		return removeIf(set::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> collection) {
+		var set = (collection instanceof Set<?> ? collection : new HashSet<>(collection));
+		return removeIf(item -> !set.contains(item));
+	}
+
+	private void checkModifiable() {
+		if (fixed)
+			throw new UnsupportedOperationException("unmodifiable list");
+	}
+
+	private void fire(int from, List<T> removed, List<T> added) {
+		if (!listeners.isEmpty()) {
+			var change = new Change<>(from, removed, added);
+			for (var listener : listeners)
+				listener.accept(change);
+		}
+	}
+}
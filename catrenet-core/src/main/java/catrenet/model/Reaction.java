@@ -19,7 +19,6 @@
 
 package catrenet.model;
 
-import jloda.fx.window.NotificationManager;
 import jloda.util.NumberUtils;
 import jloda.util.StringUtils;
 
@@ -233,7 +232,7 @@ public class Reaction implements Comparable<Reaction> {
                     if (coefficient > 0) {
                         reaction.setReactantCoefficient(MoleculeType.valueOf(token), coefficient);
                         if (!warnedAboutSuppressingCoefficients) {
-                            NotificationManager.showWarning("Coefficients found in reactions, ignored");
+                            System.err.println("Warning: Coefficients found in reactions, ignored");
                             warnedAboutSuppressingCoefficients = true;
                         }
                     }
@@ -262,7 +261,7 @@ public class Reaction implements Comparable<Reaction> {
                     if (coefficient > 0) {
                         reaction.setProductCoefficient(MoleculeType.valueOf(token), coefficient);
                         if (!warnedAboutSuppressingCoefficients) {
-                            NotificationManager.showWarning("Coefficients found in reactions, ignored");
+                            System.err.println("Warning: Coefficients found in reactions, ignored");
                             warnedAboutSuppressingCoefficients = true;
                         }
                     }
@@ -387,8 +386,13 @@ public class Reaction implements Comparable<Reaction> {
                 direction == reaction.direction;
     }
 
+    /**
+     * the hash code only depends on the name, which is final and whose hash code is cached, so that adding a reaction to a hash set
+     * or map takes constant time and the hash code does not change when the reaction is modified. This is consistent with equals,
+     * as equal reactions have the same name, and equals itself only compares the contents of different reactions of the same name
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(name, reactants, products, catalysts, inhibitions, reactantCoefficient, productCoefficient, direction);
+        return name.hashCode();
     }
 }
@@ -0,0 +1,336 @@
+/*
+ *  ReactionSystem.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.model;
+
+import jloda.util.CollectionUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * a catalytic reaction system
+ * Change listeners are notified after the reactions, foods, name or inhibitors-present flag change, which is used by
+ * the GUI to maintain observable properties
+ * Daniel Huson, 6.2019
+ */
+public class ReactionSystem {
+    private final NotifyingList<Reaction> reactions;
+    private final NotifyingList<MoleculeType> foods;
+    private final boolean unmodifiable;
+
+    private boolean inhibitorsPresent = false;
+    private final ArrayList<Runnable> changeListeners = new ArrayList<>();
+
+    private int numberOfTwoWayReactions = 0;
+
+    private volatile Map<String, Reaction> name2reaction; // built on demand for an unmodifiable system
+    private Map<String, Integer> name2index; // built on first replacement, null until then or if invalidated by a change that shifts positions
+    private volatile Set<String> reactionNames = null;
+
+    private String name = "Reactions";
+
+    /**
+     * construct a reactions systems
+     */
+    public ReactionSystem() {
+        this(null);
+    }
+
+    /**
+     * construct a reactions systems
+     */
+    public ReactionSystem(final String name) {
+        reactions = new NotifyingList<>();
+        foods = new NotifyingList<>();
+        unmodifiable = false;
+        name2reaction = new HashMap<>();
+
+        setName(name);
+
+        reactions.addListener(this::reactionsChanged);
+        foods.addListener(e -> fireChanged());
+        updateIsInhibitorsPresent();
+    }
+
+    private void reactionsChanged(NotifyingList.Change<Reaction> change) {
+        for (Reaction reaction : change.removed()) {
+            if (reaction.getDirection() == Reaction.Direction.both)
+                numberOfTwoWayReactions--;
+            name2reaction.remove(reaction.getName(), reaction);
+            if (name2index != null)
+                name2index.remove(reaction.getName());
+        }
+        for (Reaction reaction : change.added()) {
+            if (reaction.getDirection() == Reaction.Direction.both)
+                numberOfTwoWayReactions++;
+            name2reaction.put(reaction.getName(), reaction);
+        }
+        if (name2index != null) {
+            // replacing in place or appending keeps the positions of all other reactions:
+            var inPlace = change.removed().size() == change.added().size() || (change.removed().isEmpty() && change.from() + change.added().size() == reactions.size());
+            if (inPlace) {
+                for (var i = change.from(); i < change.from() + change.added().size(); i++)
+                    name2index.put(reactions.get(i).getName(), i);
+            } else
+                name2index = null;
+        }
+        reactionNames = null;
+        fireChanged();
+    }
+
+    /**
+     * construct an unmodifiable reactions system, without change listeners
+     */
+    private ReactionSystem(String name, Collection<MoleculeType> foods, Collection<Reaction> reactions) {
+        this.reactions = NotifyingList.fixed(reactions.toArray(new Reaction[0]));
+        this.foods = NotifyingList.fixed(foods.toArray(new MoleculeType[0]));
+        unmodifiable = true;
+
+        setName(name);
+
+        for (var reaction : this.reactions) {
+            if (reaction.getDirection() == Reaction.Direction.both)
+                numberOfTwoWayReactions++;
+        }
+        updateIsInhibitorsPresent();
+    }
+
+    /**
+     * creates an unmodifiable reaction system on a copy of the given foods and reactions. Its lists cannot be changed and
+     * so never notify listeners, and no indices are set up, so this is cheap to create. Algorithms use it for the many
+     * temporary systems of knockout loops, whereas results are returned as ordinary reaction systems
+     *
+     * @return unmodifiable reaction system
+     */
+    public static ReactionSystem createUnmodifiable(String name, Collection<MoleculeType> foods, Collection<Reaction> reactions) {
+        return new ReactionSystem(name, foods, reactions);
+    }
+
+    /**
+     * is this an unmodifiable reaction system, as created by createUnmodifiable?
+     */
+    public boolean isUnmodifiable() {
+        return unmodifiable;
+    }
+
+    public NotifyingList<Reaction> getReactions() {
+        return reactions;
+    }
+
+    public NotifyingList<MoleculeType> getFoods() {
+        return foods;
+    }
+
+    /**
+     * adds a listener that is called after the reactions, foods, name or inhibitors-present flag change, on the thread
+     * that makes the change. An unmodifiable reaction system never changes and so never calls its listeners
+     */
+    public void addChangeListener(Runnable listener) {
+        if (!unmodifiable)
+            changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void fireChanged() {
+        for (var listener : changeListeners)
+            listener.run();
+    }
+
+    /**
+     * create a shallow copy that references reactions
+     *
+     * @return shallow copy of this model
+     */
+    public ReactionSystem shallowCopy() {
+        final ReactionSystem result = new ReactionSystem();
+        result.shallowCopy(this);
+        return result;
+    }
+
+    /**
+     * sets this to a shallow copy of that
+     *
+	 */
+    public void shallowCopy(ReactionSystem that) {
+        clear();
+        setName(that.getName());
+        foods.addAll(that.foods);
+        reactions.addAll(that.reactions);
+    }
+
+    public void clear() {
+        reactions.clear();
+        foods.clear();
+    }
+
+    /**
+     * gets the size
+     *
+     * @return number of reactions
+     */
+    public int size() {
+        return reactions.size();
+    }
+
+    public int getFoodSize() {
+        return foods.size();
+    }
+
+    public int getNumberOfTwoWayReactions() {
+        return numberOfTwoWayReactions;
+    }
+
+    public int getNumberOfOneWayReactions() {
+        return size() - numberOfTwoWayReactions;
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHeaderLine() {
+        var buf = new StringBuilder(getName() + " has " + size());
+        if (getNumberOfOneWayReactions() == 0 && getNumberOfTwoWayReactions() > 0)
+            buf.append(" two-way reactions");
+        else if (getNumberOfOneWayReactions() > 0 && getNumberOfTwoWayReactions() == 0)
+            buf.append(" one-way reactions");
+        else if (getNumberOfOneWayReactions() > 0 && getNumberOfTwoWayReactions() > 0)
+            buf.append(" reactions (").append(getNumberOfTwoWayReactions()).append(" two-way and ").append(getNumberOfOneWayReactions()).append(" one-way)");
+        else buf.append(" reactions");
+        buf.append(" on ").append(getFoods().size()).append(" food items");
+        return buf.toString();
+
+    }
+
+    public void setName(String name) {
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            fireChanged();
+        }
+    }
+
+    public boolean isInhibitorsPresent() {
+        return inhibitorsPresent;
+    }
+
+    public void updateIsInhibitorsPresent() {
+        var present = reactions.stream().anyMatch(reaction -> !reaction.getInhibitions().isEmpty());
+        if (present != inhibitorsPresent) {
+            inhibitorsPresent = present;
+            fireChanged();
+        }
+    }
+
+    /**
+     * gets all mentioned molecule types
+     *
+	 */
+    public Set<MoleculeType> getFoodAndReactantAndProductMolecules() {
+        final Set<MoleculeType> moleculeTypes = new TreeSet<>(getFoods());
+        for (Reaction reaction : getReactions()) {
+            moleculeTypes.addAll(reaction.getReactants());
+            moleculeTypes.addAll(reaction.getProducts());
+        }
+        return moleculeTypes;
+    }
+
+    /**
+     * gets the sorted names of all reactions. The returned set is unmodifiable and is recomputed only after the reactions change
+     */
+    public Set<String> getReactionNames() {
+        var names = reactionNames;
+        if (names == null) {
+            names = Collections.unmodifiableSortedSet(new TreeSet<>(getName2Reaction().keySet()));
+            reactionNames = names;
+        }
+        return names;
+    }
+
+    public Collection<MoleculeType> computeMentionedFoods(Collection<MoleculeType> foods) {
+        final Set<MoleculeType> set = new HashSet<>();
+        reactions.forEach(r -> {
+            set.addAll(r.getReactants());
+            set.addAll(r.getInhibitions());
+            set.addAll(r.getProducts());
+            set.addAll(r.getCatalystConjunctions().stream().map(c -> MoleculeType.valuesOf(c.getName().split("&"))).flatMap(Collection::stream).collect(Collectors.toSet()));
+        });
+        return foods.parallelStream().filter(set::contains).collect(Collectors.toList());
+    }
+
+
+    /**
+     * gets the reaction of the given name
+     *
+     * @return reaction or null
+     */
+    public Reaction getReaction(String name) {
+        return getName2Reaction().get(name);
+    }
+
+    private Map<String, Reaction> getName2Reaction() {
+        var map = name2reaction;
+        if (map == null) { // unmodifiable system, index is built on first use
+            map = new HashMap<>();
+            for (var reaction : reactions)
+                map.put(reaction.getName(), reaction);
+            name2reaction = map;
+        }
+        return map;
+    }
+
+    /**
+     * replaces the named reaction by the given one, at the same position
+     */
+    public void replaceNamedReaction(String name, Reaction reaction) {
+        if (unmodifiable)
+            throw new UnsupportedOperationException("unmodifiable reaction system");
+        if (!name2reaction.containsKey(name))
+            throw new IllegalArgumentException("no such reaction: " + name);
+        if (name2index == null) {
+            name2index = new HashMap<>();
+            for (var i = 0; i < reactions.size(); i++)
+                name2index.put(reactions.get(i).getName(), i);
+        }
+        reactions.set(name2index.get(name), reaction);
+    }
+
+	public ReactionSystem sorted() {
+		final ReactionSystem reactionSystem = new ReactionSystem(getName());
+		reactionSystem.getFoods().addAll(new TreeSet<>(getFoods()));
+		reactionSystem.getReactions().addAll(new TreeSet<>(getReactions()));
+		return reactionSystem;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof ReactionSystem that)) return false;
+		return CollectionUtils.equalsAsSets(this.getFoods(), that.getFoods()) && CollectionUtils.equalsAsSets(this.getReactions(), that.getReactions());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(reactions, foods);
+	}
+}
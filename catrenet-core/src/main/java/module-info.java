@@ -0,0 +1,27 @@
+module catrenet.core {
+	requires transitive jloda_core;
+	requires commons.math3;
+
+	exports catrenet.core;
+	exports catrenet.io;
+	exports catrenet.algorithm;
+	exports catrenet.model;
+
+	opens catrenet.algorithm;
+
+	uses catrenet.algorithm.AlgorithmBase;
+	provides catrenet.algorithm.AlgorithmBase with
+			catrenet.algorithm.CoreRAFAlgorithm,
+			catrenet.algorithm.MaxCAFAlgorithm,
+			catrenet.algorithm.MaxPseudoRAFAlgorithm,
+			catrenet.algorithm.MaxRAFAlgorithm,
+			catrenet.algorithm.MinIRAFHeuristic,
+			catrenet.algorithm.MinRAFGeneratingElement,
+			catrenet.algorithm.MuCAFAlgorithm,
+			catrenet.algorithm.QuotientRAFAlgorithm,
+			catrenet.algorithm.RemoveTrivialRAFsAlgorithm,
+			catrenet.algorithm.StrictlyAutocatalyticMaxRAFAlgorithm,
+			catrenet.algorithm.TrivialCAFsAlgorithm,
+			catrenet.algorithm.TrivialRAFsAlgorithm,
+			catrenet.algorithm.URAFAlgorithm;
+}
@@ -0,0 +1,120 @@
+/*
+ *  IncrementalAnalysisCheck.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.algorithm;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.util.progress.ProgressSilent;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * checks IncrementalAnalysis against full runs of the max CAF, max RAF, max pseudo RAF, trivial CAFs and trivial RAFs algorithms.
+ * Random reaction systems are edited by randomly removing and inserting a few reactions, and after each edit, the incremental
+ * result is compared to the result of running the algorithm from scratch. Some systems contain inhibitions, which must trigger
+ * full runs. Exits with status 1, if any result differs, which fails the Maven build, as this is run in the test phase
+ * of catrenet-core.
+ * <p>
+ * Arguments: [trials [steps [seed]]]
+ * Daniel Huson, 10.2026
+ */
+public class IncrementalAnalysisCheck {
+	private final Random random;
+	private int nextId = 0;
+
+	public IncrementalAnalysisCheck(long seed) {
+		random = new Random(seed);
+	}
+
+	public static void main(String[] args) throws Exception {
+		var trials = (args.length > 0 ? Integer.parseInt(args[0]) : 30);
+		var steps = (args.length > 1 ? Integer.parseInt(args[1]) : 10);
+		var seed = (args.length > 2 ? Long.parseLong(args[2]) : 1L);
+
+		var mismatches = new IncrementalAnalysisCheck(seed).run(trials, steps);
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+
+	/**
+	 * runs the given number of random edit sequences
+	 *
+	 * @return number of mismatches
+	 */
+	public int run(int trials, int steps) throws Exception {
+		var algorithms = List.of(new MaxCAFAlgorithm(), new MaxRAFAlgorithm(), new MaxPseudoRAFAlgorithm(), new TrivialCAFsAlgorithm(), new TrivialRAFsAlgorithm());
+		var comparisons = 0;
+		var mismatches = 0;
+
+		for (var trial = 0; trial < trials; trial++) {
+			var molecules = 30 + random.nextInt(300);
+			var inhibitionProbability = (trial % 5 == 4 ? 0.05 : 0.0);
+			var system = new ReactionSystem("Input");
+			for (var i = 0; i < 10; i++)
+				system.getFoods().add(MoleculeType.valueOf("m" + i));
+			for (var i = 50 + random.nextInt(400); i > 0; i--)
+				system.getReactions().add(createReaction(molecules, inhibitionProbability));
+
+			var incrementalAnalysis = new IncrementalAnalysis();
+			for (var algorithm : algorithms)
+				incrementalAnalysis.apply(algorithm, system, new ProgressSilent());
+
+			for (var step = 0; step < steps; step++) {
+				for (var i = random.nextInt(6); i > 0 && !system.getReactions().isEmpty(); i--)
+					system.getReactions().remove(random.nextInt(system.size()));
+				for (var i = random.nextInt(6); i > 0; i--)
+					system.getReactions().add(random.nextInt(system.size() + 1), createReaction(molecules, inhibitionProbability));
+
+				for (var algorithm : algorithms) {
+					var full = algorithm.apply(system, new ProgressSilent());
+					var incremental = incrementalAnalysis.apply(algorithm, system, new ProgressSilent());
+					comparisons++;
+					if (!new HashSet<>(full.getReactions()).equals(new HashSet<>(incremental.getReactions())) || !new HashSet<>(full.getFoods()).equals(new HashSet<>(incremental.getFoods()))
+						|| !full.getName().equals(incremental.getName())) {
+						mismatches++;
+						System.err.printf("Mismatch: trial %d, step %d, %s: full run has %d reactions, incremental has %d%n", trial, step, algorithm.getName(), full.size(), incremental.size());
+					}
+				}
+			}
+		}
+		System.err.printf("Compared %,d incremental results to full runs: %,d mismatches%n", comparisons, mismatches);
+		return mismatches;
+	}
+
+	private Reaction createReaction(int molecules, double inhibitionProbability) throws IOException {
+		var direction = switch (random.nextInt(4)) {
+			case 0 -> "<=>";
+			case 1 -> "<=";
+			default -> "=>";
+		};
+		var catalysts = (random.nextInt(5) == 0 ? molecule(molecules) + "&" + molecule(molecules) : molecule(molecules) + (random.nextBoolean() ? "," + molecule(molecules) : ""));
+		var inhibitions = (random.nextDouble() < inhibitionProbability ? " {" + molecule(molecules) + "}" : "");
+		return Reaction.parse("r" + (nextId++) + ": " + molecule(molecules) + " + " + molecule(molecules) + " [" + catalysts + "]" + inhibitions + " " + direction + " " + molecule(molecules),
+				Set.of(), false);
+	}
+
+	private String molecule(int molecules) {
+		return "m" + random.nextInt(molecules);
+	}
+}
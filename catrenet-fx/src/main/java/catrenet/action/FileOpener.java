@@ -17,13 +17,12 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.action;
 
-import catrenet.action.ImportWimsFormat;
-import catrenet.action.NewWindow;
-import catrenet.action.VerifyInput;
-import catrenet.settings.ArrowNotation;
-import catrenet.settings.ReactionNotation;
+import catrenet.io.ArrowNotation;
+import catrenet.io.ModelIO;
+import catrenet.io.ReactionNotation;
+import catrenet.io.WimsFormat;
 import catrenet.window.MainWindow;
 import jloda.fx.util.RecentFilesManager;
 import jloda.fx.window.MainWindowManager;
@@ -62,8 +61,8 @@ public class FileOpener implements Consumer<String> {
 
             final Pair<ReactionNotation, ArrowNotation> notation;
 
-            if (ImportWimsFormat.isInWimsFormat(fileName)) {
-                inputLines = ImportWimsFormat.importToString(fileName);
+            if (WimsFormat.isInWimsFormat(fileName)) {
+                inputLines = WimsFormat.importToString(fileName);
 				notation = ReactionNotation.detectNotation(inputLines.subList(0, 10));
 				window.getDocument().setFileName(FileUtils.getFileWithNewUniqueName(FileUtils.replaceFileSuffix(fileName, ".crs")).getPath());
 				window.getDocument().setDirty(true);
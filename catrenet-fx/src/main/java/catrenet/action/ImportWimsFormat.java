@@ -0,0 +1,52 @@
+/*
+ *  ImportWimsFormat.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import jloda.fx.util.RecentFilesManager;
+import jloda.fx.util.TextFileFilter;
+import jloda.util.ProgramProperties;
+
+import java.io.File;
+
+/**
+ * imports data in Wim's format
+ * Daniel Huson, 2.2020
+ */
+public class ImportWimsFormat {
+
+    public static void apply(Stage stage) {
+        File previousDir = new File(ProgramProperties.get("ImportDir", ""));
+
+        final FileChooser fileChooser = new FileChooser();
+        if (previousDir.isDirectory())
+            fileChooser.setInitialDirectory(previousDir);
+        fileChooser.setTitle("Import File - " + ProgramProperties.getProgramVersion());
+        fileChooser.getExtensionFilters().add(TextFileFilter.getInstance());
+        final File selectedFile = fileChooser.showOpenDialog(stage);
+
+        if (selectedFile != null) {
+            ProgramProperties.put("ImportDir", selectedFile.getParent());
+            (new FileOpener()).accept(selectedFile.getPath());
+            RecentFilesManager.getInstance().insertRecentFile(selectedFile.getPath());
+        }
+    }
+}
@@ -20,12 +20,13 @@
 package catrenet.action;
 
 import catrenet.algorithm.AlgorithmBase;
+import catrenet.algorithm.MuCAFAlgorithm;
 import catrenet.io.ModelIO;
 import catrenet.model.ReactionSystem;
+import catrenet.tab.TextView;
 import catrenet.window.MainWindow;
 import catrenet.window.MainWindowController;
 import javafx.beans.value.ChangeListener;
-import javafx.scene.control.TextArea;
 import jloda.fx.util.AService;
 import jloda.fx.window.NotificationManager;
 import jloda.util.Pair;
@@ -42,13 +43,15 @@ public class MultiRunAlgorithm {
      * run an algorithm, return the resulting model and write to text area
      *
 	 */
-    public static void apply(MainWindow window, final ReactionSystem inputReactions, AlgorithmBase algorithm, TextArea textArea, int numberOfRuns, ChangeListener<Boolean> runningListener) {
+    public static void apply(MainWindow window, final ReactionSystem inputReactions, AlgorithmBase algorithm, TextView textArea, int numberOfRuns, ChangeListener<Boolean> runningListener) {
         final MainWindowController controller = window.getController();
 
         final AService<Collection<Pair<ReactionSystem, Integer>>> service = new AService<>(controller.getBottomFlowPane());
         service.setCallable(() -> {
             final Map<Set<String>, Pair<ReactionSystem, Integer>> names2reactions2counts = new HashMap<>();
             for (int i = 0; i < numberOfRuns; i++) {
+                if (algorithm instanceof MuCAFAlgorithm muCAFAlgorithm)
+                    muCAFAlgorithm.setRun(i);
                 final ReactionSystem outputReactions = algorithm.apply(inputReactions, service.getProgressListener());
                 final Set<String> reactionNames = new HashSet<>(outputReactions.getReactionNames());
                 Pair<ReactionSystem, Integer> pair = names2reactions2counts.get(reactionNames);
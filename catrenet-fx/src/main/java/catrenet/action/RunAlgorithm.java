@@ -57,7 +57,7 @@ public class RunAlgorithm {
         var result = window.getReactionSystem(algorithm.getName());
 		var service = new AService<Triplet<ReactionSystem, String, String>>(controller.getBottomFlowPane());
         service.setCallable(() -> {
-            final ReactionSystem outputReactions = algorithm.apply(inputReactions, service.getProgressListener());
+            final ReactionSystem outputReactions = window.getDocument().getIncrementalAnalysis().apply(algorithm, inputReactions, service.getProgressListener());
 
             if (controller.getComputeImportanceCheckMenuItem().isSelected() && !(algorithm instanceof MuCAFAlgorithm)) {
                 var infoLine1 = Importance.toStringFoodImportance(Importance.computeFoodImportance(inputReactions, outputReactions, algorithm, service.getProgressListener()));
@@ -61,11 +61,11 @@ public class RunAll {
 
             window.getDocument().setReactionDependencyNetwork(null);
             if (window.getInputReactionSystem().getReactions().size() <= 100) {
-                ComputeReactionDependencies.run(window);
+                RunReactionDependencies.apply(window);
             } else
                 System.err.println("Too many reactions, not automatically computing reaction dependency network");
             window.getDocument().setMoleculeDependencyNetwork(null);
-            ComputeMoleculeDependencies.run(window);
+            RunMoleculeDependencies.apply(window);
         }
     }
 }
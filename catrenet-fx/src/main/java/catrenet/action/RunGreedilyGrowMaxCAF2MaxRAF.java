@@ -0,0 +1,68 @@
+/*
+ *  RunGreedilyGrowMaxCAF2MaxRAF.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import catrenet.algorithm.GreedilyGrowMaxCAF2MaxRAF;
+import catrenet.model.ReactionSystem;
+import catrenet.window.MainWindow;
+import javafx.beans.value.ChangeListener;
+import jloda.fx.util.AService;
+import jloda.fx.window.NotificationManager;
+import jloda.util.StringUtils;
+
+/**
+ * greedily grow maxCAF to maxRAF by making reactions spontaneous, in the background
+ * Daniel Huson, 3.2020
+ */
+public class RunGreedilyGrowMaxCAF2MaxRAF {
+    /**
+     * tries to greedily grow a maxCAF to a maxRAF and reports the result in the log
+     *
+	 */
+    public static void apply(MainWindow window, ReactionSystem inputReactionSystem, ChangeListener<Boolean> runningListener) {
+
+		final AService<GreedilyGrowMaxCAF2MaxRAF.Result> service = new AService<>(window.getController().getBottomFlowPane());
+
+        service.setCallable(() -> GreedilyGrowMaxCAF2MaxRAF.apply(inputReactionSystem, service.getProgressListener()));
+
+        service.runningProperty().addListener(runningListener);
+
+        service.setOnFailed(e -> NotificationManager.showError("Greedily grow MaxCAF to MaxRAF: failed: " + service.getException()));
+
+        service.setOnSucceeded(c -> {
+            final GreedilyGrowMaxCAF2MaxRAF.Result result = service.getValue();
+            final String message;
+            if (result.getSpontaneousReactions().size() == 0 && result.getMaxCAFSize() == result.getMaxRAFSize()) {
+                message = "Greedily grow MaxCAF to MaxRAF: no reactions required to be spontaneous, because MaxCAF=MaxRAF";
+                NotificationManager.showInformation(message);
+            } else {
+                message = String.format("Greedily grow MaxCAF (size %d) to MaxRAF (size %d): required %d reactions to be spontaneous: %s", result.getMaxCAFSize(), result.getMaxRAFSize(),
+                        result.getSpontaneousReactions().size(), StringUtils.toString(result.getSpontaneousReactions(), ", "));
+                NotificationManager.showInformation(String.format("Greedily grew MaxCAF (size %d) to MaxRAF (size %d): required %d reactions to be spontaneous", result.getMaxCAFSize(), result.getMaxRAFSize(),
+                        result.getSpontaneousReactions().size()));
+            }
+
+            window.getController().getLogTextArea().appendText("\n" + message + "\n");
+            window.getController().getLogTab().getTabPane().getSelectionModel().select(window.getController().getLogTab());
+        });
+
+        service.start();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  RunMoleculeDependencies.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import catrenet.algorithm.ComputeMoleculeDependencies;
+import catrenet.window.MainWindow;
+import jloda.fx.util.AService;
+import jloda.fx.window.NotificationManager;
+import jloda.graph.Graph;
+import jloda.util.StringUtils;
+
+/**
+ * computes the graph of dependencies between all molecules in the background and shows them in a text tab
+ * Daniel Huson and Mike Steel, 3.2023
+ */
+public class RunMoleculeDependencies {
+	/**
+	 * run the calculation in a separate thread and then post process the graph
+	 *
+	 * @param mainWindow
+	 */
+	public static void apply(MainWindow mainWindow) {
+		var service = new AService<Graph>(mainWindow.getStatusPane());
+		service.setCallable(() -> ComputeMoleculeDependencies.apply(service.getProgressListener(), mainWindow.getInputReactionSystem(), null));
+		service.setOnScheduled(e -> mainWindow.getDocument().setReactionDependencyNetwork(null));
+		service.setOnFailed(e -> NotificationManager.showError(service.getException().getMessage()));
+		service.setOnCancelled(e -> NotificationManager.showWarning("User canceled compute molecule dependencies"));
+		service.setOnSucceeded(a -> {
+			var graph = service.getValue();
+			mainWindow.getDocument().setReactionDependencyNetwork(graph);
+			final var textArea = mainWindow.getTabManager().getTextTab("Molecule dependencies", null).getTextArea();
+			var buf = new StringBuilder();
+			buf.append("# Molecule dependencies (%,d):%n".formatted(graph.getNumberOfEdges()));
+			var lines = graph.edgeStream().map(e -> e.getSource().getInfo() + " -> " + e.getTarget().getInfo()).sorted().toList();
+			buf.append(StringUtils.toString(lines, "\n"));
+			textArea.setText(buf.toString());
+		});
+		service.restart();
+	}
+}
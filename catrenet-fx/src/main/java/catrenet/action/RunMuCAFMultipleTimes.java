@@ -21,13 +21,12 @@ package catrenet.action;
 
 import catrenet.algorithm.IDescribed;
 import catrenet.algorithm.MuCAFAlgorithm;
-import catrenet.main.Version;
+import catrenet.core.Version;
 import catrenet.window.MainWindow;
 import catrenet.window.MainWindowController;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
-import javafx.scene.control.TextArea;
 import javafx.scene.control.TextInputDialog;
 import javafx.stage.Stage;
 import jloda.fx.util.ProgramProperties;
@@ -58,7 +57,7 @@ public class RunMuCAFMultipleTimes implements IDescribed {
         result.ifPresent(name -> inputString.set(result.get()));
 
         if (NumberUtils.isInteger(inputString.get()) && NumberUtils.parseInt(inputString.get()) > 0) {
-			final TextArea textArea = window.getTabManager().getTextTab(MuCAFAlgorithm.Name, null).getTextArea();
+			final var textArea = window.getTabManager().getTextTab(MuCAFAlgorithm.Name, null).getTextArea();
             MultiRunAlgorithm.apply(window, window.getInputReactionSystem(), new MuCAFAlgorithm(), textArea, NumberUtils.parseInt(inputString.get()), runningListener);
         }
     }
@@ -0,0 +1,55 @@
+/*
+ *  RunNecessarilySpontaneousInRAF.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import catrenet.algorithm.ComputeNecessarilySpontaneousInRAF;
+import catrenet.model.ReactionSystem;
+import catrenet.window.MainWindow;
+import catrenet.window.MainWindowController;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import jloda.fx.util.AService;
+import jloda.util.StringUtils;
+
+import java.util.Collection;
+
+/**
+ * determines which reactions are necessarily spontaneous in a RAF, in the background
+ * Daniel Huson, 4.2020
+ */
+public class RunNecessarilySpontaneousInRAF {
+
+    public static void apply(MainWindow window, final ReactionSystem inputReactions, MainWindowController controller, ChangeListener<Boolean> runningListener) {
+
+		final AService<Collection<String>> service = new AService<>(controller.getBottomFlowPane());
+
+        service.setCallable(() -> ComputeNecessarilySpontaneousInRAF.apply(inputReactions, service.getProgressListener()));
+
+        service.runningProperty().addListener(new WeakChangeListener<>(runningListener));
+
+        service.setOnSucceeded(c -> {
+            final String output = String.format("Necessarily spontaneous reactions (%d): %s\n",
+                    service.getValue().size(), StringUtils.toString(service.getValue(), ", "));
+            controller.getLogTextArea().appendText("\nMaxRAF: " + output);
+            window.getController().getLogTab().getTabPane().getSelectionModel().select(window.getController().getLogTab());
+        });
+        service.start();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  RunReactionDependencies.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import catrenet.algorithm.ComputeReactionDependencies;
+import catrenet.window.MainWindow;
+import jloda.fx.util.AService;
+import jloda.fx.window.NotificationManager;
+import jloda.graph.Graph;
+import jloda.util.StringUtils;
+
+import java.util.TreeSet;
+
+/**
+ * computes the graph of dependencies between all food-set generated reactions in the background and shows them in a text tab
+ * Daniel Huson and Mike Steel, 3.2023
+ */
+public class RunReactionDependencies {
+	/**
+	 * run the calculation in a separate thread and then post process the graph
+	 *
+	 * @param mainWindow
+	 */
+	public static void apply(MainWindow mainWindow) {
+		var service = new AService<Graph>(mainWindow.getStatusPane());
+		service.setCallable(() -> ComputeReactionDependencies.apply(service.getProgressListener(), mainWindow.getInputReactionSystem(), null));
+		service.setOnScheduled(e -> mainWindow.getDocument().setReactionDependencyNetwork(null));
+		service.setOnFailed(e -> NotificationManager.showError(service.getException().getMessage()));
+		service.setOnCancelled(e -> NotificationManager.showWarning("User canceled compute dependencies"));
+		service.setOnSucceeded(a -> {
+			var graph = service.getValue();
+			mainWindow.getDocument().setReactionDependencyNetwork(graph);
+			final var textArea = mainWindow.getTabManager().getTextTab("Dependencies", null).getTextArea();
+			var buf = new StringBuilder();
+			buf.append("# Earliest reactions (%,d):%n".formatted(graph.nodeStream().filter(v -> v.getInDegree() == 0 && v.getOutDegree() > 0).count()));
+			buf.append(StringUtils.toString(new TreeSet<>(graph.nodeStream().filter(v -> v.getInDegree() == 0 && v.getOutDegree() > 0).map(v -> v.getInfo().toString()).toList()), "\n")).append("\n");
+			buf.append("# Dependencies (%,d):%n".formatted(graph.getNumberOfEdges()));
+			var lines = graph.edgeStream().map(e -> e.getSource().getInfo() + " -> " + e.getTarget().getInfo()).sorted().toList();
+			buf.append(StringUtils.toString(lines, "\n"));
+			textArea.setText(buf.toString());
+		});
+		service.restart();
+	}
+}
@@ -17,8 +17,10 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.action;
 
+import catrenet.dialog.CRSFileFilter;
+import catrenet.io.ModelIO;
 import catrenet.model.ReactionSystem;
 import catrenet.window.MainWindow;
 import javafx.stage.FileChooser;
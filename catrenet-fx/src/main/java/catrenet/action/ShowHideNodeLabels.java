@@ -37,17 +37,15 @@ public class ShowHideNodeLabels {
             nodes = reactionGraphView.getReactionGraph().nodes();
 
 		for (var v : nodes) {
-			var label = reactionGraphView.getLabel(v);
-            if (!label.isVisible()) {
+            if (!reactionGraphView.isLabelVisible(v)) {
                 show = true;
                 break;
             }
         }
 
 		for (var v : nodes) {
-			var label = reactionGraphView.getLabel(v);
-            if (!label.getText().equals("&"))
-                label.setVisible(show);
+            if (!"&".equals(reactionGraphView.getLabelText(v)))
+                reactionGraphView.setLabelVisible(v, show);
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ *  VerifyInput.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.action;
+
+import catrenet.io.IncrementalModelReader;
+import catrenet.model.MoleculeType;
+import catrenet.window.MainWindow;
+import catrenet.window.MainWindowController;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import jloda.fx.util.BasicFX;
+import jloda.fx.util.RunAfterAWhile;
+import jloda.fx.window.NotificationManager;
+import jloda.util.ProgramExecutorService;
+
+import java.util.Collection;
+
+import static catrenet.io.ModelIO.FORMAL_FOOD;
+
+/**
+ * verifies the current input
+ * Daniel Huson, 7.2019
+ */
+public class VerifyInput {
+    /**
+     * verfies the correctness the current input food set and reactions. Only lines that have changed since the last
+     * verification are parsed and the input reaction system is patched, rather than rebuilt
+     *
+     * @return true, if successful
+     */
+    public static boolean verify(MainWindow window) {
+        final MainWindowController controller = window.getController();
+
+        var result = window.getDocument().getInputReader().read(controller.getInputFoodTextArea().getText(), controller.getInputTextArea().getText(), window.getDocument().getReactionNotation());
+        showResult(controller, result);
+        if (!result.isOk()) {
+            NotificationManager.showError(result.error());
+            var textArea = (result.errorSource() == IncrementalModelReader.Source.Food ? controller.getInputFoodTextArea() : controller.getInputTextArea());
+            BasicFX.gotoAndSelectLine(textArea, result.errorLine(), -1);
+            return false;
+        }
+
+        final var reactionSystem = window.getDocument().getInputReactionSystem();
+        result.apply(reactionSystem);
+
+        reactionSystem.updateIsInhibitorsPresent();
+        if (!window.getDocument().isWarnedAboutInhibitions() && reactionSystem.isInhibitorsPresent()) {
+            final String message = "Input catalytic reaction system contains inhibitions. These are ignored in the computation of maxCAF, maxRAF and maxPseudoRAF";
+            window.getLogStream().println(message);
+            NotificationManager.showInformation(message);
+            window.getDocument().setWarnedAboutInhibitions(true);
+        }
+
+        return true;
+    }
+
+    /**
+     * verifies the input in the background, once editing pauses, so that errors are reported while editing.
+     * Only changed lines are parsed and the input reaction system is not modified
+     */
+    public static void setupVerifyWhileEditing(MainWindow window) {
+        final MainWindowController controller = window.getController();
+        final var edits = new long[]{0L};
+
+        final InvalidationListener listener = e -> {
+            edits[0]++;
+            RunAfterAWhile.applyInFXThread(edits, () -> {
+                var edit = edits[0];
+                var foodText = controller.getInputFoodTextArea().getText();
+                var reactionsText = controller.getInputTextArea().getText();
+                var reactionNotation = window.getDocument().getReactionNotation();
+                ProgramExecutorService.getInstance().submit(() -> {
+                    var result = window.getDocument().getInputReader().read(foodText, reactionsText, reactionNotation);
+                    Platform.runLater(() -> {
+                        if (edit == edits[0])
+                            showResult(controller, result);
+                    });
+                });
+            });
+        };
+        controller.getInputFoodTextArea().textProperty().addListener(listener);
+        controller.getInputTextArea().textProperty().addListener(listener);
+    }
+
+    /**
+     * shows the sizes of the input, or the first error, in the input size labels
+     */
+    private static void showResult(MainWindowController controller, IncrementalModelReader.Result result) {
+        var foodLabel = controller.getInputFoodSizeLabel();
+        var reactionsLabel = controller.getInputReactionsSizeLabel();
+        if (result.isOk()) {
+            showSizes(controller, result.foods(), result.reactions().size());
+        } else {
+            var label = (result.errorSource() == IncrementalModelReader.Source.Food ? foodLabel : reactionsLabel);
+            label.setText("Line %,d: %s".formatted(result.errorLine(), result.error()));
+            label.setStyle("-fx-text-fill: red;");
+        }
+    }
+
+    /**
+     * shows the number of food items and reactions in the input size labels
+     */
+    public static void showSizes(MainWindowController controller, Collection<MoleculeType> foods, int numberOfReactions) {
+        var foodLabel = controller.getInputFoodSizeLabel();
+        if (foods.contains(FORMAL_FOOD))
+            foodLabel.setText(String.format("%,d (plus the formal item '$')", foods.size() - 1));
+        else
+            foodLabel.setText(String.format("%,d", foods.size()));
+        foodLabel.setStyle("");
+        var reactionsLabel = controller.getInputReactionsSizeLabel();
+        reactionsLabel.setText(String.format("%,d", numberOfReactions));
+        reactionsLabel.setStyle("");
+    }
+}
@@ -75,11 +75,11 @@ public class WarnAboutMissingMoleculesOrUnusedFood {
                 message += "There are " + aService.getValue().getUnusedFood().size() + " food items that are never used: '"
                               + StringUtils.toString(aService.getValue().getUnusedFood(), "', '") + "'.";
                 NotificationManager.showWarning(message);
-                controller.getLogTextArea().setText(controller.getLogTextArea().getText() + "\n\n" + message);
+                controller.getLogTextArea().appendText("\n\n" + message);
             }
             if (!message.isBlank() && !message.equals(mainWindow.lastWarningMessageProperty().get())) {
                 NotificationManager.showWarning(message);
-                controller.getLogTextArea().setText(controller.getLogTextArea().getText() + "\n\n" + message);
+                controller.getLogTextArea().appendText("\n\n" + message);
                 mainWindow.lastWarningMessageProperty().set(message);
             }
         });
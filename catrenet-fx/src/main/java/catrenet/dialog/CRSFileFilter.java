@@ -17,7 +17,7 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.dialog;
 
 import javafx.stage.FileChooser;
 
@@ -19,9 +19,8 @@
 
 package catrenet.dialog;
 
-import catrenet.io.CRSFileFilter;
-import catrenet.io.FileOpener;
-import catrenet.io.Save;
+import catrenet.action.FileOpener;
+import catrenet.action.Save;
 import catrenet.model.ReactionSystem;
 import catrenet.window.MainWindow;
 import javafx.scene.control.Alert;
@@ -19,7 +19,6 @@
 
 package catrenet.dialog;
 
-import catrenet.io.CRSFileFilter;
 import catrenet.window.MainWindow;
 import javafx.stage.FileChooser;
 import jloda.fx.util.ProgramProperties;
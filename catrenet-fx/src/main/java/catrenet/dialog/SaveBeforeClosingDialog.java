@@ -17,8 +17,9 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.dialog;
 
+import catrenet.action.Save;
 import catrenet.window.Document;
 import catrenet.window.MainWindow;
 import javafx.scene.control.Alert;
@@ -93,7 +93,7 @@ public class ExportList {
         controller.getCancelButton().setOnAction(c -> stage.close());
         controller.getExportButton().setOnAction(c -> {
             final ReactionSystem result = new ReactionSystem("extracted");
-            result.getReactions().setAll(inputReactions.getReactions().filtered(r -> reactionNames.contains(r.getName()) == controller.getKeepRadioButton().isSelected()));
+            result.getReactions().setAll(inputReactions.getReactions().stream().filter(r -> reactionNames.contains(r.getName()) == controller.getKeepRadioButton().isSelected()).toList());
             result.getFoods().setAll(result.computeMentionedFoods(inputReactions.getFoods()));
 			ExportReactionsFileDialog.apply(window, result);
         });
@@ -19,6 +19,8 @@
 
 package catrenet.main;
 
+import catrenet.algorithm.RandomStreams;
+import catrenet.core.Version;
 import catrenet.window.MainWindow;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -34,7 +36,6 @@ import jloda.util.CanceledException;
 import jloda.util.ProgramExecutorService;
 import jloda.util.UsageException;
 
-import java.io.File;
 import java.time.Duration;
 
 /**
@@ -107,7 +108,7 @@ public class CatReNet extends Application {
 
         options.comment(ArgsOptions.OTHER);
 
-        final var propertiesFile = options.getOption("-p", "propertiesFile", "Properties file", getDefaultPropertiesFile());
+        final var propertiesFile = options.getOption("-p", "propertiesFile", "Properties file", Version.getDefaultPropertiesFile());
         final var showVersion = options.getOption("-V", "version", "Show version string", false);
         final var silentMode = options.getOption("-S", "silentMode", "Silent mode", false);
         ProgramExecutorService.setNumberOfCoresToUse(options.getOption("-t", "threads", "Maximum number of threads to use in a parallel algorithm (0=all available)", 0));
@@ -116,6 +117,7 @@ public class CatReNet extends Application {
         options.done();
 
         ProgramProperties.load(propertiesFile);
+        loadMasterSeed();
 
         if (silentMode) {
             Basic.stopCollectingStdErr();
@@ -159,11 +161,12 @@ public class CatReNet extends Application {
         System.exit(0);
     }
 
-    public static String getDefaultPropertiesFile() {
-        if (ProgramProperties.isMacOS())
-            return System.getProperty("user.home") + "/Library/Preferences/CatReNet.def";
-        else
-            return System.getProperty("user.home") + File.separator + ".CatReNet.def";
+    /**
+     * set the master seed for randomized algorithms from the program properties
+     */
+    public static void loadMasterSeed() {
+        var value = ProgramProperties.get("MasterSeed", String.valueOf(RandomStreams.DEFAULT_MASTER_SEED));
+        RandomStreams.setMasterSeed(value.matches("-?\\d{1,18}") ? Long.parseLong(value) : RandomStreams.DEFAULT_MASTER_SEED);
     }
 
     public static boolean isDesktop() {
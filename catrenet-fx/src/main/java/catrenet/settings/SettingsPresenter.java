@@ -19,7 +19,9 @@
 
 package catrenet.settings;
 
+import catrenet.io.ArrowNotation;
 import catrenet.io.ModelIO;
+import catrenet.io.ReactionNotation;
 import catrenet.view.EdgeView;
 import catrenet.view.NodeView;
 import catrenet.window.MainWindow;
@@ -22,9 +22,7 @@ package catrenet.tab;
 import catrenet.dialog.ExportTextFileDialog;
 import catrenet.window.MainWindow;
 import javafx.scene.control.Tab;
-import javafx.scene.control.TextArea;
 import jloda.fx.find.ISearcher;
-import jloda.fx.find.TextAreaSearcher;
 import jloda.fx.util.ClipboardUtils;
 import jloda.fx.util.RunAfterAWhile;
 import jloda.fx.util.SwipeUtils;
@@ -38,7 +36,7 @@ public class TextTab extends Tab {
     private final MainWindow mainWindow;
 
     private final String name;
-    final private TextArea textArea;
+    final private TextView textArea;
 
     private final ISearcher searcher;
 
@@ -52,16 +50,16 @@ public class TextTab extends Tab {
 
         setText(name);
         setId(name);
-        textArea = new TextArea();
+        textArea = new TextView();
         setContent(textArea);
         textArea.wrapTextProperty().bindBidirectional(mainWindow.getController().getWrapTextMenuItem().selectedProperty());
         setClosable(true);
 
-        disableProperty().bind(textArea.textProperty().isEmpty());
-        searcher = new TextAreaSearcher(name, getTextArea());
+        disableProperty().bind(textArea.lengthProperty().isEqualTo(0));
+        searcher = new TextViewSearcher(name, getTextArea());
 
-        textArea.textProperty().addListener(e -> {
-            RunAfterAWhile.applyInFXThread(textArea, () -> textArea.positionCaret(textArea.getText().length()));
+        textArea.lengthProperty().addListener(e -> {
+            RunAfterAWhile.applyInFXThread(textArea, textArea::scrollToEnd);
         });
 
 		SwipeUtils.setConsumeSwipes(textArea);
@@ -83,7 +81,7 @@ public class TextTab extends Tab {
         return mainWindow;
     }
 
-    public TextArea getTextArea() {
+    public TextView getTextArea() {
         return textArea;
     }
 
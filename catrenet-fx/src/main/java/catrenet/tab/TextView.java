@@ -0,0 +1,301 @@
+/*
+ *  TextView.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tab;
+
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.*;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.KeyCode;
+import jloda.fx.util.ClipboardUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * read-only text view for large outputs: the text is kept as a chunked list of lines and only the visible lines are rendered,
+ * so that setting or appending a million lines does not block the window
+ * Daniel Huson, 10.2026
+ */
+public class TextView extends ListView<String> {
+	private Lines lines = new Lines();
+
+	private final BooleanProperty wrapText = new SimpleBooleanProperty(this, "wrapText", false);
+	private final ReadOnlyIntegerWrapper length = new ReadOnlyIntegerWrapper(this, "length", 0);
+	private final StringProperty promptText = new SimpleStringProperty(this, "promptText", "");
+
+	public TextView() {
+		super();
+		setItems(lines);
+		getStyleClass().add("text-view");
+		getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+		var placeholder = new Label();
+		placeholder.textProperty().bind(promptText);
+		placeholder.setStyle("-fx-text-fill: gray;");
+		setPlaceholder(placeholder);
+
+		setCellFactory(v -> new ListCell<>() {
+			{
+				wrapTextProperty().bind(TextView.this.wrapText);
+				prefWidthProperty().bind(Bindings.when(TextView.this.wrapText).then(TextView.this.widthProperty().subtract(20)).otherwise(USE_COMPUTED_SIZE));
+				setMaxWidth(USE_PREF_SIZE);
+			}
+
+			@Override
+			protected void updateItem(String item, boolean empty) {
+				super.updateItem(item, empty);
+				setText(empty ? null : item);
+			}
+		});
+
+		setOnKeyPressed(e -> {
+			if (e.isShortcutDown() && e.getCode() == KeyCode.C) {
+				ClipboardUtils.putString(getSelectedText());
+				e.consume();
+			}
+		});
+	}
+
+	/**
+	 * replaces the complete text. The lines are set up off-list and then installed in one step
+	 */
+	public void setText(String text) {
+		lines = new Lines();
+		lines.append(text == null ? "" : text);
+		setItems(lines);
+		length.set(lines.getLength());
+	}
+
+	/**
+	 * appends text, continuing the last line, if it is not terminated by a new line
+	 */
+	public void appendText(String text) {
+		if (text != null && !text.isEmpty()) {
+			lines.append(text);
+			length.set(lines.getLength());
+		}
+	}
+
+	public void clear() {
+		setText("");
+	}
+
+	public String getText() {
+		return lines.getText(0, lines.size());
+	}
+
+	/**
+	 * gets the selected lines, in order of appearance
+	 */
+	public String getSelectedText() {
+		var indices = getSelectionModel().getSelectedIndices().stream().mapToInt(Integer::intValue).filter(i -> i >= 0 && i < lines.size()).sorted().toArray();
+		var buf = new StringBuilder();
+		for (var i : indices) {
+			if (!buf.isEmpty())
+				buf.append("\n");
+			buf.append(lines.get(i));
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * replaces a line of text, used by the find-and-replace searcher
+	 */
+	public void setLine(int index, String line) {
+		lines.setLine(index, line);
+		length.set(lines.getLength());
+	}
+
+	public void scrollToEnd() {
+		if (!lines.isEmpty())
+			scrollTo(lines.size() - 1);
+	}
+
+	public int getLength() {
+		return length.get();
+	}
+
+	public ReadOnlyIntegerProperty lengthProperty() {
+		return length.getReadOnlyProperty();
+	}
+
+	public boolean isWrapText() {
+		return wrapText.get();
+	}
+
+	public BooleanProperty wrapTextProperty() {
+		return wrapText;
+	}
+
+	public void setWrapText(boolean wrapText) {
+		this.wrapText.set(wrapText);
+	}
+
+	public String getPromptText() {
+		return promptText.get();
+	}
+
+	public StringProperty promptTextProperty() {
+		return promptText;
+	}
+
+	public void setPromptText(String promptText) {
+		this.promptText.set(promptText);
+	}
+
+	/**
+	 * creates a print stream that appends to this view. Output from any thread is collected and appended in the FX thread,
+	 * one batch per pulse
+	 */
+	public PrintStream createPrintStream() {
+		return new PrintStream(new OutputStream() {
+			private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			private final StringBuilder pending = new StringBuilder();
+
+			@Override
+			public synchronized void write(int b) {
+				bytes.write(b);
+			}
+
+			@Override
+			public synchronized void write(byte[] b, int off, int len) {
+				bytes.write(b, off, len);
+			}
+
+			@Override
+			public void flush() {
+				boolean schedule;
+				synchronized (this) {
+					if (bytes.size() == 0)
+						return;
+					schedule = pending.isEmpty();
+					pending.append(bytes.toString(StandardCharsets.UTF_8));
+					bytes.reset();
+				}
+				if (schedule)
+					Platform.runLater(() -> {
+						String text;
+						synchronized (this) {
+							text = pending.toString();
+							pending.setLength(0);
+						}
+						appendText(text);
+					});
+			}
+		}, true, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * lines of text, stored in fixed-size chunks so that appending never copies existing lines
+	 */
+	private static class Lines extends ObservableListBase<String> {
+		private static final int CHUNK_SIZE = 4096;
+		private final ArrayList<String[]> chunks = new ArrayList<>();
+		private int size = 0;
+		private int length = 0;
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException(index);
+			return chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * total number of characters, counting one for each line break
+		 */
+		int getLength() {
+			return length;
+		}
+
+		void append(String text) {
+			if (text.isEmpty())
+				return;
+			beginChange();
+			try {
+				var start = 0;
+				if (size > 0) {
+					var end = text.indexOf('\n');
+					var first = (end == -1 ? text : text.substring(0, end));
+					if (!first.isEmpty())
+						setLine(size - 1, get(size - 1) + first);
+					if (end == -1)
+						return;
+					start = end + 1;
+					length++;
+				}
+				var from = size;
+				while (true) {
+					var end = text.indexOf('\n', start);
+					if (end == -1) {
+						addLine(text.substring(start));
+						break;
+					}
+					addLine(text.substring(start, end));
+					length++;
+					start = end + 1;
+				}
+				nextAdd(from, size);
+			} finally {
+				endChange();
+			}
+		}
+
+		void setLine(int index, String line) {
+			var old = get(index);
+			chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE] = line;
+			length += line.length() - old.length();
+			beginChange();
+			nextSet(index, old);
+			endChange();
+		}
+
+		String getText(int from, int to) {
+			var buf = new StringBuilder();
+			for (var i = from; i < to; i++) {
+				if (i > from)
+					buf.append('\n');
+				buf.append(get(i));
+			}
+			return buf.toString();
+		}
+
+		private void addLine(String line) {
+			if (size % CHUNK_SIZE == 0)
+				chunks.add(new String[CHUNK_SIZE]);
+			chunks.get(size / CHUNK_SIZE)[size % CHUNK_SIZE] = line;
+			size++;
+			length += line.length();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ *  TextViewSearcher.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.tab;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.*;
+import jloda.fx.find.IObjectSearcher;
+
+/**
+ * line-by-line searcher for a text view, the found object is the line index
+ * Daniel Huson, 10.2026
+ */
+public class TextViewSearcher implements IObjectSearcher<Integer> {
+	private final String name;
+	private final TextView textView;
+
+	private final BooleanProperty globalFindable = new SimpleBooleanProperty(false);
+	private final BooleanProperty selectionFindable = new SimpleBooleanProperty(false);
+	private final ObjectProperty<Integer> found = new SimpleObjectProperty<>();
+
+	private int current = -1;
+
+	public TextViewSearcher(String name, TextView textView) {
+		this.name = name;
+		this.textView = textView;
+		globalFindable.bind(textView.lengthProperty().greaterThan(0));
+		selectionFindable.bind(Bindings.isNotEmpty(textView.getSelectionModel().getSelectedIndices()));
+		textView.itemsProperty().addListener(e -> current = -1);
+		found.addListener((v, o, n) -> {
+			if (n != null)
+				textView.scrollTo(n);
+		});
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public ReadOnlyBooleanProperty isGlobalFindable() {
+		return globalFindable;
+	}
+
+	@Override
+	public ReadOnlyBooleanProperty isSelectionFindable() {
+		return selectionFindable;
+	}
+
+	@Override
+	public void updateView() {
+		if (isCurrentSet())
+			textView.scrollTo(current);
+	}
+
+	@Override
+	public boolean canFindAll() {
+		return true;
+	}
+
+	@Override
+	public void selectAll(boolean select) {
+		if (select)
+			textView.getSelectionModel().selectAll();
+		else
+			textView.getSelectionModel().clearSelection();
+	}
+
+	public boolean gotoFirst() {
+		current = 0;
+		return isCurrentSet();
+	}
+
+	public boolean gotoNext() {
+		if (current == -1)
+			return gotoFirst();
+		current++;
+		return isCurrentSet();
+	}
+
+	public boolean gotoLast() {
+		current = textView.getItems().size() - 1;
+		return isCurrentSet();
+	}
+
+	public boolean gotoPrevious() {
+		if (current == -1)
+			return gotoLast();
+		current--;
+		return isCurrentSet();
+	}
+
+	public boolean isCurrentSet() {
+		return current >= 0 && current < textView.getItems().size();
+	}
+
+	public boolean isCurrentSelected() {
+		return isCurrentSet() && textView.getSelectionModel().isSelected(current);
+	}
+
+	public void setCurrentSelected(boolean select) {
+		if (isCurrentSet()) {
+			if (select) {
+				textView.getSelectionModel().select(current);
+				found.set(current);
+			} else
+				textView.getSelectionModel().clearSelection(current);
+		}
+	}
+
+	public String getCurrentLabel() {
+		return isCurrentSet() ? textView.getItems().get(current) : null;
+	}
+
+	public void setCurrentLabel(String newLabel) {
+		if (isCurrentSet())
+			textView.setLine(current, newLabel);
+	}
+
+	public int numberOfObjects() {
+		return textView.getItems().size();
+	}
+
+	public ReadOnlyObjectProperty<Integer> foundProperty() {
+		return found;
+	}
+
+	public Integer getFound() {
+		return found.get();
+	}
+
+	public void setFound(Integer found) {
+		this.found.set(found);
+	}
+}
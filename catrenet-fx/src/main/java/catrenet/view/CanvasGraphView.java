@@ -0,0 +1,885 @@
+/*
+ *  CanvasGraphView.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import catrenet.main.CatReNet;
+import catrenet.model.EdgeType;
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import jloda.fx.util.ProgramProperties;
+import jloda.fx.window.MainWindowManager;
+import jloda.graph.Edge;
+import jloda.graph.Graph;
+import jloda.graph.Node;
+import jloda.graph.NodeArray;
+import jloda.util.APoint2D;
+
+import java.util.*;
+
+/**
+ * canvas-based view of a reaction network, used for networks that are too large to have one scene graph node per node,
+ * label and edge. Nodes and edges are kept in spatial grids for culling and hit-testing. Edges are drawn as curves
+ * with arrow heads, and nodes as shapes, only when few items are visible, and labels only when zoomed in.
+ * Selection is delegated to the node and edge selection models of the reaction graph view.
+ * As in the scene graph view, zooming changes the positions of nodes, but not the size of nodes and labels
+ * Daniel Huson, 10.2026
+ */
+public class CanvasGraphView extends Pane {
+	private static final double STRAIGHT_SEGMENT_LENGTH = 25;
+	private static final double LIFT_FACTOR = 0.2;
+	private static final double EDGE_HIT_TOLERANCE = 4;
+
+	private static final byte REACTION = 0;
+	private static final byte MOLECULE = 1;
+	private static final byte FOOD = 2;
+	private static final byte AND = 3;
+
+	private final ReactionGraphView graphView;
+	private final Canvas canvas = new Canvas();
+
+	private final int maxDetailedItems = ProgramProperties.get("CanvasMaxDetailedItems", 5000);
+	private final int maxLabels = ProgramProperties.get("CanvasMaxLabels", 1000);
+
+	private final NodeView nodeStyles = NodeView.createNullNodeView();
+	private final EdgeView edgeStyles = EdgeView.createNullEdgeView();
+	private final Color selectionColor = Color.web("#0096c9");
+
+	private Node[] nodes = new Node[0];
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	private byte[] kinds = new byte[0];
+	private String[] labels = new String[0];
+	private boolean[] labelVisible = new boolean[0];
+	private final Map<Node, Integer> node2index = new HashMap<>();
+
+	private Edge[] edges = new Edge[0];
+	private int[] sources = new int[0];
+	private int[] targets = new int[0];
+	private EdgeType[] edgeTypes = new EdgeType[0];
+	private boolean[] clockwise = new boolean[0];
+	private final Map<Edge, Integer> edge2index = new HashMap<>();
+
+	private SpatialGrid nodeGrid = new SpatialGrid(0, 0, 1, 1, 1);
+	private SpatialGrid edgeGrid = new SpatialGrid(0, 0, 1, 1, 1);
+
+	private double scale = 1;
+	private double translateX = 0;
+	private double translateY = 0;
+	private double fontSize = ReactionGraphView.getFont().getSize();
+
+	private int[] visibleNodes = new int[0];
+	private int numberOfVisibleNodes = 0;
+	private int[] visibleEdges = new int[0];
+	private int numberOfVisibleEdges = 0;
+
+	private boolean detailed = false;
+	private boolean showingLabels = false;
+	private boolean redrawPending = false;
+
+	private final double[] geometry = new double[13];
+
+	/**
+	 * constructor
+	 */
+	public CanvasGraphView(ReactionGraphView graphView) {
+		this.graphView = graphView;
+		getChildren().add(canvas);
+		canvas.widthProperty().bind(widthProperty());
+		canvas.heightProperty().bind(heightProperty());
+		canvas.widthProperty().addListener(e -> requestRedraw());
+		canvas.heightProperty().addListener(e -> requestRedraw());
+		canvas.setCursor(Cursor.CROSSHAIR);
+
+		graphView.getNodeSelection().getSelectedItems().addListener((ListChangeListener<Node>) e -> requestRedraw());
+		graphView.getEdgeSelection().getSelectedItems().addListener((ListChangeListener<Edge>) e -> requestRedraw());
+		graphView.inhibitionEdgeColorProperty().addListener(e -> requestRedraw());
+		MainWindowManager.useDarkThemeProperty().addListener(e -> requestRedraw());
+
+		setupMouseInteraction();
+	}
+
+	/**
+	 * sets up the view for the given graph and coordinates, and zooms to fit
+	 */
+	public void setup(Graph graph, NodeArray<APoint2D<?>> coordinates, Collection<MoleculeType> foods) {
+		final var foodSet = new HashSet<>(foods);
+		final var document = graphView.getDocument();
+
+		node2index.clear();
+		final var numberOfNodes = graph.getNumberOfNodes();
+		nodes = new Node[numberOfNodes];
+		xs = new double[numberOfNodes];
+		ys = new double[numberOfNodes];
+		kinds = new byte[numberOfNodes];
+		labels = new String[numberOfNodes];
+		labelVisible = new boolean[numberOfNodes];
+
+		var i = 0;
+		for (var v : graph.nodes()) {
+			nodes[i] = v;
+			node2index.put(v, i);
+			var point = (coordinates != null ? coordinates.get(v) : null);
+			if (point != null) {
+				xs[i] = point.getX();
+				ys[i] = point.getY();
+			}
+			if (v.getInfo() instanceof Reaction reaction) {
+				kinds[i] = REACTION;
+				labels[i] = document.getDisplayLabel(reaction.getName());
+			} else if (v.getInfo() instanceof MoleculeType molecule) {
+				kinds[i] = (foodSet.contains(molecule) ? FOOD : MOLECULE);
+				labels[i] = document.getDisplayLabel(molecule.getName());
+			} else if (v.getInfo() instanceof ReactionGraphView.AndNode) {
+				kinds[i] = AND;
+				labels[i] = "&";
+			} else {
+				kinds[i] = MOLECULE;
+				labels[i] = String.valueOf(v.getInfo());
+			}
+			labelVisible[i] = true;
+			i++;
+		}
+
+		edge2index.clear();
+		final var numberOfEdges = graph.getNumberOfEdges();
+		edges = new Edge[numberOfEdges];
+		sources = new int[numberOfEdges];
+		targets = new int[numberOfEdges];
+		edgeTypes = new EdgeType[numberOfEdges];
+		clockwise = new boolean[numberOfEdges];
+
+		var j = 0;
+		for (var e : graph.edges()) {
+			edges[j] = e;
+			edge2index.put(e, j);
+			sources[j] = node2index.get(e.getSource());
+			targets[j] = node2index.get(e.getTarget());
+			edgeTypes[j] = (e.getInfo() instanceof EdgeType edgeType ? edgeType : EdgeType.Association);
+			j++;
+		}
+
+		// as in EdgeView.isSecondOfTwoEdges(), the later of two parallel edges is bent the other way
+		final var byId = Arrays.copyOf(edges, edges.length);
+		Arrays.sort(byId, Comparator.comparingInt(Edge::getId));
+		final var seen = new HashSet<Long>();
+		for (var e : byId) {
+			var index = edge2index.get(e);
+			clockwise[index] = !seen.add(((long) sources[index] << 32) | targets[index]);
+		}
+
+		setupGrids();
+		zoomToFit();
+	}
+
+	/**
+	 * updates the node coordinates, keeping the current zoom and translation
+	 *
+	 * @param xs x-coordinates, in the order of graph.nodes() of the graph used in setup
+	 * @param ys y-coordinates, in the order of graph.nodes() of the graph used in setup
+	 */
+	public void updateCoordinates(double[] xs, double[] ys) {
+		if (xs.length == nodes.length && ys.length == nodes.length) {
+			System.arraycopy(xs, 0, this.xs, 0, xs.length);
+			System.arraycopy(ys, 0, this.ys, 0, ys.length);
+			setupGrids();
+			requestRedraw();
+		}
+	}
+
+	/**
+	 * sets up the spatial indices for nodes and edges
+	 */
+	private void setupGrids() {
+		final var numberOfNodes = nodes.length;
+		final var numberOfEdges = edges.length;
+		var minX = Double.MAX_VALUE;
+		var minY = Double.MAX_VALUE;
+		var maxX = -Double.MAX_VALUE;
+		var maxY = -Double.MAX_VALUE;
+		for (var i = 0; i < numberOfNodes; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+		if (numberOfNodes == 0) {
+			minX = minY = 0;
+			maxX = maxY = 1;
+		}
+
+		nodeGrid = SpatialGrid.create(minX, minY, maxX, maxY, numberOfNodes);
+		for (var i = 0; i < numberOfNodes; i++) {
+			nodeGrid.add(i, xs[i], ys[i], xs[i], ys[i]);
+		}
+		edgeGrid = SpatialGrid.create(minX, minY, maxX, maxY, numberOfEdges);
+		for (var j = 0; j < numberOfEdges; j++) {
+			addEdgeToGrid(j);
+		}
+	}
+
+	/**
+	 * clears the view
+	 */
+	public void clear() {
+		setup(new Graph(), null, Collections.emptyList());
+	}
+
+	public boolean contains(Node v) {
+		return node2index.containsKey(v);
+	}
+
+	public String getLabel(Node v) {
+		var index = node2index.get(v);
+		return index == null ? null : labels[index];
+	}
+
+	public void setLabel(Node v, String label) {
+		var index = node2index.get(v);
+		if (index != null) {
+			labels[index] = label;
+			requestRedraw();
+		}
+	}
+
+	public boolean isLabelVisible(Node v) {
+		var index = node2index.get(v);
+		return index != null && labelVisible[index];
+	}
+
+	public void setLabelVisible(Node v, boolean visible) {
+		var index = node2index.get(v);
+		if (index != null) {
+			labelVisible[index] = visible;
+			requestRedraw();
+		}
+	}
+
+	public void setFontSize(double fontSize) {
+		this.fontSize = fontSize;
+		requestRedraw();
+	}
+
+	/**
+	 * bounding box of all nodes, in world coordinates
+	 */
+	public Rectangle2D getBBox() {
+		if (nodes.length == 0)
+			return new Rectangle2D(0, 0, 0, 0);
+		var minX = Double.MAX_VALUE;
+		var minY = Double.MAX_VALUE;
+		var maxX = -Double.MAX_VALUE;
+		var maxY = -Double.MAX_VALUE;
+		for (var i = 0; i < nodes.length; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+		return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * zoom so that all nodes are visible
+	 */
+	public void zoomToFit() {
+		var bbox = getBBox();
+		var width = Math.max(100, getWidth() > 0 ? getWidth() : getPrefWidth());
+		var height = Math.max(100, getHeight() > 0 ? getHeight() : getPrefHeight());
+		var margin = 40;
+		scale = Math.min(bbox.getWidth() > 0 ? (width - 2 * margin) / bbox.getWidth() : 1, bbox.getHeight() > 0 ? (height - 2 * margin) / bbox.getHeight() : 1);
+		scale = Math.max(1e-6, scale);
+		translateX = 0.5 * width - scale * (bbox.getMinX() + 0.5 * bbox.getWidth());
+		translateY = 0.5 * height - scale * (bbox.getMinY() + 0.5 * bbox.getHeight());
+		requestRedraw();
+	}
+
+	/**
+	 * zoom by the given factor, keeping the center of the view fixed
+	 */
+	public void zoomBy(double factor) {
+		zoomAt(factor, 0.5 * getWidth(), 0.5 * getHeight());
+	}
+
+	private void zoomAt(double factor, double screenX, double screenY) {
+		if (factor > 0 && Double.isFinite(factor)) {
+			translateX = screenX - factor * (screenX - translateX);
+			translateY = screenY - factor * (screenY - translateY);
+			scale *= factor;
+			requestRedraw();
+		}
+	}
+
+	/**
+	 * centers the view on the given node
+	 */
+	public void ensureVisible(Node v) {
+		var index = node2index.get(v);
+		if (index != null) {
+			translateX = 0.5 * getWidth() - scale * xs[index];
+			translateY = 0.5 * getHeight() - scale * ys[index];
+			requestRedraw();
+		}
+	}
+
+	/**
+	 * request a redraw, multiple requests are merged into one
+	 */
+	public void requestRedraw() {
+		if (!redrawPending) {
+			redrawPending = true;
+			Platform.runLater(this::draw);
+		}
+	}
+
+	private void draw() {
+		redrawPending = false;
+
+		final var gc = canvas.getGraphicsContext2D();
+		final var width = canvas.getWidth();
+		final var height = canvas.getHeight();
+		gc.clearRect(0, 0, width, height);
+		if (nodes.length == 0 || width <= 0 || height <= 0)
+			return;
+
+		final var foreground = (MainWindowManager.useDarkThemeProperty().get() ? Color.WHITE : Color.BLACK);
+
+		// cull: collect visible nodes and edges
+		final var margin = 20 / scale;
+		final var x0 = -translateX / scale - margin;
+		final var y0 = -translateY / scale - margin;
+		final var x1 = (width - translateX) / scale + margin;
+		final var y1 = (height - translateY) / scale + margin;
+
+		numberOfVisibleNodes = 0;
+		nodeGrid.query(x0, y0, x1, y1, i -> {
+			if (xs[i] >= x0 && xs[i] <= x1 && ys[i] >= y0 && ys[i] <= y1) {
+				if (numberOfVisibleNodes == visibleNodes.length)
+					visibleNodes = Arrays.copyOf(visibleNodes, Math.max(1024, 2 * numberOfVisibleNodes));
+				visibleNodes[numberOfVisibleNodes++] = i;
+			}
+		});
+		numberOfVisibleEdges = 0;
+		edgeGrid.query(x0, y0, x1, y1, j -> {
+			if (numberOfVisibleEdges == visibleEdges.length)
+				visibleEdges = Arrays.copyOf(visibleEdges, Math.max(1024, 2 * numberOfVisibleEdges));
+			visibleEdges[numberOfVisibleEdges++] = j;
+		});
+
+		// level of detail
+		detailed = (numberOfVisibleNodes + numberOfVisibleEdges <= maxDetailedItems);
+		showingLabels = (numberOfVisibleNodes <= maxLabels);
+
+		final var nodeSelection = graphView.getNodeSelection();
+		final var edgeSelection = graphView.getEdgeSelection();
+
+		gc.setLineCap(StrokeLineCap.ROUND);
+		gc.setLineDashes();
+
+		// edges
+		if (!edgeSelection.isEmpty()) {
+			gc.setStroke(selectionColor);
+			gc.setLineWidth(detailed ? 6 : 3);
+			for (var k = 0; k < numberOfVisibleEdges; k++) {
+				var j = visibleEdges[k];
+				if (edgeSelection.isSelected(edges[j]))
+					strokeEdge(gc, j);
+			}
+		}
+		if (detailed) {
+			for (var k = 0; k < numberOfVisibleEdges; k++) {
+				drawEdge(gc, visibleEdges[k], foreground);
+			}
+			gc.setLineDashes();
+		} else {
+			gc.setLineWidth(1);
+			for (var style = 0; style < 3; style++) {
+				gc.setStroke(switch (style) {
+					case 0 -> replaceBlack(edgeStyles.getReactionColor(), foreground);
+					case 1 -> replaceBlack(edgeStyles.getCatalystColor(), foreground);
+					default -> replaceBlack(graphView.getInhibitionEdgeColor(), foreground);
+				});
+				gc.beginPath();
+				for (var k = 0; k < numberOfVisibleEdges; k++) {
+					var j = visibleEdges[k];
+					if (styleOf(edgeTypes[j]) == style) {
+						gc.moveTo(screenX(sources[j]), screenY(sources[j]));
+						gc.lineTo(screenX(targets[j]), screenY(targets[j]));
+					}
+				}
+				gc.stroke();
+			}
+		}
+
+		// nodes
+		for (var k = 0; k < numberOfVisibleNodes; k++) {
+			var i = visibleNodes[k];
+			var selected = nodeSelection.isSelected(nodes[i]);
+			var x = screenX(i);
+			var y = screenY(i);
+			if (detailed) {
+				if (selected) {
+					gc.setFill(selectionColor);
+					var size = getSize(kinds[i]) + 8;
+					gc.fillOval(x - 0.5 * size, y - 0.5 * size, size, size);
+				}
+				drawNode(gc, i, x, y, foreground);
+			} else {
+				gc.setFill(selected ? selectionColor : foreground);
+				gc.fillRect(x - 1.5, y - 1.5, 3, 3);
+			}
+		}
+
+		// labels
+		if (showingLabels) {
+			gc.setFont(Font.font(ReactionGraphView.getFont().getFamily(), fontSize));
+			gc.setTextBaseline(VPos.CENTER);
+			gc.setTextAlign(TextAlignment.LEFT);
+			for (var k = 0; k < numberOfVisibleNodes; k++) {
+				var i = visibleNodes[k];
+				if (labelVisible[i] && kinds[i] != AND && labels[i] != null && !labels[i].isEmpty()) {
+					gc.setFill(nodeSelection.isSelected(nodes[i]) ? selectionColor : foreground);
+					gc.fillText(labels[i], screenX(i) + getSize(kinds[i]) + 2, screenY(i));
+				}
+			}
+		}
+	}
+
+	private void drawNode(GraphicsContext gc, int i, double x, double y, Color foreground) {
+		final NodeView.NodeStyle style;
+		final Color fill;
+		switch (kinds[i]) {
+			case REACTION -> {
+				style = nodeStyles.getReactionNodeShape();
+				fill = nodeStyles.getReactionNodeFillColor();
+			}
+			case FOOD -> {
+				style = nodeStyles.getFoodNodeShape();
+				fill = nodeStyles.getFoodNodeFillColor();
+			}
+			case AND -> {
+				style = nodeStyles.getAndNodeShape();
+				fill = nodeStyles.getAndNodeFillColor();
+			}
+			default -> {
+				style = nodeStyles.getMoleculeNodeShape();
+				fill = nodeStyles.getMoleculeNodeFillColor();
+			}
+		}
+		var size = getSize(kinds[i]);
+		var left = x - 0.5 * size;
+		var top = y - 0.5 * size;
+
+		gc.setFill(fill);
+		gc.setStroke(foreground);
+		gc.setLineWidth(kinds[i] == AND ? 1 : (style == NodeView.NodeStyle.BoldSquare || style == NodeView.NodeStyle.BoldCircle ? 4 : 2));
+		if (style == NodeView.NodeStyle.Square || style == NodeView.NodeStyle.BoldSquare) {
+			gc.fillRect(left, top, size, size);
+			gc.strokeRect(left, top, size, size);
+		} else {
+			gc.fillOval(left, top, size, size);
+			gc.strokeOval(left, top, size, size);
+		}
+		if (kinds[i] == AND && showingLabels) {
+			gc.setFill(foreground);
+			gc.setFont(Font.font("Courier New", 8));
+			gc.setTextBaseline(VPos.CENTER);
+			gc.setTextAlign(TextAlignment.CENTER);
+			gc.fillText("&", x, y);
+		}
+	}
+
+	private void drawEdge(GraphicsContext gc, int j, Color foreground) {
+		final EdgeView.EdgeStyle style;
+		final Color color;
+		final int lineWidth;
+		switch (styleOf(edgeTypes[j])) {
+			case 1 -> {
+				style = edgeStyles.getCatalystEdgeStyle();
+				color = replaceBlack(edgeStyles.getCatalystColor(), foreground);
+				lineWidth = edgeStyles.getCatalystEdgeWidth();
+			}
+			case 2 -> {
+				style = edgeStyles.getInhibitionEdgeStyle();
+				color = replaceBlack(graphView.getInhibitionEdgeColor(), foreground);
+				lineWidth = edgeStyles.getInhibitionEdgeWidth();
+			}
+			default -> {
+				style = edgeStyles.getReactionEdgeStyle();
+				color = replaceBlack(edgeStyles.getReactionColor(), foreground);
+				lineWidth = edgeStyles.getReactionEdgeWidth();
+			}
+		}
+		switch (style) {
+			case Dashed -> gc.setLineDashes(4, 6);
+			case Dotted -> gc.setLineDashes(1, 5);
+			default -> gc.setLineDashes();
+		}
+		gc.setStroke(color);
+		gc.setFill(color);
+		gc.setLineWidth(lineWidth);
+		strokeEdge(gc, j);
+
+		// arrow head
+		gc.setLineDashes();
+		gc.save();
+		gc.translate(geometry[10], geometry[11]);
+		gc.rotate(geometry[12]);
+		switch (edgeTypes[j]) {
+			case ReactantReversible, ProductReversible -> gc.fillPolygon(new double[]{-7, 0, 7, 0}, new double[]{0, 5, 0, -5}, 4);
+			case Inhibitor -> gc.strokeLine(0, -7, 0, 7);
+			default -> gc.fillPolygon(new double[]{-6, 6, -6}, new double[]{-4, 0, 4}, 3);
+		}
+		gc.restore();
+	}
+
+	/**
+	 * strokes the path of an edge, using the current stroke settings. In detailed mode, also computes the geometry
+	 */
+	private void strokeEdge(GraphicsContext gc, int j) {
+		if (detailed) {
+			computeGeometry(screenX(sources[j]), screenY(sources[j]), screenX(targets[j]), screenY(targets[j]), clockwise[j], edgeTypes[j] == EdgeType.Inhibitor, geometry);
+			gc.beginPath();
+			gc.moveTo(geometry[0], geometry[1]);
+			gc.lineTo(geometry[2], geometry[3]);
+			gc.quadraticCurveTo(geometry[4], geometry[5], geometry[6], geometry[7]);
+			gc.lineTo(geometry[8], geometry[9]);
+			gc.stroke();
+		} else
+			gc.strokeLine(screenX(sources[j]), screenY(sources[j]), screenX(targets[j]), screenY(targets[j]));
+	}
+
+	/**
+	 * computes the path of an edge as drawn by EdgeView: a straight segment from a to b, a quadratic curve from b to d
+	 * with control point c and a straight segment from d to e, followed by the position and angle of the arrow head
+	 *
+	 * @param g receives ax, ay, bx, by, cx, cy, dx, dy, ex, ey, arrow x, arrow y and arrow angle (in degrees)
+	 */
+	private static void computeGeometry(double ax, double ay, double ex, double ey, boolean clockwise, boolean inhibitor, double[] g) {
+		final double bx, by, cx, cy, dx, dy, fx, fy;
+		if (Math.hypot(ex - ax, ey - ay) <= 2 * STRAIGHT_SEGMENT_LENGTH) {
+			bx = cx = dx = ax;
+			by = cy = dy = ay;
+			fx = 0.5 * (ax + ex);
+			fy = 0.5 * (ay + ey);
+		} else {
+			var sign = (clockwise ? -1 : 1);
+			cx = 0.5 * (ax + ex) - sign * LIFT_FACTOR * (ey - ay);
+			cy = 0.5 * (ay + ey) + sign * LIFT_FACTOR * (ex - ax);
+			var ca = Math.hypot(cx - ax, cy - ay);
+			bx = ax + STRAIGHT_SEGMENT_LENGTH * (cx - ax) / ca;
+			by = ay + STRAIGHT_SEGMENT_LENGTH * (cy - ay) / ca;
+			var ce = Math.hypot(cx - ex, cy - ey);
+			dx = ex + STRAIGHT_SEGMENT_LENGTH * (cx - ex) / ce;
+			dy = ey + STRAIGHT_SEGMENT_LENGTH * (cy - ey) / ce;
+			fx = 0.75 * dx + 0.25 * ex;
+			fy = 0.75 * dy + 0.25 * ey;
+		}
+		g[0] = ax;
+		g[1] = ay;
+		g[2] = bx;
+		g[3] = by;
+		g[4] = cx;
+		g[5] = cy;
+		g[6] = dx;
+		g[7] = dy;
+		g[8] = (inhibitor ? fx : ex);
+		g[9] = (inhibitor ? fy : ey);
+		g[10] = fx;
+		g[11] = fy;
+		g[12] = Math.toDegrees(Math.atan2(ey - dy, ex - dx));
+	}
+
+	private void setupMouseInteraction() {
+		final var mouseDown = new double[2];
+		final var moved = new boolean[]{false};
+		final var pressed = new int[]{-1, -1}; // node and edge
+
+		canvas.setOnMousePressed(e -> {
+			mouseDown[0] = e.getX();
+			mouseDown[1] = e.getY();
+			moved[0] = false;
+			pressed[0] = findNode(e.getX(), e.getY());
+			pressed[1] = (pressed[0] == -1 ? findEdge(e.getX(), e.getY()) : -1);
+			e.consume();
+		});
+
+		canvas.setOnMouseDragged(e -> {
+			var dx = e.getX() - mouseDown[0];
+			var dy = e.getY() - mouseDown[1];
+			if (pressed[0] != -1)
+				moveSelectedNodes(dx / scale, dy / scale);
+			else {
+				translateX += dx;
+				translateY += dy;
+				requestRedraw();
+			}
+			mouseDown[0] = e.getX();
+			mouseDown[1] = e.getY();
+			moved[0] = true;
+			e.consume();
+		});
+
+		canvas.setOnMouseReleased(e -> {
+			if (!moved[0]) {
+				if (pressed[0] != -1 || pressed[1] != -1)
+					graphView.clickSelect(pressed[0] != -1 ? nodes[pressed[0]] : null, pressed[1] != -1 ? edges[pressed[1]] : null, e.isShiftDown());
+				else if (!e.isShiftDown()) {
+					graphView.getNodeSelection().clearSelection();
+					graphView.getEdgeSelection().clearSelection();
+				}
+			}
+			e.consume();
+		});
+
+		canvas.setOnMouseClicked(e -> {
+			if (CatReNet.isDesktop() && e.getClickCount() >= 2 && pressed[0] != -1)
+				graphView.multiClickSelect(nodes[pressed[0]], e.getClickCount());
+		});
+
+		canvas.setOnScroll(e -> {
+			if (e.isShortcutDown() || e.isShiftDown()) {
+				var delta = (e.getDeltaY() != 0 ? e.getDeltaY() : e.getDeltaX());
+				if (delta != 0)
+					zoomAt(delta > 0 ? 1.05 : 1 / 1.05, e.getX(), e.getY());
+			} else {
+				translateX += e.getDeltaX();
+				translateY += e.getDeltaY();
+				requestRedraw();
+			}
+			e.consume();
+		});
+
+		canvas.setOnZoom(e -> {
+			zoomAt(e.getZoomFactor(), e.getX(), e.getY());
+			e.consume();
+		});
+	}
+
+	/**
+	 * find the node (or node label) at the given screen position
+	 *
+	 * @return node index or -1
+	 */
+	private int findNode(double screenX, double screenY) {
+		final var best = new int[]{-1};
+		final var bestDistance = new double[]{Double.MAX_VALUE};
+
+		var radius = 0.5 * getMaxSize() + 2;
+		var wx = worldX(screenX);
+		var wy = worldY(screenY);
+		var r = radius / scale;
+		nodeGrid.query(wx - r, wy - r, wx + r, wy + r, i -> {
+			var distance = Math.hypot(screenX(i) - screenX, screenY(i) - screenY);
+			if (distance <= radius && distance < bestDistance[0]) {
+				best[0] = i;
+				bestDistance[0] = distance;
+			}
+		});
+
+		if (best[0] == -1 && showingLabels) { // labels are drawn to the right of nodes
+			var maxLabelWidth = 0.6 * fontSize * getMaxLabelLength() + getMaxSize() + 2;
+			nodeGrid.query(wx - maxLabelWidth / scale, wy - fontSize / scale, wx, wy + fontSize / scale, i -> {
+				if (labelVisible[i] && labels[i] != null && kinds[i] != AND) {
+					var left = screenX(i) + getSize(kinds[i]) + 2;
+					var right = left + 0.6 * fontSize * labels[i].length();
+					if (screenX >= left && screenX <= right && Math.abs(screenY - screenY(i)) <= 0.5 * fontSize)
+						best[0] = i;
+				}
+			});
+		}
+		return best[0];
+	}
+
+	/**
+	 * find the edge at the given screen position
+	 *
+	 * @return edge index or -1
+	 */
+	private int findEdge(double screenX, double screenY) {
+		final var best = new int[]{-1};
+		final var bestDistance = new double[]{Double.MAX_VALUE};
+
+		var wx = worldX(screenX);
+		var wy = worldY(screenY);
+		var r = EDGE_HIT_TOLERANCE / scale;
+		edgeGrid.query(wx - r, wy - r, wx + r, wy + r, j -> {
+			var distance = distanceToEdge(j, screenX, screenY);
+			if (distance <= EDGE_HIT_TOLERANCE && distance < bestDistance[0]) {
+				best[0] = j;
+				bestDistance[0] = distance;
+			}
+		});
+		return best[0];
+	}
+
+	private double distanceToEdge(int j, double px, double py) {
+		var ax = screenX(sources[j]);
+		var ay = screenY(sources[j]);
+		var ex = screenX(targets[j]);
+		var ey = screenY(targets[j]);
+		if (!detailed)
+			return distanceToSegment(px, py, ax, ay, ex, ey);
+
+		final var g = new double[13];
+		computeGeometry(ax, ay, ex, ey, clockwise[j], edgeTypes[j] == EdgeType.Inhibitor, g);
+		var distance = Math.min(distanceToSegment(px, py, g[0], g[1], g[2], g[3]), distanceToSegment(px, py, g[6], g[7], g[8], g[9]));
+		var prevX = g[2];
+		var prevY = g[3];
+		for (var s = 1; s <= 8; s++) {
+			var t = s / 8.0;
+			var x = (1 - t) * (1 - t) * g[2] + 2 * (1 - t) * t * g[4] + t * t * g[6];
+			var y = (1 - t) * (1 - t) * g[3] + 2 * (1 - t) * t * g[5] + t * t * g[7];
+			distance = Math.min(distance, distanceToSegment(px, py, prevX, prevY, x, y));
+			prevX = x;
+			prevY = y;
+		}
+		return distance;
+	}
+
+	private static double distanceToSegment(double px, double py, double ax, double ay, double bx, double by) {
+		var dx = bx - ax;
+		var dy = by - ay;
+		var length2 = dx * dx + dy * dy;
+		var t = (length2 == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / length2)));
+		return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+	}
+
+	/**
+	 * moves all selected nodes by the given amount (in world coordinates) and updates the spatial grids
+	 */
+	private void moveSelectedNodes(double dx, double dy) {
+		final var moving = new ArrayList<Integer>();
+		final var incidentEdges = new HashSet<Integer>();
+		for (var v : graphView.getNodeSelection().getSelectedItems()) {
+			var index = node2index.get(v);
+			if (index != null) {
+				moving.add(index);
+				for (var e : v.adjacentEdges()) {
+					var j = edge2index.get(e);
+					if (j != null)
+						incidentEdges.add(j);
+				}
+			}
+		}
+		for (var j : incidentEdges) {
+			removeEdgeFromGrid(j);
+		}
+		for (var i : moving) {
+			nodeGrid.remove(i, xs[i], ys[i], xs[i], ys[i]);
+			xs[i] += dx;
+			ys[i] += dy;
+			nodeGrid.add(i, xs[i], ys[i], xs[i], ys[i]);
+		}
+		for (var j : incidentEdges) {
+			addEdgeToGrid(j);
+		}
+		requestRedraw();
+	}
+
+	/**
+	 * the bounding box of an edge in world coordinates contains both end points and the control point of the curve
+	 */
+	private double[] edgeBox(int j) {
+		var ax = xs[sources[j]];
+		var ay = ys[sources[j]];
+		var ex = xs[targets[j]];
+		var ey = ys[targets[j]];
+		var sign = (clockwise[j] ? -1 : 1);
+		var cx = 0.5 * (ax + ex) - sign * LIFT_FACTOR * (ey - ay);
+		var cy = 0.5 * (ay + ey) + sign * LIFT_FACTOR * (ex - ax);
+		return new double[]{Math.min(ax, Math.min(ex, cx)), Math.min(ay, Math.min(ey, cy)), Math.max(ax, Math.max(ex, cx)), Math.max(ay, Math.max(ey, cy))};
+	}
+
+	private void addEdgeToGrid(int j) {
+		var box = edgeBox(j);
+		edgeGrid.add(j, box[0], box[1], box[2], box[3]);
+	}
+
+	private void removeEdgeFromGrid(int j) {
+		var box = edgeBox(j);
+		edgeGrid.remove(j, box[0], box[1], box[2], box[3]);
+	}
+
+	private double screenX(int i) {
+		return xs[i] * scale + translateX;
+	}
+
+	private double screenY(int i) {
+		return ys[i] * scale + translateY;
+	}
+
+	private double worldX(double screenX) {
+		return (screenX - translateX) / scale;
+	}
+
+	private double worldY(double screenY) {
+		return (screenY - translateY) / scale;
+	}
+
+	private int getSize(byte kind) {
+		return switch (kind) {
+			case REACTION -> nodeStyles.getReactionNodeSize();
+			case FOOD -> nodeStyles.getFoodNodeSize();
+			case AND -> nodeStyles.getAndNodeSize();
+			default -> nodeStyles.getMoleculeNodeSize();
+		};
+	}
+
+	private int getMaxSize() {
+		return Math.max(Math.max(nodeStyles.getReactionNodeSize(), nodeStyles.getFoodNodeSize()), Math.max(nodeStyles.getAndNodeSize(), nodeStyles.getMoleculeNodeSize()));
+	}
+
+	private int getMaxLabelLength() {
+		var max = 0;
+		for (var k = 0; k < numberOfVisibleNodes; k++) {
+			var label = labels[visibleNodes[k]];
+			if (label != null)
+				max = Math.max(max, label.length());
+		}
+		return max;
+	}
+
+	/**
+	 * 0: reaction edge, 1: catalyst edge, 2: inhibition edge
+	 */
+	private static int styleOf(EdgeType edgeType) {
+		return switch (edgeType) {
+			case Catalyst -> 1;
+			case Inhibitor -> 2;
+			default -> 0;
+		};
+	}
+
+	private static Color replaceBlack(Color color, Color foreground) {
+		return color.equals(Color.BLACK) ? foreground : color;
+	}
+}
@@ -19,6 +19,7 @@
 
 package catrenet.view;
 
+import catrenet.model.EdgeType;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.geometry.Bounds;
@@ -64,6 +65,8 @@ public class EdgeView extends Group {
 
 	private final CircleShape circleShape = new CircleShape(3);
 
+	private int pathVersion = 0;
+
     private EdgeView() {
     }
 
@@ -78,6 +81,7 @@ public class EdgeView extends Group {
 
 
         final InvalidationListener invalidationListener = v -> {
+            pathVersion++;
             var lineCenter = updatePath(aX.get(), aY.get(), bX.get(), bY.get(), null, moveToA, lineToB, quadCurveToD, lineToE, edgeType, arrowHead, isSecondOfTwoEdges(e));
             if (lineCenter != null) {
                 circleShape.setTranslateX(lineCenter.getX());
@@ -95,10 +99,14 @@ public class EdgeView extends Group {
             if (lineCenter != null) {
                 circleShape.setTranslateX(lineCenter.getX());
                 circleShape.setTranslateY(lineCenter.getY());
-                circleShape.translateXProperty().addListener((c, o, n) ->
-                        updatePath(aX.get(), aY.get(), bX.get(), bY.get(), new Point2D(circleShape.getTranslateX(), circleShape.getTranslateY()), moveToA, lineToB, quadCurveToD, lineToE, edgeType, arrowHead, isSecondOfTwoEdges(e)));
-                circleShape.translateYProperty().addListener((c, o, n) ->
-                        updatePath(aX.get(), aY.get(), bX.get(), bY.get(), new Point2D(circleShape.getTranslateX(), circleShape.getTranslateY()), moveToA, lineToB, quadCurveToD, lineToE, edgeType, arrowHead, isSecondOfTwoEdges(e)));
+                circleShape.translateXProperty().addListener((c, o, n) -> {
+                    pathVersion++;
+                    updatePath(aX.get(), aY.get(), bX.get(), bY.get(), new Point2D(circleShape.getTranslateX(), circleShape.getTranslateY()), moveToA, lineToB, quadCurveToD, lineToE, edgeType, arrowHead, isSecondOfTwoEdges(e));
+                });
+                circleShape.translateYProperty().addListener((c, o, n) -> {
+                    pathVersion++;
+                    updatePath(aX.get(), aY.get(), bX.get(), bY.get(), new Point2D(circleShape.getTranslateX(), circleShape.getTranslateY()), moveToA, lineToB, quadCurveToD, lineToE, edgeType, arrowHead, isSecondOfTwoEdges(e));
+                });
                 // setupMouseInteraction(circleShape,circleShape);
                 circleShape.setFill(Color.TRANSPARENT);
                 circleShape.setStroke(Color.TRANSPARENT);
@@ -240,6 +248,34 @@ public class EdgeView extends Group {
 		return path;
     }
 
+    /**
+     * version of the path, changes whenever the path changes
+     */
+    public int getPathVersion() {
+        return pathVersion;
+    }
+
+    /**
+     * gets the path of this edge as a polyline, approximating the curved part by the given number of segments
+     *
+     * @return alternating x- and y-coordinates of the points of the polyline
+     */
+    public double[] getPolyline(int segments) {
+        var points = new double[2 * (segments + 3)];
+        points[0] = moveToA.getX();
+        points[1] = moveToA.getY();
+        points[2] = lineToB.getX();
+        points[3] = lineToB.getY();
+        for (var s = 1; s <= segments; s++) {
+            var t = (double) s / segments;
+            points[2 * s + 2] = (1 - t) * (1 - t) * lineToB.getX() + 2 * (1 - t) * t * quadCurveToD.getControlX() + t * t * quadCurveToD.getX();
+            points[2 * s + 3] = (1 - t) * (1 - t) * lineToB.getY() + 2 * (1 - t) * t * quadCurveToD.getControlY() + t * t * quadCurveToD.getY();
+        }
+        points[points.length - 2] = lineToE.getX();
+        points[points.length - 1] = lineToE.getY();
+        return points;
+    }
+
     /**
      * is this edge the second of two edges that both connect the same two nodes?
      * (If so, will flip its bend)
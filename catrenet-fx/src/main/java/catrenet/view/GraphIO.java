@@ -17,9 +17,8 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.view;
 
-import catrenet.view.ReactionGraphView;
 import catrenet.window.Document;
 import jloda.graph.Edge;
 import jloda.graph.Node;
@@ -0,0 +1,235 @@
+/*
+ *  ImproveLabelLayout.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import jloda.fx.control.RichTextLabel;
+import jloda.fx.util.GeometryUtilsFX;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * improves label layout, trying to avoid any collisions with lines or other labels
+ * Label extents and edge paths are collected in one pass on the FX thread, the placement is computed in the
+ * background using spatial grids for edges and placed labels, and the result is applied in one pass on the FX thread
+ * Daniel Huson, 3.2023
+ */
+public class ImproveLabelLayout {
+	private static final int CURVE_SEGMENTS = 8;
+
+	public static void apply(ReactionGraphView graphView) {
+		final var node2view = graphView.getNode2view();
+		final var edge2view = graphView.getEdge2view();
+
+		final var nodes = graphView.getReactionGraph().nodeStream()
+				.filter(v -> (v.getInfo() instanceof Reaction || v.getInfo() instanceof MoleculeType) && node2view.get(v) != null).toList();
+
+		final var n = nodes.size();
+		final var labels = new RichTextLabel[n];
+		final var xs = new double[n];
+		final var ys = new double[n];
+		final var radii = new double[n];
+		final var halfWidths = new double[n];
+		final var halfHeights = new double[n];
+		final var awayAngles = new double[n]; // for leaves, angle pointing away from the neighbor, otherwise NaN
+
+		for (var i = 0; i < n; i++) {
+			var v = nodes.get(i);
+			var shape = node2view.get(v).getShape();
+			var label = node2view.get(v).getLabel();
+			label.applyCss();
+			labels[i] = label;
+			xs[i] = shape.getTranslateX();
+			ys[i] = shape.getTranslateY();
+			radii[i] = computeRadius(shape);
+			halfWidths[i] = 0.5 * (label.getWidth() > 0 ? label.getWidth() : label.prefWidth(-1));
+			halfHeights[i] = 0.5 * (label.getHeight() > 0 ? label.getHeight() : label.prefHeight(-1));
+			awayAngles[i] = Double.NaN;
+			if (v.getDegree() == 1) {
+				var otherView = node2view.get(v.getFirstAdjacentEdge().getOpposite(v));
+				if (otherView != null) {
+					var other = otherView.getShape();
+					awayAngles[i] = GeometryUtilsFX.computeAngle(shape.getTranslateX() - other.getTranslateX(), shape.getTranslateY() - other.getTranslateY());
+				}
+			}
+		}
+
+		final var polylines = new ArrayList<double[]>();
+		for (var e : graphView.getReactionGraph().edges()) {
+			var edgeView = edge2view.get(e);
+			if (edgeView != null)
+				polylines.add(edgeView.getPolyline(CURVE_SEGMENTS));
+		}
+
+		CompletableFuture.supplyAsync(() -> computePlacement(xs, ys, radii, halfWidths, halfHeights, awayAngles, polylines))
+				.thenAccept(layout -> Platform.runLater(() -> {
+					for (var i = 0; i < n; i++) {
+						labels[i].setLayoutX(layout[0][i]);
+						labels[i].setLayoutY(layout[1][i]);
+					}
+				}))
+				.exceptionally(ex -> {
+					System.err.println("Label layout failed: " + ex.getMessage());
+					return null;
+				});
+	}
+
+	/**
+	 * computes the label positions, relative to the node positions.
+	 * For each node, tries 36 positions around the node and uses the first that does not overlap any edge or previously placed label.
+	 * The label of a leaf is placed opposite to its neighbor
+	 *
+	 * @return layout x- and y-coordinates of labels
+	 */
+	private static double[][] computePlacement(double[] xs, double[] ys, double[] radii, double[] halfWidths, double[] halfHeights, double[] awayAngles, ArrayList<double[]> polylines) {
+		final var n = xs.length;
+		final var layoutXs = new double[n];
+		final var layoutYs = new double[n];
+
+		var minX = Double.MAX_VALUE;
+		var minY = Double.MAX_VALUE;
+		var maxX = -Double.MAX_VALUE;
+		var maxY = -Double.MAX_VALUE;
+		for (var i = 0; i < n; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+		if (n == 0)
+			return new double[][]{layoutXs, layoutYs};
+
+		final var edgeGrid = SpatialGrid.create(minX, minY, maxX, maxY, polylines.size());
+		for (var j = 0; j < polylines.size(); j++) {
+			var points = polylines.get(j);
+			var x0 = Double.MAX_VALUE;
+			var y0 = Double.MAX_VALUE;
+			var x1 = -Double.MAX_VALUE;
+			var y1 = -Double.MAX_VALUE;
+			for (var p = 0; p < points.length; p += 2) {
+				x0 = Math.min(x0, points[p]);
+				y0 = Math.min(y0, points[p + 1]);
+				x1 = Math.max(x1, points[p]);
+				y1 = Math.max(y1, points[p + 1]);
+			}
+			edgeGrid.add(j, x0, y0, x1, y1);
+		}
+
+		final var labelGrid = SpatialGrid.create(minX, minY, maxX, maxY, n);
+		final var placed = new double[4 * n]; // boxes of placed labels
+		final var collision = new boolean[1];
+
+		for (var i = 0; i < n; i++) {
+			var dx = halfWidths[i];
+			var dy = halfHeights[i];
+			var x = radii[i] + dx + 4;
+			var y = -dy;
+
+			if (!Double.isNaN(awayAngles[i])) {
+				var point = GeometryUtilsFX.rotate(x, y, awayAngles[i]);
+				layoutXs[i] = point.getX() - dx;
+				layoutYs[i] = point.getY() - dy;
+			} else {
+				var ok = false;
+				for (var angle = 0; angle < 360; angle += 10) {
+					var point = GeometryUtilsFX.rotate(x, y, angle);
+					var x0 = xs[i] + point.getX() - dx;
+					var y0 = ys[i] + point.getY() - dy;
+					var x1 = x0 + 2 * dx;
+					var y1 = y0 + 2 * dy;
+
+					collision[0] = false;
+					edgeGrid.query(x0, y0, x1, y1, j -> {
+						if (!collision[0] && polylineIntersectsBox(polylines.get(j), x0, y0, x1, y1))
+							collision[0] = true;
+					});
+					if (!collision[0]) {
+						labelGrid.query(x0, y0, x1, y1, k -> {
+							if (!collision[0] && placed[4 * k] < x1 && x0 < placed[4 * k + 2] && placed[4 * k + 1] < y1 && y0 < placed[4 * k + 3])
+								collision[0] = true;
+						});
+					}
+					if (!collision[0]) {
+						layoutXs[i] = point.getX() - dx;
+						layoutYs[i] = point.getY() - dy;
+						ok = true;
+						break;
+					}
+				}
+				if (!ok) {
+					layoutXs[i] = x;
+					layoutYs[i] = y;
+				}
+			}
+			placed[4 * i] = xs[i] + layoutXs[i];
+			placed[4 * i + 1] = ys[i] + layoutYs[i];
+			placed[4 * i + 2] = placed[4 * i] + 2 * dx;
+			placed[4 * i + 3] = placed[4 * i + 1] + 2 * dy;
+			labelGrid.add(i, placed[4 * i], placed[4 * i + 1], placed[4 * i + 2], placed[4 * i + 3]);
+		}
+		return new double[][]{layoutXs, layoutYs};
+	}
+
+	/**
+	 * does the polyline intersect the box?
+	 */
+	private static boolean polylineIntersectsBox(double[] points, double x0, double y0, double x1, double y1) {
+		for (var p = 0; p + 3 < points.length; p += 2) {
+			if (segmentIntersectsBox(points[p], points[p + 1], points[p + 2], points[p + 3], x0, y0, x1, y1))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * does the line segment intersect the box? Uses Liang-Barsky clipping
+	 */
+	private static boolean segmentIntersectsBox(double ax, double ay, double bx, double by, double x0, double y0, double x1, double y1) {
+		var t = new double[]{0, 1};
+		var dx = bx - ax;
+		var dy = by - ay;
+		return clip(-dx, ax - x0, t) && clip(dx, x1 - ax, t) && clip(-dy, ay - y0, t) && clip(dy, y1 - ay, t);
+	}
+
+	private static boolean clip(double p, double q, double[] t) {
+		if (p == 0)
+			return q >= 0;
+		var r = q / p;
+		if (p < 0) {
+			if (r > t[1])
+				return false;
+			t[0] = Math.max(t[0], r);
+		} else {
+			if (r < t[0])
+				return false;
+			t[1] = Math.min(t[1], r);
+		}
+		return true;
+	}
+
+	public static double computeRadius(Node node) {
+		var bounds = node.getLayoutBounds();
+		return 0.5 * Math.sqrt(bounds.getWidth() * bounds.getWidth() + bounds.getHeight() * bounds.getHeight());
+	}
+}
@@ -0,0 +1,627 @@
+/*
+ *  MoleculeFlowAnimation.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import catrenet.algorithm.RandomStreams;
+import catrenet.model.EdgeType;
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.window.Document;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import jloda.fx.control.RichTextLabel;
+import jloda.fx.util.ColorSchemeManager;
+import jloda.fx.util.SelectionEffect;
+import jloda.graph.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * run simulation on graph
+ * All moving molecules are particles that are moved by one animation timer. Particle nodes are pooled and reused,
+ * the path of each edge is sampled once and the network is represented by arrays while the animation is playing
+ * Daniel Huson, 7.2019
+ */
+public class MoleculeFlowAnimation {
+    private static final AtomicInteger numberOfAnimations = new AtomicInteger(0);
+
+    private static final long DELAY_NANOS = 200_000_000L; // pause before a particle starts to move
+    private static final long TRAVEL_NANOS = 2_000_000_000L; // time that a particle takes to travel along an edge
+    private static final int MAX_PARTICLES_PER_EDGE = 10;
+    private static final int PATH_SEGMENTS = 16;
+
+    private static final byte OTHER = 0;
+    private static final byte REACTION = 1;
+    private static final byte AND = 2;
+    private static final byte MOLECULE = 3;
+
+    // separate random streams for pumping and for firing, so that each is determined by the seed
+    private final int animationId = numberOfAnimations.getAndIncrement();
+    private final Random random = RandomStreams.asRandom(RandomStreams.get("MoleculeFlowAnimation", 2L * animationId));
+    private final Random pumpRandom = RandomStreams.asRandom(RandomStreams.get("MoleculeFlowAnimation", 2L * animationId + 1));
+
+    public enum Model {MaxRAF, MaxCAF, MaxPseudoRAF}
+
+    private final BooleanProperty playing = new SimpleBooleanProperty(false);
+    private final ObjectProperty<Model> model = new SimpleObjectProperty<>(Model.MaxRAF);
+
+    private final IntegerProperty uncatalyzedOrInhibitedThreshold = new SimpleIntegerProperty(20);
+
+    private final BooleanProperty animateInhibitions = new SimpleBooleanProperty(false);
+
+    private final BooleanProperty moveLabels = new SimpleBooleanProperty(false);
+    private final BooleanProperty multiColorMovingParts = new SimpleBooleanProperty(true);
+
+    private final ObservableList<Color> colorScheme = FXCollections.observableArrayList(ColorSchemeManager.getInstance().getColorScheme("Retro29"));
+
+    private final Document doc;
+    private final Graph graph;
+    private final NodeSet foodNodes;
+    private final EdgeArray<EdgeView> edge2view;
+    private final Group world;
+
+    private final Group particleLayer = new Group();
+    private final ArrayList<Particle> particles = new ArrayList<>();
+    private final ArrayList<Particle> arrived = new ArrayList<>();
+    private final ArrayDeque<Particle> freeParticles = new ArrayDeque<>();
+    private final ArrayDeque<Rectangle> freeRectangles = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<javafx.scene.Node>> freeLabels = new HashMap<>();
+    private final Map<Color, Effect> color2effect = new HashMap<>();
+
+    // the network, set up when the animation starts
+    private Edge[] edges = new Edge[0];
+    private EdgeType[] edgeTypes = new EdgeType[0];
+    private int[] edgeSources = new int[0];
+    private int[] edgeTargets = new int[0];
+    private int[] totalCount = new int[0];
+    private int[] currentCount = new int[0];
+    private boolean[] edgeHasEffect = new boolean[0];
+    private double[][] edgePoints = new double[0][];
+    private double[][] edgeLengths = new double[0][];
+    private int[] edgePathVersions = new int[0];
+    private byte[] nodeKinds = new byte[0];
+    private String[] nodeNames = new String[0];
+    private int[][] inEdges = new int[0][];
+    private int[][] outEdges = new int[0][];
+    private int[][] adjacentEdges = new int[0][];
+    private int[] foods = new int[0];
+    private int[] nonFoodMolecules = new int[0];
+
+    private long now;
+    private long nextPump;
+    private int pumpCount;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long time) {
+            step(time);
+        }
+    };
+
+    /**
+     * setup molecule flow simulation
+     *
+     */
+    public MoleculeFlowAnimation(Document doc, Graph graph, NodeSet foodNodes, EdgeArray<EdgeView> edge2Group, Group world) {
+        this.doc = doc;
+        this.graph = graph;
+        this.foodNodes = foodNodes;
+        this.edge2view = edge2Group;
+        this.world = world;
+        particleLayer.setMouseTransparent(true);
+
+        playing.addListener((c, o, n) -> {
+            if (n)
+                start();
+            else
+                stop();
+        });
+
+        multiColorMovingParts.addListener((c, o, n) -> {
+            if (n)
+                colorScheme.setAll(ColorSchemeManager.getInstance().getColorScheme("Retro29"));
+            else
+                colorScheme.setAll(Color.GRAY);
+        });
+    }
+
+    /**
+     * sets up the arrays that represent the network and starts the timer
+     */
+    private void start() {
+        final var node2index = new HashMap<Node, Integer>();
+        final var numberOfNodes = graph.getNumberOfNodes();
+        nodeKinds = new byte[numberOfNodes];
+        nodeNames = new String[numberOfNodes];
+        for (var v : graph.nodes()) {
+            var i = node2index.size();
+            node2index.put(v, i);
+            if (v.getInfo() instanceof Reaction)
+                nodeKinds[i] = REACTION;
+            else if (v.getInfo() instanceof ReactionGraphView.AndNode)
+                nodeKinds[i] = AND;
+            else if (v.getInfo() instanceof MoleculeType molecule) {
+                nodeKinds[i] = MOLECULE;
+                nodeNames[i] = molecule.getName();
+            } else
+                nodeKinds[i] = OTHER;
+        }
+
+        final var edge2index = new HashMap<Edge, Integer>();
+        final var numberOfEdges = graph.getNumberOfEdges();
+        edges = new Edge[numberOfEdges];
+        edgeTypes = new EdgeType[numberOfEdges];
+        edgeSources = new int[numberOfEdges];
+        edgeTargets = new int[numberOfEdges];
+        for (var e : graph.edges()) {
+            var j = edge2index.size();
+            edge2index.put(e, j);
+            edges[j] = e;
+            edgeTypes[j] = (e.getInfo() instanceof EdgeType edgeType ? edgeType : null);
+            edgeSources[j] = node2index.get(e.getSource());
+            edgeTargets[j] = node2index.get(e.getTarget());
+        }
+        totalCount = new int[numberOfEdges];
+        currentCount = new int[numberOfEdges];
+        edgeHasEffect = new boolean[numberOfEdges];
+        edgePoints = new double[numberOfEdges][];
+        edgeLengths = new double[numberOfEdges][];
+        edgePathVersions = new int[numberOfEdges];
+
+        inEdges = new int[numberOfNodes][];
+        outEdges = new int[numberOfNodes][];
+        adjacentEdges = new int[numberOfNodes][];
+        final var foodList = new ArrayList<Integer>();
+        final var nonFoodMoleculeList = new ArrayList<Integer>();
+        for (var v : graph.nodes()) {
+            var i = node2index.get(v);
+            inEdges[i] = toIndices(v.inEdges(), edge2index);
+            outEdges[i] = toIndices(v.outEdges(), edge2index);
+            adjacentEdges[i] = toIndices(v.adjacentEdges(), edge2index);
+            if (foodNodes.contains(v))
+                foodList.add(i);
+            else if (nodeKinds[i] == MOLECULE)
+                nonFoodMoleculeList.add(i);
+        }
+        foods = foodList.stream().mapToInt(Integer::intValue).toArray();
+        nonFoodMolecules = nonFoodMoleculeList.stream().mapToInt(Integer::intValue).toArray();
+
+        if (!world.getChildren().contains(particleLayer))
+            world.getChildren().add(particleLayer);
+        nextPump = 0;
+        pumpCount = 0;
+        timer.start();
+    }
+
+    private static int[] toIndices(Iterable<Edge> edges, Map<Edge, Integer> edge2index) {
+        var list = new ArrayList<Integer>();
+        for (var e : edges) {
+            list.add(edge2index.get(e));
+        }
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * stops the timer, removes all particles and all edge highlighting
+     */
+    private void stop() {
+        timer.stop();
+        for (var particle : particles) {
+            releaseNode(particle);
+            freeParticles.add(particle);
+        }
+        particles.clear();
+        for (var j = 0; j < edges.length; j++) {
+            if (edgeHasEffect[j]) {
+                var path = ReactionGraphView.getPath(edge2view.get(edges[j]));
+                if (path != null)
+                    path.setEffect(null);
+                edgeHasEffect[j] = false;
+            }
+        }
+        Arrays.fill(totalCount, 0);
+        Arrays.fill(currentCount, 0);
+        world.getChildren().remove(particleLayer);
+    }
+
+    /**
+     * one frame of the animation: pumps food into the network, moves all particles and processes arrivals
+     */
+    private void step(long time) {
+        now = time;
+        if (now >= nextPump) {
+            pump();
+            nextPump = now + Math.max(1, Math.round(nextGaussian(pumpRandom, 200, 20, true))) * 1_000_000L;
+        }
+
+        var kept = 0;
+        for (var particle : particles) {
+            if (now >= particle.start + TRAVEL_NANOS)
+                arrived.add(particle);
+            else {
+                if (now >= particle.start)
+                    moveParticle(particle, (double) (now - particle.start) / TRAVEL_NANOS);
+                particles.set(kept++, particle);
+            }
+        }
+        particles.subList(kept, particles.size()).clear();
+
+        for (var particle : arrived) {
+            releaseNode(particle);
+            arrive(particle);
+            freeParticles.add(particle);
+        }
+        arrived.clear();
+    }
+
+    /**
+     * pumps molecules into the network, from all food nodes and, for a pseudo RAF, from time to time from some other molecule
+     */
+    private void pump() {
+        for (var v : foods) {
+            launchAlongRandomEdge(v, false, pumpRandom);
+        }
+        // in a pseudo RAF, need to pump molecules into none-food nodes, as well, to get things going
+        if (getModel() == Model.MaxPseudoRAF && ++pumpCount >= getUncatalyzedOrInhibitedThreshold()) {
+            pumpCount = 0;
+            for (var i : RandomStreams.shuffle(Arrays.stream(nonFoodMolecules).boxed().toList(), pumpRandom)) {
+                if (launchAlongRandomEdge(i, false, pumpRandom))
+                    break;
+            }
+        }
+    }
+
+    /**
+     * launches a particle along a randomly chosen edge by which the molecule is consumed, or along a reversible product edge in reverse
+     *
+     * @return true, if there was such an edge
+     */
+    private boolean launchAlongRandomEdge(int v, boolean includeInhibitors, Random random) {
+        var chosen = -1;
+        var count = 0;
+        for (var f : adjacentEdges[v]) {
+            var type = edgeTypes[f];
+            if (type == EdgeType.Reactant || type == EdgeType.ReactantReversible || type == EdgeType.Catalyst || type == EdgeType.ProductReversible
+                || (includeInhibitors && type == EdgeType.Inhibitor)) {
+                if (random.nextInt(++count) == 0) // reservoir sampling, each such edge is chosen with equal probability
+                    chosen = f;
+            }
+        }
+        if (chosen == -1)
+            return false;
+        if (edgeTypes[chosen] == EdgeType.ProductReversible)
+            launch(chosen, true, nodeNames[edgeTargets[chosen]]);
+        else
+            launch(chosen, false, nodeNames[edgeSources[chosen]]);
+        return true;
+    }
+
+    /**
+     * launches a particle along an edge, it starts moving after a short pause
+     */
+    private void launch(int j, boolean reverse, String label) {
+        if (edges[j].getOwner() == null || currentCount[j] >= MAX_PARTICLES_PER_EDGE || label == null)
+            return;
+        final var edgeView = edge2view.get(edges[j]);
+        if (ReactionGraphView.getPath(edgeView) == null)
+            return;
+
+        if (edgePoints[j] == null || edgePathVersions[j] != edgeView.getPathVersion()) {
+            var points = edgeView.getPolyline(PATH_SEGMENTS);
+            var lengths = new double[points.length / 2];
+            for (var p = 1; p < lengths.length; p++) {
+                lengths[p] = lengths[p - 1] + Math.hypot(points[2 * p] - points[2 * p - 2], points[2 * p + 1] - points[2 * p - 1]);
+            }
+            edgePoints[j] = points;
+            edgeLengths[j] = lengths;
+            edgePathVersions[j] = edgeView.getPathVersion();
+        }
+
+        label = doc.getDisplayLabel(label);
+        final var particle = (freeParticles.isEmpty() ? new Particle() : freeParticles.poll());
+        particle.edge = j;
+        particle.reverse = reverse;
+        particle.points = edgePoints[j];
+        particle.lengths = edgeLengths[j];
+        particle.start = now + DELAY_NANOS;
+        particle.color = colorScheme.get(Math.floorMod(label.hashCode(), colorScheme.size()));
+        acquireNode(particle, label);
+        currentCount[j]++;
+        particles.add(particle);
+    }
+
+    /**
+     * places the particle at the given fraction of the length of its path
+     */
+    private static void moveParticle(Particle particle, double t) {
+        final var points = particle.points;
+        final var lengths = particle.lengths;
+        final var total = lengths[lengths.length - 1];
+        final var s = (particle.reverse ? 1 - t : t) * total;
+
+        var p = 1;
+        while (p < lengths.length - 1 && lengths[p] < s)
+            p++;
+        var segment = lengths[p] - lengths[p - 1];
+        var u = (segment > 0 ? (s - lengths[p - 1]) / segment : 0);
+        var x = points[2 * p - 2] + u * (points[2 * p] - points[2 * p - 2]);
+        var y = points[2 * p - 1] + u * (points[2 * p + 1] - points[2 * p - 1]);
+
+        final var node = particle.node;
+        final var bounds = node.getLayoutBounds();
+        node.setTranslateX(x - bounds.getMinX() - 0.5 * bounds.getWidth());
+        node.setTranslateY(y - bounds.getMinY() - 0.5 * bounds.getHeight());
+        if (node instanceof Rectangle) // orthogonal to tangent
+            node.setRotate(Math.toDegrees(Math.atan2(points[2 * p + 1] - points[2 * p - 1], points[2 * p] - points[2 * p - 2])));
+        node.setVisible(true);
+    }
+
+    /**
+     * processes the arrival of a particle at the end of its edge
+     */
+    private void arrive(Particle particle) {
+        final var j = particle.edge;
+        final var edge = edges[j];
+        if (edge.getOwner() != null) {
+            totalCount[j]++;
+            currentCount[j]--;
+        }
+        final var path = ReactionGraphView.getPath(edge2view.get(edge));
+        if (edge.getOwner() != null && isPlaying()) {
+            if (path != null) {
+                path.setEffect(color2effect.computeIfAbsent(particle.color, c -> SelectionEffect.create(c.deriveColor(1, 1, 1, 0.2))));
+                edgeHasEffect[j] = true;
+            }
+            fire(j, particle.reverse ? edgeSources[j] : edgeTargets[j]);
+        } else if (path != null)
+            path.setEffect(null);
+    }
+
+    /**
+     * launches particles along all edges that are ready to fire, after a particle has arrived at node v via edge e
+     */
+    private void fire(int e, int v) {
+        switch (nodeKinds[v]) {
+            case REACTION -> {
+                var hasCatalyst = false;
+                var hasInhibitor = false;
+                for (var f : inEdges[v]) {
+                    if (edgeTypes[f] == EdgeType.Catalyst && totalCount[f] > 0) {
+                        hasCatalyst = true;
+                    } else if (isAnimateInhibitions() && edgeTypes[f] == EdgeType.Inhibitor && totalCount[f] > 0) {
+                        hasInhibitor = true;
+                    }
+                }
+                // in a CAF, reaction always requires a catalyst and can never run with inhibition
+                // in other cases, run at lower rate
+                final var reactantThreshold = (hasCatalyst && !hasInhibitor ? 1 : getModel() == Model.MaxCAF ? Integer.MAX_VALUE : getUncatalyzedOrInhibitedThreshold());
+
+                if (edgeTypes[e] == EdgeType.Reactant) {
+                    if (consume(inEdges[v], EdgeType.Reactant, reactantThreshold)) {
+                        for (var f : outEdges[v]) {
+                            if (edgeTypes[f] == EdgeType.Product)
+                                launch(f, false, nodeNames[edgeTargets[f]]);
+                        }
+                    }
+                } else if (edgeTypes[e] == EdgeType.ReactantReversible) {
+                    if (consume(inEdges[v], EdgeType.ReactantReversible, reactantThreshold)) {
+                        for (var f : outEdges[v]) {
+                            if (edgeTypes[f] == EdgeType.ProductReversible)
+                                launch(f, false, nodeNames[edgeTargets[f]]);
+                        }
+                    }
+                } else if (edgeTypes[e] == EdgeType.ProductReversible) {
+                    if (consume(outEdges[v], EdgeType.ProductReversible, reactantThreshold)) {
+                        for (var f : inEdges[v]) {
+                            if (edgeTypes[f] == EdgeType.ReactantReversible)
+                                launch(f, true, nodeNames[edgeSources[f]]);
+                        }
+                    }
+                }
+            }
+            case AND -> {
+                for (var f : inEdges[v]) {
+                    if (totalCount[f] <= 0)
+                        return;
+                }
+                final var buf = new StringBuilder();
+                for (var f : inEdges[v]) {
+                    totalCount[f]--;
+                    if (!buf.isEmpty())
+                        buf.append("&");
+                    buf.append(nodeNames[edgeSources[f]]);
+                }
+                if (outEdges[v].length > 0)
+                    launch(outEdges[v][random.nextInt(outEdges[v].length)], false, buf.toString());
+            }
+            case MOLECULE -> launchAlongRandomEdge(v, isAnimateInhibitions(), random);
+        }
+    }
+
+    /**
+     * if all given edges of the given type have arrived at least threshold times, consumes that many arrivals on each
+     *
+     * @return true, if consumed
+     */
+    private boolean consume(int[] candidates, EdgeType type, int threshold) {
+        for (var f : candidates) {
+            if (edgeTypes[f] == type && totalCount[f] < threshold)
+                return false;
+        }
+        for (var f : candidates) {
+            if (edgeTypes[f] == type)
+                totalCount[f] -= threshold;
+        }
+        return true;
+    }
+
+    /**
+     * gets a pooled node for the particle: a small rectangle, or the label of the molecule, if labels are moved
+     */
+    private void acquireNode(Particle particle, String label) {
+        final javafx.scene.Node node;
+        if (isMoveLabels()) {
+            var key = (doc.isUseDisplayLabels() ? "R" : "T") + label;
+            var pool = freeLabels.get(key);
+            if (pool != null && !pool.isEmpty())
+                node = pool.poll();
+            else {
+                node = (doc.isUseDisplayLabels() ? new RichTextLabel(label) : new Text(label));
+                particleLayer.getChildren().add(node);
+            }
+            if (node instanceof RichTextLabel text) {
+                text.setFontFamily(ReactionGraphView.getFont().getFamily());
+                text.setFontSize(ReactionGraphView.getFont().getSize());
+                text.setTextFill(particle.color);
+            } else if (node instanceof Text text) {
+                text.setFont(ReactionGraphView.getFont());
+                text.setFill(particle.color);
+            }
+            particle.poolKey = key;
+        } else {
+            var shape = (freeRectangles.isEmpty() ? null : freeRectangles.poll());
+            if (shape == null) {
+                shape = new Rectangle(7, 5);
+                particleLayer.getChildren().add(shape);
+            }
+            shape.setFill(particle.color);
+            shape.setStroke(particle.color);
+            node = shape;
+            particle.poolKey = null;
+        }
+        node.setRotate(0);
+        node.setVisible(false);
+        particle.node = node;
+    }
+
+    /**
+     * returns the node of a particle to its pool
+     */
+    private void releaseNode(Particle particle) {
+        particle.node.setVisible(false);
+        if (particle.node instanceof Rectangle rectangle && particle.poolKey == null)
+            freeRectangles.add(rectangle);
+        else
+            freeLabels.computeIfAbsent(particle.poolKey, k -> new ArrayDeque<>()).add(particle.node);
+        particle.node = null;
+    }
+
+    /**
+     * a molecule moving along an edge
+     */
+    private static class Particle {
+        private int edge;
+        private boolean reverse;
+        private long start;
+        private double[] points;
+        private double[] lengths;
+        private Color color;
+        private javafx.scene.Node node;
+        private String poolKey;
+    }
+
+    public boolean isAnimateInhibitions() {
+        return animateInhibitions.get();
+    }
+
+    public BooleanProperty animateInhibitionsProperty() {
+        return animateInhibitions;
+    }
+
+    public void setAnimateInhibitions(boolean animateInhibitions) {
+        this.animateInhibitions.set(animateInhibitions);
+    }
+
+    public static double nextGaussian(Random random, double mean, double stdDev, boolean nonNegative) {
+        final double result = random.nextGaussian() * stdDev + mean;
+        if (nonNegative && result < 0)
+            return 0;
+        else
+            return result;
+    }
+
+    public boolean isPlaying() {
+        return playing.get();
+    }
+
+    public BooleanProperty playingProperty() {
+        return playing;
+    }
+
+    public void setPlaying(boolean playing) {
+        this.playing.set(playing);
+    }
+
+    public Model getModel() {
+        return model.get();
+    }
+
+    public ObjectProperty<Model> modelProperty() {
+        return model;
+    }
+
+    public void setModel(Model model) {
+        this.model.set(model);
+    }
+
+    public int getUncatalyzedOrInhibitedThreshold() {
+        return uncatalyzedOrInhibitedThreshold.get();
+    }
+
+    public IntegerProperty uncatalyzedOrInhibitedThresholdProperty() {
+        return uncatalyzedOrInhibitedThreshold;
+    }
+
+    public void setUncatalyzedOrInhibitedThreshold(int uncatalyzedOrInhibitedThreshold) {
+        this.uncatalyzedOrInhibitedThreshold.set(uncatalyzedOrInhibitedThreshold);
+    }
+
+    public boolean isMoveLabels() {
+        return moveLabels.get();
+    }
+
+    public BooleanProperty moveLabelsProperty() {
+        return moveLabels;
+    }
+
+    public void setMoveLabels(boolean moveLabels) {
+        this.moveLabels.set(moveLabels);
+    }
+
+    public boolean isMultiColorMovingParts() {
+        return multiColorMovingParts.get();
+    }
+
+    public BooleanProperty multiColorMovingPartsProperty() {
+        return multiColorMovingParts;
+    }
+
+    public void setMultiColorMovingParts(boolean multiColorMovingParts) {
+        this.multiColorMovingParts.set(multiColorMovingParts);
+    }
+}
@@ -0,0 +1,619 @@
+/*
+ *  MultilevelLayout.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import catrenet.algorithm.RandomStreams;
+import jloda.graph.Graph;
+import jloda.graph.Node;
+import jloda.graph.NodeArray;
+import jloda.util.APoint2D;
+import jloda.util.CanceledException;
+import jloda.util.progress.ProgressListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * multilevel force-directed layout for large graphs
+ * The graph is coarsened by repeatedly merging matched pairs of adjacent nodes, and leaves into their neighbors.
+ * The coarsest graph is laid out from random positions and the layout is then refined level by level, using
+ * Fruchterman-Reingold forces, approximating repulsion using a Barnes-Hut quad tree.
+ * Forces are computed in parallel and all positions are updated at once, so the result does not depend on the number of threads
+ * Daniel Huson, 10.2026
+ */
+public class MultilevelLayout {
+	private static final int MIN_COARSE_NODES = 30;
+	private static final int MAX_LEVELS = 40;
+	private static final int MIN_PARALLEL_NODES = 2000;
+	private static final double GRAVITY = 0.1; // weak pull towards the center, keeps unconnected parts together
+
+	private final Graph graph;
+	private double edgeLength = 50;
+	private double framesPerSecond = 10;
+
+	/**
+	 * constructor
+	 *
+	 * @param graph the graph, must not be changed while the layout is running
+	 */
+	public MultilevelLayout(Graph graph) {
+		this.graph = graph;
+	}
+
+	public double getEdgeLength() {
+		return edgeLength;
+	}
+
+	/**
+	 * set the desired edge length in the final layout
+	 */
+	public void setEdgeLength(double edgeLength) {
+		this.edgeLength = edgeLength;
+	}
+
+	public double getFramesPerSecond() {
+		return framesPerSecond;
+	}
+
+	/**
+	 * set the maximal rate at which intermediate positions are reported
+	 */
+	public void setFramesPerSecond(double framesPerSecond) {
+		this.framesPerSecond = framesPerSecond;
+	}
+
+	/**
+	 * computes the layout
+	 *
+	 * @param iterations      number of iterations used for the coarsest level, finer levels use fewer
+	 * @param result          the node positions are written to this array
+	 * @param progress        progress listener
+	 * @param numberOfThreads number of threads to use
+	 * @param stop            if this returns true, the layout stops early and the current positions are used
+	 * @param intermediate    if non-null, receives intermediate x- and y-coordinates, indexed by the order of graph.nodes(), at most framesPerSecond times per second
+	 * @throws CanceledException user canceled
+	 */
+	public void apply(int iterations, NodeArray<APoint2D<?>> result, ProgressListener progress, int numberOfThreads, BooleanSupplier stop, BiConsumer<double[], double[]> intermediate) throws CanceledException {
+		final var nodes = new Node[graph.getNumberOfNodes()];
+		final var node2index = new HashMap<Node, Integer>();
+		for (var v : graph.nodes()) {
+			node2index.put(v, node2index.size());
+			nodes[node2index.get(v)] = v;
+		}
+		final var sources = new int[graph.getNumberOfEdges()];
+		final var targets = new int[graph.getNumberOfEdges()];
+		var m = 0;
+		for (var e : graph.edges()) {
+			sources[m] = node2index.get(e.getSource());
+			targets[m] = node2index.get(e.getTarget());
+			m++;
+		}
+
+		final var positions = compute(nodes.length, sources, targets, m, iterations, progress, numberOfThreads, stop, intermediate);
+		for (var i = 0; i < nodes.length; i++) {
+			result.put(nodes[i], new APoint2D<>(positions[0][i], positions[1][i], nodes[i]));
+		}
+	}
+
+	/**
+	 * computes the layout for a graph given by arrays of edge sources and targets
+	 *
+	 * @return x- and y-coordinates
+	 */
+	double[][] compute(int n, int[] sources, int[] targets, int m, int iterations, ProgressListener progress, int numberOfThreads, BooleanSupplier stop, BiConsumer<double[], double[]> intermediate) throws CanceledException {
+		if (n == 0)
+			return new double[][]{new double[0], new double[0]};
+
+		final var mass = new double[n];
+		Arrays.fill(mass, 1.0);
+
+		final var levels = new ArrayList<Level>();
+		levels.add(Level.create(n, sources, targets, m, mass));
+		while (levels.get(levels.size() - 1).n > MIN_COARSE_NODES && levels.size() < MAX_LEVELS) {
+			var fine = levels.get(levels.size() - 1);
+			var coarse = fine.coarsen();
+			if (coarse.n == fine.n) {
+				fine.parent = null;
+				break;
+			}
+			levels.add(coarse);
+			if (coarse.n > 0.9 * fine.n)
+				break;
+		}
+
+		final var coarsest = levels.size() - 1;
+		final var levelIterations = new int[levels.size()];
+		var totalIterations = 0;
+		for (var l = 0; l <= coarsest; l++) {
+			levelIterations[l] = (l == coarsest ? Math.max(50, iterations / 2) : Math.max(10, iterations / 20));
+			totalIterations += levelIterations[l];
+		}
+		progress.setMaximum(totalIterations);
+		progress.setProgress(0);
+
+		// natural edge length is 1 on the finest level and grows by sqrt(7/4) per coarser level
+		final var naturalLength = new double[levels.size()];
+		naturalLength[0] = 1.0;
+		for (var l = 1; l <= coarsest; l++) {
+			naturalLength[l] = naturalLength[l - 1] * Math.sqrt(7.0 / 4.0);
+		}
+
+		final var pool = (numberOfThreads > 1 && n >= MIN_PARALLEL_NODES ? new ForkJoinPool(numberOfThreads) : null);
+		try {
+			var level = levels.get(coarsest);
+			var xs = new double[level.n];
+			var ys = new double[level.n];
+			{
+				var random = RandomStreams.get("MultilevelLayout", coarsest);
+				var side = Math.sqrt(level.n) * naturalLength[coarsest];
+				for (var u = 0; u < level.n; u++) {
+					xs[u] = side * random.nextDouble();
+					ys[u] = side * random.nextDouble();
+				}
+			}
+
+			final var framePeriod = (long) (1000 / Math.max(0.1, framesPerSecond));
+			var lastFrame = System.currentTimeMillis() - framePeriod;
+			var stopped = false;
+
+			for (var l = coarsest; l >= 0; l--) {
+				if (l < coarsest) {
+					var coarseXs = xs;
+					var coarseYs = ys;
+					level = levels.get(l);
+					xs = new double[level.n];
+					ys = new double[level.n];
+					prolongate(level, coarseXs, coarseYs, xs, ys, naturalLength[l], RandomStreams.get("MultilevelLayout", l));
+				}
+				if (stopped)
+					continue;
+
+				final var k = naturalLength[l];
+				final var startTemperature = (l == coarsest ? 0.5 * Math.sqrt(level.n) * k : k);
+				final var endTemperature = 0.05 * k;
+				final var its = levelIterations[l];
+				for (var it = 0; it < its; it++) {
+					var temperature = startTemperature * Math.pow(endTemperature / startTemperature, (double) it / Math.max(1, its - 1));
+					var next = level.iterate(xs, ys, k, temperature, pool);
+					xs = next[0];
+					ys = next[1];
+					progress.incrementProgress();
+
+					if (stop != null && stop.getAsBoolean()) {
+						stopped = true;
+						break;
+					}
+					if (intermediate != null && System.currentTimeMillis() - lastFrame >= framePeriod) {
+						var scale = computeScale(level, xs, ys);
+						intermediate.accept(project(levels, l, xs, scale), project(levels, l, ys, scale));
+						lastFrame = System.currentTimeMillis();
+					}
+				}
+			}
+			var scale = computeScale(level, xs, ys);
+			for (var u = 0; u < xs.length; u++) {
+				xs[u] *= scale;
+				ys[u] *= scale;
+			}
+			return new double[][]{xs, ys};
+		} finally {
+			if (pool != null)
+				pool.shutdown();
+		}
+	}
+
+	/**
+	 * computes the factor by which to scale coordinates so that the median edge has the requested length
+	 */
+	private double computeScale(Level level, double[] xs, double[] ys) {
+		var lengths = new double[level.adjacent.length];
+		for (var u = 0; u < level.n; u++) {
+			for (var i = level.start[u]; i < level.start[u + 1]; i++) {
+				var v = level.adjacent[i];
+				lengths[i] = Math.sqrt((xs[u] - xs[v]) * (xs[u] - xs[v]) + (ys[u] - ys[v]) * (ys[u] - ys[v]));
+			}
+		}
+		Arrays.sort(lengths);
+		return (lengths.length > 0 && lengths[lengths.length / 2] > 0 ? edgeLength / lengths[lengths.length / 2] : edgeLength);
+	}
+
+	/**
+	 * places the nodes of a finer level near the position of their parent node
+	 */
+	private static void prolongate(Level fine, double[] coarseXs, double[] coarseYs, double[] xs, double[] ys, double k, RandomGenerator random) {
+		for (var u = 0; u < fine.n; u++) {
+			var p = fine.parent[u];
+			xs[u] = coarseXs[p] + k * (random.nextDouble() - 0.5);
+			ys[u] = coarseYs[p] + k * (random.nextDouble() - 0.5);
+		}
+	}
+
+	/**
+	 * maps coordinates of the given level to the nodes of the finest level, all nodes of a cluster get the position of the cluster
+	 */
+	private static double[] project(ArrayList<Level> levels, int level, double[] values, double scale) {
+		var finest = levels.get(0);
+		var result = new double[finest.n];
+		for (var u = 0; u < finest.n; u++) {
+			var p = u;
+			for (var l = 0; l < level; l++) {
+				p = levels.get(l).parent[p];
+			}
+			result[u] = scale * values[p];
+		}
+		return result;
+	}
+
+	/**
+	 * a level of the multilevel hierarchy: an undirected simple graph in compressed adjacency form, in which each node
+	 * has a mass, the number of nodes of the input graph that it represents
+	 */
+	private static class Level {
+		private final int n;
+		private final int[] start;
+		private final int[] adjacent;
+		private final double[] mass;
+		/**
+		 * parent node in the next coarser level
+		 */
+		private int[] parent;
+
+		private Level(int n, int[] start, int[] adjacent, double[] mass) {
+			this.n = n;
+			this.start = start;
+			this.adjacent = adjacent;
+			this.mass = mass;
+		}
+
+		/**
+		 * creates a level from a list of edges, ignoring self-loops and duplicate edges
+		 */
+		static Level create(int n, int[] sources, int[] targets, int m, double[] mass) {
+			var degree = new int[n + 1];
+			for (var i = 0; i < m; i++) {
+				if (sources[i] != targets[i]) {
+					degree[sources[i]]++;
+					degree[targets[i]]++;
+				}
+			}
+			var start = new int[n + 1];
+			for (var u = 0; u < n; u++) {
+				start[u + 1] = start[u] + degree[u];
+			}
+			var fill = Arrays.copyOf(start, n);
+			var adjacent = new int[start[n]];
+			for (var i = 0; i < m; i++) {
+				if (sources[i] != targets[i]) {
+					adjacent[fill[sources[i]]++] = targets[i];
+					adjacent[fill[targets[i]]++] = sources[i];
+				}
+			}
+			// remove duplicates
+			var compactStart = new int[n + 1];
+			var top = 0;
+			for (var u = 0; u < n; u++) {
+				Arrays.sort(adjacent, start[u], start[u + 1]);
+				compactStart[u] = top;
+				for (var i = start[u]; i < start[u + 1]; i++) {
+					if (i == start[u] || adjacent[i] != adjacent[i - 1])
+						adjacent[top++] = adjacent[i];
+				}
+			}
+			compactStart[n] = top;
+			return new Level(n, compactStart, Arrays.copyOf(adjacent, top), mass);
+		}
+
+		int degree(int u) {
+			return start[u + 1] - start[u];
+		}
+
+		/**
+		 * computes the next coarser level. Nodes are visited by increasing degree and each is matched with its lightest
+		 * unmatched neighbor. Any node that remains unmatched joins the lightest cluster of a neighbor
+		 */
+		Level coarsen() {
+			var order = IntStream.range(0, n).boxed().sorted((a, b) -> (degree(a) != degree(b) ? Integer.compare(degree(a), degree(b)) : Integer.compare(a, b)))
+					.mapToInt(Integer::intValue).toArray();
+			parent = new int[n];
+			Arrays.fill(parent, -1);
+			var coarseMass = new double[n];
+			var count = 0;
+
+			for (var u : order) {
+				if (parent[u] == -1) {
+					var best = -1;
+					for (var i = start[u]; i < start[u + 1]; i++) {
+						var v = adjacent[i];
+						if (parent[v] == -1 && (best == -1 || mass[v] < mass[best]))
+							best = v;
+					}
+					if (best != -1) {
+						parent[u] = parent[best] = count;
+						coarseMass[count++] = mass[u] + mass[best];
+					}
+				}
+			}
+			for (var u : order) {
+				if (parent[u] == -1) {
+					var best = -1;
+					for (var i = start[u]; i < start[u + 1]; i++) {
+						var p = parent[adjacent[i]];
+						if (p != -1 && (best == -1 || coarseMass[p] < coarseMass[best]))
+							best = p;
+					}
+					if (best != -1) {
+						parent[u] = best;
+						coarseMass[best] += mass[u];
+					} else {
+						parent[u] = count;
+						coarseMass[count++] = mass[u];
+					}
+				}
+			}
+
+			var sources = new int[adjacent.length];
+			var targets = new int[adjacent.length];
+			var m = 0;
+			for (var u = 0; u < n; u++) {
+				for (var i = start[u]; i < start[u + 1]; i++) {
+					var v = adjacent[i];
+					if (u < v && parent[u] != parent[v]) {
+						sources[m] = parent[u];
+						targets[m++] = parent[v];
+					}
+				}
+			}
+			return create(count, sources, targets, m, Arrays.copyOf(coarseMass, count));
+		}
+
+
+		/**
+		 * performs one iteration, computing the forces for all nodes and moving each by at most the given temperature.
+		 * Repulsion is approximated using a Barnes-Hut quad tree
+		 *
+		 * @return new x- and y-coordinates
+		 */
+		double[][] iterate(double[] xs, double[] ys, double k, double temperature, ForkJoinPool pool) {
+			final var tree = new QuadTree(xs, ys, mass);
+			final var newXs = new double[n];
+			final var newYs = new double[n];
+			final var k2 = k * k;
+
+			IntConsumer move = u -> {
+				var force = new double[2];
+				tree.addRepulsion(u, k2, force);
+				var dx = force[0] + GRAVITY * (tree.getCenterOfMassX() - xs[u]);
+				var dy = force[1] + GRAVITY * (tree.getCenterOfMassY() - ys[u]);
+				for (var i = start[u]; i < start[u + 1]; i++) {
+					var v = adjacent[i];
+					var ex = xs[v] - xs[u];
+					var ey = ys[v] - ys[u];
+					var f = Math.sqrt(ex * ex + ey * ey) / k; // d^2 / k, times the unit vector e/d
+					dx += f * ex;
+					dy += f * ey;
+				}
+				var length = Math.sqrt(dx * dx + dy * dy);
+				if (length > temperature) {
+					dx *= temperature / length;
+					dy *= temperature / length;
+				}
+				newXs[u] = xs[u] + dx;
+				newYs[u] = ys[u] + dy;
+			};
+
+			if (pool != null)
+				pool.submit(() -> IntStream.range(0, n).parallel().forEach(move)).join();
+			else
+				IntStream.range(0, n).forEach(move);
+			return new double[][]{newXs, newYs};
+		}
+	}
+
+	/**
+	 * Barnes-Hut quad tree over weighted points, stored in arrays. Points that are closer than the resolution of the
+	 * deepest level share a leaf
+	 */
+	private static class QuadTree {
+		private static final int MAX_DEPTH = 30;
+		private static final double THETA2 = 1.44; // square of the opening criterion
+
+		private final double[] xs;
+		private final double[] ys;
+		private final double[] pointMass;
+		private final int[] next; // next point in same leaf, or -1
+
+		private int size = 0;
+		private int[] children; // four per cell, 0 means none, as the root is never a child
+		private int[] first; // first point in leaf, or -1
+		private double[] half;
+		private double[] centerX;
+		private double[] centerY;
+		private double[] mass;
+		private double[] massX;
+		private double[] massY;
+
+		QuadTree(double[] xs, double[] ys, double[] pointMass) {
+			this.xs = xs;
+			this.ys = ys;
+			this.pointMass = pointMass;
+			var n = xs.length;
+			this.next = new int[n];
+
+			var capacity = Math.max(16, 2 * n);
+			children = new int[4 * capacity];
+			first = new int[capacity];
+			half = new double[capacity];
+			centerX = new double[capacity];
+			centerY = new double[capacity];
+			mass = new double[capacity];
+			massX = new double[capacity];
+			massY = new double[capacity];
+
+			var minX = Double.MAX_VALUE;
+			var minY = Double.MAX_VALUE;
+			var maxX = -Double.MAX_VALUE;
+			var maxY = -Double.MAX_VALUE;
+			for (var u = 0; u < n; u++) {
+				minX = Math.min(minX, xs[u]);
+				minY = Math.min(minY, ys[u]);
+				maxX = Math.max(maxX, xs[u]);
+				maxY = Math.max(maxY, ys[u]);
+			}
+			newCell(0.5 * (minX + maxX), 0.5 * (minY + maxY), 0.5 * Math.max(1e-9, Math.max(maxX - minX, maxY - minY)) * 1.0001);
+			for (var u = 0; u < n; u++) {
+				insert(u);
+			}
+		}
+
+		double getCenterOfMassX() {
+			return massX[0] / mass[0];
+		}
+
+		double getCenterOfMassY() {
+			return massY[0] / mass[0];
+		}
+
+		private int newCell(double x, double y, double h) {
+			if (size == first.length) {
+				var capacity = 2 * size;
+				children = Arrays.copyOf(children, 4 * capacity);
+				first = Arrays.copyOf(first, capacity);
+				half = Arrays.copyOf(half, capacity);
+				centerX = Arrays.copyOf(centerX, capacity);
+				centerY = Arrays.copyOf(centerY, capacity);
+				mass = Arrays.copyOf(mass, capacity);
+				massX = Arrays.copyOf(massX, capacity);
+				massY = Arrays.copyOf(massY, capacity);
+			}
+			first[size] = -1;
+			half[size] = h;
+			centerX[size] = x;
+			centerY[size] = y;
+			return size++;
+		}
+
+		private int quadrant(int cell, double x, double y) {
+			return (x < centerX[cell] ? 0 : 1) + (y < centerY[cell] ? 0 : 2);
+		}
+
+		private int getOrCreateChild(int cell, int q) {
+			if (children[4 * cell + q] == 0) {
+				var h = 0.5 * half[cell];
+				var child = newCell(centerX[cell] + ((q & 1) == 0 ? -h : h), centerY[cell] + ((q & 2) == 0 ? -h : h), h);
+				children[4 * cell + q] = child;
+			}
+			return children[4 * cell + q];
+		}
+
+		private boolean isLeaf(int cell) {
+			return children[4 * cell] == 0 && children[4 * cell + 1] == 0 && children[4 * cell + 2] == 0 && children[4 * cell + 3] == 0;
+		}
+
+		private void insert(int u) {
+			var cell = 0;
+			for (var depth = 0; ; depth++) {
+				mass[cell] += pointMass[u];
+				massX[cell] += pointMass[u] * xs[u];
+				massY[cell] += pointMass[u] * ys[u];
+				if (isLeaf(cell)) {
+					if (first[cell] == -1 || depth == MAX_DEPTH) {
+						next[u] = first[cell];
+						first[cell] = u;
+						return;
+					}
+					// split the leaf, pushing its points down one level
+					var points = first[cell];
+					first[cell] = -1;
+					while (points != -1) {
+						var p = points;
+						points = next[p];
+						var child = getOrCreateChild(cell, quadrant(cell, xs[p], ys[p]));
+						mass[child] += pointMass[p];
+						massX[child] += pointMass[p] * xs[p];
+						massY[child] += pointMass[p] * ys[p];
+						next[p] = first[child];
+						first[child] = p;
+					}
+				}
+				cell = getOrCreateChild(cell, quadrant(cell, xs[u], ys[u]));
+			}
+		}
+
+		/**
+		 * adds the repulsive force k^2 m / d exerted on point u by all other points. A cell that contains u is always opened,
+		 * as its center of mass includes u itself
+		 */
+		void addRepulsion(int u, double k2, double[] force) {
+			var x = xs[u];
+			var y = ys[u];
+			var stack = new int[4 * MAX_DEPTH + 4];
+			var top = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				var cell = stack[--top];
+				if (first[cell] != -1) {
+					for (var v = first[cell]; v != -1; v = next[v]) {
+						if (v != u)
+							addForce(x - xs[v], y - ys[v], pointMass[v], k2, u, v, force);
+					}
+				} else if (mass[cell] > 0) {
+					var ex = x - massX[cell] / mass[cell];
+					var ey = y - massY[cell] / mass[cell];
+					var width = 2 * half[cell];
+					if (!contains(cell, x, y) && width * width < THETA2 * (ex * ex + ey * ey)) {
+						addForce(ex, ey, mass[cell], k2, u, -1, force);
+					} else {
+						for (var q = 0; q < 4; q++) {
+							if (children[4 * cell + q] != 0)
+								stack[top++] = children[4 * cell + q];
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * does the cell contain the given point? Points on the boundary count as contained by both neighboring cells
+		 */
+		private boolean contains(int cell, double x, double y) {
+			return Math.abs(x - centerX[cell]) <= half[cell] && Math.abs(y - centerY[cell]) <= half[cell];
+		}
+
+		private static void addForce(double ex, double ey, double m, double k2, int u, int v, double[] force) {
+			var d2 = ex * ex + ey * ey;
+			if (d2 < 1e-12 * k2) { // coinciding points, push apart in a direction that depends on the pair
+				var angle = Math.floorMod(31 * u + v, 360) * Math.PI / 180;
+				ex = 1e-3 * Math.sqrt(k2) * Math.cos(angle);
+				ey = 1e-3 * Math.sqrt(k2) * Math.sin(angle);
+				d2 = ex * ex + ey * ey;
+			}
+			var f = k2 * m / d2; // k^2 m / d, times the unit vector e/d
+			force[0] += f * ex;
+			force[1] += f * ey;
+		}
+	}
+}
@@ -17,9 +17,8 @@
  *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package catrenet.io;
+package catrenet.view;
 
-import catrenet.view.ReactionGraphView;
 import catrenet.window.Document;
 import javafx.scene.control.Label;
 import javafx.scene.shape.*;
@@ -20,10 +20,13 @@
 package catrenet.view;
 
 import catrenet.main.CatReNet;
+import catrenet.model.EdgeType;
 import catrenet.model.MoleculeType;
 import catrenet.model.ReactionSystem;
 import catrenet.window.Document;
 import catrenet.window.MainWindowController;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.ListChangeListener;
 import javafx.geometry.Rectangle2D;
@@ -39,6 +42,7 @@ import jloda.fx.control.RichTextLabel;
 import jloda.fx.util.AService;
 import jloda.fx.util.BasicFX;
 import jloda.fx.util.Icebergs;
+import jloda.fx.util.ProgramProperties;
 import jloda.fx.util.SelectionEffectBlue;
 import jloda.fx.window.NotificationManager;
 import jloda.graph.*;
@@ -54,6 +58,8 @@ import jloda.util.ProgramExecutorService;
 
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static catrenet.io.ModelIO.FORMAL_FOOD;
@@ -67,6 +73,11 @@ public class ReactionGraphView {
 
 	public enum Type {fullNetwork, associationNetwork, reactantAssociationNetwork, reactionDependencyNetwork, moleculeDependencyNetwork}
 
+	/**
+	 * layout engines, automatic uses the components layout for small graphs and the multilevel layout for large graphs
+	 */
+	public enum LayoutEngine {Automatic, Components, Multilevel, FruchtermanReingold, FastMultiLayer}
+
 	private final ObjectProperty<Type> graphType = new SimpleObjectProperty<>();
 
 	private final Graph reactionGraph = new Graph();
@@ -86,6 +97,17 @@ public class ReactionGraphView {
 
 	private final IntegerProperty embeddingIterations = new SimpleIntegerProperty(this, "embeddingIterations", 1000);
 
+	private final IntegerProperty canvasRendererThreshold = new SimpleIntegerProperty(this, "canvasRendererThreshold", ProgramProperties.get("CanvasRendererThreshold", 10000));
+	private final BooleanProperty canvasMode = new SimpleBooleanProperty(this, "canvasMode", false);
+
+	private final ObjectProperty<LayoutEngine> layoutEngine = new SimpleObjectProperty<>(this, "layoutEngine",
+			Arrays.stream(LayoutEngine.values()).filter(e -> e.name().equals(ProgramProperties.get("LayoutEngine", ""))).findFirst().orElse(LayoutEngine.Automatic));
+	private final BooleanProperty layoutRunning = new SimpleBooleanProperty(this, "layoutRunning", false);
+	private AService<NodeArray<APoint2D<?>>> layoutService;
+	private LayoutEngine runningLayoutEngine;
+	private final AtomicBoolean layoutStopRequested = new AtomicBoolean(false);
+	private final AtomicReference<double[][]> pendingLayoutFrame = new AtomicReference<>();
+
 	private final MainWindowController controller;
 
 	private final BooleanProperty empty = new SimpleBooleanProperty(true);
@@ -103,6 +125,8 @@ public class ReactionGraphView {
 
 	private final MoleculeFlowAnimation moleculeFlowAnimation;
 
+	private final CanvasGraphView canvasView;
+
 	private final PrintStream logStream;
 
 	/**
@@ -155,7 +179,7 @@ public class ReactionGraphView {
 
 		inhibitionEdgeColor.addListener((c, o, n) -> {
 			for (Edge e : reactionGraph.edges()) {
-				if (e.getInfo() == EdgeType.Inhibitor) {
+				if (e.getInfo() == EdgeType.Inhibitor && edge2view.get(e) != null) {
 					for (javafx.scene.Node node : edge2view.get(e).getChildren()) {
 						if (node instanceof Path || node instanceof Polyline)
 							((Shape) node).setStroke(n);
@@ -167,10 +191,18 @@ public class ReactionGraphView {
 		nodeLabelStyle.addListener((c, o, n) -> {
 
 			for (Node v : reactionGraph.nodes()) {
-				node2view.get(v).getLabel().setStyle(n);
+				if (node2view.get(v) != null)
+					node2view.get(v).getLabel().setStyle(n);
 			}
 		});
 
+		canvasView = new CanvasGraphView(this);
+		if (controller != null) {
+			final var scrollPane = controller.getNetworkScrollPane();
+			canvasView.prefWidthProperty().bind(Bindings.createDoubleBinding(() -> Math.max(100, scrollPane.getViewportBounds().getWidth() - 20), scrollPane.viewportBoundsProperty()));
+			canvasView.prefHeightProperty().bind(Bindings.createDoubleBinding(() -> Math.max(100, scrollPane.getViewportBounds().getHeight() - 20), scrollPane.viewportBoundsProperty()));
+		}
+
 		moleculeFlowAnimation = new MoleculeFlowAnimation(document, reactionGraph, foodNodes, edge2view, world);
 
 		moleculeFlowAnimation.animateInhibitionsProperty().addListener((c, o, n) -> inhibitionEdgeColor.set(n ? Color.BLACK : Color.LIGHTGREY));
@@ -179,6 +211,10 @@ public class ReactionGraphView {
 		suppressFormalFood.addListener(c -> update());
 		suppressCatalystEdges.addListener(c -> update());
 		useMultiCopyFoodNodes.addListener(c -> update());
+		layoutEngine.addListener((c, o, n) -> {
+			ProgramProperties.put("LayoutEngine", n.name());
+			update();
+		});
 	}
 
 	/**
@@ -224,57 +260,129 @@ public class ReactionGraphView {
 			logStream.printf("Reaction network has %d connected components%n", numberOfConnectedComponts);
 
 		final var service = new AService<NodeArray<APoint2D<?>>>(controller.getBottomFlowPane());
+		layoutService = service;
+		layoutRunning.bind(service.runningProperty());
+		layoutStopRequested.set(false);
 
 		final var result = new NodeArray<APoint2D<?>>(reactionGraph);
 
-		if (true)
-			service.setCallable(() -> {
-				var maxWidth = Math.max(600, controller.getNetworkScrollPane().getViewportBounds().getWidth() - 100);
-				if (true)
-					MultiComponents.apply(null, 0.9 * maxWidth, maxWidth, 80, 80, reactionGraph, e -> 1d, (v, p) -> result.put(v, new APoint2D<>(p.getX(), p.getY(), v)));
-				else {
+		runningLayoutEngine = getLayoutEngine();
+		if (runningLayoutEngine == LayoutEngine.Automatic)
+			runningLayoutEngine = (reactionGraph.getNumberOfNodes() > getMultilevelLayoutThreshold() ? LayoutEngine.Multilevel : LayoutEngine.Components);
+		final var engine = runningLayoutEngine;
+
+		service.setCallable(() -> {
+			switch (engine) {
+				case Multilevel -> {
+					final var layout = new MultilevelLayout(reactionGraph);
+					layout.setFramesPerSecond(ProgramProperties.get("LayoutFramesPerSecond", 10));
+					layout.apply(getEmbeddingIterations(), result, service.getProgressListener(), ProgramExecutorService.getNumberOfCoresToUse(),
+							layoutStopRequested::get, (xs, ys) -> showIntermediateLayout(service, xs, ys));
+				}
+				case FruchtermanReingold -> {
 					final var layout = new FruchtermanReingoldLayout(reactionGraph);
 					layout.apply(getEmbeddingIterations(), result, service.getProgressListener(), ProgramExecutorService.getNumberOfCoresToUse());
 				}
-				return result;
-			});
-		else
-			service.setCallable(() -> {
-				var options = new FastMultiLayerMethodOptions();
-				options.setRepForcesStrength(50);
-
-				if (reactionGraph.isSimple())
-					FastMultiLayerMethodLayout.apply(options, reactionGraph, e -> 1d, (v, p) -> result.put(v, new APoint2D<>(p.getX(), p.getY(), v)));
-				else {
-					var simpleGraph = new Graph();
-					try (var src2tar = reactionGraph.extract(new HashSet<>(reactionGraph.getNodesAsList()), subsetSimpleEdges(reactionGraph), simpleGraph);
-						 var tar2src = new NodeArray<Node>(simpleGraph)) {
-						for (var v : src2tar.keys()) {
-							tar2src.put(src2tar.get(v), v);
+				case FastMultiLayer -> {
+					var options = new FastMultiLayerMethodOptions();
+					options.setRepForcesStrength(50);
+
+					if (reactionGraph.isSimple())
+						FastMultiLayerMethodLayout.apply(options, reactionGraph, e -> 1d, (v, p) -> result.put(v, new APoint2D<>(p.getX(), p.getY(), v)));
+					else {
+						var simpleGraph = new Graph();
+						try (var src2tar = reactionGraph.extract(new HashSet<>(reactionGraph.getNodesAsList()), subsetSimpleEdges(reactionGraph), simpleGraph);
+							 var tar2src = new NodeArray<Node>(simpleGraph)) {
+							for (var v : src2tar.keys()) {
+								tar2src.put(src2tar.get(v), v);
+							}
+							FastMultiLayerMethodLayout.apply(options, simpleGraph, e -> 1d, (v, p) -> result.put(tar2src.get(v), new APoint2D<>(p.getX(), p.getY(), tar2src.get(v))));
 						}
-						FastMultiLayerMethodLayout.apply(options, simpleGraph, e -> 1d, (v, p) -> result.put(tar2src.get(v), new APoint2D<>(p.getX(), p.getY(), tar2src.get(v))));
 					}
 				}
-				return result;
-			});
-
+				default -> {
+					var maxWidth = Math.max(600, controller.getNetworkScrollPane().getViewportBounds().getWidth() - 100);
+					MultiComponents.apply(null, 0.9 * maxWidth, maxWidth, 80, 80, reactionGraph, e -> 1d, (v, p) -> result.put(v, new APoint2D<>(p.getX(), p.getY(), v)));
+				}
+			}
+			return result;
+		});
 
 		service.setOnRunning(e -> service.getProgressListener().setTasks("Network layout", ""));
 		service.setOnFailed(e -> NotificationManager.showError("Network layout failed: " + service.getException().getMessage()));
 		service.setOnCancelled(e -> {
+					if (service != layoutService)
+						return;
 					NotificationManager.showWarning("Network layout CANCELED");
 					if (!result.isEmpty()) // use what ever has been produced
-						world.getChildren().setAll(setupGraphView(reactionSystem, reactionGraph, node2view, edge2view, service.getValue()));
+						showGraphView(result);
 				}
 		);
 		service.setOnSucceeded((e) -> {
-			world.getChildren().setAll(setupGraphView(reactionSystem, reactionGraph, node2view, edge2view, service.getValue()));
+			if (service != layoutService)
+				return;
+			showGraphView(service.getValue());
 			empty.set(reactionGraph.getNumberOfNodes() == 0);
-			ImproveLabelLayout.apply(this);
+			if (!isCanvasMode())
+				ImproveLabelLayout.apply(this);
 		});
 		service.start();
 	}
 
+	/**
+	 * stops the running layout. The multilevel layout stops early and keeps the current positions, other layouts are canceled
+	 */
+	public void stopLayout() {
+		if (layoutService != null && layoutService.isRunning()) {
+			if (runningLayoutEngine == LayoutEngine.Multilevel)
+				layoutStopRequested.set(true);
+			else
+				layoutService.cancel();
+		}
+	}
+
+	/**
+	 * shows intermediate coordinates of a running layout on the canvas. Called from the layout thread, only the most
+	 * recent coordinates are shown
+	 *
+	 * @param xs x-coordinates, in the order of reactionGraph.nodes()
+	 * @param ys y-coordinates, in the order of reactionGraph.nodes()
+	 */
+	private void showIntermediateLayout(AService<?> service, double[] xs, double[] ys) {
+		if (pendingLayoutFrame.getAndSet(new double[][]{xs, ys}) == null) {
+			Platform.runLater(() -> {
+				var frame = pendingLayoutFrame.getAndSet(null);
+				if (frame != null && service == layoutService && service.isRunning()) {
+					if (!isCanvasMode()) {
+						canvasMode.set(true);
+						canvasView.setup(reactionGraph, null, reactionSystem.getFoods());
+						world.getChildren().setAll(canvasView);
+						canvasView.updateCoordinates(frame[0], frame[1]);
+						canvasView.zoomToFit();
+					} else
+						canvasView.updateCoordinates(frame[0], frame[1]);
+				}
+			});
+		}
+	}
+
+	/**
+	 * shows the graph using the given coordinates, either using one scene graph node per node, label and edge,
+	 * or, for large graphs, drawing on a canvas
+	 */
+	private void showGraphView(NodeArray<APoint2D<?>> coordinates) {
+		if (reactionGraph.getNumberOfNodes() + reactionGraph.getNumberOfEdges() > getCanvasRendererThreshold()) {
+			canvasMode.set(true);
+			node2view.clear();
+			edge2view.clear();
+			canvasView.setup(reactionGraph, coordinates, reactionSystem.getFoods());
+			world.getChildren().setAll(canvasView);
+		} else {
+			canvasMode.set(false);
+			world.getChildren().setAll(setupGraphView(reactionSystem, reactionGraph, node2view, edge2view, coordinates));
+		}
+	}
+
 	private Collection<Edge> subsetSimpleEdges(Graph reactionGraph) {
 		var list = new ArrayList<Edge>();
 		for (var e : reactionGraph.edges()) {
@@ -294,6 +402,12 @@ public class ReactionGraphView {
 	}
 
 	public void clear() {
+		if (layoutService != null) { // detach before canceling, so that the handlers of the service ignore it
+			var service = layoutService;
+			layoutService = null;
+			if (service.isRunning())
+				service.cancel();
+		}
 		moleculeFlowAnimation.setPlaying(false);
 		empty.set(true);
 		foodNodes.clear();
@@ -301,6 +415,8 @@ public class ReactionGraphView {
 		edgeSelection.clearSelection();
 		reactionGraph.clear();
 		world.getChildren().clear();
+		canvasView.clear();
+		canvasMode.set(false);
 	}
 
 	public Group getWorld() {
@@ -400,65 +516,76 @@ public class ReactionGraphView {
 		});
 
 		mouseTarget.setOnMouseReleased(c -> {
-			if (!moved[0] && (v != null || e != null)) {
-				if ((!CatReNet.isDesktop() || !c.isShiftDown()) && isUseMultiCopyFoodNodes() && v != null && foodNodes.contains(v)) {
-					var sameFood = foodNodes.stream().filter(f -> f.getInfo() == v.getInfo()).toList();
-					var onlySameFoodSelected = (edgeSelection.isEmpty() && CollectionUtils.equalsAsSets(sameFood, nodeSelection.getSelectedItems()));
-					nodeSelection.clearSelection();
-					edgeSelection.clearSelection();
-					if (onlySameFoodSelected) {
-						nodeSelection.select(v); // this deselects all other selected items
-					} else {
-						nodeSelection.selectItems(sameFood); // select all items
-					}
-					return;
-				}
-				if (CatReNet.isDesktop() && !c.isShiftDown()) {
-					nodeSelection.clearSelection();
-					edgeSelection.clearSelection();
-					if (v != null) {
-						nodeSelection.select(v);
-					}
-					if (e != null)
-						edgeSelection.select(e);
-				} else {
-					if (v != null) {
-						if (nodeSelection.isSelected(v))
-							nodeSelection.clearSelection(v);
-						else
-							nodeSelection.select(v);
-					}
-					if (e != null) {
-						if (edgeSelection.isSelected(e))
-							edgeSelection.clearSelection(e);
-						else
-							edgeSelection.select(e);
-					}
-				}
-			}
+			if (!moved[0] && (v != null || e != null))
+				clickSelect(v, e, c.isShiftDown());
 		});
 
 		if (CatReNet.isDesktop()) {
-			mouseTarget.setOnMouseClicked(c -> {
-				if (c.getClickCount() == 2) {
-					if (v != null) {
-						nodeSelection.selectItems(IteratorUtils.asList(v.adjacentNodes()));
-						edgeSelection.selectItems(IteratorUtils.asList(v.adjacentEdges()));
-					}
-				} else if (c.getClickCount() == 3) {
-					final var nodes = new NodeSet(reactionGraph);
-					ConnectedComponents.collect(v, nodes);
-					nodeSelection.selectItems(nodes);
-					final var edges = new EdgeSet(reactionGraph);
-					for (var p : nodes) {
-						for (var f : p.adjacentEdges()) {
-							if (nodes.contains(f.getOpposite(p)))
-								edges.add(f);
-						}
-					}
-					edgeSelection.selectItems(edges);
+			mouseTarget.setOnMouseClicked(c -> multiClickSelect(v, c.getClickCount()));
+		}
+	}
+
+	/**
+	 * updates the selection after a click on a node or edge
+	 */
+	void clickSelect(Node v, Edge e, boolean shiftDown) {
+		if ((!CatReNet.isDesktop() || !shiftDown) && isUseMultiCopyFoodNodes() && v != null && foodNodes.contains(v)) {
+			var sameFood = foodNodes.stream().filter(f -> f.getInfo() == v.getInfo()).toList();
+			var onlySameFoodSelected = (edgeSelection.isEmpty() && CollectionUtils.equalsAsSets(sameFood, nodeSelection.getSelectedItems()));
+			nodeSelection.clearSelection();
+			edgeSelection.clearSelection();
+			if (onlySameFoodSelected) {
+				nodeSelection.select(v); // this deselects all other selected items
+			} else {
+				nodeSelection.selectItems(sameFood); // select all items
+			}
+			return;
+		}
+		if (CatReNet.isDesktop() && !shiftDown) {
+			nodeSelection.clearSelection();
+			edgeSelection.clearSelection();
+			if (v != null) {
+				nodeSelection.select(v);
+			}
+			if (e != null)
+				edgeSelection.select(e);
+		} else {
+			if (v != null) {
+				if (nodeSelection.isSelected(v))
+					nodeSelection.clearSelection(v);
+				else
+					nodeSelection.select(v);
+			}
+			if (e != null) {
+				if (edgeSelection.isSelected(e))
+					edgeSelection.clearSelection(e);
+				else
+					edgeSelection.select(e);
+			}
+		}
+	}
+
+	/**
+	 * updates the selection after a double click (adjacent nodes and edges) or triple click (connected component) on a node
+	 */
+	void multiClickSelect(Node v, int clickCount) {
+		if (v == null)
+			return;
+		if (clickCount == 2) {
+			nodeSelection.selectItems(IteratorUtils.asList(v.adjacentNodes()));
+			edgeSelection.selectItems(IteratorUtils.asList(v.adjacentEdges()));
+		} else if (clickCount == 3) {
+			final var nodes = new NodeSet(reactionGraph);
+			ConnectedComponents.collect(v, nodes);
+			nodeSelection.selectItems(nodes);
+			final var edges = new EdgeSet(reactionGraph);
+			for (var p : nodes) {
+				for (var f : p.adjacentEdges()) {
+					if (nodes.contains(f.getOpposite(p)))
+						edges.add(f);
 				}
-			});
+			}
+			edgeSelection.selectItems(edges);
 		}
 	}
 
@@ -503,12 +630,48 @@ public class ReactionGraphView {
 		ReactionGraphView.font.set(font);
 	}
 
+	/**
+	 * gets the shape of a node, or null, if the graph is drawn on a canvas
+	 */
 	public Shape getShape(Node v) {
-		return node2view.get(v).getShape();
+		var nv = node2view.get(v);
+		return nv == null ? null : nv.getShape();
 	}
 
+	/**
+	 * gets the label of a node, or null, if the graph is drawn on a canvas
+	 */
 	public RichTextLabel getLabel(Node v) {
-		return node2view.get(v).getLabel();
+		var nv = node2view.get(v);
+		return nv == null ? null : nv.getLabel();
+	}
+
+	public String getLabelText(Node v) {
+		if (isCanvasMode())
+			return canvasView.getLabel(v);
+		else
+			return node2view.get(v).getLabel().getText();
+	}
+
+	public void setLabelText(Node v, String text) {
+		if (isCanvasMode())
+			canvasView.setLabel(v, text);
+		else
+			node2view.get(v).getLabel().setText(text);
+	}
+
+	public boolean isLabelVisible(Node v) {
+		if (isCanvasMode())
+			return canvasView.isLabelVisible(v);
+		else
+			return node2view.get(v).getLabel().isVisible();
+	}
+
+	public void setLabelVisible(Node v, boolean visible) {
+		if (isCanvasMode())
+			canvasView.setLabelVisible(v, visible);
+		else
+			node2view.get(v).getLabel().setVisible(visible);
 	}
 
 	public String getNodeLabelStyle() {
@@ -524,6 +687,9 @@ public class ReactionGraphView {
 	}
 
 	public Rectangle2D getBBox() {
+		if (isCanvasMode())
+			return canvasView.getBBox();
+
 		var minX = Double.MAX_VALUE;
 		var minY = Double.MAX_VALUE;
 		var maxX = Double.MIN_VALUE;
@@ -584,7 +750,7 @@ public class ReactionGraphView {
 	}
 
 	public Collection<String> getSelectedLabels() {
-		return getNodeSelection().getSelectedItems().stream().map(v -> getLabel(v).getText()).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+		return getNodeSelection().getSelectedItems().stream().map(this::getLabelText).filter(s -> !s.isEmpty()).collect(Collectors.toList());
 	}
 
 	public int getEmbeddingIterations() {
@@ -599,6 +765,70 @@ public class ReactionGraphView {
 		this.embeddingIterations.set(embeddingIterations);
 	}
 
+	public int getCanvasRendererThreshold() {
+		return canvasRendererThreshold.get();
+	}
+
+	public IntegerProperty canvasRendererThresholdProperty() {
+		return canvasRendererThreshold;
+	}
+
+	public void setCanvasRendererThreshold(int canvasRendererThreshold) {
+		this.canvasRendererThreshold.set(canvasRendererThreshold);
+	}
+
+	/**
+	 * is the graph drawn on a canvas, rather than using one scene graph node per node, label and edge?
+	 */
+	public boolean isCanvasMode() {
+		return canvasMode.get();
+	}
+
+	public ReadOnlyBooleanProperty canvasModeProperty() {
+		return canvasMode;
+	}
+
+	public CanvasGraphView getCanvasView() {
+		return canvasView;
+	}
+
+	public LayoutEngine getLayoutEngine() {
+		return layoutEngine.get();
+	}
+
+	public ObjectProperty<LayoutEngine> layoutEngineProperty() {
+		return layoutEngine;
+	}
+
+	public void setLayoutEngine(LayoutEngine layoutEngine) {
+		this.layoutEngine.set(layoutEngine);
+	}
+
+	/**
+	 * is a layout currently being computed?
+	 */
+	public boolean isLayoutRunning() {
+		return layoutRunning.get();
+	}
+
+	public ReadOnlyBooleanProperty layoutRunningProperty() {
+		return layoutRunning;
+	}
+
+	/**
+	 * min number of nodes for which the automatic layout engine uses the multilevel layout
+	 */
+	public static int getMultilevelLayoutThreshold() {
+		return ProgramProperties.get("MultilevelLayoutThreshold", 2000);
+	}
+
+	/**
+	 * max number of reactions for which networks are computed and shown
+	 */
+	public static int getMaxNumberOfReactions() {
+		return ProgramProperties.get("MaxNetworkReactions", 20000);
+	}
+
 	public Type getGraphType() {
 		return graphType.get();
 	}
@@ -627,6 +857,7 @@ public class ReactionGraphView {
 		for (var label : BasicFX.getAllRecursively(world, RichTextLabel.class)) {
 			label.setFontSize(size);
 		}
+		canvasView.setFontSize(size);
 	}
 
 }
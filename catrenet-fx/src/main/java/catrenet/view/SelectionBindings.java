@@ -126,7 +126,7 @@ public class SelectionBindings {
                         if (!r.getName().equals(window.getDocument().getInputReactionSystem().getName())) {
                             var menuItem = new MenuItem(r.getName());
                             menuItem.setOnAction(z -> selectForAlgorithm(view, r));
-                            menuItem.disableProperty().bind(visualizationHasFocus.not().or(r.sizeProperty().isEqualTo(0)));
+                            menuItem.disableProperty().bind(visualizationHasFocus.not().or(window.getDocument().getReactionSystemProperties(r.getName()).sizeProperty().isEqualTo(0)));
                             controller.getSelectReactionSystemMenu().getItems().add(menuItem);
                         }
                     }
@@ -142,7 +142,7 @@ public class SelectionBindings {
                         if (!r.getName().equals(window.getDocument().getInputReactionSystem().getName())) {
                             final MenuItem menuItem = new MenuItem("Select " + r.getName());
                             menuItem.setOnAction(z -> selectForAlgorithm(view, window.getReactionSystem(r.getName())));
-                            menuItem.disableProperty().bind(window.getReactionSystem(r.getName()).sizeProperty().isEqualTo(0));
+                            menuItem.disableProperty().bind(window.getDocument().getReactionSystemProperties(r.getName()).sizeProperty().isEqualTo(0));
                             controller.getNetworkContextMenu().getItems().add(menuItem);
                         }
                     }
@@ -154,7 +154,7 @@ public class SelectionBindings {
             window.getStage().focusedProperty().addListener((c, o, n) -> {
                 if (!n) {
                     previousSelection.clear();
-                    previousSelection.addAll(window.getReactionGraphView().getNodeSelection().getSelectedItems().stream().map(v -> window.getReactionGraphView().getLabel(v).getText())
+                    previousSelection.addAll(window.getReactionGraphView().getNodeSelection().getSelectedItems().stream().map(v -> window.getReactionGraphView().getLabelText(v))
                             .filter(text -> !text.isEmpty() && !text.equals("&")).collect(Collectors.toSet()));
                 }
             });
@@ -163,7 +163,7 @@ public class SelectionBindings {
         controller.getSelectFromPreviousWindowMenuItem().setOnAction(c -> {
             if (!previousSelection.isEmpty()) {
                 for (Node v : view.getReactionGraph().nodes()) {
-                    final String text = view.getLabel(v).getText();
+                    final String text = view.getLabelText(v);
                     if (previousSelection.contains(text))
                         view.getNodeSelection().select(v);
 
@@ -207,7 +207,7 @@ public class SelectionBindings {
 
         for (Node v : view.getReactionGraph().nodes()) {
             if (v.getInfo() instanceof Reaction reaction) {
-                if (subReactionSystem.getReactionNames().contains(reaction.getName()))
+                if (subReactionSystem.getReaction(reaction.getName()) != null)
                     nodeSelection.select(v);
             } else if (v.getInfo() instanceof MoleculeType moleculeType) {
                 if (molecules.contains(moleculeType))
@@ -0,0 +1,120 @@
+/*
+ *  SetupAssocationGraph.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import catrenet.model.EdgeType;
+import catrenet.model.MoleculeType;
+import catrenet.model.Reaction;
+import catrenet.model.ReactionSystem;
+import jloda.graph.Graph;
+import jloda.graph.Node;
+import jloda.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * setup up the  association graph
+ * Daniel Huson, 2.2020
+ */
+public class SetupAssocationGraph {
+	/**
+	 * apply
+	 * There is an edge from reaction r1 to reaction r2, if some non-food molecule produced by r1 (in either
+	 * direction) is consumed by r2 (in either direction), inhibits r2 or, if useCatalysts is set, catalyzes r2.
+	 * Instead of comparing all pairs of reactions, we index the reactions by the non-food molecules that they
+	 * consume, so that each reaction only visits the reactions that it is associated with
+	 */
+	public static void apply(Graph reactionGraph, ReactionSystem reactionSystem, boolean useCatalysts) {
+		final var reactions = new ArrayList<>(reactionSystem.getReactions());
+		final var foods = new HashSet<>(reactionSystem.getFoods());
+
+		final var nodes = new Node[reactions.size()];
+		final var consumers = new HashMap<MoleculeType, List<Integer>>();
+
+		for (var i = 0; i < reactions.size(); i++) {
+			final var reaction = reactions.get(i);
+			nodes[i] = reactionGraph.newNode(reaction);
+
+			final var consumed = new HashSet<MoleculeType>();
+			if (isForward(reaction))
+				consumed.addAll(reaction.getReactants());
+			if (isReverse(reaction))
+				consumed.addAll(reaction.getProducts());
+			if (useCatalysts) {
+				for (var conjunction : reaction.getCatalystConjunctions()) {
+					consumed.addAll(MoleculeType.valuesOf(StringUtils.split(conjunction.getName(), '&')));
+				}
+			}
+			consumed.addAll(reaction.getInhibitions());
+
+			for (var molecule : consumed) {
+				if (!foods.contains(molecule))
+					consumers.computeIfAbsent(molecule, k -> new ArrayList<>()).add(i);
+			}
+		}
+
+		// targets are collected per source and sorted, so that edges are created in the order of the reactions
+		final var mark = new int[reactions.size()];
+		var targets = new int[16];
+
+		for (var i = 0; i < reactions.size(); i++) {
+			final var reaction = reactions.get(i);
+			mark[i] = i + 1;
+			var count = 0;
+
+			for (var z = 0; z <= 1; z++) { // try forward, then reverse
+				final Collection<MoleculeType> produced;
+				if (z == 0 && isForward(reaction))
+					produced = reaction.getProducts();
+				else if (z == 1 && isReverse(reaction))
+					produced = reaction.getReactants();
+				else
+					continue;
+
+				for (var molecule : produced) {
+					final var list = consumers.get(molecule);
+					if (list != null) {
+						for (var j : list) {
+							if (mark[j] != i + 1) {
+								mark[j] = i + 1;
+								if (count == targets.length)
+									targets = Arrays.copyOf(targets, 2 * count);
+								targets[count++] = j;
+							}
+						}
+					}
+				}
+			}
+
+			Arrays.sort(targets, 0, count);
+			for (var t = 0; t < count; t++) {
+				reactionGraph.newEdge(nodes[i], nodes[targets[t]], EdgeType.Association);
+			}
+		}
+	}
+
+	private static boolean isForward(Reaction reaction) {
+		return reaction.getDirection() == Reaction.Direction.forward || reaction.getDirection() == Reaction.Direction.both;
+	}
+
+	private static boolean isReverse(Reaction reaction) {
+		return reaction.getDirection() == Reaction.Direction.reverse || reaction.getDirection() == Reaction.Direction.both;
+	}
+}
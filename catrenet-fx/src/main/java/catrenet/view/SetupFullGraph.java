@@ -19,21 +19,16 @@
 
 package catrenet.view;
 
+import catrenet.model.EdgeType;
 import catrenet.model.MoleculeType;
 import catrenet.model.Reaction;
 import catrenet.model.ReactionSystem;
-import jloda.graph.Edge;
 import jloda.graph.Graph;
 import jloda.graph.Node;
 import jloda.graph.NodeSet;
 import jloda.util.StringUtils;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.*;
 
 /**
  * setup up the full graph
@@ -44,16 +39,34 @@ public class SetupFullGraph {
      * setup
      */
     public static void apply(Graph reactionGraph, ReactionSystem reactionSystem, NodeSet foodNodes, final Map<MoleculeType, Node> molecule2node, boolean suppressCatalystEdges, boolean useMultiCopyFoodNodes) {
+        final var foods = new HashSet<>(reactionSystem.getFoods());
+        // for each and-node, the catalysts that already have an edge to it
+        final var andNode2catalysts = new HashMap<Node, Set<MoleculeType>>();
+
         for (Reaction reaction : reactionSystem.getReactions()) {
             final Node reactionNode = reactionGraph.newNode(reaction);
 
+            // compile the catalysts once: conjunctions and, for each conjunction, its elements
+            final List<MoleculeType> conjunctions;
+            final List<List<MoleculeType>> conjunctionElements;
+            if (!suppressCatalystEdges) {
+                conjunctions = new ArrayList<>(reaction.getCatalystConjunctions());
+                conjunctionElements = new ArrayList<>(conjunctions.size());
+                for (var conjunction : conjunctions) {
+                    conjunctionElements.add(List.copyOf(MoleculeType.valuesOf(StringUtils.trimAll(StringUtils.split(conjunction.getName(), '&')))));
+                }
+            } else {
+                conjunctions = Collections.emptyList();
+                conjunctionElements = Collections.emptyList();
+            }
+
             final Set<MoleculeType> molecules = new HashSet<>();
             molecules.addAll(reaction.getReactants());
             molecules.addAll(reaction.getProducts());
 
             if (!suppressCatalystEdges) {
-                molecules.addAll(reaction.getCatalystElements());
-                molecules.addAll(reaction.getCatalystConjunctions()); // will have one node for each conjunction
+                conjunctionElements.forEach(molecules::addAll);
+                molecules.addAll(conjunctions); // will have one node for each conjunction
                 molecules.addAll(reaction.getInhibitions());
             }
 
@@ -61,76 +74,69 @@ public class SetupFullGraph {
                 if (molecule2node.get(molecule) == null) { // must be a food molecule mentioned in a conjunction
                     final Node v = reactionGraph.newNode(molecule.getName().contains("&") ? new ReactionGraphView.AndNode() : molecule);
                     molecule2node.put(molecule, v);
-                    if (reactionSystem.getFoods().contains(molecule))
+                    if (foods.contains(molecule))
                         foodNodes.add(v);
                 }
             }
 
+            // all edges below are incident to the new reaction node, except for the and-node edges, so only the latter can already be present
             for (MoleculeType molecule : reaction.getReactants()) {
-                addNewEdgeIfNotPresent(reactionGraph, getNode(reactionGraph, reactionSystem, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, reaction.getDirection() == Reaction.Direction.both ? EdgeType.ReactantReversible : EdgeType.Reactant);
+                reactionGraph.newEdge(getNode(reactionGraph, foods, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, reaction.getDirection() == Reaction.Direction.both ? EdgeType.ReactantReversible : EdgeType.Reactant);
             }
             for (MoleculeType molecule : reaction.getProducts()) {
-                addNewEdgeIfNotPresent(reactionGraph, reactionNode, getNode(reactionGraph, reactionSystem, molecule, molecule2node, useMultiCopyFoodNodes), reaction.getDirection() == Reaction.Direction.both ? EdgeType.ProductReversible : EdgeType.Product);
+                reactionGraph.newEdge(reactionNode, getNode(reactionGraph, foods, molecule, molecule2node, useMultiCopyFoodNodes), reaction.getDirection() == Reaction.Direction.both ? EdgeType.ProductReversible : EdgeType.Product);
             }
             if (!suppressCatalystEdges) {
-                for (MoleculeType molecule : reaction.getCatalystConjunctions()) {
+                for (var i = 0; i < conjunctions.size(); i++) {
+                    final var molecule = conjunctions.get(i);
                     if (molecule.getName().contains("&")) {
-						for (MoleculeType catalyst : MoleculeType.valuesOf(StringUtils.trimAll(StringUtils.split(molecule.getName(), '&')))) {
-							final Node andNode = getNode(reactionGraph, reactionSystem, molecule, molecule2node, useMultiCopyFoodNodes);
-							if (useMultiCopyFoodNodes) {
-								final Optional<Node> node = StreamSupport.stream(andNode.parents().spliterator(), true).filter(v -> v.getInfo().equals(catalyst)).findAny();
-								if (node.isPresent())
-									continue;
-							}
-							addNewEdgeIfNotPresent(reactionGraph, getNode(reactionGraph, reactionSystem, catalyst, molecule2node, useMultiCopyFoodNodes), andNode, EdgeType.Catalyst);
-						}
+                        final Node andNode = getNode(reactionGraph, foods, molecule, molecule2node, useMultiCopyFoodNodes);
+                        final var attached = andNode2catalysts.computeIfAbsent(andNode, k -> new HashSet<>());
+                        for (MoleculeType catalyst : conjunctionElements.get(i)) {
+                            if (attached.add(catalyst))
+                                reactionGraph.newEdge(getNode(reactionGraph, foods, catalyst, molecule2node, useMultiCopyFoodNodes), andNode, EdgeType.Catalyst);
+                        }
                     }
-                    addNewEdgeIfNotPresent(reactionGraph, getNode(reactionGraph, reactionSystem, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, EdgeType.Catalyst);
+                    reactionGraph.newEdge(getNode(reactionGraph, foods, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, EdgeType.Catalyst);
                 }
                 for (MoleculeType molecule : reaction.getInhibitions()) {
-                    addNewEdgeIfNotPresent(reactionGraph, getNode(reactionGraph, reactionSystem, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, EdgeType.Inhibitor);
+                    reactionGraph.newEdge(getNode(reactionGraph, foods, molecule, molecule2node, useMultiCopyFoodNodes), reactionNode, EdgeType.Inhibitor);
                 }
             }
         }
         for (Node v : reactionGraph.nodes()) {
             if (v.getInfo() instanceof ReactionGraphView.AndNode) {
-                for (Edge e : v.inEdges()) {
+                for (var e : v.inEdges()) {
                     if (e.getSource().getDegree() == 1)
                         foodNodes.add(e.getSource());
                 }
-            } else if (v.getInfo() instanceof MoleculeType) {
-                if (reactionSystem.getFoods().contains((MoleculeType) v.getInfo()))
+            } else if (v.getInfo() instanceof MoleculeType moleculeType) {
+                if (foods.contains(moleculeType))
                     foodNodes.add(v);
-
             }
         }
 
         if (useMultiCopyFoodNodes) {
-            for (var v : reactionGraph.nodeStream().filter(v -> v.getDegree() == 0).collect(Collectors.toList())) {
+            for (var v : reactionGraph.nodeStream().filter(v -> v.getDegree() == 0).toList()) {
                 reactionGraph.deleteNode(v);
             }
         }
     }
 
-    private static void addNewEdgeIfNotPresent(Graph reactionGraph, Node v, Node w, EdgeType type) {
-        if (v.getEdgeTo(w) == null || v.getEdgeTo(w).getInfo() != type)
-            reactionGraph.newEdge(v, w, type);
-    }
-
     /**
      * gets the node to use for a given molecule
      *
      * @param multiCopyFoodNodes - if set, creates a new none for every usage of a food node
      * @return node
      */
-    private static Node getNode(Graph reactionGraph, ReactionSystem reactionSystem, MoleculeType molecule, Map<MoleculeType, Node> molecule2node, boolean multiCopyFoodNodes) {
+    private static Node getNode(Graph reactionGraph, Set<MoleculeType> foods, MoleculeType molecule, Map<MoleculeType, Node> molecule2node, boolean multiCopyFoodNodes) {
         final Node v;
         if (!multiCopyFoodNodes)
             v = molecule2node.get(molecule);
         else {
             if (molecule2node.containsKey(molecule)) {
                 v = molecule2node.get(molecule);
-                if (reactionSystem.getFoods().contains(molecule))
+                if (foods.contains(molecule))
                     molecule2node.remove(molecule); // remove so that we recreate later
             } else
                 v = reactionGraph.newNode(molecule);
@@ -0,0 +1,185 @@
+/*
+ *  SpatialGrid.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.view;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * uniform grid spatial index for integer items with bounding boxes, used for culling and hit-testing
+ * Items outside of the grid bounds are kept in the border cells, items that cover too many cells are kept in an
+ * overflow list that is visited by every query
+ * Daniel Huson, 10.2026
+ */
+public class SpatialGrid {
+	private static final int MAX_CELLS_PER_ITEM = 256;
+
+	private final double minX;
+	private final double minY;
+	private final double cellWidth;
+	private final double cellHeight;
+	private final int cols;
+	private final int rows;
+
+	private final int[][] cells;
+	private final int[] sizes;
+
+	private int[] overflow = new int[0];
+	private int overflowSize = 0;
+
+	private int[] stamps = new int[0];
+	private int stamp = 0;
+
+	/**
+	 * constructor
+	 *
+	 * @param minX     min x coordinate of items
+	 * @param minY     min y coordinate of items
+	 * @param maxX     max x coordinate of items
+	 * @param maxY     max y coordinate of items
+	 * @param cellSize requested width and height of a cell
+	 */
+	public SpatialGrid(double minX, double minY, double maxX, double maxY, double cellSize) {
+		cellSize = Math.max(cellSize, 1e-6);
+		this.minX = minX;
+		this.minY = minY;
+		this.cols = (int) Math.max(1, Math.min(2048, Math.ceil((maxX - minX) / cellSize)));
+		this.rows = (int) Math.max(1, Math.min(2048, Math.ceil((maxY - minY) / cellSize)));
+		this.cellWidth = Math.max(1e-6, (maxX - minX) / cols);
+		this.cellHeight = Math.max(1e-6, (maxY - minY) / rows);
+		this.cells = new int[cols * rows][];
+		this.sizes = new int[cols * rows];
+	}
+
+	/**
+	 * creates a grid for the given number of items that are spread over the given area, aiming at a few items per cell
+	 */
+	public static SpatialGrid create(double minX, double minY, double maxX, double maxY, int numberOfItems) {
+		var area = Math.max(1.0, (maxX - minX) * (maxY - minY));
+		return new SpatialGrid(minX, minY, maxX, maxY, Math.sqrt(2.0 * area / Math.max(1, numberOfItems)));
+	}
+
+	/**
+	 * adds an item with the given bounding box
+	 */
+	public void add(int item, double x0, double y0, double x1, double y1) {
+		ensureStamps(item);
+		var c0 = col(Math.min(x0, x1));
+		var c1 = col(Math.max(x0, x1));
+		var r0 = row(Math.min(y0, y1));
+		var r1 = row(Math.max(y0, y1));
+		if ((long) (c1 - c0 + 1) * (r1 - r0 + 1) > MAX_CELLS_PER_ITEM) {
+			if (overflowSize == overflow.length)
+				overflow = Arrays.copyOf(overflow, Math.max(16, 2 * overflowSize));
+			overflow[overflowSize++] = item;
+		} else {
+			for (var r = r0; r <= r1; r++) {
+				for (var c = c0; c <= c1; c++) {
+					var cell = r * cols + c;
+					var array = cells[cell];
+					if (array == null)
+						array = cells[cell] = new int[4];
+					else if (sizes[cell] == array.length)
+						array = cells[cell] = Arrays.copyOf(array, 2 * array.length);
+					array[sizes[cell]++] = item;
+				}
+			}
+		}
+	}
+
+	/**
+	 * removes an item, the bounding box must be the same as used when adding it
+	 */
+	public void remove(int item, double x0, double y0, double x1, double y1) {
+		var c0 = col(Math.min(x0, x1));
+		var c1 = col(Math.max(x0, x1));
+		var r0 = row(Math.min(y0, y1));
+		var r1 = row(Math.max(y0, y1));
+		if ((long) (c1 - c0 + 1) * (r1 - r0 + 1) > MAX_CELLS_PER_ITEM) {
+			overflowSize = removeFrom(overflow, overflowSize, item);
+		} else {
+			for (var r = r0; r <= r1; r++) {
+				for (var c = c0; c <= c1; c++) {
+					var cell = r * cols + c;
+					if (cells[cell] != null)
+						sizes[cell] = removeFrom(cells[cell], sizes[cell], item);
+				}
+			}
+		}
+	}
+
+	/**
+	 * visits all items whose cells intersect the given box, each item at most once.
+	 * Items are only filtered by cells, so the consumer must test the actual geometry, if required
+	 */
+	public void query(double x0, double y0, double x1, double y1, IntConsumer consumer) {
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		var c0 = col(Math.min(x0, x1));
+		var c1 = col(Math.max(x0, x1));
+		var r0 = row(Math.min(y0, y1));
+		var r1 = row(Math.max(y0, y1));
+		for (var r = r0; r <= r1; r++) {
+			for (var c = c0; c <= c1; c++) {
+				var cell = r * cols + c;
+				var array = cells[cell];
+				for (var i = 0; i < sizes[cell]; i++) {
+					var item = array[i];
+					if (stamps[item] != stamp) {
+						stamps[item] = stamp;
+						consumer.accept(item);
+					}
+				}
+			}
+		}
+		for (var i = 0; i < overflowSize; i++) {
+			var item = overflow[i];
+			if (stamps[item] != stamp) {
+				stamps[item] = stamp;
+				consumer.accept(item);
+			}
+		}
+	}
+
+	private int col(double x) {
+		return Math.max(0, Math.min(cols - 1, (int) Math.floor((x - minX) / cellWidth)));
+	}
+
+	private int row(double y) {
+		return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - minY) / cellHeight)));
+	}
+
+	private void ensureStamps(int item) {
+		if (item >= stamps.length)
+			stamps = Arrays.copyOf(stamps, Math.max(item + 1, 2 * stamps.length));
+	}
+
+	private static int removeFrom(int[] array, int size, int item) {
+		for (var i = 0; i < size; i++) {
+			if (array[i] == item) {
+				array[i] = array[size - 1];
+				return size - 1;
+			}
+		}
+		return size;
+	}
+}
@@ -19,21 +19,28 @@
 
 package catrenet.window;
 
+import catrenet.algorithm.IncrementalAnalysis;
 import catrenet.model.ReactionSystem;
-import catrenet.settings.ArrowNotation;
-import catrenet.settings.ReactionNotation;
+import catrenet.io.ArrowNotation;
+import catrenet.io.IncrementalModelReader;
+import catrenet.io.ReactionNotation;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 import jloda.fx.util.ProgramProperties;
 import jloda.graph.Graph;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class Document {
     private final StringProperty fileName = new SimpleStringProperty("Untitled");
     private final BooleanProperty dirty = new SimpleBooleanProperty(false);
     private final BooleanProperty warnedAboutInhibitions = new SimpleBooleanProperty(false);
 
     private final ObservableMap<String, ReactionSystem> reactionSystems = FXCollections.observableHashMap();
+    private final Map<String, ReactionSystemProperties> reactionSystemProperties = new HashMap<>();
     private final ObjectProperty<Graph> reactionDependencyNetwork = new SimpleObjectProperty<>(this, "reactionDependencyNetwork");
     private final ObjectProperty<Graph> moleculeDependencyNetwork = new SimpleObjectProperty<>(this, "moleculeDependencyNetwork");
 
@@ -44,11 +51,22 @@ public class Document {
 
 	private final BooleanProperty useDisplayLabels = new SimpleBooleanProperty(this, "useDisplayLabels");
 
+	private final IncrementalModelReader inputReader = new IncrementalModelReader();
+
+	private final IncrementalAnalysis incrementalAnalysis = new IncrementalAnalysis();
+
     /**
      * constructor
      */
     public Document() {
 		ProgramProperties.track(useDisplayLabels, true);
+        reactionSystems.addListener((MapChangeListener<String, ReactionSystem>) e -> {
+            if (e.wasRemoved()) {
+                var properties = reactionSystemProperties.remove(e.getKey());
+                if (properties != null)
+                    properties.dispose();
+            }
+        });
     }
 
     public ReactionSystem getInputReactionSystem() {
@@ -64,6 +82,25 @@ public class Document {
         return inputReactionSystem;
     }
 
+    public ReactionSystemProperties getInputReactionSystemProperties() {
+        return getReactionSystemProperties("Input");
+    }
+
+    /**
+     * gets the observable properties of the named reaction system, creating the reaction system, if necessary
+     */
+    public ReactionSystemProperties getReactionSystemProperties(String name) {
+        return reactionSystemProperties.computeIfAbsent(name, n -> new ReactionSystemProperties(getReactionSystem(n)));
+    }
+
+    public IncrementalModelReader getInputReader() {
+        return inputReader;
+    }
+
+    public IncrementalAnalysis getIncrementalAnalysis() {
+        return incrementalAnalysis;
+    }
+
     public ObservableMap<String, ReactionSystem> getReactionSystems() {
         return reactionSystems;
     }
@@ -19,8 +19,8 @@
 
 package catrenet.window;
 
-import catrenet.io.CRSFileFilter;
-import catrenet.io.FileOpener;
+import catrenet.action.FileOpener;
+import catrenet.dialog.CRSFileFilter;
 import catrenet.main.CatReNet;
 import catrenet.model.ReactionSystem;
 import catrenet.tab.TabManager;
@@ -96,7 +96,7 @@ public class MainWindow implements IMainWindow {
             }
             root = fxmlLoader.getRoot();
             controller = fxmlLoader.getController();
-            logStream = new PrintStreamToTextArea(controller.getLogTextArea());
+            logStream = controller.getLogTextArea().createPrintStream();
             statusPane = controller.getBottomFlowPane();
             reactionGraphView = new ReactionGraphView(getDocument(), controller, getLogStream());
         }
@@ -19,6 +19,7 @@
 
 package catrenet.window;
 
+import catrenet.tab.TextView;
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
@@ -78,6 +79,9 @@ public class MainWindowController {
 	@FXML
 	private CheckMenuItem computeImportanceCheckMenuItem;
 
+	@FXML
+	private MenuItem masterSeedMenuItem;
+
 	@FXML
 	private MenuButton computeNetworkMenuButton;
 
@@ -214,7 +218,7 @@ public class MainWindowController {
 	private Tab logTab;
 
 	@FXML
-	private TextArea logTextArea;
+	private TextView logTextArea;
 
 	@FXML
 	private SplitPane mainSplitPane;
@@ -234,6 +238,24 @@ public class MainWindowController {
 	@FXML
 	private RadioMenuItem moleculeDependencyGraphRadioMenuItem;
 
+	@FXML
+	private RadioMenuItem automaticLayoutRadioMenuItem;
+
+	@FXML
+	private RadioMenuItem componentsLayoutRadioMenuItem;
+
+	@FXML
+	private RadioMenuItem multilevelLayoutRadioMenuItem;
+
+	@FXML
+	private RadioMenuItem fruchtermanReingoldLayoutRadioMenuItem;
+
+	@FXML
+	private RadioMenuItem fastMultiLayerLayoutRadioMenuItem;
+
+	@FXML
+	private MenuItem stopLayoutMenuItem;
+
 	@FXML
 	private CheckMenuItem moveLabelsMenuItem;
 
@@ -289,7 +311,7 @@ public class MainWindowController {
 	private Tab parsedReactionsTab;
 
 	@FXML
-	private TextArea parsedReactionsTextArea;
+	private TextView parsedReactionsTextArea;
 
 	@FXML
 	private MenuItem pasteMenuItem;
@@ -424,6 +446,9 @@ public class MainWindowController {
 	@FXML
 	private Button stopAnimationButton;
 
+	@FXML
+	private Button stopLayoutButton;
+
 	@FXML
 	private MenuItem stopAnimationMenuItem;
 
@@ -508,6 +533,7 @@ public class MainWindowController {
 			MaterialIcons.setIcon(computeNetworkMenuButton, MaterialIcons.tune);
 			MaterialIcons.setIcon(animateNetworkMenuButton, MaterialIcons.play_circle);
 			MaterialIcons.setIcon(stopAnimationButton, MaterialIcons.cancel);
+			MaterialIcons.setIcon(stopLayoutButton, MaterialIcons.cancel);
 			MaterialIcons.setIcon(zoomInNetworkButton, MaterialIcons.zoom_in);
 			MaterialIcons.setIcon(zoomOutNetworkButton, MaterialIcons.zoom_out);
 
@@ -663,11 +689,11 @@ public class MainWindowController {
 			runMenuButton.disableProperty().bind(runRAFMenuItem.disableProperty());
 		}
 
-		logTextArea.textProperty().addListener(e -> {
-			RunAfterAWhile.applyInFXThread(logTextArea, () -> logTextArea.positionCaret(logTextArea.getText().length()));
+		logTextArea.lengthProperty().addListener(e -> {
+			RunAfterAWhile.applyInFXThread(logTextArea, logTextArea::scrollToEnd);
 		});
-		parsedReactionsTextArea.textProperty().addListener(e -> {
-			RunAfterAWhile.applyInFXThread(parsedReactionsTextArea, () -> parsedReactionsTextArea.positionCaret(parsedReactionsTextArea.getText().length()));
+		parsedReactionsTextArea.lengthProperty().addListener(e -> {
+			RunAfterAWhile.applyInFXThread(parsedReactionsTextArea, parsedReactionsTextArea::scrollToEnd);
 		});
 
 		NotificationManager.setShowNotifications(false);
@@ -910,6 +936,10 @@ public class MainWindowController {
 		return computeImportanceCheckMenuItem;
 	}
 
+	public MenuItem getMasterSeedMenuItem() {
+		return masterSeedMenuItem;
+	}
+
 	public MenuItem getGraphEmbedderIterationsMenuItem() {
 		return graphEmbedderIterationsMenuItem;
 	}
@@ -978,6 +1008,30 @@ public class MainWindowController {
 		return moleculeDependencyGraphRadioMenuItem;
 	}
 
+	public RadioMenuItem getAutomaticLayoutRadioMenuItem() {
+		return automaticLayoutRadioMenuItem;
+	}
+
+	public RadioMenuItem getComponentsLayoutRadioMenuItem() {
+		return componentsLayoutRadioMenuItem;
+	}
+
+	public RadioMenuItem getMultilevelLayoutRadioMenuItem() {
+		return multilevelLayoutRadioMenuItem;
+	}
+
+	public RadioMenuItem getFruchtermanReingoldLayoutRadioMenuItem() {
+		return fruchtermanReingoldLayoutRadioMenuItem;
+	}
+
+	public RadioMenuItem getFastMultiLayerLayoutRadioMenuItem() {
+		return fastMultiLayerLayoutRadioMenuItem;
+	}
+
+	public MenuItem getStopLayoutMenuItem() {
+		return stopLayoutMenuItem;
+	}
+
 	public RadioMenuItem getAssociationGraphRadioMenuItem() {
 		return associationGraphRadioMenuItem;
 	}
@@ -1018,6 +1072,10 @@ public class MainWindowController {
 		return stopAnimationButton;
 	}
 
+	public Button getStopLayoutButton() {
+		return stopLayoutButton;
+	}
+
 	public FlowPane getBottomFlowPane() {
 		return bottomFlowPane;
 	}
@@ -1050,7 +1108,7 @@ public class MainWindowController {
 		return parsedReactionsTab;
 	}
 
-	public TextArea getParsedReactionsTextArea() {
+	public TextView getParsedReactionsTextArea() {
 		return parsedReactionsTextArea;
 	}
 
@@ -1082,7 +1140,7 @@ public class MainWindowController {
 		return logTab;
 	}
 
-	public TextArea getLogTextArea() {
+	public TextView getLogTextArea() {
 		return logTextArea;
 	}
 
@@ -23,26 +23,26 @@ import catrenet.action.*;
 import catrenet.algorithm.*;
 import catrenet.dialog.ExportReactionsForSelectedNodesDialog;
 import catrenet.dialog.PolymerModelDialog;
+import catrenet.dialog.SaveBeforeClosingDialog;
 import catrenet.dialog.exportlist.ExportList;
 import catrenet.dialog.targets.TargetsDialog;
 import catrenet.io.ModelIO;
-import catrenet.io.NetworkIO;
-import catrenet.io.Save;
-import catrenet.io.SaveBeforeClosingDialog;
+import catrenet.main.CatReNet;
 import catrenet.main.CheckForUpdate;
 import catrenet.model.MoleculeType;
 import catrenet.model.ReactionSystem;
 import catrenet.settings.SettingsView;
 import catrenet.tab.TabManager;
 import catrenet.tab.TextTab;
+import catrenet.tab.TextView;
 import catrenet.view.MoleculeFlowAnimation;
+import catrenet.view.NetworkIO;
 import catrenet.view.NodeView;
 import catrenet.view.ReactionGraphView;
 import catrenet.view.SelectionBindings;
 import javafx.animation.Animation;
 import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
-import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.beans.value.ChangeListener;
@@ -62,6 +62,7 @@ import jloda.fx.window.WindowGeometry;
 import jloda.util.Basic;
 import jloda.util.FileUtils;
 import jloda.util.NumberUtils;
+import jloda.util.Pair;
 import jloda.util.StringUtils;
 
 import java.io.File;
@@ -94,9 +95,10 @@ public class MainWindowPresenter {
         final var disableFullGraphItems = new SimpleBooleanProperty(true);
         disableFullGraphItems.bind(disableGraphItems.or(graphView.graphTypeProperty().isEqualTo(ReactionGraphView.Type.associationNetwork)
                         .or(graphView.graphTypeProperty().isEqualTo(ReactionGraphView.Type.reactantAssociationNetwork)))
-                .or(mainWindow.getReactionGraphView().getMoleculeFlowAnimation().playingProperty()));
+                .or(mainWindow.getReactionGraphView().getMoleculeFlowAnimation().playingProperty())
+                .or(graphView.canvasModeProperty()));
 
-        mainWindow.getInputReactionSystem().getReactions().addListener((InvalidationListener) e -> disableGraphItems.set(mainWindow.getInputReactionSystem().size() > 250));
+        mainWindow.getDocument().getInputReactionSystemProperties().sizeProperty().addListener(e -> disableGraphItems.set(mainWindow.getInputReactionSystem().size() > ReactionGraphView.getMaxNumberOfReactions()));
 
         final var algorithmsRunning = new SimpleIntegerProperty(0);
         final ChangeListener<Boolean> runningListener = (c, o, n) -> {
@@ -132,7 +134,7 @@ public class MainWindowPresenter {
             while (z.next()) {
                 for (Tab tab : z.getAddedSubList()) {
                     if (tab.getUserData() instanceof TextTab textTab) {
-                        final TextArea textArea = textTab.getTextArea();
+                        final var textArea = textTab.getTextArea();
                         textArea.focusedProperty().addListener(textAreaFocusChangeListener(controller, printableNode, textArea));
                     }
                 }
@@ -155,7 +157,7 @@ public class MainWindowPresenter {
             MainWindowManager.getInstance().addAuxiliaryWindow(mainWindow, exportList.getStage());
             exportList.getStage().show();
         });
-        controller.getExportListOfReactionsMenuItem().disableProperty().bind(mainWindow.getInputReactionSystem().sizeProperty().isEqualTo(0));
+        controller.getExportListOfReactionsMenuItem().disableProperty().bind(mainWindow.getDocument().getInputReactionSystemProperties().sizeProperty().isEqualTo(0));
 
         controller.getExportGraphGMLMenuItem().setOnAction(c -> {
             final var fileChooser = new FileChooser();
@@ -177,7 +179,7 @@ public class MainWindowPresenter {
             }
 
         });
-        controller.getExportGraphGMLMenuItem().disableProperty().bind(disableGraphItems);
+        controller.getExportGraphGMLMenuItem().disableProperty().bind(disableGraphItems.or(graphView.canvasModeProperty()));
 
         controller.getSaveMenuItem().setOnAction(e -> Save.showSaveDialog(mainWindow));
 
@@ -269,7 +271,7 @@ public class MainWindowPresenter {
             if (controller.getFullGraphRadioMenuItem().getToggleGroup().getSelectedToggle() == null) {
                 controller.getFullGraphRadioMenuItem().setSelected(true);
             } else {
-                disableGraphItems.set(mainWindow.getInputReactionSystem().size() >= 250);
+                disableGraphItems.set(mainWindow.getInputReactionSystem().size() > ReactionGraphView.getMaxNumberOfReactions());
                 ComputeGraph.apply(mainWindow, controller);
                 controller.getNetworkTab().getTabPane().getSelectionModel().select(controller.getNetworkTab());
             }
@@ -290,7 +292,7 @@ public class MainWindowPresenter {
                 controller.getComputeNetworkMenuItem().getOnAction().handle(null);
         });
 
-        graphView.emptyProperty().addListener((c, o, n) -> disableGraphItems.set(n && mainWindow.getInputReactionSystem().size() >= 250));
+        graphView.emptyProperty().addListener((c, o, n) -> disableGraphItems.set(n && mainWindow.getInputReactionSystem().size() > ReactionGraphView.getMaxNumberOfReactions()));
 
         controller.getRunRAFMenuItem().setOnAction(e -> {
             if (VerifyInput.verify(mainWindow)) {
@@ -324,7 +326,7 @@ public class MainWindowPresenter {
                     var targetNames = targetsDialog.show();
                     if (!targetNames.isEmpty()) {
                         var algorithm = new MinRAFGeneratingElement();
-                        algorithm.numberOfRandomInsertionOrdersProperty().set(targetsDialog.getRandomOrders());
+                        algorithm.setNumberOfRandomInsertionOrders(targetsDialog.getRandomOrders());
                         for (var name : targetNames) {
                             algorithm.getTargets().add(MoleculeType.valueOf(name));
                         }
@@ -400,7 +402,7 @@ public class MainWindowPresenter {
             }
         });
 
-        controller.getRunMuCAFMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getInputReactionSystem().inhibitorsPresentProperty().not()));
+        controller.getRunMuCAFMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getDocument().getInputReactionSystemProperties().inhibitorsPresentProperty().not()));
 
         controller.getRunURAFMenuItem().setOnAction(e -> {
             if (VerifyInput.verify(mainWindow)) {
@@ -410,27 +412,27 @@ public class MainWindowPresenter {
                     NotificationManager.showWarning("Won't run U RAF algorithm, no inhibitions present");
             }
         });
-        controller.getRunURAFMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getInputReactionSystem().inhibitorsPresentProperty().not()));
+        controller.getRunURAFMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getDocument().getInputReactionSystemProperties().inhibitorsPresentProperty().not()));
 
         controller.getRunMuCAFMultipleTimesMenuItem().setOnAction(e -> RunMuCAFMultipleTimes.apply(mainWindow, controller, runningListener));
-        controller.getRunMuCAFMultipleTimesMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getInputReactionSystem().inhibitorsPresentProperty().not()));
+        controller.getRunMuCAFMultipleTimesMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()).or(mainWindow.getDocument().getInputReactionSystemProperties().inhibitorsPresentProperty().not()));
 
-        controller.getSpontaneousInRafMenuItem().setOnAction(e -> ComputeNecessarilySpontaneousInRAF.apply(mainWindow, mainWindow.getInputReactionSystem(), controller, runningListener));
+        controller.getSpontaneousInRafMenuItem().setOnAction(e -> RunNecessarilySpontaneousInRAF.apply(mainWindow, mainWindow.getInputReactionSystem(), controller, runningListener));
         controller.getSpontaneousInRafMenuItem().disableProperty().bind(controller.getRunRAFMenuItem().disableProperty());
 
-        controller.getGreedyGrowMenuItem().setOnAction(e -> GreedilyGrowMaxCAF2MaxRAF.apply(mainWindow, mainWindow.getInputReactionSystem(), runningListener));
+        controller.getGreedyGrowMenuItem().setOnAction(e -> RunGreedilyGrowMaxCAF2MaxRAF.apply(mainWindow, mainWindow.getInputReactionSystem(), runningListener));
         controller.getGreedyGrowMenuItem().disableProperty().bind(controller.getRunRAFMenuItem().disableProperty());
 
-        controller.getReactionDependenciesMenuItem().setOnAction(e -> ComputeReactionDependencies.run(mainWindow));
+        controller.getReactionDependenciesMenuItem().setOnAction(e -> RunReactionDependencies.apply(mainWindow));
         controller.getReactionDependenciesMenuItem().disableProperty().bind(controller.getRunRAFMenuItem().disableProperty());
 
-        controller.getMoleculeDependenciesMenuItem().setOnAction(e -> ComputeMoleculeDependencies.run(mainWindow));
+        controller.getMoleculeDependenciesMenuItem().setOnAction(e -> RunMoleculeDependencies.apply(mainWindow));
         controller.getMoleculeDependenciesMenuItem().disableProperty().bind(controller.getRunRAFMenuItem().disableProperty());
 
         var disableRunProperty = new SimpleBooleanProperty(false);
         disableRunProperty.bind(algorithmsRunning.isNotEqualTo(0).or(controller.getInputTextArea().textProperty().isEmpty()));
 
-        controller.getParsedReactionsTab().disableProperty().bind(controller.getParsedReactionsTextArea().textProperty().isEmpty());
+        controller.getParsedReactionsTab().disableProperty().bind(controller.getParsedReactionsTextArea().lengthProperty().isEqualTo(0));
 
         controller.getAboutMenuItem().setOnAction(e -> SplashScreen.showSplash(Duration.ofMinutes(2)));
 
@@ -456,6 +458,10 @@ public class MainWindowPresenter {
             scrollPane.setUpdateScaleMethod(() -> {
                 final double zoomX = scrollPane.getZoomFactorX();
                 final double zoomY = scrollPane.getZoomFactorY();
+                if (graphView.isCanvasMode()) {
+                    graphView.getCanvasView().zoomBy(zoomX);
+                    return;
+                }
                 for (javafx.scene.Node node : BasicFX.getAllChildrenRecursively(graphView.getWorld().getChildren())) {
                     if (!node.translateXProperty().isBound() && node.getUserData() instanceof NodeView.NodeStyle)
                         node.setTranslateX(node.getTranslateX() * zoomX);
@@ -480,6 +486,10 @@ public class MainWindowPresenter {
             controller.getZoomOutMenuItem().disableProperty().bind(controller.getZoomInMenuItem().disableProperty());
 
             controller.getZoomToFitMenuItem().setOnAction(c -> {
+                if (graphView.isCanvasMode()) {
+                    graphView.getCanvasView().zoomToFit();
+                    return;
+                }
                 scrollPane.resetZoom();
 
                 Platform.runLater(() -> {
@@ -563,7 +573,7 @@ public class MainWindowPresenter {
 
             controller.getAnimateNetworkMenuButton().disableProperty().bind(graphView.getMoleculeFlowAnimation().playingProperty());
             graphView.getMoleculeFlowAnimation().animateInhibitionsProperty().bind(controller.getAnimateInhibitionsMenuItem().selectedProperty());
-            controller.getAnimateInhibitionsMenuItem().disableProperty().bind(mainWindow.getInputReactionSystem().inhibitorsPresentProperty().not());
+            controller.getAnimateInhibitionsMenuItem().disableProperty().bind(mainWindow.getDocument().getInputReactionSystemProperties().inhibitorsPresentProperty().not());
 
             controller.getMoveLabelsMenuItem().setSelected(graphView.getMoleculeFlowAnimation().isMoveLabels());
             controller.getMoveLabelsMenuItem().selectedProperty().bindBidirectional(graphView.getMoleculeFlowAnimation().moveLabelsProperty());
@@ -645,6 +655,29 @@ public class MainWindowPresenter {
         });
         controller.getUseMultiCopyFoodNodesMenuItem().disableProperty().bind(disableFullGraphItems.or(disableGraphItems));
 
+        final var layoutButtonGroup = new ToggleGroup();
+        for (var pair : List.of(new Pair<>(controller.getAutomaticLayoutRadioMenuItem(), ReactionGraphView.LayoutEngine.Automatic),
+                new Pair<>(controller.getComponentsLayoutRadioMenuItem(), ReactionGraphView.LayoutEngine.Components),
+                new Pair<>(controller.getMultilevelLayoutRadioMenuItem(), ReactionGraphView.LayoutEngine.Multilevel),
+                new Pair<>(controller.getFruchtermanReingoldLayoutRadioMenuItem(), ReactionGraphView.LayoutEngine.FruchtermanReingold),
+                new Pair<>(controller.getFastMultiLayerLayoutRadioMenuItem(), ReactionGraphView.LayoutEngine.FastMultiLayer))) {
+            final var menuItem = pair.getFirst();
+            final var engine = pair.getSecond();
+            menuItem.setToggleGroup(layoutButtonGroup);
+            menuItem.setSelected(graphView.getLayoutEngine() == engine);
+            menuItem.selectedProperty().addListener((c, o, n) -> {
+                if (n)
+                    graphView.setLayoutEngine(engine);
+            });
+            menuItem.disableProperty().bind(disableGraphItems.or(graphView.layoutRunningProperty()));
+        }
+
+        controller.getStopLayoutMenuItem().setOnAction(e -> graphView.stopLayout());
+        controller.getStopLayoutMenuItem().disableProperty().bind(graphView.layoutRunningProperty().not());
+        controller.getStopLayoutButton().setOnAction(controller.getStopLayoutMenuItem().getOnAction());
+        controller.getStopLayoutButton().disableProperty().bind(graphView.layoutRunningProperty().not());
+        controller.getStopLayoutButton().visibleProperty().bind(graphView.layoutRunningProperty());
+
         controller.getGraphEmbedderIterationsMenuItem().setOnAction(e -> {
             TextInputDialog dialog = new TextInputDialog("" + graphView.getEmbeddingIterations());
             dialog.setTitle("Network Embedder Iterations Input");
@@ -666,13 +699,27 @@ public class MainWindowPresenter {
         controller.getComputeImportanceCheckMenuItem().selectedProperty().addListener((c, o, n) -> computeImportance = n);
         controller.getComputeImportanceCheckMenuItem().disableProperty().bind(controller.getRunRAFMenuItem().disableProperty());
 
-        mainWindow.getInputReactionSystem().sizeProperty().addListener((c, o, n) -> controller.getInputReactionsSizeLabel().setText(String.format("%,d", n.intValue())));
-        mainWindow.getInputReactionSystem().foodSizeProperty().addListener((c, o, n) -> {
-            if (mainWindow.getInputReactionSystem().getFoods().contains(MoleculeType.valueOf("$")))
-                controller.getInputFoodSizeLabel().setText(String.format("%,d (plus the formal item '$')", n.intValue() - 1));
-            else
-                controller.getInputFoodSizeLabel().setText(String.format("%,d", n.intValue()));
+        controller.getMasterSeedMenuItem().setOnAction(e -> {
+            TextInputDialog dialog = new TextInputDialog("" + RandomStreams.getMasterSeed());
+            dialog.setTitle("Random Seed Input");
+            dialog.setHeaderText("Master seed for randomized algorithms (iRAF, MU CAF)");
+            dialog.setContentText("Please enter seed:");
+            dialog.getEditor().textProperty().addListener((c, o, n) -> {
+                if (!n.matches("-?\\d{0,18}"))
+                    ((StringProperty) c).set(o);
+            });
+
+            final Optional<String> result = dialog.showAndWait();
+            if (result.isPresent() && result.get().matches("-?\\d{1,18}")) {
+                ProgramProperties.put("MasterSeed", result.get());
+                CatReNet.loadMasterSeed();
+            }
         });
+        controller.getMasterSeedMenuItem().disableProperty().bind(algorithmsRunning.isNotEqualTo(0));
+
+        mainWindow.getDocument().getInputReactionSystemProperties().sizeProperty().addListener(e -> VerifyInput.showSizes(controller, mainWindow.getInputReactionSystem().getFoods(), mainWindow.getInputReactionSystem().size()));
+        mainWindow.getDocument().getInputReactionSystemProperties().foodSizeProperty().addListener(e -> VerifyInput.showSizes(controller, mainWindow.getInputReactionSystem().getFoods(), mainWindow.getInputReactionSystem().size()));
+        VerifyInput.setupVerifyWhileEditing(mainWindow);
 
         controller.getUseDarkThemeCheckMenuItem().selectedProperty().bindBidirectional(MainWindowManager.useDarkThemeProperty());
 
@@ -780,7 +827,7 @@ public class MainWindowPresenter {
         });
     }
 
-    private static ChangeListener<Boolean> textAreaFocusChangeListener(MainWindowController controller, ObjectProperty<Node> printableNode, TextArea textArea) {
+    private static ChangeListener<Boolean> textAreaFocusChangeListener(MainWindowController controller, ObjectProperty<Node> printableNode, TextView textArea) {
         return (c, o, n) -> {
             if (n) {
                 controller.getWrapTextMenuItem().setDisable(false);
@@ -859,9 +906,9 @@ public class MainWindowPresenter {
                 }
             }
         }
-        textArea.setText(textArea.getText() + "%n%nList %s (%,d):%n".formatted(what, lines.size()) + StringUtils.toString(lines, "\n"));
+        textArea.appendText("%n%nList %s (%,d):%n".formatted(what, lines.size()) + StringUtils.toString(lines, "\n"));
         selectLogTab(controller);
-        Platform.runLater(() -> textArea.setScrollTop(Double.MAX_VALUE));
+        Platform.runLater(textArea::scrollToEnd);
 
     }
 
@@ -0,0 +1,75 @@
+/*
+ *  ReactionSystemProperties.java Copyright (C) 2024 Daniel H. Huson
+ *
+ *  (Some files contain contributions from other authors, who are then mentioned separately.)
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package catrenet.window;
+
+import catrenet.model.ReactionSystem;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * observable properties of a reaction system, used for bindings in the GUI, as the reaction system itself does not depend
+ * on JavaFX. The properties are updated whenever the reaction system reports a change, on the thread that makes the change
+ * Daniel Huson, 10.2026
+ */
+public class ReactionSystemProperties {
+	private final ReactionSystem reactionSystem;
+	private final ReadOnlyIntegerWrapper size = new ReadOnlyIntegerWrapper(this, "size");
+	private final ReadOnlyIntegerWrapper foodSize = new ReadOnlyIntegerWrapper(this, "foodSize");
+	private final ReadOnlyBooleanWrapper inhibitorsPresent = new ReadOnlyBooleanWrapper(this, "inhibitorsPresent");
+	private final Runnable listener = this::update;
+
+	/**
+	 * constructor
+	 *
+	 * @param reactionSystem the reaction system to observe
+	 */
+	public ReactionSystemProperties(ReactionSystem reactionSystem) {
+		this.reactionSystem = reactionSystem;
+		update();
+		reactionSystem.addChangeListener(listener);
+	}
+
+	private void update() {
+		size.set(reactionSystem.size());
+		foodSize.set(reactionSystem.getFoodSize());
+		inhibitorsPresent.set(reactionSystem.isInhibitorsPresent());
+	}
+
+	/**
+	 * stops observing the reaction system
+	 */
+	public void dispose() {
+		reactionSystem.removeChangeListener(listener);
+	}
+
+	public ReadOnlyIntegerProperty sizeProperty() {
+		return size.getReadOnlyProperty();
+	}
+
+	public ReadOnlyIntegerProperty foodSizeProperty() {
+		return foodSize.getReadOnlyProperty();
+	}
+
+	public ReadOnlyBooleanProperty inhibitorsPresentProperty() {
+		return inhibitorsPresent.getReadOnlyProperty();
+	}
+}
@@ -80,8 +80,8 @@ public class SetupExport {
                 exportMenuItem.setOnAction(e -> {
                     ExportTextFileDialog.apply(mainWindow, "log", textArea.getText());
                 });
-                copyMenuItem.disableProperty().bind(textArea.textProperty().isEmpty());
-                exportMenuItem.disableProperty().bind(textArea.textProperty().isEmpty());
+                copyMenuItem.disableProperty().bind(textArea.lengthProperty().isEqualTo(0));
+                exportMenuItem.disableProperty().bind(textArea.lengthProperty().isEqualTo(0));
 
             } else if (n == controller.getParsedReactionsTab()) {
                 var textArea = controller.getParsedReactionsTextArea();
@@ -91,14 +91,14 @@ public class SetupExport {
                 exportMenuItem.setOnAction(e -> {
                     ExportTextFileDialog.apply(mainWindow, "parsed", textArea.getText());
                 });
-                copyMenuItem.disableProperty().bind(textArea.textProperty().isEmpty());
-                exportMenuItem.disableProperty().bind(textArea.textProperty().isEmpty());
+                copyMenuItem.disableProperty().bind(textArea.lengthProperty().isEqualTo(0));
+                exportMenuItem.disableProperty().bind(textArea.lengthProperty().isEqualTo(0));
 
             } else if (n instanceof TextTab textTab) {
                 copyMenuItem.setOnAction(e -> textTab.copyToClipboard());
                 exportMenuItem.setOnAction(e -> textTab.exportToFile());
-                copyMenuItem.disableProperty().bind(textTab.getTextArea().textProperty().isEmpty());
-                exportMenuItem.disableProperty().bind(textTab.getTextArea().textProperty().isEmpty());
+                copyMenuItem.disableProperty().bind(textTab.getTextArea().lengthProperty().isEqualTo(0));
+                exportMenuItem.disableProperty().bind(textTab.getTextArea().lengthProperty().isEqualTo(0));
             } else {
                 copyMenuItem.disableProperty().bind(trueProperty);
                 exportMenuItem.disableProperty().bind(trueProperty);
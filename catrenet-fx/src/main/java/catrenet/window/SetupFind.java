@@ -20,6 +20,7 @@
 package catrenet.window;
 
 import catrenet.tab.TextTab;
+import catrenet.tab.TextViewSearcher;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import jloda.fx.find.FindToolBar;
@@ -48,15 +49,18 @@ public class SetupFind {
 		findToolBar.getController().getAnchorPane().getStylesheets().add(MaterialIcons.getStyleSheet());
 
         var gv = window.getReactionGraphView();
-        var graphSearcher = new GraphSearcher(gv.getReactionGraph(), gv.getNodeSelection(), (v) -> gv.getLabel(v).getText(), (v, t) -> gv.getLabel(v).setText(t));
+        var graphSearcher = new GraphSearcher(gv.getReactionGraph(), gv.getNodeSelection(), gv::getLabelText, gv::setLabelText);
         graphSearcher.foundProperty().addListener((c, o, n) -> {
-            if (n != null && gv.getLabel(n) != null) {
-                controller.getNetworkScrollPane().ensureVisible(gv.getLabel(n));
+            if (n != null) {
+                if (gv.isCanvasMode())
+                    gv.getCanvasView().ensureVisible(n);
+                else if (gv.getLabel(n) != null)
+                    controller.getNetworkScrollPane().ensureVisible(gv.getLabel(n));
             }
         });
 
-		var logSearcher = new TextAreaSearcher("Log", controller.getLogTextArea());
-		var parsedSearcher = new TextAreaSearcher("Parsed", controller.getParsedReactionsTextArea());
+		var logSearcher = new TextViewSearcher("Log", controller.getLogTextArea());
+		var parsedSearcher = new TextViewSearcher("Parsed", controller.getParsedReactionsTextArea());
 
 		controller.getTopMainVBox().getChildren().add(findToolBar);
 		controller.getFindButton().selectedProperty().bindBidirectional(findToolBar.showFindToolBarProperty());